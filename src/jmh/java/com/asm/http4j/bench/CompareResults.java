@@ -0,0 +1,89 @@
+package com.asm.http4j.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Diffs two JMH JSON result files, e.g. from the last release and from this branch:
+ * {@code java -cp target/benchmarks.jar com.asm.http4j.bench.CompareResults old.json new.json [threshold%]}
+ * Prints time and allocation per operation for each benchmark and parameter set, and exits with 1
+ * if any got slower by more than the threshold (default 10%) and by more than the two runs' error.
+ */
+public final class CompareResults {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    private record Result(double score, double error, String unit, double allocatedBytes) {
+    }
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CompareResults <baseline.json> <current.json> [threshold%]");
+            System.exit(2);
+        }
+        Map<String, Result> baseline = load(new File(args[0]));
+        Map<String, Result> current = load(new File(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.10;
+
+        int regressions = 0;
+        System.out.printf("%-80s %14s %14s %9s %12s %12s%n", "Benchmark", "Baseline", "Current", "Change", "B/op before", "B/op after");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-80s %14s %14.2f %9s%n", entry.getKey(), "-", now.score(), "new");
+                continue;
+            }
+            double change = (now.score() - before.score()) / before.score();
+            // Lower is better for the average-time benchmarks here
+            boolean regressed = change > threshold && now.score() - now.error() > before.score() + before.error();
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-80s %14.2f %14.2f %+8.1f%% %12.0f %12.0f %s%s%n", entry.getKey(), before.score(),
+                    now.score(), change * 100, before.allocatedBytes(), now.allocatedBytes(), now.unit(),
+                    regressed ? "  REGRESSION" : "");
+        }
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, threshold * 100);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Results by benchmark name and parameters.
+     */
+    private static Map<String, Result> load(File file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText().replace("com.asm.http4j.bench.", ""));
+            Map<String, String> params = new TreeMap<>();
+            run.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            params.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+
+            JsonNode primary = run.path("primaryMetric");
+            double allocated = Double.NaN;
+            for (Iterator<Map.Entry<String, JsonNode>> it = run.path("secondaryMetrics").fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> metric = it.next();
+                if (metric.getKey().endsWith(ALLOCATION)) { // older JMH versions prefix it with a middle dot
+                    allocated = metric.getValue().path("score").asDouble();
+                }
+            }
+            results.put(key.toString(), new Result(primary.path("score").asDouble(), primary.path("scoreError").asDouble(0),
+                    primary.path("scoreUnit").asText(), allocated));
+        }
+        return results;
+    }
+}
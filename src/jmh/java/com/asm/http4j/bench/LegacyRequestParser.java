@@ -0,0 +1,65 @@
+package com.asm.http4j.bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * The BufferedReader based parser that HttpRequest.parse used before HttpRequestParser,
+ * kept here as the baseline for {@link RequestParserBenchmark}. Validation is trimmed to
+ * what affects allocation.
+ */
+public class LegacyRequestParser {
+
+    public record Request(String method, String path, String version, Map<String, List<String>> headers, String body) {
+        public String getHeader(String key) {
+            List<String> values = headers.get(key.toLowerCase());
+            return (values == null || values.isEmpty()) ? null : values.get(0);
+        }
+    }
+
+    public static Request parse(BufferedReader reader) throws IOException {
+        String line;
+        while (true) {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            if (!line.isBlank()) {
+                break;
+            }
+        }
+
+        String[] parts = line.split(" ");
+        if (parts.length != 3 || !"HTTP/1.1".equalsIgnoreCase(parts[2])) {
+            throw new IOException("Invalid request line: " + line);
+        }
+
+        Map<String, List<String>> headers = new HashMap<>();
+        while ((line = reader.readLine()) != null && !line.isEmpty()) {
+            int idx = line.indexOf(":");
+            if (idx == -1) {
+                throw new IOException("Malformed header line: " + line);
+            }
+            String key = line.substring(0, idx).trim().toLowerCase();
+            String value = line.substring(idx + 1).trim();
+            headers.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+        }
+
+        String body = "";
+        List<String> contentLength = headers.get("content-length");
+        if (contentLength != null) {
+            int length = Integer.parseInt(contentLength.get(0));
+            char[] bodyChars = new char[length];
+            int read = reader.read(bodyChars, 0, length);
+            body = new String(bodyChars, 0, read);
+        }
+
+        return new Request(parts[0], parts[1], parts[2], headers, body);
+    }
+}
@@ -0,0 +1,33 @@
+package com.asm.http4j.bench;
+
+import java.io.InputStream;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * An endless stream replaying the same bytes, standing in for a keep-alive connection
+ * that keeps sending the same request.
+ */
+public class RepeatingInputStream extends InputStream {
+    private final byte[] data;
+    private int pos;
+
+    public RepeatingInputStream(byte[] data) {
+        this.data = data;
+    }
+
+    @Override
+    public int read() {
+        int b = data[pos] & 0xFF;
+        pos = (pos + 1) % data.length;
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        int n = Math.min(len, data.length - pos);
+        System.arraycopy(data, pos, b, off, n);
+        pos = (pos + n) % data.length;
+        return n;
+    }
+}
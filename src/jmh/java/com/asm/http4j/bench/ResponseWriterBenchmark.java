@@ -0,0 +1,80 @@
+package com.asm.http4j.bench;
+
+import com.asm.http4j.HttpResponse;
+import com.asm.http4j.ResponseWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Serializes a response with the headers a typical API response carries into a connection's
+ * write buffer and flushes it to a channel that discards what it is given, i.e. the cost of
+ * turning a response into bytes without the network.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseWriterBenchmark {
+
+    /**
+     * Accepts every byte at once, like a socket with an empty send buffer.
+     */
+    static final class DiscardingChannel implements WritableByteChannel {
+        @Override
+        public int write(ByteBuffer src) {
+            int n = src.remaining();
+            src.position(src.limit());
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Param({"0", "1024", "16384", "262144"})
+    public int bodySize;
+
+    @Param({"false", "true"})
+    public boolean precomputed;
+
+    private ResponseWriter writer;
+    private HttpResponse response;
+
+    @Setup
+    public void setup() {
+        writer = new ResponseWriter(new DiscardingChannel(), new byte[16 * 1024], null);
+        byte[] body = new byte[bodySize];
+        Arrays.fill(body, (byte) 'x');
+        response = response(body);
+    }
+
+    private HttpResponse response(byte[] body) {
+        HttpResponse response = HttpResponse.ok(body, "application/json");
+        response.getHeaders().put("Cache-Control", "no-store");
+        response.getHeaders().put("X-Request-Id", "b6f1c2d4-9a7e-4f3b-8c21-5d0e9f7a1b33");
+        response.getHeaders().put("Vary", "Accept-Encoding");
+        return precomputed ? response.precompute() : response;
+    }
+
+    @Benchmark
+    public long write() throws IOException {
+        writer.write(response, "GET", true);
+        writer.flush();
+        return writer.position();
+    }
+}
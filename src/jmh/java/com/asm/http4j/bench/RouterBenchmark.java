@@ -0,0 +1,54 @@
+package com.asm.http4j.bench;
+
+import com.asm.http4j.HttpResponse;
+import com.asm.http4j.Router;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Routes paths through a table shaped like a small REST API: static paths, path parameters
+ * at several depths and a wildcard for assets, 60 routes in all.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouterBenchmark {
+
+    private static final String[] RESOURCES = {"users", "orders", "products", "carts", "invoices",
+            "payments", "shipments", "reviews", "coupons", "sessions"};
+
+    @Param({"/health", "/api/v1/orders/8812", "/api/v1/users/42/reviews/7?expand=true", "/assets/js/app.min.js", "/nope/missing"})
+    public String path;
+
+    private Router router;
+
+    @Setup
+    public void setup() {
+        router = new Router();
+        router.get("/", request -> HttpResponse.ok(new byte[0], "text/plain"));
+        router.get("/health", request -> HttpResponse.ok(new byte[0], "text/plain"));
+        router.get("/assets/*", request -> HttpResponse.ok(new byte[0], "text/plain"));
+        for (String resource : RESOURCES) {
+            String base = "/api/v1/" + resource;
+            router.get(base, request -> HttpResponse.ok(new byte[0], "application/json"));
+            router.post(base, request -> HttpResponse.ok(new byte[0], "application/json"));
+            router.get(base + "/{id}", request -> HttpResponse.ok(new byte[0], "application/json"));
+            router.put(base + "/{id}", request -> HttpResponse.ok(new byte[0], "application/json"));
+            router.delete(base + "/{id}", request -> HttpResponse.ok(new byte[0], "application/json"));
+            router.get(base + "/{id}/reviews/{reviewId}", request -> HttpResponse.ok(new byte[0], "application/json"));
+        }
+    }
+
+    @Benchmark
+    public void match(Blackhole bh) {
+        Router.Match match = router.match("GET", path);
+        bh.consume(match != null ? match.handler() : null);
+    }
+}
@@ -0,0 +1,81 @@
+package com.asm.http4j.bench;
+
+import com.asm.http4j.HttpRequest;
+import com.asm.http4j.HttpRequestParser;
+import com.asm.http4j.HttpResponse;
+import com.asm.http4j.ResponseWriter;
+import com.asm.http4j.StaticFileCache;
+import com.asm.http4j.StaticFileHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Serves a static file, from disk or from the static file cache, and writes the response to
+ * /dev/null: looking the file up, building the response with its validators, and sending it
+ * with transferTo or from the cache's bytes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StaticFileBenchmark {
+
+    @Param({"512", "16384", "1048576"})
+    public int fileSize;
+
+    @Param({"false", "true"})
+    public boolean cached;
+
+    private Path root;
+    private StaticFileHandler handler;
+    private HttpRequest request;
+    private FileChannel devNull;
+    private ResponseWriter writer;
+
+    @Setup
+    public void setup() throws Exception {
+        root = Files.createTempDirectory("http4j-bench");
+        byte[] content = new byte[fileSize];
+        ThreadLocalRandom.current().nextBytes(content);
+        Files.write(root.resolve("app.js"), content);
+        handler = cached
+                ? new StaticFileHandler(root.toFile(), new StaticFileCache(64L * 1024 * 1024))
+                : new StaticFileHandler(root.toFile());
+        byte[] raw = ("GET /app.js HTTP/1.1\r\nHost: www.example.com\r\nAccept: */*\r\n"
+                + "Accept-Encoding: gzip, deflate, br\r\nUser-Agent: Mozilla/5.0 (X11; Linux x86_64)\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII);
+        request = new HttpRequestParser().parse(new RepeatingInputStream(raw));
+        devNull = FileChannel.open(Path.of("/dev/null"), StandardOpenOption.WRITE);
+        writer = new ResponseWriter(devNull, new byte[16 * 1024], null);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        devNull.close();
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long serve() throws IOException {
+        HttpResponse response = handler.serve(request);
+        writer.write(response, "GET", true);
+        writer.flush();
+        return writer.position();
+    }
+}
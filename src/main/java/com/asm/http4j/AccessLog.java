@@ -0,0 +1,374 @@
+package com.asm.http4j;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Writes one line per exchange to a rotating file, off the request path.
+ * Request threads copy what a line needs into a preallocated slot of a ring buffer: references to
+ * strings the request already holds, numbers, and the raw bytes of Referer and User-Agent. All
+ * formatting and file I/O happens on a single background thread. When the ring is full the entry is
+ * dropped and counted rather than making the request wait.
+ */
+public class AccessLog implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(AccessLog.class);
+
+    public enum Format {
+        /**
+         * NCSA Common Log Format: {@code host - - [time] "request line" status bytes}.
+         */
+        COMMON,
+        /**
+         * Common Log Format followed by the quoted Referer and User-Agent.
+         */
+        COMBINED,
+        /**
+         * One JSON object per line, with the duration in milliseconds as well.
+         */
+        JSON
+    }
+
+    public static final int DEFAULT_CAPACITY = 16 * 1024;
+    public static final long DEFAULT_MAX_FILE_BYTES = 100L * 1024 * 1024;
+    public static final int DEFAULT_MAX_FILES = 5;
+
+    private static final int MAX_HEADER_BYTES = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final DateTimeFormatter CLF_TIME =
+            DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.US).withZone(ZoneId.systemDefault());
+    private static final DateTimeFormatter ISO_TIME = DateTimeFormatter.ISO_OFFSET_DATE_TIME.withZone(ZoneId.systemDefault());
+
+    /**
+     * One entry of the ring. Written by the request thread that claimed it, then read by the writer
+     * once {@link #sequence} says it has been published.
+     */
+    private static final class Slot {
+        volatile long sequence;
+        long timeMillis;
+        long durationNanos;
+        SocketAddress remote;
+        String method;
+        String path;
+        String version;
+        int status;
+        long bytes;
+        final byte[] referer = new byte[MAX_HEADER_BYTES];
+        int refererLength;
+        final byte[] userAgent = new byte[MAX_HEADER_BYTES];
+        int userAgentLength;
+    }
+
+    private final File file;
+    private final Format format;
+    private final double sampleRate;
+    private final long maxFileBytes;
+    private final int maxFiles;
+
+    private final Slot[] ring;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+    private final LongAdder dropped = new LongAdder();
+
+    private final Thread writerThread;
+    private volatile boolean closing;
+
+    // Writer thread only
+    private OutputStream out;
+    private long fileBytes;
+    private final StringBuilder line = new StringBuilder(512);
+    private long cachedSecond = Long.MIN_VALUE;
+    private String cachedTime;
+
+    /**
+     * @param sampleRate share of exchanges logged, from 0 to 1; server errors are always logged
+     */
+    public AccessLog(File file, Format format, double sampleRate) throws IOException {
+        this(file, format, sampleRate, DEFAULT_CAPACITY, DEFAULT_MAX_FILE_BYTES, DEFAULT_MAX_FILES);
+    }
+
+    /**
+     * @param capacity     entries the ring holds, rounded up to a power of two
+     * @param maxFileBytes size after which the file is rotated to {@code file.1}, {@code file.2}, ...
+     * @param maxFiles     rotated files kept
+     */
+    public AccessLog(File file, Format format, double sampleRate, int capacity, long maxFileBytes, int maxFiles) throws IOException {
+        this.file = file;
+        this.format = format;
+        this.sampleRate = sampleRate;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ring = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            ring[i] = new Slot();
+        }
+        this.mask = size - 1;
+        openFile();
+        this.writerThread = Thread.ofPlatform().daemon().name("http4j-access-log").start(this::drainLoop);
+    }
+
+    /**
+     * Logs an exchange. Called on the request thread after the response was written.
+     *
+     * @param request null if the request could not be parsed
+     * @param bytes   bytes of the response on the wire
+     * @param start   {@link System#nanoTime()} when handling the request began
+     */
+    public void log(HttpRequest request, int status, long bytes, SocketAddress remote, long start) {
+        if (status < 500 && sampleRate < 1 && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= ring.length || closing) {
+                dropped.increment();
+                return;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        Slot slot = ring[(int) sequence & mask];
+        slot.timeMillis = System.currentTimeMillis();
+        slot.durationNanos = System.nanoTime() - start;
+        slot.remote = remote;
+        slot.status = status;
+        slot.bytes = bytes;
+        if (request != null) {
+            slot.method = request.method;
+            slot.path = request.path;
+            slot.version = request.version;
+            slot.refererLength = format == Format.COMMON ? -1 : request.copyHeaderValue("referer", slot.referer);
+            slot.userAgentLength = format == Format.COMMON ? -1 : request.copyHeaderValue("user-agent", slot.userAgent);
+        } else {
+            slot.method = null;
+            slot.refererLength = -1;
+            slot.userAgentLength = -1;
+        }
+        slot.sequence = sequence + 1; // publish
+    }
+
+    /**
+     * Entries dropped because the writer fell a whole ring behind.
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Writes out what is already in the ring, then stops the writer and closes the file.
+     */
+    @Override
+    public void close() {
+        closing = true;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        long next = consumed;
+        try {
+            while (true) {
+                Slot slot = ring[(int) next & mask];
+                if (slot.sequence == next + 1) {
+                    write(slot);
+                    slot.remote = null;
+                    consumed = ++next;
+                } else if (closing && next == claimed.get()) {
+                    break;
+                } else {
+                    out.flush();
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Access log stopped, cannot write {}: {}", file, e.getMessage());
+            closing = true;
+        } finally {
+            try {
+                out.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close access log: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void write(Slot slot) throws IOException {
+        line.setLength(0);
+        if (format == Format.JSON) {
+            formatJson(slot);
+        } else {
+            formatCommon(slot);
+        }
+        line.append('\n');
+        byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+        if (fileBytes > 0 && fileBytes + bytes.length > maxFileBytes) {
+            rotate();
+        }
+        out.write(bytes);
+        fileBytes += bytes.length;
+    }
+
+    private void formatCommon(Slot slot) {
+        line.append(host(slot.remote)).append(" - - [").append(clfTime(slot.timeMillis)).append("] \"");
+        if (slot.method != null) {
+            line.append(slot.method).append(' ');
+            appendEscaped(slot.path);
+            line.append(' ').append(slot.version);
+        } else {
+            line.append('-');
+        }
+        line.append("\" ").append(slot.status).append(' ');
+        if (slot.bytes > 0) {
+            line.append(slot.bytes);
+        } else {
+            line.append('-');
+        }
+        if (format == Format.COMBINED) {
+            line.append(" \"");
+            appendEscaped(slot.referer, slot.refererLength, "-");
+            line.append("\" \"");
+            appendEscaped(slot.userAgent, slot.userAgentLength, "-");
+            line.append('"');
+        }
+    }
+
+    private void formatJson(Slot slot) {
+        line.append("{\"time\":\"").append(ISO_TIME.format(Instant.ofEpochMilli(slot.timeMillis)))
+                .append("\",\"remote\":\"").append(host(slot.remote)).append('"');
+        if (slot.method != null) {
+            line.append(",\"method\":\"");
+            appendEscaped(slot.method);
+            line.append("\",\"path\":\"");
+            appendEscaped(slot.path);
+            line.append("\",\"protocol\":\"");
+            appendEscaped(slot.version);
+            line.append('"');
+        }
+        line.append(",\"status\":").append(slot.status)
+                .append(",\"bytes\":").append(slot.bytes)
+                .append(",\"duration_ms\":").append(slot.durationNanos / 1_000 / 1000.0);
+        if (slot.refererLength >= 0) {
+            line.append(",\"referer\":\"");
+            appendEscaped(slot.referer, slot.refererLength, "");
+            line.append('"');
+        }
+        if (slot.userAgentLength >= 0) {
+            line.append(",\"user_agent\":\"");
+            appendEscaped(slot.userAgent, slot.userAgentLength, "");
+            line.append('"');
+        }
+        line.append('}');
+    }
+
+    /**
+     * Appends text with quotes, backslashes and control characters escaped, which keeps both a
+     * Common Log Format field and a JSON string intact.
+     */
+    private void appendEscaped(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            appendEscaped(text.charAt(i));
+        }
+    }
+
+    /**
+     * Appends raw header bytes; anything outside printable ASCII is written as {@code \xHH}.
+     */
+    private void appendEscaped(byte[] bytes, int length, String absent) {
+        if (length < 0) {
+            line.append(absent);
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            int b = bytes[i] & 0xff;
+            if (b >= 0x80) {
+                line.append(format == Format.JSON ? "\\u00" : "\\x").append(Character.forDigit(b >> 4, 16))
+                        .append(Character.forDigit(b & 0xf, 16));
+            } else {
+                appendEscaped((char) b);
+            }
+        }
+    }
+
+    private void appendEscaped(char c) {
+        if (c == '"' || c == '\\') {
+            line.append('\\').append(c);
+        } else if (c < 0x20 || c == 0x7f) {
+            line.append(format == Format.JSON ? "\\u00" : "\\x").append(Character.forDigit(c >> 4, 16))
+                    .append(Character.forDigit(c & 0xf, 16));
+        } else {
+            line.append(c);
+        }
+    }
+
+    private String clfTime(long timeMillis) {
+        long second = timeMillis / 1000;
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedTime = CLF_TIME.format(Instant.ofEpochSecond(second));
+        }
+        return cachedTime;
+    }
+
+    private static String host(SocketAddress remote) {
+        if (remote instanceof InetSocketAddress inet && inet.getAddress() != null) {
+            return inet.getAddress().getHostAddress();
+        }
+        return "-";
+    }
+
+    private void openFile() throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent);
+        }
+        out = new BufferedOutputStream(new FileOutputStream(file, true), 64 * 1024);
+        fileBytes = file.length();
+    }
+
+    /**
+     * Moves file to file.1, file.1 to file.2 and so on, dropping the oldest, and starts a new file.
+     */
+    private void rotate() throws IOException {
+        out.close();
+        if (maxFiles == 0) {
+            file.delete();
+        }
+        for (int i = maxFiles; i >= 1; i--) {
+            File older = new File(file.getPath() + "." + i);
+            File newer = i == 1 ? file : new File(file.getPath() + "." + (i - 1));
+            if (i == maxFiles) {
+                older.delete();
+            }
+            if (newer.exists() && !newer.renameTo(older)) {
+                logger.warn("Failed to rotate {} to {}", newer, older);
+            }
+        }
+        openFile();
+    }
+}
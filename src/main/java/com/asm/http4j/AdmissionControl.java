@@ -0,0 +1,176 @@
+package com.asm.http4j;
+
+import com.asm.http4j.util.HttpStatus;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Caps what the server takes on: open connections overall and per client address, and requests
+ * being handled at once. Anything over a cap is turned away at once with a 503 and Retry-After
+ * rather than queued, so a flood costs a few bytes per rejected socket instead of a thread,
+ * buffers and a file descriptor held open. A limit of 0 means unlimited.
+ */
+public class AdmissionControl {
+
+    private static final Logger logger = LogManager.getLogger(AdmissionControl.class);
+
+    static final String RETRY_AFTER_SECONDS = "1";
+
+    private static final HttpResponse OVERLOADED = overloaded();
+
+    private final int maxConnections;
+    private final int maxConnectionsPerIp;
+    private final Semaphore requestPermits;
+
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicInteger inFlightRequests = new AtomicInteger();
+    private final ConcurrentHashMap<InetAddress, AtomicInteger> connectionsByIp = new ConcurrentHashMap<>();
+
+    private final LongAdder rejectedConnections = new LongAdder();
+    private final LongAdder rejectedPerIp = new LongAdder();
+    private final LongAdder rejectedRequests = new LongAdder();
+
+    public AdmissionControl(int maxConnections, int maxConnectionsPerIp, int maxInFlightRequests) {
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerIp = maxConnectionsPerIp;
+        this.requestPermits = maxInFlightRequests > 0 ? new Semaphore(maxInFlightRequests) : null;
+    }
+
+    /**
+     * Admits a newly accepted connection, or answers it with a 503 and closes it. Every admitted
+     * connection must be handed to {@link #releaseConnection(SocketAddress)} once it is closed.
+     */
+    boolean admit(SocketChannel channel, SocketAddress remote) {
+        if (openConnections.incrementAndGet() > maxConnections && maxConnections > 0) {
+            openConnections.decrementAndGet();
+            rejectedConnections.increment();
+            reject(channel, "connection limit reached");
+            return false;
+        }
+        InetAddress address = address(remote);
+        if (maxConnectionsPerIp > 0 && address != null) {
+            AtomicInteger count = connectionsByIp.compute(address, (ip, current) -> {
+                AtomicInteger counter = current != null ? current : new AtomicInteger();
+                counter.incrementAndGet();
+                return counter;
+            });
+            if (count.get() > maxConnectionsPerIp) {
+                releaseAddress(address);
+                openConnections.decrementAndGet();
+                rejectedPerIp.increment();
+                reject(channel, "too many connections from " + address.getHostAddress());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void releaseConnection(SocketAddress remote) {
+        openConnections.decrementAndGet();
+        InetAddress address = address(remote);
+        if (maxConnectionsPerIp > 0 && address != null) {
+            releaseAddress(address);
+        }
+    }
+
+    /**
+     * Takes a slot for a request about to be handled, or returns false if as many are in flight as allowed.
+     */
+    boolean tryAcquireRequest() {
+        if (requestPermits == null || requestPermits.tryAcquire()) {
+            inFlightRequests.incrementAndGet();
+            return true;
+        }
+        rejectedRequests.increment();
+        return false;
+    }
+
+    void releaseRequest() {
+        inFlightRequests.decrementAndGet();
+        if (requestPermits != null) {
+            requestPermits.release();
+        }
+    }
+
+    /**
+     * The 503 sent for a request turned away; the connection is closed after it.
+     */
+    static HttpResponse overloadedResponse() {
+        return OVERLOADED;
+    }
+
+    public int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    public int getInFlightRequests() {
+        return inFlightRequests.get();
+    }
+
+    /**
+     * Connections turned away because the server-wide connection limit was reached.
+     */
+    public long getRejectedConnections() {
+        return rejectedConnections.sum();
+    }
+
+    /**
+     * Connections turned away because their client address already had as many open as allowed.
+     */
+    public long getRejectedPerIp() {
+        return rejectedPerIp.sum();
+    }
+
+    /**
+     * Requests answered with 503 because as many were already being handled as allowed.
+     */
+    public long getRejectedRequests() {
+        return rejectedRequests.sum();
+    }
+
+    private void releaseAddress(InetAddress address) {
+        connectionsByIp.computeIfPresent(address, (ip, counter) -> counter.decrementAndGet() == 0 ? null : counter);
+    }
+
+    /**
+     * Sends the 503 without waiting for the request: the socket's send buffer is empty, so the
+     * write goes through at once, and a client that is not reading is not waited for.
+     */
+    private static void reject(SocketChannel channel, String reason) {
+        logger.debug("Rejecting connection: {}", reason);
+        try (channel) {
+            ResponseWriter out = new ResponseWriter(channel, new byte[512], () -> {
+                throw new IOException("Client not reading");
+            });
+            out.write(OVERLOADED, "GET", false);
+            out.flush();
+            channel.shutdownOutput();
+        } catch (IOException e) {
+            logger.debug("Failed to send 503: {}", e.getMessage());
+        }
+    }
+
+    private static InetAddress address(SocketAddress remote) {
+        return remote instanceof InetSocketAddress inet ? inet.getAddress() : null;
+    }
+
+    private static HttpResponse overloaded() {
+        HttpResponse response = HttpResponse.of(503, HttpStatus.reasonPhrase(503),
+                "Server busy, retry later".getBytes(), "text/plain");
+        response.getHeaders().put("Retry-After", RETRY_AFTER_SECONDS);
+        response.getHeaders().put("Connection", "close");
+        return response.precompute();
+    }
+}
@@ -0,0 +1,21 @@
+package com.asm.http4j;
+
+import java.io.IOException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * A handler that answers later, e.g. once a downstream call completes, without holding a thread
+ * while it waits. Register it with {@link Router#addAsyncRoute}; the connection waits for the stage
+ * up to the route's timeout and answers {@code 504} if it does not complete in time.
+ * If the client disconnects first, or the timeout passes, the returned stage is cancelled
+ * (when it is a {@link java.util.concurrent.CompletableFuture}, or its {@code toCompletableFuture()}
+ * is), so work chained off it can stop. Streaming bodies can still be returned through
+ * {@link HttpResponse#publisher}.
+ * The request head stays readable from any thread. Read the body, if needed, before returning the stage.
+ */
+@FunctionalInterface
+public interface AsyncHttpHandler {
+    CompletionStage<HttpResponse> handleAsync(HttpRequest request) throws IOException;
+}
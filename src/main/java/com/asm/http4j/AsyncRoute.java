@@ -0,0 +1,85 @@
+package com.asm.http4j;
+
+import com.asm.http4j.util.HttpStatus;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Adapts an {@link AsyncHttpHandler} to the router. The request's thread, virtual in both engines,
+ * parks on the handler's future until it completes, the route's timeout passes or the client goes away.
+ */
+final class AsyncRoute implements HttpHandler {
+
+    private static final Logger logger = LogManager.getLogger(AsyncRoute.class);
+
+    private final AsyncHttpHandler handler;
+    private final long timeoutNanos;
+
+    AsyncRoute(AsyncHttpHandler handler, Duration timeout) {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Async route timeout must be positive: " + timeout);
+        }
+        this.handler = handler;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    /**
+     * Runs the handler and waits for its response, watching the connection if the request came from one.
+     */
+    @Override
+    public HttpResponse handle(HttpRequest request) throws IOException {
+        ResponseWait wait = request.getResponseWait();
+        // The handler may read the head on other threads while the connection reads ahead
+        request.detachHead();
+        CompletableFuture<HttpResponse> future = handler.handleAsync(request).toCompletableFuture();
+        if (future.isDone() || wait == null) {
+            return result(future, request);
+        }
+        wait.begin(() -> future.cancel(true));
+        try {
+            return result(future, request);
+        } finally {
+            wait.end();
+        }
+    }
+
+    private HttpResponse result(CompletableFuture<HttpResponse> future, HttpRequest request) throws IOException {
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            logger.warn("{} {} timed out after {} ms", request.method, request.path,
+                    TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+            return HttpResponse.of(504, HttpStatus.reasonPhrase(504), "Handler timed out".getBytes(), "text/plain");
+        } catch (CancellationException e) {
+            return HttpResponse.of(503, HttpStatus.reasonPhrase(503), "Request cancelled".getBytes(), "text/plain");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException(cause);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for " + request.method + " " + request.path);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.asm.http4j;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * @author ashutosh
+ * @since 7/5/25
+ * Accepts connections on one or more platform threads and serves each one on its own virtual thread.
+ * Acceptors share one listening socket, or with SO_REUSEPORT each binds its own and the kernel
+ * spreads new connections over them.
+ * Sockets are blocking channels, so responses can use gathering writes. Instead of a socket timeout
+ * per connection, one timer thread advances a {@link TimerWheel} shared by all of them.
+ */
+class BlockingEngine implements ConnectionEngine {
+
+    private static final Logger logger = LogManager.getLogger(BlockingEngine.class);
+
+    private static final AtomicInteger THREAD_ID = new AtomicInteger(0);
+
+    private final ServerConfig config;
+    private final RequestDispatcher dispatcher;
+    private final Set<ClientHandler> connections = ConcurrentHashMap.newKeySet();
+    private final TimerWheel wheel = new TimerWheel();
+
+    private List<ServerSocketChannel> listeners = List.of(); // guarded by this
+    private boolean stopped;                                 // guarded by this
+    private Thread timer;                                    // guarded by this
+
+    BlockingEngine(ServerConfig config, RequestDispatcher dispatcher) {
+        this.config = config;
+        this.dispatcher = dispatcher;
+    }
+
+    @Override
+    public void serve(IntConsumer listening) throws IOException {
+        int acceptors = Math.max(1, config.getAcceptors());
+        List<ServerSocketChannel> listeners = Listeners.open(config, acceptors);
+        int port = config.getPort();
+        try {
+            port = Listeners.localPort(listeners.get(0));
+            synchronized (this) {
+                if (stopped) {
+                    return;
+                }
+                this.listeners = listeners;
+                this.timer = Thread.ofPlatform().name("http4j-timer").daemon().start(this::runTimer);
+            }
+            logger.info("http4j started successfully on port {} with {} acceptors on {} listening sockets",
+                    port, acceptors, listeners.size());
+            listening.accept(port);
+            // The first acceptor runs here, so that a failing accept loop still ends serve() with its exception
+            for (int i = 1; i < acceptors; i++) {
+                ServerSocketChannel listener = listeners.get(i % listeners.size());
+                Thread.ofPlatform().name("http4j-acceptor-" + i).start(() -> {
+                    try {
+                        acceptConnections(listener);
+                    } catch (ClosedChannelException e) {
+                        // stopped
+                    } catch (IOException e) {
+                        logger.error("Accept loop failed: {}", e.getMessage());
+                    }
+                });
+            }
+            acceptConnections(listeners.get(0));
+        } catch (ClosedChannelException e) {
+            logger.info("Stopped accepting connections on port {}", port);
+        } catch (IOException | RuntimeException e) {
+            stopTimer();
+            throw e;
+        } finally {
+            Listeners.closeAll(listeners);
+        }
+    }
+
+    /**
+     * Expires connection timeouts until every connection has been closed; draining connections still time out.
+     */
+    private void runTimer() {
+        long tickMs = TimeUnit.NANOSECONDS.toMillis(wheel.tickNanos());
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(tickMs);
+                wheel.advance(System.nanoTime());
+            }
+        } catch (InterruptedException e) {
+            // stopped
+        }
+    }
+
+    private synchronized void stopTimer() {
+        if (timer != null) {
+            timer.interrupt();
+        }
+    }
+
+    @Override
+    public synchronized void stopAccepting() {
+        stopped = true;
+        Listeners.closeAll(listeners); // fails the blocked accepts
+    }
+
+    @Override
+    public void closeIdleConnections() {
+        connections.forEach(ClientHandler::closeIfIdle);
+    }
+
+    @Override
+    public void closeAllConnections() {
+        connections.forEach(ClientHandler::close);
+        stopTimer();
+    }
+
+    /**
+     * Accepts incoming client connections and delegates them to virtual threads.
+     * Connections over the admission limits are answered and closed here, without a thread.
+     */
+    private void acceptConnections(ServerSocketChannel serverChannel) throws IOException {
+        AdmissionControl admission = dispatcher.getAdmission();
+        while (true) {
+            SocketChannel clientChannel = serverChannel.accept();
+            SocketAddress remote;
+            try {
+                remote = clientChannel.getRemoteAddress();
+            } catch (IOException e) {
+                clientChannel.close(); // reset before we got to it
+                continue;
+            }
+            if (!admission.admit(clientChannel, remote)) {
+                continue;
+            }
+            try {
+                Listeners.configure(clientChannel, config);
+            } catch (IOException e) {
+                admission.releaseConnection(remote);
+                clientChannel.close();
+                continue;
+            }
+            String threadName = "http4j-" + THREAD_ID.getAndIncrement();
+            ClientHandler handler = new ClientHandler(clientChannel, dispatcher, config, wheel);
+            connections.add(handler);
+            Thread.ofVirtual().name(threadName).start(() -> {
+                try {
+                    handler.handle();
+                } finally {
+                    connections.remove(handler);
+                    admission.releaseConnection(remote);
+                }
+            });
+        }
+    }
+}
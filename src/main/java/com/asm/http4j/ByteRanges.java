@@ -0,0 +1,74 @@
+package com.asm.http4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Parses {@code Range: bytes=...} headers against a representation of known length.
+ */
+final class ByteRanges {
+
+    /**
+     * More ranges than this are answered with the full representation rather than a long multipart body.
+     */
+    static final int MAX_RANGES = 16;
+
+    record Range(long first, long last) {
+        long length() {
+            return last - first + 1;
+        }
+    }
+
+    private ByteRanges() {
+    }
+
+    /**
+     * Returns the satisfiable ranges, clamped to the representation; an empty list if none are
+     * satisfiable (416); or null if the header is malformed, not in bytes, or asks for too many
+     * ranges, in which case it is ignored.
+     */
+    static List<Range> parse(String header, long length) {
+        String value = header.trim();
+        if (!value.regionMatches(true, 0, "bytes=", 0, 6)) {
+            return null;
+        }
+        String[] specs = value.substring(6).split(",");
+        if (specs.length > MAX_RANGES) {
+            return null;
+        }
+        List<Range> ranges = new ArrayList<>(specs.length);
+        for (String spec : specs) {
+            spec = spec.trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            try {
+                if (dash == 0) {
+                    // Suffix range: the last n bytes
+                    long suffix = Long.parseLong(spec.substring(1));
+                    if (suffix < 0) {
+                        return null;
+                    }
+                    if (suffix > 0 && length > 0) {
+                        ranges.add(new Range(Math.max(0, length - suffix), length - 1));
+                    }
+                    continue;
+                }
+                long first = Long.parseLong(spec.substring(0, dash));
+                long last = dash == spec.length() - 1 ? length - 1 : Long.parseLong(spec.substring(dash + 1));
+                if (first < 0 || last < first && dash != spec.length() - 1) {
+                    return null;
+                }
+                if (first < length) {
+                    ranges.add(new Range(first, Math.min(last, length - 1)));
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return ranges;
+    }
+}
@@ -1,205 +1,316 @@
 package com.asm.http4j;
 
 import com.asm.http4j.exception.HttpParsingException;
-import com.asm.http4j.util.ServerInfo;
-import com.asm.http4j.util.MimeTypes;
+import com.asm.http4j.metrics.ServerMetrics;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.*;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.Socket;
-import java.net.SocketTimeoutException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.util.Set;
+import java.net.SocketAddress;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author ashutosh
  * @since 7/5/25
+ * Serves one connection of the blocking engine, request after request, on its own virtual thread.
+ * Responses go to a per-connection buffer that is flushed only when no pipelined request is waiting.
+ * While the connection waits for a request with nothing of one received, it is idle and a shutting
+ * down server may close it from another thread.
+ * Timeouts live on the engine's shared {@link TimerWheel}, which closes the channel to fail a blocked
+ * read: one for the wait between requests, one for the whole request head counted from its first
+ * byte, and one for each read of a request body.
+ * While an asynchronous handler works on a request that has been read to its end, another virtual
+ * thread reads ahead, untimed, so that a client hanging up cancels the handler.
  */
-public class ClientHandler {
+public class ClientHandler extends TimerWheel.Timeout {
 
     private static final Logger logger = LogManager.getLogger(ClientHandler.class);
 
-    private final Socket socket;
-    private final Router router;
-    private final File staticRoot;
+    static final int OUTPUT_BUFFER_SIZE = 16 * 1024;
 
-    public ClientHandler(Socket socket, Router router, File staticRoot) {
-        this.socket = socket;
-        this.router = router;
-        this.staticRoot = staticRoot;
+    private static final int BUSY = 0;
+    private static final int IDLE = 1;
+    private static final int CLOSING = 2;
+
+    // What the connection is reading, i.e. which timeout is armed
+    private static final int WAITING = 0;
+    private static final int HEAD = 1;
+    private static final int BODY = 2;
+    private static final int ANSWERING = 3; // reading ahead while an asynchronous handler works
+
+    private final SocketChannel channel;
+    private final RequestDispatcher dispatcher;
+    private final long maxBodyBytes;
+    private final AtomicInteger state = new AtomicInteger(BUSY);
+    private final ServerMetrics metrics;
+    private final TimerWheel wheel;
+    private final long keepAliveNanos;
+    private final long headerNanos;
+    private final long bodyNanos;
+    private final TlsContext tls;
+    private volatile int phase = WAITING;
+    private volatile int timedOutIn = -1; // the phase a timeout expired in
+    private volatile boolean clientGone;   // seen by the read-ahead while a handler was answering
+    private Thread readAhead;
+
+    ClientHandler(SocketChannel channel, RequestDispatcher dispatcher, ServerConfig config, TimerWheel wheel) {
+        this.channel = channel;
+        this.dispatcher = dispatcher;
+        this.maxBodyBytes = config.getMaxBodyBytes();
+        this.metrics = dispatcher.getMetrics();
+        this.wheel = wheel;
+        this.keepAliveNanos = TimeUnit.MILLISECONDS.toNanos(config.getIdleTimeoutMs());
+        this.headerNanos = TimeUnit.MILLISECONDS.toNanos(config.getHeaderTimeoutMs());
+        this.bodyNanos = TimeUnit.MILLISECONDS.toNanos(config.getBodyTimeoutMs());
+        this.tls = config.getTls();
     }
 
     public void handle() {
-        try (socket;
-             InputStream input = socket.getInputStream();
-             OutputStream output = socket.getOutputStream();
-             BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
-             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+        Socket socket = channel.socket();
+        SocketAddress remote = socket.getRemoteSocketAddress();
+        // With TLS the handshake runs on the first read, within the keep-alive timeout
+        ByteChannel io = tls != null ? new TlsChannel(channel, tls.createEngine()) : channel;
+        // Reads go through the socket's stream, timed by the wheel; writes go to the channel
+        try (channel; io;
+             InputStream input = new TimedInput(tls != null ? Channels.newInputStream(io) : socket.getInputStream())) {
 
+            ResponseWriter output = new ResponseWriter(io, new byte[OUTPUT_BUFFER_SIZE], null);
+            HttpRequestParser parser = new HttpRequestParser(HttpRequestParser.DEFAULT_MAX_REQUEST_LINE,
+                    HttpRequestParser.DEFAULT_MAX_HEADER_SIZE, maxBodyBytes);
+            // Handlers read request bodies straight from the socket
+            parser.bodySource(input, output::writeContinue);
+            ResponseWait wait = new ReadAhead(parser, input, output);
+            int served = 0;
             while (true) {
                 HttpRequest request;
                 try {
-                    request = HttpRequest.parse(reader);
+                    awaitReadAhead(output);
+                    // Responses to pipelined requests stay buffered until the input runs dry
+                    request = parser.parse(input, () -> {
+                        output.flush();
+                        // About to block waiting for the next request, or for the rest of its head
+                        if (!parser.isIdle()) {
+                            phase = HEAD;
+                            wheel.schedule(this, headerNanos);
+                        } else {
+                            phase = WAITING;
+                            wheel.schedule(this, keepAliveNanos);
+                            if (state.compareAndSet(BUSY, IDLE)) {
+                                metrics.connectionIdle();
+                            }
+                        }
+                    });
+                    phase = BODY;
+                    wheel.cancel(this);
+                    if (state.compareAndSet(IDLE, BUSY)) {
+                        metrics.connectionBusy();
+                    } else if (state.get() == CLOSING) {
+                        break;
+                    }
                     if (request == null) {
                         logger.info("Client closed connection.");
                         break;
                     }
-                } catch (SocketTimeoutException e) {
-                    logger.info("Keep-alive timeout reached. Closing connection.");
-                    break;
                 } catch (HttpParsingException e) {
-                    logger.warn("Bad request: {}", e.getMessage());
-                    HttpResponse.badRequest(("Bad request: " + e.getMessage()).getBytes(), "text/plain")
-                            .writeTo("UNKNOWN",writer, output);
+                    write(output, null, dispatcher.parseError(e), false, remote, System.nanoTime());
                     break;
                 } catch (IOException e) {
-                    logger.warn("Client I/O error: {}", e.getMessage());
-                    break;
-                }
-
-                logger.info("{} {} from {}", request.method, request.path, socket.getRemoteSocketAddress());
-                if (ServerInfo.DEBUG_ENABLED) logger.debug("{}", request);
-
-                HttpHandler handler = router.findHandler(request.method, request.path);
-
-                if (handler == null && "HEAD".equalsIgnoreCase(request.method)) {
-                    // Try fallback to GET handler
-                    handler = router.findHandler("GET", request.path);
-                }
-
-                HttpResponse response;
-
-                if (handler != null) {
-                    response = handler.handle(request);
-                } else if (isGetOrHead(request.method) && staticRoot != null) {
-                    response = serveStaticFile(request.path);
-                } else {
-                    Set<String> allowed = router.allowedMethods(request.path);
-                    if (!allowed.isEmpty()) {
-                        response = HttpResponse.methodNotAllowed(allowed);
+                    if (timedOutIn >= 0) {
+                        logTimeout();
+                    } else if (state.get() == CLOSING) {
+                        logger.info("Closed idle connection for shutdown.");
                     } else {
-                        response = HttpResponse.notFound("Route not found".getBytes(), "text/plain");
+                        logger.warn("Client I/O error: {}", e.getMessage());
                     }
+                    break;
                 }
 
-                boolean close = "close".equalsIgnoreCase(request.getHeader("connection"));
-                if (close) {
-                    response.getHeaders().put("Connection", "close");
-                } else {
-                    response.getHeaders().put("Connection", "keep-alive");
+                long start = System.nanoTime();
+                HttpResponse response = dispatcher.dispatch(request, remote, wait);
+                if (clientGone) {
+                    logger.info("Client closed connection while its request was in progress.");
+                    break;
                 }
+                boolean keepAlive = dispatcher.keepConnectionOpen(request, response, ++served);
+                write(output, request, response, keepAlive, remote, start);
 
-                logger.info("{} {} -> {} from {}", request.method, request.path, response.getStatus(), socket.getRemoteSocketAddress());
-                if (ServerInfo.DEBUG_ENABLED) logger.debug("{}", response);
-
-                response.writeTo(request.method,writer, output);
-
-                if (close) break;
+                if (!keepAlive) break;
+            }
+            if (state.get() != CLOSING) {
+                output.flush();
             }
         } catch (IOException e) {
-            logger.error("IO error: {}", e.getMessage());
+            if (timedOutIn >= 0) {
+                logTimeout();
+            } else if (state.get() != CLOSING) {
+                logger.error("IO error: {}", e.getMessage());
+            }
+        } finally {
+            wheel.cancel(this);
+            if (state.getAndSet(CLOSING) == IDLE) {
+                metrics.connectionBusy(); // e.g. the keep-alive timeout
+            }
         }
     }
 
-    /**
-     * Figures out whether the request method is a GET or HEAD
-     */
-    private boolean isGetOrHead(String method) {
-        return "GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method);
+    @Override
+    protected void expire() {
+        timedOutIn = phase;
+        closeChannel(); // fails the blocked read
     }
 
     /**
-     * Serves static files from the configured static root directory.
+     * Waits, as for the next request, until the read-ahead left by an asynchronous handler has read something.
      */
-    private HttpResponse serveStaticFile(String requestPath) {
+    private void awaitReadAhead(ResponseWriter output) throws IOException {
+        if (readAhead == null) {
+            return;
+        }
+        output.flush();
+        phase = WAITING;
+        wheel.schedule(this, keepAliveNanos);
+        if (state.compareAndSet(BUSY, IDLE)) {
+            metrics.connectionIdle();
+        }
         try {
-            File file = new File(staticRoot, requestPath);
-            if (!file.getCanonicalPath().startsWith(staticRoot.getCanonicalPath())) {
-                return HttpResponse.of(403, "Forbidden", "Access Denied".getBytes(), "text/plain");
-            }
+            readAhead.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for the next request");
+        }
+        readAhead = null;
+    }
 
-            if (!file.exists()) {
-                return HttpResponse.notFound("File not found".getBytes(), "text/plain");
-            }
+    private void logTimeout() {
+        switch (timedOutIn) {
+            case WAITING -> logger.info("Keep-alive timeout reached. Closing connection.");
+            case HEAD -> logger.info("Timed out waiting for the request head. Closing connection.");
+            default -> logger.info("Timed out waiting for the request body. Closing connection.");
+        }
+    }
 
-            if (file.isDirectory()) {
-                File indexFile = new File(file, "index.html");
-                if (indexFile.exists()) {
-                    file = indexFile;
-                } else {
-                    return listDirectory(file, requestPath);
-                }
-            }
+    private void write(ResponseWriter output, HttpRequest request, HttpResponse response, boolean keepAlive,
+                       SocketAddress remote, long start) throws IOException {
+        long position = output.position();
+        output.write(response, request != null ? request.method : "UNKNOWN", keepAlive);
+        dispatcher.completed(request, response, remote, output.position() - position, start);
+    }
 
-            String mimeType = MimeTypes.guessMimeType(file.getName());
-            byte[] content = Files.readAllBytes(file.toPath());
-            return HttpResponse.ok(content, mimeType);
+    /**
+     * Closes the connection if it is waiting for a request, with nothing of one received yet.
+     * Returns whether it was closed.
+     */
+    boolean closeIfIdle() {
+        if (!state.compareAndSet(IDLE, CLOSING)) {
+            return false;
+        }
+        metrics.connectionBusy();
+        closeChannel();
+        return true;
+    }
 
-        } catch (IOException e) {
-            logger.error("Error serving static file: {}", e.getMessage());
-            return HttpResponse.of(500, "Internal Server Error", "Error reading file".getBytes(), null);
+    /**
+     * Closes the connection whatever it is doing; a request in flight fails its next read or write.
+     */
+    void close() {
+        if (state.getAndSet(CLOSING) == IDLE) {
+            metrics.connectionBusy();
         }
+        closeChannel();
     }
 
-    private HttpResponse listDirectory(File directory, String requestPath) {
-        File[] files = directory.listFiles();
-        if (files == null) {
-            return HttpResponse.of(500, "Internal Server Error", "Unable to list directory".getBytes(), "text/plain");
+    /**
+     * Moves from the keep-alive timeout to the header timeout on the first byte of a request, and
+     * times each read of a request body on its own.
+     */
+    private final class TimedInput extends FilterInputStream {
+
+        TimedInput(InputStream in) {
+            super(in);
         }
 
-        StringBuilder html = new StringBuilder();
-        html.append("<!DOCTYPE html>\n")
-                .append("<html>\n")
-                .append("<head>\n")
-                .append("  <meta charset=\"UTF-8\">\n")
-                .append("  <title>Index of ").append(requestPath).append("</title>\n")
-                .append("  <style>\n")
-                .append("    body { font-family: Arial, sans-serif; padding: 20px; }\n")
-                .append("    h1 { border-bottom: 1px solid #ccc; }\n")
-                .append("    table { width: 100%; border-collapse: collapse; }\n")
-                .append("    th, td { text-align: left; padding: 8px; border-bottom: 1px solid #eee; }\n")
-                .append("    tr:hover { background-color: #f9f9f9; }\n")
-                .append("    a { text-decoration: none; color: #007bff; }\n")
-                .append("    a:hover { text-decoration: underline; }\n")
-                .append("  </style>\n")
-                .append("</head>\n")
-                .append("<body>\n")
-                .append("  <h1>Index of ").append(requestPath).append("</h1>\n")
-                .append("  <table>\n")
-                .append("    <tr><th>Name</th><th>Size</th><th>Last Modified</th></tr>\n");
-        // Parent dir
-        if (!requestPath.equals("/")) {
-            String parent = new File(requestPath).getParent();
-            if (parent == null || parent.isEmpty()) parent = "/";
-            html.append("<tr><td><a href=\"").append(parent).append("\">../</a></td><td></td><td></td></tr>");
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (phase != BODY) {
+                int n = in.read(b, off, len);
+                if (n > 0 && phase == WAITING) {
+                    phase = HEAD;
+                    wheel.schedule(ClientHandler.this, headerNanos);
+                }
+                return n;
+            }
+            wheel.schedule(ClientHandler.this, bodyNanos);
+            try {
+                return in.read(b, off, len);
+            } finally {
+                wheel.cancel(ClientHandler.this);
+            }
         }
+    }
 
-        for (File f : files) {
-            String name = f.getName();
-            String href = requestPath.endsWith("/") ? requestPath + name : requestPath + "/" + name;
-            String displayName = f.isDirectory() ? name + "/" : name;
+    /**
+     * Watches for the client hanging up on an asynchronous handler by reading the start of its next
+     * request into the parser. The read outlives the wait and is joined before the next parse.
+     */
+    private final class ReadAhead implements ResponseWait {
 
-            String size = f.isFile() ? humanReadableSize(f.length()) : "-";
-            String lastModified = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss")
-                    .format(new java.util.Date(f.lastModified()));
+        private final HttpRequestParser parser;
+        private final InputStream input;
+        private final ResponseWriter output;
 
-            html.append("<tr>")
-                    .append("<td><a href=\"").append(href).append("\">").append(displayName).append("</a></td>")
-                    .append("<td>").append(size).append("</td>")
-                    .append("<td>").append(lastModified).append("</td>")
-                    .append("</tr>");
+        ReadAhead(HttpRequestParser parser, InputStream input, ResponseWriter output) {
+            this.parser = parser;
+            this.input = input;
+            this.output = output;
         }
 
-        html.append("</table></body></html>");
-        return HttpResponse.ok(html.toString().getBytes(StandardCharsets.UTF_8), "text/html");
-    }
+        @Override
+        public void begin(Runnable onDisconnect) throws IOException {
+            output.flush();
+            // TLS records cannot be read and written from two threads at once
+            if (tls != null || !parser.isIdle()) {
+                return;
+            }
+            phase = ANSWERING;
+            readAhead = Thread.ofVirtual().name("http4j-read-ahead").start(() -> {
+                int n;
+                try {
+                    n = parser.readAhead(input);
+                } catch (IOException e) {
+                    n = -1;
+                }
+                if (n < 0 && phase == ANSWERING) {
+                    clientGone = true;
+                    onDisconnect.run();
+                }
+            });
+        }
 
-    private String humanReadableSize(long bytes) {
-        if (bytes < 1024) return bytes + " B";
-        int exp = (int) (Math.log(bytes) / Math.log(1024));
-        return String.format("%.1f %sB", bytes / Math.pow(1024, exp), "KMGTPE".charAt(exp - 1));
+        @Override
+        public void end() {
+            // The read goes on as the wait for the next request
+        }
     }
 
+    private void closeChannel() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Error closing connection: {}", e.getMessage());
+        }
+    }
 }
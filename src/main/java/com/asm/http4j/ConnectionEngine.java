@@ -0,0 +1,35 @@
+package com.asm.http4j;
+
+import java.io.IOException;
+import java.util.function.IntConsumer;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Accepts connections and feeds their requests to a {@link RequestDispatcher}.
+ * Shutdown is driven by {@link HttpServer#stop(java.time.Duration)}: accepting stops first, idle
+ * connections are closed as the drain goes on, and whatever is still open at the deadline is closed last.
+ */
+interface ConnectionEngine {
+
+    /**
+     * Binds the configured port and serves connections. Blocks until the server is stopped.
+     * {@code listening} is called with the bound port once connections can be accepted.
+     */
+    void serve(IntConsumer listening) throws IOException;
+
+    /**
+     * Closes the listening socket. Connections already accepted are left alone. May be called before serve.
+     */
+    void stopAccepting();
+
+    /**
+     * Closes connections that are waiting for their next request, with nothing of one received yet.
+     */
+    void closeIdleConnections();
+
+    /**
+     * Closes every connection, even with a request in flight, and lets serve return.
+     */
+    void closeAllConnections();
+}
@@ -0,0 +1,35 @@
+package com.asm.http4j;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Runs around a handler, e.g. to check credentials, add headers or time requests. A filter calls
+ * {@code next.handle(request)} to go on down the chain and may change what comes back, or answers
+ * itself without calling it. Filters are added with {@link Router#use} for every request and with
+ * {@link Router#addRoute(String, String, HttpHandler, HttpFilter...)} for one route; the router
+ * composes them into one handler per route when routes are added, so a request walks a fixed chain
+ * of calls rather than a list.
+ * To add headers to a response the filter did not create, use {@link HttpResponse#withHeaders}: it may
+ * be a precomputed one shared by other requests (see {@link HttpResponse#getHeaders()}).
+ */
+@FunctionalInterface
+public interface HttpFilter {
+
+    HttpResponse filter(HttpRequest request, HttpHandler next) throws IOException;
+
+    /**
+     * Composes filters around a handler, the first filter outermost.
+     */
+    static HttpHandler chain(List<HttpFilter> filters, HttpHandler handler) {
+        HttpHandler next = handler;
+        for (int i = filters.size() - 1; i >= 0; i--) {
+            HttpFilter filter = filters.get(i);
+            HttpHandler inner = next;
+            next = request -> filter.filter(request, inner);
+        }
+        return next;
+    }
+}
@@ -0,0 +1,119 @@
+package com.asm.http4j;
+
+import com.asm.http4j.util.HttpStatus;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Ready-made {@link HttpFilter}s, also available to routes.json. Responses they answer with are
+ * precomputed, and headers they add to a precomputed response are added once, to a precomputed
+ * copy kept with it, so filtering a cached response costs no allocation.
+ */
+public final class HttpFilters {
+
+    private HttpFilters() {
+    }
+
+    /**
+     * Sets headers on every response, replacing any the handler set.
+     */
+    public static HttpFilter headers(Map<String, String> headers) {
+        Map<String, String> copy = Map.copyOf(headers);
+        return new HttpFilter() {
+            private final Function<HttpResponse, HttpResponse> precompute = response -> response.withHeaders(copy).precompute();
+
+            @Override
+            public HttpResponse filter(HttpRequest request, HttpHandler next) throws IOException {
+                return addHeaders(next.handle(request), this, copy, precompute);
+            }
+        };
+    }
+
+    /**
+     * Cross-origin resource sharing for one allowed origin ({@code *} for any): answers preflight
+     * requests itself with {@code 204} and adds {@code Access-Control-Allow-Origin} to the rest.
+     *
+     * @param maxAgeSeconds how long browsers may cache a preflight answer; 0 leaves it to them
+     */
+    public static HttpFilter cors(String allowOrigin, String allowMethods, String allowHeaders, int maxAgeSeconds) {
+        Map<String, String> actual = new LinkedHashMap<>();
+        actual.put("Access-Control-Allow-Origin", allowOrigin);
+        if (!"*".equals(allowOrigin)) {
+            actual.put("Vary", "Origin");
+        }
+        Map<String, String> preflightHeaders = new LinkedHashMap<>(actual);
+        preflightHeaders.put("Access-Control-Allow-Methods", allowMethods);
+        if (allowHeaders != null && !allowHeaders.isEmpty()) {
+            preflightHeaders.put("Access-Control-Allow-Headers", allowHeaders);
+        }
+        if (maxAgeSeconds > 0) {
+            preflightHeaders.put("Access-Control-Max-Age", Integer.toString(maxAgeSeconds));
+        }
+        HttpResponse preflight = HttpResponse.of(204, HttpStatus.reasonPhrase(204), new byte[0], null)
+                .withHeaders(preflightHeaders).precompute();
+        HttpFilter addOrigin = headers(actual);
+        return (request, next) -> {
+            if ("OPTIONS".equals(request.method) && request.getHeader("Access-Control-Request-Method") != null) {
+                return preflight;
+            }
+            return addOrigin.filter(request, next);
+        };
+    }
+
+    /**
+     * Lets through only requests with {@code Authorization: Bearer <token>}; others get {@code 401}.
+     */
+    public static HttpFilter bearerAuth(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("Bearer token must not be empty");
+        }
+        byte[] expected = ("bearer " + token).getBytes(StandardCharsets.UTF_8);
+        HttpResponse unauthorized = HttpResponse.of(401, HttpStatus.reasonPhrase(401), "Unauthorized".getBytes(), "text/plain")
+                .withHeaders(Map.of("WWW-Authenticate", "Bearer")).precompute();
+        return (request, next) -> {
+            String authorization = request.getHeader("Authorization");
+            if (authorization == null || !MessageDigest.isEqual(expected, schemeLowerCase(authorization))) {
+                return unauthorized;
+            }
+            return next.handle(request);
+        };
+    }
+
+    /**
+     * Adds {@code Server-Timing: app;dur=<ms>} with the time spent in the rest of the chain.
+     */
+    public static HttpFilter timing() {
+        return (request, next) -> {
+            long start = System.nanoTime();
+            HttpResponse response = next.handle(request);
+            String duration = String.format(Locale.ROOT, "app;dur=%.3f", (System.nanoTime() - start) / 1e6);
+            return response.withHeaders(Map.of("Server-Timing", duration));
+        };
+    }
+
+    private static HttpResponse addHeaders(HttpResponse response, Object key, Map<String, String> headers,
+                                           Function<HttpResponse, HttpResponse> precompute) {
+        if (response.getImage() != null) {
+            return response.derived(key, precompute);
+        }
+        return response.withHeaders(headers);
+    }
+
+    /**
+     * The header's bytes with the auth scheme lower-cased, as schemes are case-insensitive.
+     */
+    private static byte[] schemeLowerCase(String authorization) {
+        int space = authorization.indexOf(' ');
+        String scheme = space < 0 ? authorization : authorization.substring(0, space);
+        return (scheme.toLowerCase(Locale.ROOT) + (space < 0 ? "" : authorization.substring(space)))
+                .getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -2,132 +2,336 @@ package com.asm.http4j;
 
 import com.asm.http4j.exception.HttpParsingException;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author ashutosh
  * @since 7/5/25
  * Represents a parsed HTTP request
- * Parses the request line, headers, and optional body
+ * Headers are kept as offsets into the connection's read buffer (see {@link HttpRequestParser})
+ * and are only turned into Strings on access.
+ * The body is not read with the head: handlers stream it with {@link #getBodyStream()}, or
+ * use {@link #getBodyBytes()} to read it whole.
  */
 public class HttpRequest {
+    static final String HTTP_1_1 = "HTTP/1.1";
+    static final String[] KNOWN_METHODS = {"GET", "POST", "HEAD", "PUT", "DELETE", "OPTIONS", "PATCH", "TRACE", "CONNECT"};
+    private static final byte[] NO_BODY = new byte[0];
+
     public final String method;
     public final String path;
     public final String version;
-    private String body = "";
-    private final Map<String, List<String>> headers = new HashMap<>();
 
+    private RequestBody requestBody;
+    private byte[] bodyBytes;
+    private String body;
+    private long contentLength = -1;
+
+    private byte[] buf;
+    private boolean headDetached;
+    private int[] headerOffsets;
+    private final int headerCount;
+    private Map<String, List<String>> headers;
+    private String[] pathParamNames;
+    private String[] pathParamValues;
+    private ResponseWait responseWait;
+    private Set<String> allowedMethods;
 
-    private HttpRequest(String method, String path, String version) {
+    HttpRequest(String method, String path, String version, byte[] buf, int[] headerOffsets, int headerCount) {
         this.method = method;
         this.path = path;
         this.version = version;
+        this.buf = buf;
+        this.headerOffsets = headerOffsets;
+        this.headerCount = headerCount;
     }
 
     /**
-     * Parses the incoming HTTP request from a reader.
+     * Parses a single HTTP request from a stream.
+     * Connections should keep one {@link HttpRequestParser} instead, so that its buffer is reused.
      */
-    public static HttpRequest parse(BufferedReader reader) throws IOException, HttpParsingException {
-        //Parse request line: METHOD /path HTTP/1.1
-        String line;
+    public static HttpRequest parse(InputStream in) throws IOException, HttpParsingException {
+        return new HttpRequestParser().parse(in);
+    }
 
-        while (true) {
-            line = reader.readLine();
+    /**
+     * The body as it arrives from the client, de-chunked. Reading it past the configured maximum
+     * size, or reading a malformed chunked body, fails with an IOException; the server then
+     * answers with 413 or 400 itself.
+     */
+    public InputStream getBodyStream() {
+        if (bodyBytes != null) {
+            return new ByteArrayInputStream(bodyBytes);
+        }
+        return requestBody != null ? requestBody : InputStream.nullInputStream();
+    }
 
-            if (line == null) {
-                return null;
-            }
+    /**
+     * The body as a channel, e.g. to transfer it to a file.
+     */
+    public ReadableByteChannel getBodyChannel() {
+        return Channels.newChannel(getBodyStream());
+    }
 
-            if (!line.isBlank()) {
-                break;
-            }
+    /**
+     * Reads the rest of the body into memory. It is kept, so later calls return the same bytes.
+     */
+    public byte[] getBodyBytes() throws IOException {
+        if (bodyBytes == null) {
+            bodyBytes = requestBody != null ? requestBody.readAllBytes() : NO_BODY;
+        }
+        return bodyBytes;
+    }
 
-            // If the client just sends CRLF repeatedly without closing connection,
-            // you keep looping — that's fine (eventually timeout or close)
+    /**
+     * The body decoded as UTF-8.
+     */
+    public String getBody() throws IOException {
+        if (body == null) {
+            body = new String(getBodyBytes(), StandardCharsets.UTF_8);
         }
+        return body;
+    }
 
-        HttpRequest request = getHttpRequest(line);
+    public void setBody(String body) {
+        this.body = body;
+        this.bodyBytes = body.getBytes(StandardCharsets.UTF_8);
+    }
 
-        //Parse headers
-        while ((line = reader.readLine()) != null && !line.isEmpty()) {
-            int idx = line.indexOf(":");
-            if (idx == -1) {
-                throw new HttpParsingException("Malformed header line: " + line);
-            }
+    /**
+     * The declared Content-Length, or -1 if the request had none.
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
 
-            String key = line.substring(0, idx).trim().toLowerCase();
-            String value = line.substring(idx + 1).trim();
+    void setContentLength(long contentLength) {
+        this.contentLength = contentLength;
+    }
 
-            request.headers.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
-        }
+    /**
+     * Whether the body is sent with {@code Transfer-Encoding: chunked}, so its length is not known up front.
+     */
+    public boolean isChunked() {
+        return contentLength < 0 && requestBody != null;
+    }
+
+    void setRequestBody(RequestBody requestBody) {
+        this.requestBody = requestBody;
+    }
+
+    /**
+     * Whether the body has been read to its end, leaving the connection at the start of the next request.
+     */
+    boolean isBodyComplete() {
+        return requestBody == null || requestBody.isFinished();
+    }
+
+    /**
+     * How the connection waits for an asynchronous handler's response, or null outside a connection.
+     */
+    ResponseWait getResponseWait() {
+        return responseWait;
+    }
+
+    void setResponseWait(ResponseWait responseWait) {
+        this.responseWait = responseWait;
+    }
 
-        //Reject unsupported transfer encodings
-        String transferEncoding = request.getHeader("transfer-encoding");
-        if (transferEncoding != null && !"identity".equalsIgnoreCase(transferEncoding)) {
-            throw new HttpParsingException("Unsupported Transfer-Encoding: " + transferEncoding);
+    /**
+     * The methods the matched path takes when none of them is this request's, or null if no route matched.
+     */
+    Set<String> getAllowedMethods() {
+        return allowedMethods;
+    }
+
+    void setAllowedMethods(Set<String> allowedMethods) {
+        this.allowedMethods = allowedMethods;
+    }
+
+    /**
+     * Why reading the body failed, e.g. 413 for a chunked body over the limit, or null.
+     */
+    HttpParsingException getBodyError() {
+        return requestBody != null ? requestBody.getError() : null;
+    }
+
+    /**
+     * Reads and drops whatever body the handler did not read, up to limit bytes.
+     * Returns false if the body could not be finished, in which case the connection must be closed.
+     */
+    boolean discardBody(long limit) {
+        return requestBody == null || requestBody.discard(limit);
+    }
+
+    /**
+     * Copies the head and its header offsets out of the parser's buffers before the parser reuses them,
+     * e.g. for body bytes or the next pipelined request. Only the first call copies.
+     */
+    void detachHead() {
+        if (headDetached) {
+            return;
         }
+        headDetached = true;
+        int used = headerCount > 0 ? headerOffsets[headerCount * 4 - 1] : 0;
+        buf = Arrays.copyOf(buf, used);
+        headerOffsets = Arrays.copyOf(headerOffsets, headerCount * 4);
+    }
+
+    /**
+     * The path without its query string.
+     */
+    public String getPathWithoutQuery() {
+        int query = path.indexOf('?');
+        return query < 0 ? path : path.substring(0, query);
+    }
+
+    /**
+     * The raw query string after '?', or null if there is none.
+     */
+    public String getQuery() {
+        int query = path.indexOf('?');
+        return query < 0 ? null : path.substring(query + 1);
+    }
 
-        //Read body if Content-Length is present
-        String contentLengthHeader = request.getHeader("content-length");
-        if (contentLengthHeader != null) {
-            try {
-                int contentLength = Integer.parseInt(contentLengthHeader);
-                char[] bodyChars = new char[contentLength];
-                int read = reader.read(bodyChars, 0, contentLength);
-                request.setBody(new String(bodyChars, 0, read));
-            } catch (NumberFormatException e) {
-                throw new HttpParsingException("Invalid Content-Length value: " + contentLengthHeader);
+    /**
+     * A parameter captured by the matched route, e.g. {@code id} for {@code /users/{id}}, still
+     * percent-encoded. The rest of the path matched by a trailing {@code *} is named "*".
+     */
+    public String getPathParam(String name) {
+        if (pathParamNames != null) {
+            for (int i = 0; i < pathParamNames.length; i++) {
+                if (pathParamNames[i].equals(name)) {
+                    return pathParamValues[i];
+                }
             }
         }
+        return null;
+    }
 
-        if (!request.headers.containsKey("host")) {
-            throw new HttpParsingException("Missing required Host header");
+    public Map<String, String> getPathParams() {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (pathParamNames != null) {
+            for (int i = 0; i < pathParamNames.length; i++) {
+                params.put(pathParamNames[i], pathParamValues[i]);
+            }
         }
+        return params;
+    }
 
-        return request;
+    void setPathParams(String[] names, String[] values) {
+        this.pathParamNames = names;
+        this.pathParamValues = values;
     }
 
-    private static HttpRequest getHttpRequest(String line) throws HttpParsingException {
-        if (line == null || line.isEmpty()) {
-            throw new HttpParsingException("Empty request line");
+    /**
+     * Returns all headers keyed by lower-cased name. The map is built on first call.
+     */
+    public Map<String, List<String>> getHeaders() {
+        if (headers == null) {
+            Map<String, List<String>> map = new HashMap<>();
+            for (int i = 0; i < headerCount; i++) {
+                map.computeIfAbsent(headerName(i), k -> new ArrayList<>()).add(headerValue(i));
+            }
+            headers = map;
         }
+        return headers;
+    }
 
-        String[] parts = line.split(" ");
-        if (parts.length != 3) {
-            throw new HttpParsingException("Invalid request line: " + line);
+    public List<String> getHeaderValues(String key) {
+        int i = indexOfHeader(key, 0);
+        if (i < 0) {
+            return List.of();
         }
+        List<String> values = new ArrayList<>(1);
+        for (; i >= 0; i = indexOfHeader(key, i + 1)) {
+            values.add(headerValue(i));
+        }
+        return values;
+    }
+
+    public String getHeader(String key) {
+        int i = indexOfHeader(key, 0);
+        return i < 0 ? null : headerValue(i);
+    }
 
-        if (!"HTTP/1.1".equalsIgnoreCase(parts[2])) {
-            throw new HttpParsingException("Unsupported HTTP version: " + parts[2]);
+    /**
+     * Compares the first value of a header without materializing it, e.g. {@code Connection: close}.
+     */
+    public boolean headerEqualsIgnoreCase(String key, String value) {
+        int i = indexOfHeader(key, 0);
+        return i >= 0 && headerValueEqualsIgnoreCase(i, value);
+    }
+
+    int indexOfHeader(String key, int from) {
+        int len = key.length();
+        for (int i = from; i < headerCount; i++) {
+            int slot = i * 4;
+            int nameStart = headerOffsets[slot];
+            if (headerOffsets[slot + 1] - nameStart == len && regionEqualsIgnoreCase(nameStart, key)) {
+                return i;
+            }
         }
+        return -1;
+    }
 
-        return new HttpRequest(parts[0], parts[1], parts[2]);
+    /**
+     * Copies the raw bytes of a header's first value into dst, truncated to fit, without making a String.
+     * Returns the number of bytes copied, or -1 if the header is absent.
+     */
+    int copyHeaderValue(String key, byte[] dst) {
+        int i = indexOfHeader(key, 0);
+        if (i < 0) {
+            return -1;
+        }
+        int valueStart = headerOffsets[i * 4 + 2];
+        int length = Math.min(headerOffsets[i * 4 + 3] - valueStart, dst.length);
+        System.arraycopy(buf, valueStart, dst, 0, length);
+        return length;
     }
 
-    public String getBody() {
-        return body;
+    boolean headerValueEqualsIgnoreCase(int index, String value) {
+        int valueStart = headerOffsets[index * 4 + 2];
+        return headerOffsets[index * 4 + 3] - valueStart == value.length() && regionEqualsIgnoreCase(valueStart, value);
     }
 
-    public void setBody(String body) {
-        this.body = body;
+    String headerName(int index) {
+        int nameStart = headerOffsets[index * 4];
+        byte[] name = new byte[headerOffsets[index * 4 + 1] - nameStart];
+        for (int i = 0; i < name.length; i++) {
+            name[i] = toLower(buf[nameStart + i]);
+        }
+        return new String(name, StandardCharsets.UTF_8);
     }
 
-    public Map<String, List<String>> getHeaders() {
-        return headers;
+    String headerValue(int index) {
+        int valueStart = headerOffsets[index * 4 + 2];
+        return new String(buf, valueStart, headerOffsets[index * 4 + 3] - valueStart, StandardCharsets.UTF_8);
     }
 
-    public List<String> getHeaderValues(String key) {
-        return headers.getOrDefault(key.toLowerCase(), List.of());
+    private boolean regionEqualsIgnoreCase(int from, String ascii) {
+        for (int i = 0; i < ascii.length(); i++) {
+            if (toLower(buf[from + i]) != toLower((byte) ascii.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
     }
 
-    public String getHeader(String key) {
-        List<String> values = headers.get(key.toLowerCase());
-        return (values == null || values.isEmpty()) ? null : values.get(0);
+    static byte toLower(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
     }
 
 
@@ -137,8 +341,9 @@ public class HttpRequest {
                 "method='" + method + '\'' +
                 ", path='" + path + '\'' +
                 ", version='" + version + '\'' +
-                ", body='" + body + '\'' +
-                ", headers=" + headers +
+                ", body=" + (bodyBytes != null ? "'" + new String(bodyBytes, StandardCharsets.UTF_8) + "'"
+                : requestBody != null ? "<unread>" : "''") +
+                ", headers=" + getHeaders() +
                 '}';
     }
 }
@@ -0,0 +1,497 @@
+package com.asm.http4j;
+
+import com.asm.http4j.exception.HttpParsingException;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Byte-level HTTP/1.1 request parser.
+ * One instance is kept per connection. Raw bytes are read into a reusable buffer,
+ * the request line and headers are indexed by offset, and header Strings are only
+ * materialized when a handler asks for them. Since a parsed {@link HttpRequest} reads
+ * its headers straight out of this buffer, it is only valid until the next call to parse.
+ * A request is returned as soon as its head is complete; its body is then read on demand
+ * through the same buffer (see {@link RequestBody}) and must be finished before the next parse.
+ */
+public class HttpRequestParser {
+
+    public static final int DEFAULT_MAX_REQUEST_LINE = 8 * 1024;
+    public static final int DEFAULT_MAX_HEADER_SIZE = 16 * 1024;
+    public static final long DEFAULT_MAX_BODY_SIZE = 10L * 1024 * 1024;
+
+    private static final int SLOTS_PER_HEADER = 4;
+
+    private final int maxRequestLine;
+    private final long maxBodySize;
+    private final ByteBuffer buffer;
+    private final byte[] buf;
+
+    private int start;               // first unconsumed byte
+    private int end;                 // one past the last buffered byte
+    private int scan;                // where to resume looking for the end of the header section
+    private int requestLineEnd = -1; // index of the LF terminating the request line, once seen
+
+    private int[] headerOffsets = new int[16 * SLOTS_PER_HEADER];
+
+    // The body of the last request, read through the buffer and then from source
+    private RequestBody body;
+    private HttpRequest headOwner; // its request, until the buffer is reused for body bytes
+    private InputStream source;
+    private RequestBody.ContinueSender continueSender;
+
+    public HttpRequestParser() {
+        this(DEFAULT_MAX_REQUEST_LINE, DEFAULT_MAX_HEADER_SIZE, DEFAULT_MAX_BODY_SIZE);
+    }
+
+    /**
+     * @param maxRequestLine longest request line accepted before answering 414
+     * @param maxHeaderSize  largest request line plus header section accepted before answering 431;
+     *                       this is also the size of the per-connection buffer
+     * @param maxBodySize    largest request body accepted before answering 413
+     */
+    public HttpRequestParser(int maxRequestLine, int maxHeaderSize, long maxBodySize) {
+        this.maxRequestLine = maxRequestLine;
+        this.maxBodySize = maxBodySize;
+        this.buffer = ByteBuffer.allocate(maxHeaderSize);
+        this.buf = buffer.array();
+    }
+
+    /**
+     * Where request bodies are read from once the buffered bytes run out, and how to answer
+     * {@code Expect: 100-continue}. The blocking {@link #parse(InputStream)} sets the source itself.
+     */
+    void bodySource(InputStream source, RequestBody.ContinueSender continueSender) {
+        this.source = source;
+        this.continueSender = continueSender;
+    }
+
+    /**
+     * Reads and parses the next request from the stream.
+     * Returns null if the client closed the connection before sending a complete request head.
+     */
+    public HttpRequest parse(InputStream in) throws IOException, HttpParsingException {
+        return parse(in, null);
+    }
+
+    /**
+     * Like {@link #parse(InputStream)}, but flushes pendingOutput before the first read that may block.
+     * A connection passes its response buffer here, so that responses to pipelined requests already
+     * in the buffer are coalesced and only written out once the input runs dry.
+     */
+    public HttpRequest parse(InputStream in, Flushable pendingOutput) throws IOException, HttpParsingException {
+        source = in;
+        HttpRequest request;
+        while ((request = tryParse()) == null) {
+            if (pendingOutput != null) {
+                pendingOutput.flush();
+                pendingOutput = null;
+            }
+            if (!fill(in)) {
+                return null;
+            }
+        }
+        return request;
+    }
+
+    /**
+     * Non-blocking counterpart of {@link #parse(InputStream)}: reads whatever the channel has
+     * available into the buffer. Returns the number of bytes read, or -1 on end of stream.
+     */
+    public int readFrom(ReadableByteChannel channel) throws IOException, HttpParsingException {
+        prepareFill();
+        buffer.limit(buf.length).position(end);
+        int n = channel.read(buffer);
+        if (n > 0) {
+            end += n;
+        }
+        return n;
+    }
+
+    /**
+     * Parses the next request head from the bytes buffered so far, returning null if it is not complete yet.
+     * The body of the previous request must have been read to the end.
+     */
+    public HttpRequest tryParse() throws HttpParsingException {
+        if (body != null) {
+            if (!body.isFinished()) {
+                throw new IllegalStateException("Body of the previous request has not been read");
+            }
+            body = null;
+            headOwner = null;
+        }
+        int headEnd = findHeadEnd();
+        if (headEnd < 0) {
+            return null;
+        }
+        return parseHead(headEnd);
+    }
+
+    /**
+     * Whether bytes of a further request are already buffered, e.g. from a pipelining client.
+     */
+    public boolean hasBufferedData() {
+        return start < end;
+    }
+
+    /**
+     * Whether the parser holds no state at all, so that a connection can hand it back to a pool.
+     */
+    public boolean isIdle() {
+        return (body == null || body.isFinished()) && start == end;
+    }
+
+    /**
+     * Number of bytes buffered but not yet consumed.
+     */
+    int bufferedBytes() {
+        return end - start;
+    }
+
+    /**
+     * Reads the start of the next request while the last one is still being answered, e.g. to notice
+     * a client that hangs up on a slow handler. The parser must be idle. Returns the number of bytes
+     * read, or -1 on end of stream.
+     */
+    int readAhead(InputStream in) throws IOException {
+        detachHeadOwner();
+        start = end = scan = 0;
+        requestLineEnd = -1;
+        int n = in.read(buf, 0, buf.length);
+        if (n > 0) {
+            end = n;
+        }
+        return n;
+    }
+
+    /**
+     * Non-blocking counterpart of {@link #readAhead(InputStream)}.
+     */
+    int readAhead(ReadableByteChannel channel) throws IOException {
+        detachHeadOwner();
+        start = end = scan = 0;
+        requestLineEnd = -1;
+        buffer.limit(buf.length).position(0);
+        int n = channel.read(buffer);
+        if (n > 0) {
+            end = n;
+        }
+        return n;
+    }
+
+    private void detachHeadOwner() {
+        if (headOwner != null) {
+            headOwner.detachHead();
+            headOwner = null;
+        }
+    }
+
+    /**
+     * Reads up to len bytes of body: buffered ones first, then from the body source. Large reads
+     * go straight into the caller's array. Returns -1 on end of stream.
+     */
+    int readBody(byte[] b, int off, int len) throws IOException {
+        if (start == end) {
+            if (len >= buf.length / 2) {
+                return source.read(b, off, len);
+            }
+            if (!fillBody()) {
+                return -1;
+            }
+        }
+        int n = Math.min(len, end - start);
+        System.arraycopy(buf, start, b, off, n);
+        start += n;
+        return n;
+    }
+
+    /**
+     * Reads one byte of body framing, e.g. of a chunk-size line. Returns -1 on end of stream.
+     */
+    int readBodyByte() throws IOException {
+        if (start == end && !fillBody()) {
+            return -1;
+        }
+        return buf[start++] & 0xff;
+    }
+
+    /**
+     * Refills the empty buffer from the body source. The request head still lives in the buffer,
+     * so its request gets a copy first.
+     */
+    private boolean fillBody() throws IOException {
+        detachHeadOwner();
+        start = end = scan = 0;
+        requestLineEnd = -1;
+        int n = source.read(buf, 0, buf.length);
+        if (n < 0) {
+            return false;
+        }
+        end = n;
+        return true;
+    }
+
+    /**
+     * Skips leading blank lines and scans for the blank line closing the header section.
+     * Returns the index just past it, or -1 if more input is needed.
+     */
+    private int findHeadEnd() throws HttpParsingException {
+        if (requestLineEnd < 0) {
+            // Clients may send stray CRLFs between requests
+            while (start < end && (buf[start] == '\r' || buf[start] == '\n')) {
+                start++;
+            }
+            if (scan < start) {
+                scan = start;
+            }
+        }
+
+        for (int i = scan; i < end; i++) {
+            if (buf[i] != '\n') {
+                continue;
+            }
+            if (requestLineEnd < 0) {
+                requestLineEnd = i;
+                if (i - start > maxRequestLine) {
+                    throw new HttpParsingException(414, "Request line too long");
+                }
+            } else if (buf[i - 1] == '\n' || (buf[i - 1] == '\r' && buf[i - 2] == '\n')) {
+                scan = i + 1;
+                return i + 1;
+            }
+        }
+        scan = end;
+
+        if (requestLineEnd < 0 && end - start > maxRequestLine) {
+            throw new HttpParsingException(414, "Request line too long");
+        }
+        return -1;
+    }
+
+    /**
+     * Reads more bytes from the stream, compacting the buffer first if it is full.
+     * Returns false on end of stream.
+     */
+    private boolean fill(InputStream in) throws IOException, HttpParsingException {
+        prepareFill();
+        int n = in.read(buf, end, buf.length - end);
+        if (n < 0) {
+            return false;
+        }
+        end += n;
+        return true;
+    }
+
+    /**
+     * Makes room at the end of the buffer, rejecting a header section that already fills all of it.
+     */
+    private void prepareFill() throws HttpParsingException {
+        if (start == end) {
+            start = end = scan = 0;
+            requestLineEnd = -1;
+        } else if (end == buf.length) {
+            if (start == 0) {
+                throw new HttpParsingException(431, "Request header fields too large");
+            }
+            compact();
+        }
+    }
+
+    private void compact() {
+        int len = end - start;
+        System.arraycopy(buf, start, buf, 0, len);
+        scan -= start;
+        if (requestLineEnd >= 0) {
+            requestLineEnd -= start;
+        }
+        start = 0;
+        end = len;
+    }
+
+    private HttpRequest parseHead(int headEnd) throws HttpParsingException {
+        //Parse request line: METHOD /path HTTP/1.1
+        int lineEnd = requestLineEnd;
+        int lineStop = stripCr(start, lineEnd);
+
+        int sp1 = indexOf((byte) ' ', start, lineStop);
+        int sp2 = sp1 < 0 ? -1 : indexOf((byte) ' ', sp1 + 1, lineStop);
+        if (sp1 <= start || sp2 < 0 || sp2 == sp1 + 1 || sp2 + 1 >= lineStop
+                || indexOf((byte) ' ', sp2 + 1, lineStop) >= 0) {
+            throw new HttpParsingException("Invalid request line: " + string(start, lineStop));
+        }
+
+        if (!equalsIgnoreCase(sp2 + 1, lineStop, "HTTP/1.1")) {
+            throw new HttpParsingException("Unsupported HTTP version: " + string(sp2 + 1, lineStop));
+        }
+
+        String method = internMethod(start, sp1);
+        String path = new String(buf, sp1 + 1, sp2 - sp1 - 1, StandardCharsets.UTF_8);
+
+        //Index headers by offset
+        int count = 0;
+        int pos = lineEnd + 1;
+        while (pos < headEnd) {
+            int eol = indexOf((byte) '\n', pos, headEnd);
+            int stop = stripCr(pos, eol);
+            if (stop == pos) {
+                break;
+            }
+
+            int colon = indexOf((byte) ':', pos, stop);
+            if (colon == -1) {
+                throw new HttpParsingException("Malformed header line: " + string(pos, stop));
+            }
+
+            if ((count + 1) * SLOTS_PER_HEADER > headerOffsets.length) {
+                int[] grown = new int[headerOffsets.length * 2];
+                System.arraycopy(headerOffsets, 0, grown, 0, headerOffsets.length);
+                headerOffsets = grown;
+            }
+            int slot = count * SLOTS_PER_HEADER;
+            headerOffsets[slot] = skipSpaces(pos, colon);
+            headerOffsets[slot + 1] = trimSpaces(headerOffsets[slot], colon);
+            headerOffsets[slot + 2] = skipSpaces(colon + 1, stop);
+            headerOffsets[slot + 3] = trimSpaces(headerOffsets[slot + 2], stop);
+            count++;
+
+            pos = eol + 1;
+        }
+
+        // The request now owns the head bytes; the body (or the next request) starts here
+        start = headEnd;
+        requestLineEnd = -1;
+
+        HttpRequest request = new HttpRequest(method, path, HttpRequest.HTTP_1_1, buf, headerOffsets, count);
+
+        //Only chunked is supported as a transfer coding
+        int te = request.indexOfHeader("transfer-encoding", 0);
+        boolean chunked = false;
+        if (te >= 0) {
+            if (request.headerValueEqualsIgnoreCase(te, "chunked")) {
+                chunked = true;
+            } else if (!request.headerValueEqualsIgnoreCase(te, "identity")) {
+                throw new HttpParsingException(501, "Unsupported Transfer-Encoding: " + request.headerValue(te));
+            }
+        }
+
+        //Validate Content-Length if present
+        int cl = request.indexOfHeader("content-length", 0);
+        if (cl >= 0) {
+            if (chunked) {
+                // Ambiguous framing is how requests get smuggled past proxies
+                throw new HttpParsingException("Both Transfer-Encoding and Content-Length present");
+            }
+            long contentLength = parseContentLength(headerOffsets[cl * SLOTS_PER_HEADER + 2],
+                    headerOffsets[cl * SLOTS_PER_HEADER + 3]);
+            if (contentLength < 0) {
+                throw new HttpParsingException("Invalid Content-Length value: " + request.headerValue(cl));
+            }
+            if (contentLength > maxBodySize) {
+                throw new HttpParsingException(413, "Request body too large: " + contentLength + " bytes");
+            }
+            request.setContentLength(contentLength);
+        }
+
+        if (request.indexOfHeader("host", 0) < 0) {
+            throw new HttpParsingException("Missing required Host header");
+        }
+
+        if (chunked || request.getContentLength() > 0) {
+            boolean expectContinue = request.headerEqualsIgnoreCase("expect", "100-continue");
+            body = new RequestBody(this, chunked, request.getContentLength(), maxBodySize,
+                    expectContinue ? continueSender : null);
+            request.setRequestBody(body);
+            headOwner = request;
+        }
+
+        return request;
+    }
+
+    /**
+     * Parses a non-negative decimal Content-Length, returning -1 if it is not one.
+     */
+    private long parseContentLength(int from, int to) {
+        if (from == to || to - from > 18) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            byte b = buf[i];
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Returns a shared constant for the standard methods so that they never allocate.
+     */
+    private String internMethod(int from, int to) {
+        for (String known : HttpRequest.KNOWN_METHODS) {
+            if (to - from == known.length() && regionEquals(from, known)) {
+                return known;
+            }
+        }
+        return string(from, to);
+    }
+
+    private boolean regionEquals(int from, String ascii) {
+        for (int i = 0; i < ascii.length(); i++) {
+            if (buf[from + i] != ascii.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean equalsIgnoreCase(int from, int to, String ascii) {
+        if (to - from != ascii.length()) {
+            return false;
+        }
+        for (int i = 0; i < ascii.length(); i++) {
+            if (HttpRequest.toLower(buf[from + i]) != HttpRequest.toLower((byte) ascii.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(byte b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buf[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int stripCr(int from, int lf) {
+        return lf > from && buf[lf - 1] == '\r' ? lf - 1 : lf;
+    }
+
+    private int skipSpaces(int from, int to) {
+        while (from < to && (buf[from] == ' ' || buf[from] == '\t')) {
+            from++;
+        }
+        return from;
+    }
+
+    private int trimSpaces(int from, int to) {
+        while (to > from && (buf[to - 1] == ' ' || buf[to - 1] == '\t')) {
+            to--;
+        }
+        return to;
+    }
+
+    private String string(int from, int to) {
+        return new String(buf, from, to - from, StandardCharsets.UTF_8);
+    }
+}
@@ -1,16 +1,21 @@
 package com.asm.http4j;
 
-import java.io.BufferedWriter;
+import com.asm.http4j.util.HttpStatus;
+import com.asm.http4j.util.MimeTypes;
+
 import java.io.IOException;
-import java.io.OutputStream;
-import java.time.ZoneOffset;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
-
-import static com.asm.http4j.util.ServerInfo.VERSION;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
 
 /**
  * @author ashutosh
@@ -19,18 +24,26 @@ import static com.asm.http4j.util.ServerInfo.VERSION;
 public class HttpResponse {
     private final int status;
     private final String reason;
-    private final byte[] body;
+    private final ResponseBody body;
     private final String contentType;
-    private final Map<String, String> headers;
+    private Map<String, String> headers;
+    // File the body was read from, if any, so precompressed siblings can be found
+    private Path source;
+    // Set on precomputed responses only
+    private ResponseImage image;
 
-    private HttpResponse(int status, String reason, byte[] body, String contentType, Map<String, String> headers) {
+    private HttpResponse(int status, String reason, ResponseBody body, String contentType, Map<String, String> headers) {
         this.status = status;
         this.reason = reason;
-        this.body = body;
+        this.body = body != null ? body : ResponseBody.EMPTY;
         this.contentType = contentType;
         this.headers = headers != null ? headers : new HashMap<>();
     }
 
+    private HttpResponse(int status, String reason, byte[] body, String contentType, Map<String, String> headers) {
+        this(status, reason, body != null ? new ResponseBody.Bytes(body) : null, contentType, headers);
+    }
+
     private HttpResponse(int status, String reason, byte[] body, String contentType) {
         this(status, reason, body, contentType, new HashMap<>());
     }
@@ -43,20 +56,88 @@ public class HttpResponse {
         return reason;
     }
 
+    /**
+     * The body bytes, or null when the body is a file or a stream (see {@link #getResponseBody()}).
+     */
     public byte[] getBody() {
+        return body instanceof ResponseBody.Bytes bytes ? bytes.bytes() : null;
+    }
+
+    public ResponseBody getResponseBody() {
         return body;
     }
 
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Returns a copy of this response that is serialized once, up front. A handler can
+     * return the same precomputed response for every request; the writer then only adds the Date
+     * and Connection headers. Compressible responses get Vary: Accept-Encoding, as their
+     * compressed variants are precomputed too. Only responses with a byte body can be precomputed.
+     * Add headers to it with {@link #withHeaders(Map)}; see {@link #getHeaders()}.
+     */
+    public HttpResponse precompute() {
+        if (!(body instanceof ResponseBody.Bytes)) {
+            throw new IllegalStateException("Only responses with a byte body can be precomputed");
+        }
+        Map<String, String> frozen = new LinkedHashMap<>(headers);
+        String type = frozen.getOrDefault("Content-Type", contentType);
+        if (MimeTypes.isCompressible(type) && !frozen.containsKey("Content-Encoding") && !frozen.containsKey("Vary")) {
+            frozen.put("Vary", "Accept-Encoding");
+        }
+        HttpResponse precomputed = new HttpResponse(status, reason, body, contentType, null);
+        precomputed.headers = precomputed.new CopyOnWriteHeaders(frozen);
+        precomputed.image = ResponseWriter.render(precomputed);
+        return precomputed;
+    }
+
+    /**
+     * This response with more headers, replacing any of the same name. A precomputed response is left
+     * as it is and a plain copy carrying the headers is returned; other responses are changed in place.
+     */
+    public HttpResponse withHeaders(Map<String, String> extra) {
+        if (image == null) {
+            headers.putAll(extra);
+            return this;
+        }
+        Map<String, String> merged = new LinkedHashMap<>(headers);
+        merged.putAll(extra);
+        HttpResponse copy = new HttpResponse(status, reason, body, contentType, merged);
+        copy.source = source;
+        return copy;
+    }
+
+    /**
+     * A response derived from this precomputed one, built once per key and kept with it.
+     */
+    HttpResponse derived(Object key, Function<HttpResponse, HttpResponse> derive) {
+        return image.derived(key, this, derive);
+    }
+
+    ResponseImage getImage() {
+        return image;
+    }
+
+    Path getSource() {
+        return source;
+    }
+
+    void setSource(Path source) {
+        this.source = source;
+    }
+
     public static HttpResponse ok(byte[] body, String contentType) {
-        return new HttpResponse(200, "OK", body, contentType);
+        return new HttpResponse(200, HttpStatus.reasonPhrase(200), body, contentType);
     }
 
     public static HttpResponse notFound(byte[] body, String contentType) {
-        return new HttpResponse(404, "NOT_FOUND", body, contentType);
+        return new HttpResponse(404, HttpStatus.reasonPhrase(404), body, contentType);
     }
 
     public static HttpResponse badRequest(byte[] body, String contentType) {
-        return new HttpResponse(400, "BAD_REQUEST", body, contentType);
+        return new HttpResponse(400, HttpStatus.reasonPhrase(400), body, contentType);
     }
 
     public static HttpResponse versionNotSupported(String body) {
@@ -66,51 +147,136 @@ public class HttpResponse {
     public static HttpResponse methodNotAllowed(Set<String> allowedMethods) {
         String allowHeader = String.join(", ", allowedMethods);
         String body = "Method Not Allowed. Allowed: " + allowHeader;
-        return new HttpResponse(405, "Method Not Allowed", body.getBytes(), "text/plain", Map.of("Allow", allowHeader));
+        return new HttpResponse(405, "Method Not Allowed", body.getBytes(), "text/plain", new HashMap<>(Map.of("Allow", allowHeader)));
     }
 
     public static HttpResponse of(int status, String reason, byte[] body, String contentType) {
         return new HttpResponse(status, reason, body, contentType);
     }
 
-    public void writeTo(String requestMethod, BufferedWriter writer, OutputStream outputStream) throws IOException {
-        if (!headers.containsKey("Date")) {
-            String date = ZonedDateTime.now(ZoneOffset.UTC).format(DateTimeFormatter.RFC_1123_DATE_TIME);
-            headers.put("Date", date);
-        }
-        writer.write("HTTP/1.1 " + status + " " + reason + "\r\n");
+    public static HttpResponse of(int status, String reason, ResponseBody body, String contentType) {
+        return new HttpResponse(status, reason, body, contentType, new HashMap<>());
+    }
+
+    /**
+     * A 200 response with the whole file as its body. The content is never read onto the heap;
+     * only its size is looked up here.
+     */
+    public static HttpResponse file(Path path, String contentType) throws IOException {
+        return new HttpResponse(200, HttpStatus.reasonPhrase(200), new ResponseBody.FileRegion(path, 0, Files.size(path)), contentType, null);
+    }
+
+    /**
+     * A 200 response whose body is exactly length bytes read from in.
+     */
+    public static HttpResponse stream(InputStream in, long length, String contentType) {
+        return new HttpResponse(200, HttpStatus.reasonPhrase(200), new ResponseBody.Stream(in, length), contentType, null);
+    }
+
+    /**
+     * A 200 response whose body is everything read from in, of a length not known up front.
+     * It is sent chunked and in is closed at the end.
+     */
+    public static HttpResponse stream(InputStream in, String contentType) {
+        return chunked(contentType, out -> {
+            try (in) {
+                in.transferTo(out);
+            }
+        });
+    }
+
+    /**
+     * A 200 response whose body is produced by writer while it is sent, with
+     * {@code Transfer-Encoding: chunked}. The writer runs on the connection's thread after the
+     * handler returns and is held back by the client's pace, so it only ever buffers a few KiB.
+     */
+    public static HttpResponse chunked(String contentType, ResponseBody.BodyWriter writer) {
+        return new HttpResponse(200, HttpStatus.reasonPhrase(200), new ResponseBody.Chunked(writer), contentType, null);
+    }
+
+    /**
+     * A 200 response whose body is the buffers of publisher, sent chunked. Buffers are requested
+     * a few at a time, as fast as the client takes them.
+     */
+    public static HttpResponse publisher(Flow.Publisher<ByteBuffer> publisher, String contentType) {
+        return chunked(contentType, new PublisherBodyWriter(publisher));
+    }
+
+    /**
+     * The headers, which filters and handlers may change in place on responses they created.
+     * A precomputed response may be shared by every request that gets it, e.g. from a config route,
+     * {@link ResponseCache} or {@link HttpFilters}, so use {@link #withHeaders(Map)} on it instead.
+     * Changing its headers in place still works, but changes it for all of those requests and drops
+     * its serialized form, so it is written field by field from then on.
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpResponse{" +
+                "status=" + status +
+                ", reason='" + reason + '\'' +
+                ", contentType='" + contentType + '\'' +
+                ", bodyLength=" + body.length() +
+                ", headers=" + headers +
+                '}';
+    }
 
-        Map<String, String> allHeaders = headers != null ? headers : new HashMap<>();
+    /**
+     * Headers of a precomputed response. Reads see the headers it was serialized with; the first put or
+     * remove copies them and drops the serialized form, which no longer matches. Until then the entry set
+     * is read-only.
+     */
+    private final class CopyOnWriteHeaders extends AbstractMap<String, String> {
 
-        // Ensure Content-Type is present
-        if (contentType != null && !allHeaders.containsKey("Content-Type")) {
-            allHeaders.put("Content-Type", contentType);
+        private Map<String, String> map;
+        private boolean copied;
+
+        CopyOnWriteHeaders(Map<String, String> frozen) {
+            this.map = frozen;
         }
 
-        //
-        allHeaders.put("Server", "http4j" + "/" + VERSION);
+        private Map<String, String> writable() {
+            if (!copied) {
+                map = new LinkedHashMap<>(map);
+                copied = true;
+                image = null;
+            }
+            return map;
+        }
 
-        // Always set Content-Length (must be correct)
-        allHeaders.put("Content-Length", String.valueOf(body.length));
+        @Override
+        public String get(Object key) {
+            return map.get(key);
+        }
 
-        // Optional: default Connection to close if not explicitly set
-        allHeaders.putIfAbsent("Connection", "close");
+        @Override
+        public boolean containsKey(Object key) {
+            return map.containsKey(key);
+        }
 
-        // Write all headers
-        for (Map.Entry<String, String> entry : allHeaders.entrySet()) {
-            writer.write(entry.getKey() + ": " + entry.getValue() + "\r\n");
+        @Override
+        public String put(String key, String value) {
+            return writable().put(key, value);
         }
 
-        writer.write("\r\n");
-        writer.flush();
+        @Override
+        public String remove(Object key) {
+            return map.containsKey(key) ? writable().remove(key) : null;
+        }
 
-        if (!"HEAD".equalsIgnoreCase(requestMethod)) {
-            outputStream.write(body);
-            outputStream.flush();
+        @Override
+        public void clear() {
+            if (!map.isEmpty()) {
+                writable().clear();
+            }
         }
-    }
 
-    public Map<String, String> getHeaders() {
-        return headers;
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return copied ? map.entrySet() : Collections.unmodifiableMap(map).entrySet();
+        }
     }
 }
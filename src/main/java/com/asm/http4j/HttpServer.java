@@ -1,62 +1,189 @@
 package com.asm.http4j;
 
+import com.asm.http4j.metrics.ServerMetrics;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.File;
 import java.io.IOException;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.util.UUID;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.ObjectName;
 
 /**
  * @author ashutosh
  * @since 7/5/25
  * HttpServer is responsible for accepting incoming connections
  * and dispatching them to virtual threads for handling.
+ * How connections are multiplexed is up to the configured {@link ServerConfig.Engine}.
+ * {@link #stop(Duration)} shuts it down without cutting off requests that are being handled.
  */
 public class HttpServer {
 
     private static final Logger logger = LogManager.getLogger(HttpServer.class);
 
-    private static final AtomicInteger THREAD_ID = new AtomicInteger(0);
+    private static final long DRAIN_POLL_MS = 50;
 
-    private static final int DEFAULT_SO_TIMEOUT_MS = 10_000;
-
-    private final int port;
-    private final Router router;
-    private final File staticRoot;
+    private final ServerConfig config;
+    private final RequestDispatcher dispatcher;
+    private final ConnectionEngine engine;
+    private final CountDownLatch listening = new CountDownLatch(1);
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private volatile int port = -1;
+    private boolean stopping; // guarded by this
 
     public HttpServer(int port, Router router, File staticRoot) {
-        this.port = port;
-        this.router = router;
-        this.staticRoot = staticRoot;
+        this(new ServerConfig().port(port).staticRoot(staticRoot), router);
+    }
+
+    public HttpServer(ServerConfig config, Router router) {
+        this.config = config;
+        this.dispatcher = new RequestDispatcher(router, config);
+        this.engine = createEngine();
+    }
+
+    /**
+     * Replaces the routes of a running server without dropping connections.
+     */
+    public void setRouter(Router router) {
+        dispatcher.setRouter(router);
+    }
+
+    /**
+     * Connection and request limits, with counts of what they turned away.
+     */
+    public AdmissionControl getAdmission() {
+        return dispatcher.getAdmission();
+    }
+
+    /**
+     * Request, latency and connection metrics, also published over JMX while the server runs.
+     */
+    public ServerMetrics getMetrics() {
+        return dispatcher.getMetrics();
+    }
+
+    /**
+     * The port the server accepts connections on, which the system picks when the configured port is 0.
+     * -1 until the listening sockets are bound.
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * Waits until the server accepts connections and returns its port, or -1 if it stopped or failed
+     * to bind first or the timeout passed.
+     */
+    public int awaitPort(Duration timeout) throws InterruptedException {
+        listening.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        return port;
     }
 
     /**
      * Starts the HTTP server on the configured port using virtual threads.
+     * Blocks until the server is stopped.
      */
     public void start() {
-        logger.info("Attempting to start http4j on port {}", port);
-        try(ServerSocket serverSocket = new ServerSocket(port)) {
-            logger.info("http4j started successfully on port {}", port);
-            acceptConnections(serverSocket);
+        logger.info("Attempting to start http4j on port {} with the {} engine", config.getPort(), config.getEngine());
+        ObjectName[] mbean = new ObjectName[1];
+        try {
+            engine.serve(bound -> {
+                mbean[0] = registerMetrics(bound);
+                port = bound;
+                listening.countDown();
+            });
         } catch (IOException ioException) {
             logger.error("Failed to start http4j: {}", ioException.getMessage());
-            throw new RuntimeException("Failed to start http4j on port: " + port, ioException);
+            throw new RuntimeException("Failed to start http4j on port: " + config.getPort(), ioException);
+        } finally {
+            unregisterMetrics(mbean[0]);
+            listening.countDown();
+            stopped.countDown();
+        }
+    }
+
+    private ObjectName registerMetrics(int port) {
+        try {
+            ObjectName name = new ObjectName("com.asm.http4j:type=Server,port=" + port);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(dispatcher.getMetrics(), name);
+            return name;
+        } catch (JMException e) {
+            logger.warn("Metrics not published over JMX: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void unregisterMetrics(ObjectName name) {
+        if (name == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (JMException e) {
+            logger.warn("Failed to unregister metrics MBean: {}", e.getMessage());
         }
     }
 
     /**
-     * Accepts incoming client connections and delegates them to virtual threads.
+     * Shuts the server down gracefully. It stops accepting connections, closes keep-alive connections
+     * that are waiting for a request, and answers every request still in flight with
+     * {@code Connection: close}. Connections that are still open once the timeout has passed are closed.
+     * Returns whether every connection finished on its own; later calls return false at once.
      */
-    private void acceptConnections(ServerSocket serverSocket) throws IOException {
-        while (true) {
-            Socket clientSocket = serverSocket.accept();
-            clientSocket.setSoTimeout(DEFAULT_SO_TIMEOUT_MS); // Avoid hanging client connections
-            String threadName = "http4j-" + THREAD_ID.getAndIncrement();
-            Thread.ofVirtual().name(threadName).start(() -> new ClientHandler(clientSocket, router, staticRoot).handle());
+    public boolean stop(Duration timeout) {
+        synchronized (this) {
+            if (stopping) {
+                return false;
+            }
+            stopping = true;
+        }
+        AdmissionControl admission = dispatcher.getAdmission();
+        logger.info("Stopping http4j, draining {} connections for up to {} ms",
+                admission.getOpenConnections(), timeout.toMillis());
+        dispatcher.startDraining();
+        engine.stopAccepting();
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        boolean drained = admission.getOpenConnections() == 0;
+        try {
+            // Connections go idle as their responses are written, so keep closing idle ones until none are left
+            while (!drained && System.nanoTime() < deadline) {
+                engine.closeIdleConnections();
+                Thread.sleep(DRAIN_POLL_MS);
+                drained = admission.getOpenConnections() == 0;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            drained = false;
+        }
+        if (!drained) {
+            logger.warn("Closing {} connections still open after {} ms", admission.getOpenConnections(), timeout.toMillis());
+        }
+        engine.closeAllConnections();
+        try {
+            stopped.await(DRAIN_POLL_MS * 10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        AccessLog accessLog = dispatcher.getAccessLog();
+        if (accessLog != null) {
+            accessLog.close();
+        }
+        logger.info("http4j stopped");
+        return drained;
+    }
+
+    private ConnectionEngine createEngine() {
+        if (config.getTls() != null && config.getEngine() != ServerConfig.Engine.BLOCKING) {
+            throw new IllegalArgumentException("TLS is only supported by the blocking engine");
         }
+        return switch (config.getEngine()) {
+            case BLOCKING -> new BlockingEngine(config, dispatcher);
+            case NIO -> new NioEngine(config, dispatcher);
+        };
     }
 }
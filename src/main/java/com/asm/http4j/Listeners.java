@@ -0,0 +1,97 @@
+package com.asm.http4j;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Opens the listening sockets of an engine and applies the configured socket options to them and
+ * to the connections they accept.
+ */
+final class Listeners {
+
+    private static final Logger logger = LogManager.getLogger(Listeners.class);
+
+    private Listeners() {
+    }
+
+    /**
+     * Binds wanted listening sockets to the configured port if SO_REUSEPORT is enabled and supported,
+     * otherwise a single one for all acceptors to share. With port 0 the first socket gets a port from the
+     * system and the others join it there.
+     */
+    static List<ServerSocketChannel> open(ServerConfig config, int wanted) throws IOException {
+        int count = 1;
+        if (config.isReusePort() && wanted > 1) {
+            if (supportsReusePort()) {
+                count = wanted;
+            } else {
+                logger.warn("SO_REUSEPORT is not supported here; {} acceptors share one listening socket", wanted);
+            }
+        }
+        List<ServerSocketChannel> listeners = new ArrayList<>(count);
+        int port = config.getPort();
+        try {
+            for (int i = 0; i < count; i++) {
+                ServerSocketChannel listener = ServerSocketChannel.open();
+                listeners.add(listener);
+                if (count > 1) {
+                    listener.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+                }
+                if (config.getReceiveBufferBytes() > 0) {
+                    listener.setOption(StandardSocketOptions.SO_RCVBUF, config.getReceiveBufferBytes());
+                }
+                listener.bind(new InetSocketAddress(port), config.getAcceptBacklog());
+                port = localPort(listener);
+            }
+        } catch (IOException | RuntimeException e) {
+            closeAll(listeners);
+            throw e;
+        }
+        return listeners;
+    }
+
+    /**
+     * The port a listening socket is bound to.
+     */
+    static int localPort(ServerSocketChannel listener) throws IOException {
+        return ((InetSocketAddress) listener.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Applies the per-connection socket options to an accepted connection.
+     */
+    static void configure(SocketChannel channel, ServerConfig config) throws IOException {
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, config.isTcpNoDelay());
+        if (config.getSendBufferBytes() > 0) {
+            channel.setOption(StandardSocketOptions.SO_SNDBUF, config.getSendBufferBytes());
+        }
+    }
+
+    static void closeAll(List<ServerSocketChannel> listeners) {
+        for (ServerSocketChannel listener : listeners) {
+            try {
+                listener.close();
+            } catch (IOException e) {
+                logger.warn("Error closing server socket: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static boolean supportsReusePort() {
+        try (ServerSocketChannel probe = ServerSocketChannel.open()) {
+            return probe.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package com.asm.http4j;
 
 import com.asm.http4j.config.ConfigRouteLoader;
+import com.asm.http4j.config.RouteReloader;
+import com.asm.http4j.load.LoadCommand;
+import com.asm.http4j.metrics.ServerMetrics;
 import com.asm.http4j.util.ServerInfo;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import picocli.CommandLine;
 
 import java.io.File;
+import java.time.Duration;
 
 /**
  * @author ashutosh
@@ -17,7 +21,8 @@ import java.io.File;
         name = "http4j",
         mixinStandardHelpOptions = true,
         version = "http4j 1.0",
-        description = "Starts a lightweight HTTP server"
+        description = "Starts a lightweight HTTP server",
+        subcommands = LoadCommand.class
 )
 public class Main implements Runnable {
 
@@ -55,6 +60,194 @@ public class Main implements Runnable {
             defaultValue = "./routes.json")
     private File routeFile;
 
+    /**
+     * Connection engine
+     */
+    @CommandLine.Option(names = {"--engine"},
+            description = "Connection engine: ${COMPLETION-CANDIDATES}. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "blocking")
+    private ServerConfig.Engine engine;
+
+    /**
+     * Number of selector threads for the NIO engine
+     */
+    @CommandLine.Option(names = {"--event-loops"},
+            description = "Event loop threads for the nio engine. Defaults to the number of cores.")
+    private Integer eventLoops;
+
+    /**
+     * Memory budget for the static file cache
+     */
+    @CommandLine.Option(names = {"--static-cache-mb"},
+            description = "Megabytes of small static files to keep in memory. 0 disables the cache. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "0")
+    private int staticCacheMb;
+
+    /**
+     * Response compression
+     */
+    @CommandLine.Option(names = {"--compression"},
+            description = "Gzip/deflate compressible responses for clients that accept it. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "true", arity = "1")
+    private boolean compression;
+
+    /**
+     * Smallest body worth compressing
+     */
+    @CommandLine.Option(names = {"--compression-min-size"},
+            description = "Bodies shorter than this many bytes are sent uncompressed. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "1024")
+    private int compressionMinSize;
+
+    /**
+     * Admission limits
+     */
+    @CommandLine.Option(names = {"--max-connections"},
+            description = "Open connections allowed at once; more get a 503. 0 means unlimited. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "0")
+    private int maxConnections;
+
+    @CommandLine.Option(names = {"--max-connections-per-ip"},
+            description = "Open connections allowed per client address; more get a 503. 0 means unlimited. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "0")
+    private int maxConnectionsPerIp;
+
+    @CommandLine.Option(names = {"--max-in-flight"},
+            description = "Requests handled at once; more get a 503. 0 means unlimited. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "0")
+    private int maxInFlight;
+
+    /**
+     * Listening and socket options
+     */
+    @CommandLine.Option(names = {"--acceptors"},
+            description = "Threads accepting connections for the blocking engine. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "1")
+    private int acceptors;
+
+    @CommandLine.Option(names = {"--reuse-port"},
+            description = "Bind one SO_REUSEPORT listening socket per acceptor or event loop. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "false")
+    private boolean reusePort;
+
+    @CommandLine.Option(names = {"--tcp-nodelay"},
+            description = "Disable Nagle's algorithm on accepted connections. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "true", arity = "1")
+    private boolean tcpNoDelay;
+
+    @CommandLine.Option(names = {"--recv-buffer-kb"},
+            description = "SO_RCVBUF of accepted connections in KiB. 0 leaves it to the kernel. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "0")
+    private int recvBufferKb;
+
+    @CommandLine.Option(names = {"--send-buffer-kb"},
+            description = "SO_SNDBUF of accepted connections in KiB. 0 leaves it to the kernel. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "0")
+    private int sendBufferKb;
+
+    /**
+     * Keep-alive tuning
+     */
+    @CommandLine.Option(names = {"--keep-alive-timeout-ms"},
+            description = "Milliseconds an idle keep-alive connection waits for its next request. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "10000")
+    private int keepAliveTimeoutMs;
+
+    @CommandLine.Option(names = {"--header-timeout-ms"},
+            description = "Milliseconds a client gets to send a whole request head, from its first byte. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "10000")
+    private int headerTimeoutMs;
+
+    @CommandLine.Option(names = {"--body-timeout-ms"},
+            description = "Milliseconds a read of a request body waits for more bytes. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "10000")
+    private int bodyTimeoutMs;
+
+    @CommandLine.Option(names = {"--max-keep-alive-requests"},
+            description = "Requests served on a connection before it is closed. 0 means unlimited. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "0")
+    private int maxKeepAliveRequests;
+
+    @CommandLine.Option(names = {"--accept-backlog"},
+            description = "Pending connections the kernel may queue before accept. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "1024")
+    private int acceptBacklog;
+
+    /**
+     * Largest request body accepted
+     */
+    @CommandLine.Option(names = {"--max-body-mb"},
+            description = "Largest request body in megabytes; larger ones get 413. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "10")
+    private int maxBodyMb;
+
+    /**
+     * Reload routes when the routes file changes
+     */
+    @CommandLine.Option(names = {"--watch-routes"},
+            description = "Reload routes whenever the routes file changes. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "false")
+    private boolean watchRoutes;
+
+    /**
+     * Path serving Prometheus metrics
+     */
+    @CommandLine.Option(names = {"--metrics-path"},
+            description = "Serve metrics in the Prometheus text format on this path, e.g. /metrics. Off by default.")
+    private String metricsPath;
+
+    /**
+     * TLS
+     */
+    @CommandLine.Option(names = {"--tls-keystore"},
+            description = "PKCS12 (or .jks) keystore with the server's key and certificate; serves HTTPS. Off by default.")
+    private File tlsKeyStore;
+
+    @CommandLine.Option(names = {"--tls-keystore-password"},
+            description = "Keystore password. Defaults to the HTTP4J_KEYSTORE_PASSWORD environment variable.",
+            defaultValue = "${env:HTTP4J_KEYSTORE_PASSWORD}")
+    private String tlsKeyStorePassword;
+
+    @CommandLine.Option(names = {"--tls-session-cache-size"},
+            description = "TLS sessions cached for resumption. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "20000")
+    private int tlsSessionCacheSize;
+
+    @CommandLine.Option(names = {"--tls-session-timeout"},
+            description = "Seconds a TLS session can be resumed for. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "86400")
+    private int tlsSessionTimeout;
+
+    /**
+     * Access log
+     */
+    @CommandLine.Option(names = {"--access-log"},
+            description = "File to write an access log line per request to, asynchronously. Off by default.")
+    private File accessLog;
+
+    @CommandLine.Option(names = {"--access-log-format"},
+            description = "Access log format: ${COMPLETION-CANDIDATES}. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "COMBINED")
+    private AccessLog.Format accessLogFormat;
+
+    @CommandLine.Option(names = {"--access-log-sample"},
+            description = "Share of requests to log, from 0 to 1; server errors are always logged. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "1")
+    private double accessLogSample;
+
+    @CommandLine.Option(names = {"--access-log-max-mb"},
+            description = "Size in megabytes at which the access log is rotated; 5 old files are kept. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "100")
+    private int accessLogMaxMb;
+
+    /**
+     * How long a shutdown waits for requests in flight
+     */
+    @CommandLine.Option(names = {"--shutdown-timeout"},
+            description = "Seconds to let requests in flight finish on SIGTERM before closing their connections. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "30")
+    private int shutdownTimeout;
+
     @Override
     public void run() {
         configureLogging();
@@ -63,7 +256,56 @@ public class Main implements Runnable {
         logger.info("Starting http4j on port {}", port);
 
         Router router = ConfigRouteLoader.loadFrom(routeFile);
-        HttpServer server = new HttpServer(port, router, staticRoot);
+        ServerConfig config = new ServerConfig()
+                .port(port)
+                .staticRoot(staticRoot)
+                .engine(engine)
+                .staticCacheBytes(staticCacheMb * 1024L * 1024L)
+                .compression(compression)
+                .compressionMinBytes(compressionMinSize)
+                .maxBodyBytes(maxBodyMb * 1024L * 1024L)
+                .maxConnections(maxConnections)
+                .maxConnectionsPerIp(maxConnectionsPerIp)
+                .maxInFlightRequests(maxInFlight)
+                .acceptBacklog(acceptBacklog)
+                .acceptors(acceptors)
+                .reusePort(reusePort)
+                .tcpNoDelay(tcpNoDelay)
+                .receiveBufferBytes(recvBufferKb * 1024)
+                .sendBufferBytes(sendBufferKb * 1024)
+                .idleTimeoutMs(keepAliveTimeoutMs)
+                .headerTimeoutMs(headerTimeoutMs)
+                .bodyTimeoutMs(bodyTimeoutMs)
+                .maxRequestsPerConnection(maxKeepAliveRequests)
+                .metricsPath(metricsPath)
+                .accessLog(accessLog)
+                .accessLogFormat(accessLogFormat)
+                .accessLogSampleRate(accessLogSample)
+                .accessLogMaxBytes(accessLogMaxMb * 1024L * 1024L);
+        if (eventLoops != null) {
+            config.eventLoops(eventLoops);
+        }
+        if (tlsKeyStore != null) {
+            char[] password = tlsKeyStorePassword != null ? tlsKeyStorePassword.toCharArray() : new char[0];
+            config.tls(TlsContext.fromKeyStore(tlsKeyStore.toPath(), password, tlsSessionCacheSize, tlsSessionTimeout));
+        }
+        HttpServer server = new HttpServer(config, router);
+        RouteReloader reloader = watchRoutes ? new RouteReloader(routeFile, server::setRouter) : null;
+        if (reloader != null) {
+            ServerMetrics metrics = server.getMetrics();
+            metrics.counter("route_reloads_total", "Route file reloads that took effect", reloader::getReloads);
+            metrics.counter("route_reload_failures_total", "Route file reloads rejected as invalid", reloader::getFailures);
+            metrics.gauge("route_last_reload_duration_nanoseconds", "Time the last successful route file reload took",
+                    reloader::getLastReloadNanos);
+            reloader.start();
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(Duration.ofSeconds(shutdownTimeout));
+            if (reloader != null) {
+                reloader.close();
+            }
+            LogManager.shutdown(); // log4j's own hook is disabled so the lines above still get logged
+        }, "http4j-shutdown"));
         server.start();
     }
 
@@ -78,13 +320,66 @@ public class Main implements Runnable {
             logger.error(error);
             throw new IllegalArgumentException(error);
         }
+        if (eventLoops != null && eventLoops < 1) {
+            throw new IllegalArgumentException("Invalid event loop count: " + eventLoops);
+        }
+        if (compressionMinSize < 0) {
+            throw new IllegalArgumentException("Invalid compression minimum size: " + compressionMinSize);
+        }
+        if (maxConnections < 0 || maxConnectionsPerIp < 0 || maxInFlight < 0) {
+            throw new IllegalArgumentException("Connection and request limits cannot be negative");
+        }
+        if (tlsKeyStore != null && !tlsKeyStore.isFile()) {
+            throw new IllegalArgumentException("Invalid keystore: " + tlsKeyStore);
+        }
+        if (tlsKeyStore != null && engine != ServerConfig.Engine.BLOCKING) {
+            throw new IllegalArgumentException("TLS is only supported by the blocking engine");
+        }
+        if (tlsSessionCacheSize < 0 || tlsSessionTimeout < 0) {
+            throw new IllegalArgumentException("TLS session cache size and timeout cannot be negative");
+        }
+        if (acceptors < 1) {
+            throw new IllegalArgumentException("Invalid acceptor count: " + acceptors);
+        }
+        if (recvBufferKb < 0 || sendBufferKb < 0) {
+            throw new IllegalArgumentException("Socket buffer sizes cannot be negative");
+        }
+        if (keepAliveTimeoutMs < 1 || headerTimeoutMs < 1 || bodyTimeoutMs < 1) {
+            throw new IllegalArgumentException("Timeouts must be at least 1 ms");
+        }
+        if (maxKeepAliveRequests < 0) {
+            throw new IllegalArgumentException("Invalid maximum keep-alive requests: " + maxKeepAliveRequests);
+        }
+        if (acceptBacklog < 1) {
+            throw new IllegalArgumentException("Invalid accept backlog: " + acceptBacklog);
+        }
+        if (metricsPath != null && !metricsPath.startsWith("/")) {
+            throw new IllegalArgumentException("Metrics path must start with '/': " + metricsPath);
+        }
+        if (accessLogSample < 0 || accessLogSample > 1) {
+            throw new IllegalArgumentException("Access log sample rate must be between 0 and 1: " + accessLogSample);
+        }
+        if (accessLogMaxMb < 1) {
+            throw new IllegalArgumentException("Invalid access log size: " + accessLogMaxMb);
+        }
+        if (shutdownTimeout < 0) {
+            throw new IllegalArgumentException("Invalid shutdown timeout: " + shutdownTimeout);
+        }
+        if (maxBodyMb < 0) {
+            throw new IllegalArgumentException("Invalid maximum body size: " + maxBodyMb);
+        }
+        if (staticCacheMb < 0) {
+            throw new IllegalArgumentException("Invalid static cache size: " + staticCacheMb);
+        }
         if (staticRoot != null && (!staticRoot.exists() || !staticRoot.isDirectory())) {
             throw new IllegalArgumentException("Invalid static root: " + staticRoot);
         }
     }
 
     public static void main(String[] args) {
-        int exitCode = new CommandLine(new Main()).execute(args);
+        int exitCode = new CommandLine(new Main())
+                .setCaseInsensitiveEnumValuesAllowed(true)
+                .execute(args);
         System.exit(exitCode);
     }
 }
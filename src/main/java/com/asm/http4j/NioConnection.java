@@ -0,0 +1,433 @@
+package com.asm.http4j;
+
+import com.asm.http4j.exception.HttpParsingException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.Semaphore;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * One connection of the {@link NioEngine}.
+ * While it waits for a request it is only read from its event loop, and it borrows a parser
+ * only while bytes of a request are buffered. Once a request head is complete, the event loop stops
+ * reading and a virtual thread handles it and writes the response. That thread also reads the request
+ * body, if the handler asks for it, parking whenever the socket has nothing to read or cannot be written.
+ * Its timeouts live on the event loop's {@link TimerWheel}: the keep-alive timeout while it waits for
+ * a request, the header timeout from the first byte of one, and the body timeout while a handler waits to read.
+ * While an asynchronous handler works on a request that has been read to its end, the event loop reads
+ * again, so that a client hanging up cancels the handler.
+ */
+class NioConnection extends TimerWheel.Timeout {
+
+    private static final Logger logger = LogManager.getLogger(NioConnection.class);
+
+    // What the connection is doing, i.e. which timeout is armed; event loop only
+    private static final int WAITING = 0;
+    private static final int HEAD = 1;
+    private static final int BUSY = 2;
+
+    private final NioEventLoop loop;
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final SocketAddress remote;
+    private final Semaphore writable = new Semaphore(0);
+    private final Semaphore readable = new Semaphore(0);
+    private final Semaphore unwatched = new Semaphore(0);
+    private final InputStream bodyInput = new BodyInput();
+    private boolean awaitingRead; // event loop only
+    private boolean closed;       // event loop only
+    private boolean handedOff;    // event loop only, a virtual thread holds the parser and write buffer
+    private int phase = BUSY;     // event loop only
+    private volatile boolean bodyTimedOut;
+    private Runnable onDisconnect;  // event loop only, set while reading ahead for an asynchronous handler
+    private volatile boolean clientGone;
+
+    private HttpRequestParser parser;
+    private byte[] writeBuffer;
+    private int served;           // requests answered, by whichever virtual thread holds the connection
+
+    // Position in the event loop's idle list
+    NioConnection idlePrev;
+    NioConnection idleNext;
+    boolean idleLinked;
+
+    NioConnection(NioEventLoop loop, SocketChannel channel, SelectionKey key, SocketAddress remote) {
+        this.loop = loop;
+        this.channel = channel;
+        this.key = key;
+        this.remote = remote;
+    }
+
+    /**
+     * Event loop: reads what arrived and dispatches the request once it is complete.
+     */
+    void onReadable() {
+        if (awaitingRead) {
+            // A virtual thread is parked reading a request body
+            awaitingRead = false;
+            loop.wheel().cancel(this);
+            key.interestOps(0);
+            readable.release();
+            return;
+        }
+        if (onDisconnect != null) {
+            readAhead();
+            return;
+        }
+        if (parser == null) {
+            parser = loop.borrowParser();
+        }
+        try {
+            if (parser.readFrom(channel) < 0) {
+                logger.info("Client closed connection.");
+                close();
+                return;
+            }
+            parseNext();
+        } catch (HttpParsingException e) {
+            handOff(() -> rejectRequest(e));
+        } catch (IOException e) {
+            logger.warn("Client I/O error: {}", e.getMessage());
+            close();
+        }
+    }
+
+    /**
+     * Event loop: reads the start of the next request, or finds the client gone, while a virtual thread
+     * waits for an asynchronous handler. Either way one read is enough.
+     */
+    private void readAhead() {
+        Runnable callback = onDisconnect;
+        onDisconnect = null;
+        key.interestOps(0);
+        int n;
+        try {
+            n = parser.readAhead(channel);
+        } catch (IOException e) {
+            n = -1;
+        }
+        if (n < 0) {
+            clientGone = true;
+            loop.workers().execute(callback);
+        }
+    }
+
+    /**
+     * Event loop: the socket became writable again for a virtual thread parked in a write.
+     */
+    void onWritable() {
+        key.interestOps(0);
+        writable.release();
+    }
+
+    /**
+     * Event loop: dispatches the next buffered request if there is one, otherwise goes back to reading.
+     */
+    private void parseNext() throws HttpParsingException {
+        HttpRequest request = parser.tryParse();
+        if (request != null) {
+            handOff(() -> serve(request));
+            return;
+        }
+        if (parser.isIdle()) {
+            loop.releaseParser(parser);
+            parser = null;
+            awaitRequest();
+        } else if (phase != HEAD) {
+            // The head must be complete within the header timeout of its first byte, however it trickles in
+            phase = HEAD;
+            loop.wheel().schedule(this, loop.headerTimeoutNanos());
+        }
+        key.interestOps(SelectionKey.OP_READ);
+    }
+
+    /**
+     * Event loop: waits for the next request under the keep-alive timeout.
+     */
+    void awaitRequest() {
+        loop.markIdle(this);
+        if (phase != WAITING) {
+            phase = WAITING;
+            loop.wheel().schedule(this, loop.keepAliveNanos());
+        }
+    }
+
+    /**
+     * Event loop: the wheel found the armed timeout expired.
+     */
+    @Override
+    protected void expire() {
+        if (awaitingRead) {
+            bodyTimedOut = true; // the handler's read fails once it wakes up
+        } else if (phase == WAITING) {
+            logger.info("Keep-alive timeout reached. Closing connection.");
+        } else if (phase == HEAD) {
+            logger.info("Timed out waiting for the request head. Closing connection.");
+        } else {
+            return;
+        }
+        close();
+    }
+
+    /**
+     * Event loop: stops reading and runs the task on a virtual thread.
+     */
+    private void handOff(Runnable task) {
+        key.interestOps(0);
+        phase = BUSY;
+        loop.wheel().cancel(this);
+        loop.unlink(this);
+        writeBuffer = loop.borrowWriteBuffer();
+        handedOff = true;
+        loop.workers().execute(task);
+    }
+
+    /**
+     * Virtual thread: runs the handler and writes the response, then does the same for any further
+     * requests the client pipelined. Responses are coalesced and flushed once the buffered input is exhausted.
+     */
+    private void serve(HttpRequest request) {
+        ResponseWriter out = new ResponseWriter(channel, writeBuffer, this::awaitWritable);
+        parser.bodySource(bodyInput, out::writeContinue);
+        ResponseWait wait = new Watch(out);
+        boolean close = false;
+        try {
+            try {
+                while (request != null) {
+                    long start = System.nanoTime();
+                    HttpResponse response = loop.dispatcher().dispatch(request, remote, wait);
+                    if (clientGone) {
+                        logger.info("Client closed connection while its request was in progress.");
+                        close = true;
+                        break;
+                    }
+                    boolean keepAlive = loop.dispatcher().keepConnectionOpen(request, response, ++served);
+                    write(out, request, response, keepAlive, start);
+                    if (!keepAlive) {
+                        close = true;
+                        break;
+                    }
+                    // The event loop leaves the parser alone until we hand the connection back
+                    request = parser.tryParse();
+                }
+            } catch (HttpParsingException e) {
+                write(out, null, loop.dispatcher().parseError(e), false, System.nanoTime());
+                close = true;
+            }
+            out.flush();
+        } catch (IOException e) {
+            logger.warn("Client I/O error: {}", e.getMessage());
+            close = true;
+        } catch (RuntimeException e) {
+            logger.error("Handler failed: {}", e.getMessage(), e);
+            close = true;
+        }
+
+        boolean done = close;
+        loop.execute(() -> handBack(done));
+    }
+
+    /**
+     * Virtual thread: answers a request that could not be parsed, then closes.
+     */
+    private void rejectRequest(HttpParsingException e) {
+        try {
+            ResponseWriter out = new ResponseWriter(channel, writeBuffer, this::awaitWritable);
+            write(out, null, loop.dispatcher().parseError(e), false, System.nanoTime());
+            out.flush();
+        } catch (IOException ioException) {
+            logger.warn("Client I/O error: {}", ioException.getMessage());
+        }
+        loop.execute(() -> handBack(true));
+    }
+
+    private void write(ResponseWriter out, HttpRequest request, HttpResponse response, boolean keepAlive, long start)
+            throws IOException {
+        long position = out.position();
+        out.write(response, request != null ? request.method : "UNKNOWN", keepAlive);
+        loop.dispatcher().completed(request, response, remote, out.position() - position, start);
+    }
+
+    /**
+     * Event loop: the virtual thread is done with the connection and gives back the write buffer and parser.
+     * Unless it is closing, look for a pipelined request or wait for the next one.
+     */
+    private void handBack(boolean close) {
+        handedOff = false;
+        releaseWriteBuffer();
+        if (close || closed) {
+            parser = null;
+            close();
+            return;
+        }
+        try {
+            parseNext();
+        } catch (HttpParsingException e) {
+            handOff(() -> rejectRequest(e));
+        }
+    }
+
+    /**
+     * Event loop: whether some of the next request has been received. Only meaningful while the
+     * connection is on the idle list.
+     */
+    boolean hasPartialRequest() {
+        return parser != null;
+    }
+
+    /**
+     * Event loop: closes the socket, dropping any partially received request. While a virtual thread
+     * holds the connection this only wakes it; the parser and write buffer are let go once it hands them back.
+     */
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        loop.wheel().cancel(this);
+        loop.dispatcher().getAdmission().releaseConnection(remote);
+        loop.unlink(this);
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Error closing connection: {}", e.getMessage());
+        }
+        writable.release();
+        readable.release();
+        if (onDisconnect != null) {
+            // An asynchronous handler is waiting; cancel it as if the client had hung up
+            Runnable callback = onDisconnect;
+            onDisconnect = null;
+            clientGone = true;
+            loop.workers().execute(callback);
+        }
+        if (!handedOff) {
+            parser = null;
+            releaseWriteBuffer();
+        }
+    }
+
+    private void releaseWriteBuffer() {
+        if (writeBuffer != null) {
+            loop.releaseWriteBuffer(writeBuffer);
+            writeBuffer = null;
+        }
+    }
+
+    /**
+     * Virtual thread: parks until the event loop reports the socket writable.
+     */
+    private void awaitWritable() throws IOException {
+        loop.execute(() -> {
+            if (key.isValid()) {
+                key.interestOps(SelectionKey.OP_WRITE);
+            } else {
+                writable.release();
+            }
+        });
+        writable.acquireUninterruptibly();
+        if (!channel.isOpen()) {
+            throw new IOException("Connection closed");
+        }
+    }
+
+    /**
+     * Virtual thread: parks until the event loop reports the socket readable, or the body timeout closes it.
+     */
+    private void awaitReadable() throws IOException {
+        loop.execute(() -> {
+            if (key.isValid()) {
+                awaitingRead = true;
+                loop.wheel().schedule(this, loop.bodyTimeoutNanos());
+                key.interestOps(SelectionKey.OP_READ);
+            } else {
+                readable.release();
+            }
+        });
+        readable.acquireUninterruptibly();
+        if (bodyTimedOut) {
+            throw new SocketTimeoutException("Timed out waiting for request body");
+        }
+        if (!channel.isOpen()) {
+            throw new IOException("Connection closed");
+        }
+    }
+
+    /**
+     * Has the event loop read ahead while an asynchronous handler works, and takes the parser back after.
+     */
+    private final class Watch implements ResponseWait {
+
+        private final ResponseWriter out;
+        private boolean watching;
+
+        Watch(ResponseWriter out) {
+            this.out = out;
+        }
+
+        @Override
+        public void begin(Runnable callback) throws IOException {
+            out.flush();
+            if (!parser.isIdle()) {
+                return;
+            }
+            watching = true;
+            loop.execute(() -> {
+                if (key.isValid()) {
+                    onDisconnect = callback;
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+            });
+        }
+
+        @Override
+        public void end() {
+            if (!watching) {
+                return;
+            }
+            watching = false;
+            loop.execute(() -> {
+                if (onDisconnect != null) {
+                    onDisconnect = null;
+                    if (key.isValid()) {
+                        key.interestOps(0);
+                    }
+                }
+                unwatched.release();
+            });
+            unwatched.acquireUninterruptibly();
+        }
+    }
+
+    /**
+     * Reads request body bytes from the non-blocking channel for a handler's virtual thread.
+     */
+    private class BodyInput extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            ByteBuffer target = ByteBuffer.wrap(b, off, len);
+            int n;
+            while ((n = channel.read(target)) == 0) {
+                awaitReadable();
+            }
+            return n;
+        }
+    }
+}
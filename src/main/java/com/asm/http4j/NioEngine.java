@@ -0,0 +1,104 @@
+package com.asm.http4j;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.channels.ServerSocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Selector based engine. One event loop per core accepts connections, from a shared listening socket
+ * or, with SO_REUSEPORT, from one of its own, reads and parses request heads
+ * and reaps idle connections. Only complete heads are handed to virtual threads, which read the body
+ * if the handler wants it, run the handler and write the response, so an idle keep-alive connection
+ * costs no thread and no buffers.
+ */
+class NioEngine implements ConnectionEngine {
+
+    private static final Logger logger = LogManager.getLogger(NioEngine.class);
+
+    private final ServerConfig config;
+    private final RequestDispatcher dispatcher;
+
+    private final List<NioEventLoop> loops = new ArrayList<>(); // guarded by this
+    private List<ServerSocketChannel> listeners = List.of();    // guarded by this
+    private boolean stopped;                                    // guarded by this
+
+    NioEngine(ServerConfig config, RequestDispatcher dispatcher) {
+        this.config = config;
+        this.dispatcher = dispatcher;
+    }
+
+    @Override
+    public void serve(IntConsumer listening) throws IOException {
+        ExecutorService workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http4j-", 0).factory());
+        int loopCount = Math.max(1, config.getEventLoops());
+        List<ServerSocketChannel> listeners = null;
+        try {
+            listeners = Listeners.open(config, loopCount);
+            for (ServerSocketChannel listener : listeners) {
+                listener.configureBlocking(false);
+            }
+
+            // Loops sharing a listening channel all register it; whichever wakes first accepts the connection
+            Thread[] loopThreads = new Thread[loopCount];
+            synchronized (this) {
+                if (stopped) {
+                    return;
+                }
+                this.listeners = listeners;
+                for (int i = 0; i < loopCount; i++) {
+                    ServerSocketChannel server = listeners.get(i % listeners.size());
+                    NioEventLoop loop = new NioEventLoop(server, dispatcher, workers, config);
+                    loops.add(loop);
+                    loopThreads[i] = Thread.ofPlatform().name("http4j-nio-" + i).start(loop);
+                }
+            }
+            int port = Listeners.localPort(listeners.get(0));
+            logger.info("http4j started successfully on port {} with {} event loops on {} listening sockets",
+                    port, loopCount, listeners.size());
+            listening.accept(port);
+
+            for (Thread loopThread : loopThreads) {
+                loopThread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (listeners != null) {
+                Listeners.closeAll(listeners);
+            }
+            // Handlers still running after the last connection was closed have nowhere to write
+            workers.shutdownNow();
+        }
+    }
+
+    @Override
+    public synchronized void stopAccepting() {
+        stopped = true;
+        if (!listeners.isEmpty()) {
+            Listeners.closeAll(listeners);
+            // Each loop drops the listening channel's key on its next select
+            loops.forEach(loop -> loop.execute(() -> {
+            }));
+            logger.info("Stopped accepting connections on port {}", config.getPort());
+        }
+    }
+
+    @Override
+    public synchronized void closeIdleConnections() {
+        loops.forEach(loop -> loop.execute(loop::closeWaitingConnections));
+    }
+
+    @Override
+    public synchronized void closeAllConnections() {
+        loops.forEach(loop -> loop.execute(loop::shutdown));
+    }
+}
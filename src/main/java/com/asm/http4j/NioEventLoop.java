@@ -0,0 +1,267 @@
+package com.asm.http4j;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * A single selector thread of the {@link NioEngine}.
+ * Everything that touches a connection's selection key or its idle list position runs on this
+ * thread; virtual threads hand work back through {@link #execute(Runnable)}.
+ */
+class NioEventLoop implements Runnable {
+
+    private static final Logger logger = LogManager.getLogger(NioEventLoop.class);
+
+    private static final long SELECT_TIMEOUT_MS = TimerWheel.DEFAULT_TICK_MS; // the wheel advances at least once a tick
+    private static final int MAX_POOLED_BUFFERS = 64;
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final RequestDispatcher dispatcher;
+    private final Executor workers;
+    private final TimerWheel wheel = new TimerWheel();
+    private final long keepAliveNanos;
+    private final long headerTimeoutNanos;
+    private final long bodyTimeoutNanos;
+    private final long maxBodyBytes;
+    private final ServerConfig config;
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final ArrayDeque<HttpRequestParser> parserPool = new ArrayDeque<>();
+    private final ArrayDeque<byte[]> writeBufferPool = new ArrayDeque<>();
+
+    // Connections waiting for (more of) a request
+    private NioConnection idleHead;
+    private NioConnection idleTail;
+
+    NioEventLoop(ServerSocketChannel server, RequestDispatcher dispatcher, Executor workers, ServerConfig config) throws IOException {
+        this.selector = Selector.open();
+        this.server = server;
+        this.dispatcher = dispatcher;
+        this.workers = workers;
+        this.keepAliveNanos = TimeUnit.MILLISECONDS.toNanos(config.getIdleTimeoutMs());
+        this.headerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.getHeaderTimeoutMs());
+        this.bodyTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.getBodyTimeoutMs());
+        this.maxBodyBytes = config.getMaxBodyBytes();
+        this.config = config;
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    @Override
+    public void run() {
+        while (selector.isOpen()) {
+            try {
+                selector.select(this::onReady, SELECT_TIMEOUT_MS);
+                runTasks();
+                wheel.advance(System.nanoTime());
+            } catch (IOException e) {
+                logger.error("Event loop error: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Runs a task on this loop's thread.
+     */
+    void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    RequestDispatcher dispatcher() {
+        return dispatcher;
+    }
+
+    Executor workers() {
+        return workers;
+    }
+
+    /**
+     * The timeouts of this loop's connections. Only touched on the loop's thread.
+     */
+    TimerWheel wheel() {
+        return wheel;
+    }
+
+    long keepAliveNanos() {
+        return keepAliveNanos;
+    }
+
+    long headerTimeoutNanos() {
+        return headerTimeoutNanos;
+    }
+
+    /**
+     * How long a virtual thread waits for more of a request body before giving up.
+     */
+    long bodyTimeoutNanos() {
+        return bodyTimeoutNanos;
+    }
+
+    private void onReady(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        NioConnection connection = (NioConnection) key.attachment();
+        if (key.isWritable()) {
+            connection.onWritable();
+        } else if (key.isReadable()) {
+            connection.onReadable();
+        }
+    }
+
+    private void accept() {
+        SocketChannel channel = null;
+        SocketAddress remote = null;
+        try {
+            channel = server.accept();
+            if (channel == null) {
+                return; // another loop got there first
+            }
+            SocketAddress address = channel.getRemoteAddress();
+            if (!dispatcher.getAdmission().admit(channel, address)) {
+                return;
+            }
+            remote = address; // admitted: released by the connection once it exists, below otherwise
+            channel.configureBlocking(false);
+            Listeners.configure(channel, config);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            NioConnection connection = new NioConnection(this, channel, key, remote);
+            key.attach(connection);
+            connection.awaitRequest();
+        } catch (IOException e) {
+            logger.warn("Failed to accept connection: {}", e.getMessage());
+            if (remote != null) {
+                dispatcher.getAdmission().releaseConnection(remote);
+            }
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    HttpRequestParser borrowParser() {
+        HttpRequestParser parser = parserPool.poll();
+        return parser != null ? parser : new HttpRequestParser(HttpRequestParser.DEFAULT_MAX_REQUEST_LINE,
+                HttpRequestParser.DEFAULT_MAX_HEADER_SIZE, maxBodyBytes);
+    }
+
+    void releaseParser(HttpRequestParser parser) {
+        if (parserPool.size() < MAX_POOLED_BUFFERS) {
+            parserPool.push(parser);
+        }
+    }
+
+    /**
+     * Response buffers are only held by connections with a request in flight.
+     */
+    byte[] borrowWriteBuffer() {
+        byte[] buffer = writeBufferPool.poll();
+        return buffer != null ? buffer : new byte[ClientHandler.OUTPUT_BUFFER_SIZE];
+    }
+
+    void releaseWriteBuffer(byte[] buffer) {
+        if (writeBufferPool.size() < MAX_POOLED_BUFFERS) {
+            writeBufferPool.push(buffer);
+        }
+    }
+
+    /**
+     * Puts a connection that is waiting for (more of) a request on the idle list, if it is not there already.
+     */
+    void markIdle(NioConnection connection) {
+        if (connection.idleLinked) {
+            return;
+        }
+        connection.idlePrev = idleTail;
+        if (idleTail != null) {
+            idleTail.idleNext = connection;
+        } else {
+            idleHead = connection;
+        }
+        idleTail = connection;
+        connection.idleLinked = true;
+        dispatcher.getMetrics().connectionIdle();
+    }
+
+    /**
+     * Takes a connection off the idle list while one of its requests is being handled.
+     */
+    void unlink(NioConnection connection) {
+        if (!connection.idleLinked) {
+            return;
+        }
+        if (connection.idlePrev != null) {
+            connection.idlePrev.idleNext = connection.idleNext;
+        } else {
+            idleHead = connection.idleNext;
+        }
+        if (connection.idleNext != null) {
+            connection.idleNext.idlePrev = connection.idlePrev;
+        } else {
+            idleTail = connection.idlePrev;
+        }
+        connection.idlePrev = null;
+        connection.idleNext = null;
+        connection.idleLinked = false;
+        dispatcher.getMetrics().connectionBusy();
+    }
+
+    /**
+     * Closes connections on the idle list that have received nothing of their next request.
+     */
+    void closeWaitingConnections() {
+        NioConnection connection = idleHead;
+        while (connection != null) {
+            NioConnection next = connection.idleNext;
+            if (!connection.hasPartialRequest()) {
+                connection.close();
+            }
+            connection = next;
+        }
+    }
+
+    /**
+     * Closes every connection and the selector, which ends this loop.
+     */
+    void shutdown() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof NioConnection connection) {
+                connection.close();
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            logger.warn("Error closing selector: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.asm.http4j;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Writes the buffers of a {@link Flow.Publisher} as a chunked body. At most {@link #PREFETCH}
+ * buffers are requested ahead of the connection; one more is requested only after one has been
+ * written, so a slow client throttles the publisher instead of letting buffers pile up.
+ */
+final class PublisherBodyWriter implements ResponseBody.BodyWriter {
+
+    static final int PREFETCH = 4;
+
+    private static final Object COMPLETE = new Object();
+
+    private record Failure(Throwable cause) {
+    }
+
+    private final Flow.Publisher<ByteBuffer> publisher;
+
+    PublisherBodyWriter(Flow.Publisher<ByteBuffer> publisher) {
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        // Room for every requested item plus the terminal signal, so offers never fail for a well-behaved publisher
+        BlockingQueue<Object> signals = new ArrayBlockingQueue<>(PREFETCH + 1);
+        Subscriber subscriber = new Subscriber(signals);
+        publisher.subscribe(subscriber);
+
+        byte[] scratch = null;
+        try {
+            while (true) {
+                Object signal = signals.take();
+                if (signal == COMPLETE) {
+                    return;
+                }
+                if (signal instanceof Failure failure) {
+                    throw new IOException("Response publisher failed: " + failure.cause().getMessage(), failure.cause());
+                }
+                ByteBuffer buffer = (ByteBuffer) signal;
+                if (buffer.hasArray()) {
+                    out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                } else {
+                    if (scratch == null) {
+                        scratch = new byte[ResponseWriter.CHUNK_SIZE];
+                    }
+                    while (buffer.hasRemaining()) {
+                        int n = Math.min(scratch.length, buffer.remaining());
+                        buffer.get(scratch, 0, n);
+                        out.write(scratch, 0, n);
+                    }
+                }
+                subscriber.subscription.request(1);
+            }
+        } catch (InterruptedException e) {
+            subscriber.cancel();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for response publisher");
+        } catch (IOException | RuntimeException e) {
+            subscriber.cancel(); // e.g. the client went away
+            throw e;
+        }
+    }
+
+    private static final class Subscriber implements Flow.Subscriber<ByteBuffer> {
+
+        private final BlockingQueue<Object> signals;
+        private volatile Flow.Subscription subscription;
+
+        Subscriber(BlockingQueue<Object> signals) {
+            this.signals = signals;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(PREFETCH);
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            if (!signals.offer(item)) {
+                subscription.cancel();
+                signals.clear();
+                signals.offer(new Failure(new IllegalStateException("Publisher sent more items than requested")));
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            signals.offer(new Failure(throwable));
+        }
+
+        @Override
+        public void onComplete() {
+            signals.offer(COMPLETE);
+        }
+
+        void cancel() {
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+}
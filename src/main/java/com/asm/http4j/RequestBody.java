@@ -0,0 +1,230 @@
+package com.asm.http4j;
+
+import com.asm.http4j.exception.HttpParsingException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * The body of a request, read on demand from the connection rather than buffered up front.
+ * Bytes the parser already holds are returned first, then the rest is read from the socket,
+ * de-chunked if the request used {@code Transfer-Encoding: chunked}. A body that turns out to be
+ * malformed or larger than allowed fails the read; the cause is kept for the dispatcher to answer with.
+ */
+final class RequestBody extends InputStream {
+
+    /**
+     * Sends the interim {@code 100 Continue} response a client asked for with {@code Expect: 100-continue}.
+     */
+    @FunctionalInterface
+    interface ContinueSender {
+        void sendContinue() throws IOException;
+    }
+
+    private static final int MAX_CHUNK_LINE = 1024;
+    private static final int MAX_TRAILER_BYTES = 8 * 1024;
+    private static final int MAX_CHUNK_SIZE_DIGITS = 15;
+
+    private final HttpRequestParser parser;
+    private final boolean chunked;
+    private final long maxBytes;
+    private ContinueSender continueSender; // cleared once sent
+
+    private long remaining; // identity: bytes left in the body; chunked: bytes left in the current chunk
+    private long received;
+    private boolean finished;
+    private HttpParsingException error;
+
+    /**
+     * @param length         the Content-Length, ignored for chunked bodies
+     * @param maxBytes       largest chunked body accepted; a Content-Length has already been checked
+     * @param continueSender called before the first read if the client waits for 100 Continue, otherwise null
+     */
+    RequestBody(HttpRequestParser parser, boolean chunked, long length, long maxBytes, ContinueSender continueSender) {
+        this.parser = parser;
+        this.chunked = chunked;
+        this.remaining = chunked ? 0 : length;
+        this.maxBytes = maxBytes;
+        this.continueSender = continueSender;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (error != null) {
+            throw new IOException(error.getMessage(), error);
+        }
+        if (finished) {
+            return -1;
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (continueSender != null) {
+            ContinueSender sender = continueSender;
+            continueSender = null;
+            sender.sendContinue();
+        }
+        if (chunked && remaining == 0 && !nextChunk()) {
+            return -1;
+        }
+
+        int n = parser.readBody(b, off, (int) Math.min(len, remaining));
+        if (n < 0) {
+            throw fail(400, "Unexpected end of stream while reading body");
+        }
+        remaining -= n;
+        received += n;
+        if (remaining == 0) {
+            if (chunked) {
+                endOfLine(nextByte());
+            } else {
+                finished = true;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Bytes that can be read without touching the socket.
+     */
+    @Override
+    public int available() {
+        return finished || error != null ? 0 : (int) Math.min(remaining, parser.bufferedBytes());
+    }
+
+    /**
+     * Whether the whole body has been read, so the next request on the connection can be parsed.
+     */
+    boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Why reading the body failed, or null.
+     */
+    HttpParsingException getError() {
+        return error;
+    }
+
+    /**
+     * Reads and drops what the handler left unread, unless that is more than limit bytes.
+     * Returns whether the body is now finished; if not, the connection cannot be reused.
+     */
+    boolean discard(long limit) {
+        if (finished) {
+            return true;
+        }
+        // A client still waiting for 100 Continue will not send the body
+        if (error != null || continueSender != null || (!chunked && remaining > limit)) {
+            return false;
+        }
+        byte[] scratch = new byte[(int) Math.min(8192, Math.max(limit, 1))];
+        long dropped = 0;
+        try {
+            int n;
+            while (dropped <= limit && (n = read(scratch, 0, scratch.length)) >= 0) {
+                dropped += n;
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        return finished;
+    }
+
+    /**
+     * Reads the next chunk-size line, or the last chunk and the trailer section.
+     * Returns false at the end of the body.
+     */
+    private boolean nextChunk() throws IOException {
+        long size = 0;
+        int digits = 0;
+        boolean extension = false;
+        for (int length = 0; ; length++) {
+            int c = nextByte();
+            if (c == '\n') {
+                break;
+            }
+            if (length >= MAX_CHUNK_LINE) {
+                throw fail(400, "Chunk size line too long");
+            }
+            if (extension || c == '\r') {
+                continue;
+            }
+            if (c == ';' || c == ' ' || c == '\t') {
+                extension = true; // chunk extensions are ignored
+                continue;
+            }
+            int digit = Character.digit(c, 16);
+            if (digit < 0 || digits == MAX_CHUNK_SIZE_DIGITS) {
+                throw fail(400, "Invalid chunk size");
+            }
+            size = size * 16 + digit;
+            digits++;
+        }
+        if (digits == 0) {
+            throw fail(400, "Invalid chunk size");
+        }
+
+        if (size == 0) {
+            skipTrailers();
+            finished = true;
+            return false;
+        }
+        if (size > maxBytes - received) {
+            throw fail(413, "Request body too large");
+        }
+        remaining = size;
+        return true;
+    }
+
+    private void skipTrailers() throws IOException {
+        int lineLength = 0;
+        for (int total = 0; ; total++) {
+            int c = nextByte();
+            if (total >= MAX_TRAILER_BYTES) {
+                throw fail(431, "Trailer section too large");
+            }
+            if (c == '\n') {
+                if (lineLength == 0) {
+                    return;
+                }
+                lineLength = 0;
+            } else if (c != '\r') {
+                lineLength++;
+            }
+        }
+    }
+
+    /**
+     * Expects the CRLF (or bare LF) that closes a chunk's data.
+     */
+    private void endOfLine(int c) throws IOException {
+        if (c == '\r') {
+            c = nextByte();
+        }
+        if (c != '\n') {
+            throw fail(400, "Missing CRLF after chunk data");
+        }
+    }
+
+    private int nextByte() throws IOException {
+        int c = parser.readBodyByte();
+        if (c < 0) {
+            throw fail(400, "Unexpected end of stream while reading body");
+        }
+        return c;
+    }
+
+    private IOException fail(int status, String message) {
+        error = new HttpParsingException(status, message);
+        return new IOException(message, error);
+    }
+}
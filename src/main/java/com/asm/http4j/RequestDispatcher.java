@@ -0,0 +1,312 @@
+package com.asm.http4j;
+
+import com.asm.http4j.exception.HttpParsingException;
+import com.asm.http4j.metrics.ServerMetrics;
+import com.asm.http4j.util.HttpStatus;
+import com.asm.http4j.util.ServerInfo;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Turns a parsed request into a response: routed handlers first, then static files,
+ * then 405 or 404. Shared by every connection engine.
+ */
+public class RequestDispatcher {
+
+    private static final Logger logger = LogManager.getLogger(RequestDispatcher.class);
+
+    /**
+     * Unread request body the server will read and drop to keep a connection alive; beyond this it closes instead.
+     */
+    private static final long MAX_DISCARDED_BODY_BYTES = 64 * 1024;
+
+    private static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    // Swapped wholesale on route reloads; each request reads it once and keeps that snapshot
+    private volatile Router router;
+    private final StaticFileHandler staticFiles;
+    private final ResponseCompressor compressor;
+    private final AdmissionControl admission;
+    private final ServerMetrics metrics = new ServerMetrics();
+    private final HttpHandler unrouted = this::serveUnrouted;
+    private final String metricsPath;
+    private final AccessLog accessLog;
+    private final int maxRequestsPerConnection;
+    private volatile boolean draining;
+
+    public RequestDispatcher(Router router, File staticRoot) {
+        this(router, new ServerConfig().staticRoot(staticRoot));
+    }
+
+    public RequestDispatcher(Router router, ServerConfig config) {
+        this.router = router;
+        File staticRoot = config.getStaticRoot();
+        if (staticRoot == null) {
+            this.staticFiles = null;
+        } else {
+            long cacheBytes = config.getStaticCacheBytes();
+            this.staticFiles = new StaticFileHandler(staticRoot, cacheBytes > 0 ? new StaticFileCache(cacheBytes) : null);
+        }
+        this.compressor = config.isCompression()
+                ? new ResponseCompressor(config.getCompressionMinBytes(), config.getCompressionCacheBytes())
+                : null;
+        this.admission = new AdmissionControl(config.getMaxConnections(), config.getMaxConnectionsPerIp(),
+                config.getMaxInFlightRequests());
+        this.metricsPath = config.getMetricsPath();
+        this.maxRequestsPerConnection = config.getMaxRequestsPerConnection();
+        this.accessLog = openAccessLog(config);
+        registerMetrics();
+    }
+
+    private static AccessLog openAccessLog(ServerConfig config) {
+        if (config.getAccessLog() == null) {
+            return null;
+        }
+        try {
+            return new AccessLog(config.getAccessLog(), config.getAccessLogFormat(), config.getAccessLogSampleRate(),
+                    AccessLog.DEFAULT_CAPACITY, config.getAccessLogMaxBytes(), AccessLog.DEFAULT_MAX_FILES);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open access log: " + config.getAccessLog(), e);
+        }
+    }
+
+    private void registerMetrics() {
+        metrics.openConnections(admission::getOpenConnections);
+        metrics.inFlightRequests(admission::getInFlightRequests);
+        metrics.counter("connections_rejected_total", "Connections refused at the connection limit",
+                admission::getRejectedConnections);
+        metrics.counter("connections_rejected_per_ip_total", "Connections refused at the per-address limit",
+                admission::getRejectedPerIp);
+        metrics.counter("requests_rejected_total", "Requests refused at the in-flight limit",
+                admission::getRejectedRequests);
+        if (accessLog != null) {
+            metrics.counter("access_log_dropped_total", "Access log lines dropped because the writer fell behind",
+                    accessLog::getDropped);
+        }
+        StaticFileCache cache = staticFiles != null ? staticFiles.getCache() : null;
+        if (cache != null) {
+            metrics.counter("static_cache_hits_total", "Static files served from memory", cache::getHits);
+            metrics.counter("static_cache_misses_total", "Static file lookups not found in memory", cache::getMisses);
+            metrics.counter("static_cache_evictions_total", "Static files dropped from memory", cache::getEvictions);
+            metrics.gauge("static_cache_bytes", "Memory used by cached static files", cache::getUsedBytes);
+            metrics.gauge("static_cache_entries", "Static files held in memory", cache::size);
+        }
+    }
+
+    public Router getRouter() {
+        return router;
+    }
+
+    /**
+     * Publishes a new set of routes. Requests already being dispatched finish on the old router.
+     */
+    public void setRouter(Router router) {
+        this.router = router;
+    }
+
+    /**
+     * The static file handler, or null when no static root is configured.
+     */
+    public StaticFileHandler getStaticFiles() {
+        return staticFiles;
+    }
+
+    /**
+     * The response compressor, or null when compression is disabled.
+     */
+    public ResponseCompressor getCompressor() {
+        return compressor;
+    }
+
+    /**
+     * Request, latency and connection metrics, shared by the engines.
+     */
+    public ServerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * The access log, or null when access logging is off.
+     */
+    public AccessLog getAccessLog() {
+        return accessLog;
+    }
+
+    /**
+     * Connection and request limits, shared by the engines.
+     */
+    public AdmissionControl getAdmission() {
+        return admission;
+    }
+
+    /**
+     * Set once the server starts shutting down: from then on every response closes its connection.
+     */
+    void startDraining() {
+        draining = true;
+    }
+
+    public boolean isDraining() {
+        return draining;
+    }
+
+    public HttpResponse dispatch(HttpRequest request, SocketAddress remote) throws IOException {
+        return dispatch(request, remote, null);
+    }
+
+    /**
+     * Like {@link #dispatch(HttpRequest, SocketAddress)}, with the connection's way of waiting for asynchronous handlers.
+     */
+    HttpResponse dispatch(HttpRequest request, SocketAddress remote, ResponseWait wait) throws IOException {
+        if (!admission.tryAcquireRequest()) {
+            logger.warn("{} {} from {} -> 503, too many requests in flight", request.method, request.path, remote);
+            return AdmissionControl.overloadedResponse();
+        }
+        try {
+            request.setResponseWait(wait);
+            return handle(request, remote);
+        } finally {
+            admission.releaseRequest();
+        }
+    }
+
+    private HttpResponse handle(HttpRequest request, SocketAddress remote) throws IOException {
+        long start = System.nanoTime();
+        if (ServerInfo.DEBUG_ENABLED) logger.debug("{} from {}", request, remote);
+
+        if (metricsPath != null && isGetOrHead(request.method) && metricsPath.equals(request.getPathWithoutQuery())) {
+            return HttpResponse.ok(metrics.toPrometheus().getBytes(StandardCharsets.UTF_8), PROMETHEUS_CONTENT_TYPE);
+        }
+
+        Router router = this.router;
+        Router.Match match = router.match(request.method, request.path);
+        HttpHandler handler = match != null ? match.handler() : null;
+
+        if (handler == null && match != null && "HEAD".equalsIgnoreCase(request.method)) {
+            // Try fallback to GET handler
+            handler = match.handlerFor("GET");
+        }
+
+        String route;
+        if (handler != null) {
+            match.bindTo(request);
+            route = match.route();
+        } else {
+            // Static files, 405 and 404 still pass through the router's filters
+            if (isGetOrHead(request.method) && staticFiles != null) {
+                route = ServerMetrics.STATIC_ROUTE;
+            } else {
+                route = match != null ? match.route() : ServerMetrics.UNMATCHED_ROUTE;
+            }
+            if (match != null) {
+                // From the same snapshot, so a reload cannot change the answer halfway
+                request.setAllowedMethods(match.allowedMethods());
+            }
+            handler = router.fallback(unrouted);
+        }
+        HttpResponse response = handle(handler, request);
+
+        if (compressor != null) {
+            response = compressor.compress(request, response);
+        }
+        request.discardBody(MAX_DISCARDED_BODY_BYTES);
+        metrics.recordLatency(route, System.nanoTime() - start);
+
+        if (ServerInfo.DEBUG_ENABLED) logger.debug("{} {} -> {}", request.method, request.path, response);
+
+        return response;
+    }
+
+    /**
+     * Runs the handler, answering for it if it failed because the request body was malformed or too large.
+     */
+    private HttpResponse handle(HttpHandler handler, HttpRequest request) throws IOException {
+        try {
+            return handler.handle(request);
+        } catch (IOException e) {
+            HttpParsingException bodyError = request.getBodyError();
+            if (bodyError == null) {
+                throw e;
+            }
+            return parseError(bodyError);
+        }
+    }
+
+    /**
+     * Answers a request no route handles: with a static file, 405 if the path takes other methods, or 404.
+     */
+    private HttpResponse serveUnrouted(HttpRequest request) throws IOException {
+        if (isGetOrHead(request.method) && staticFiles != null) {
+            return staticFiles.serve(request);
+        }
+        Set<String> allowed = request.getAllowedMethods();
+        if (allowed != null) {
+            return HttpResponse.methodNotAllowed(allowed);
+        }
+        return HttpResponse.notFound("Route not found".getBytes(), "text/plain");
+    }
+
+    /**
+     * Records an exchange once its response has been written: metrics, and the access log if enabled.
+     *
+     * @param request null if the request could not be parsed
+     * @param bytes   size of the response on the wire
+     * @param start   {@link System#nanoTime()} when the request was handed to the dispatcher
+     */
+    public void completed(HttpRequest request, HttpResponse response, SocketAddress remote, long bytes, long start) {
+        metrics.recordResponse(response.getStatus(), bytes);
+        if (accessLog != null) {
+            accessLog.log(request, response.getStatus(), bytes, remote, start);
+        }
+    }
+
+    /**
+     * Builds the response sent for a request that could not be parsed. The connection is closed after it.
+     */
+    public HttpResponse parseError(HttpParsingException e) {
+        String reason = HttpStatus.reasonPhrase(e.getStatus());
+        logger.warn("{}: {}", reason, e.getMessage());
+        metrics.recordParseError();
+        return HttpResponse.of(e.getStatus(), reason, (reason + ": " + e.getMessage()).getBytes(), "text/plain");
+    }
+
+    /**
+     * Whether the client asked for the connection to be closed after this request.
+     */
+    public static boolean wantsClose(HttpRequest request) {
+        return request.headerEqualsIgnoreCase("connection", "close");
+    }
+
+    /**
+     * Whether the connection stays open after this exchange: neither the client nor the handler asked
+     * to close it, and the request body was read to its end.
+     */
+    public static boolean keepAlive(HttpRequest request, HttpResponse response) {
+        return !wantsClose(request) && request.isBodyComplete()
+                && !"close".equalsIgnoreCase(response.getHeaders().get("Connection"));
+    }
+
+    /**
+     * Whether the connection stays open after the served-th response on it: as {@link #keepAlive}, unless
+     * the server is shutting down or the connection has served as many requests as it may.
+     */
+    public boolean keepConnectionOpen(HttpRequest request, HttpResponse response, int served) {
+        return !draining && (maxRequestsPerConnection <= 0 || served < maxRequestsPerConnection)
+                && keepAlive(request, response);
+    }
+
+    /**
+     * Figures out whether the request method is a GET or HEAD
+     */
+    private boolean isGetOrHead(String method) {
+        return "GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method);
+    }
+}
@@ -0,0 +1,97 @@
+package com.asm.http4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * What follows the headers of an {@link HttpResponse}.
+ * Only {@link Bytes} lives on the heap; file regions are sent by the kernel with sendfile where the
+ * connection allows it, and streams are copied through the connection's write buffer. A
+ * {@link Chunked} body is produced while it is sent, so its length is not known up front.
+ */
+public sealed interface ResponseBody permits ResponseBody.Bytes, ResponseBody.FileRegion, ResponseBody.Stream,
+        ResponseBody.Composite, ResponseBody.Chunked {
+
+    ResponseBody EMPTY = new Bytes(new byte[0]);
+
+    /**
+     * Produces a body by writing it to the connection.
+     * Writes block, or park the virtual thread, while the client is not keeping up, so a producer
+     * never gets more than a buffer ahead of it. Flushing sends what was written so far right away.
+     */
+    @FunctionalInterface
+    interface BodyWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Number of bytes sent as Content-Length, or -1 if it is not known before the body is sent.
+     */
+    long length();
+
+    /**
+     * The length bytes starting at offset, without reading a file region. Streams cannot be sliced.
+     */
+    default ResponseBody slice(long offset, long length) {
+        if (offset < 0 || length < 0 || offset + length > length()) {
+            throw new IndexOutOfBoundsException("Slice " + offset + "+" + length + " of " + length() + " bytes");
+        }
+        return switch (this) {
+            case Bytes bytes -> new Bytes(Arrays.copyOfRange(bytes.bytes(), (int) offset, (int) (offset + length)));
+            case FileRegion region -> new FileRegion(region.path(), region.position() + offset, length);
+            case Stream stream -> throw new UnsupportedOperationException("Stream bodies cannot be sliced");
+            case Composite composite -> throw new UnsupportedOperationException("Composite bodies cannot be sliced");
+            case Chunked chunked -> throw new UnsupportedOperationException("Chunked bodies cannot be sliced");
+        };
+    }
+
+    record Bytes(byte[] bytes) implements ResponseBody {
+        @Override
+        public long length() {
+            return bytes.length;
+        }
+    }
+
+    /**
+     * length bytes of a file starting at position. The file is opened only when the body is written.
+     */
+    record FileRegion(Path path, long position, long length) implements ResponseBody {
+    }
+
+    /**
+     * Exactly length bytes read from a stream, which is closed once they have been written.
+     */
+    record Stream(InputStream in, long length) implements ResponseBody {
+    }
+
+    /**
+     * A body of unknown length, sent with {@code Transfer-Encoding: chunked} as the writer produces it.
+     * It can only be the whole body of a response, not part of a {@link Composite}.
+     */
+    record Chunked(BodyWriter writer) implements ResponseBody {
+        @Override
+        public long length() {
+            return -1;
+        }
+    }
+
+    /**
+     * Several bodies sent back to back, e.g. the parts of a multipart/byteranges response.
+     */
+    record Composite(List<ResponseBody> parts) implements ResponseBody {
+        @Override
+        public long length() {
+            long length = 0;
+            for (ResponseBody part : parts) {
+                length += part.length();
+            }
+            return length;
+        }
+    }
+}
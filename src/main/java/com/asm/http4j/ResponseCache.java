@@ -0,0 +1,344 @@
+package com.asm.http4j;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * A filter that keeps the responses of a dynamic route in memory, keyed by path, query and the
+ * request headers named in the response's {@code Vary}, for {@code s-maxage}, {@code max-age} or
+ * else the configured TTL. Entries are evicted least recently used first once the byte budget is
+ * spent. Concurrent misses on one key are coalesced: the first request runs the handler and the
+ * others wait for its response instead of running it too.
+ * Only GET responses are stored, and only when they have a byte body, a cacheable status, no
+ * {@code Set-Cookie} and no {@code no-store}, {@code no-cache} or {@code private}; HEAD requests
+ * are answered from stored GETs. Requests carrying {@code Authorization} bypass the cache, and
+ * {@code Cache-Control: no-cache} on a request refreshes the entry. Stored responses are precomputed.
+ * {@code Accept-Encoding} is left out of the key: compression is applied to whatever the cache returns.
+ */
+public class ResponseCache implements HttpFilter {
+
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(60);
+    private static final long MAX_ENTRY_BYTES = 1024 * 1024;
+    private static final int VARY_MARKER_BYTES = 64;
+    private static final String[] NO_VARY = new String[0];
+
+    /**
+     * A stored response, or, with no response, the list of headers the responses for a path vary on.
+     */
+    static final class Entry {
+        final String key;
+        final String[] vary;
+        final HttpResponse response;
+        final long size;
+        final long expiresAt;
+
+        Entry(String key, String[] vary, HttpResponse response, long size, long expiresAt) {
+            this.key = key;
+            this.vary = vary;
+            this.response = response;
+            this.size = size;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final long ttlNanos;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long usedBytes;
+
+    // Misses being computed, by key; completed with the stored entry, or null if nothing was stored
+    private final ConcurrentHashMap<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ResponseCache(Duration ttl, long maxBytes) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Response cache TTL must be positive: " + ttl);
+        }
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Response cache size must be positive: " + maxBytes);
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = Math.min(maxBytes, MAX_ENTRY_BYTES);
+    }
+
+    @Override
+    public HttpResponse filter(HttpRequest request, HttpHandler next) throws IOException {
+        boolean get = "GET".equals(request.method);
+        if (!get && !"HEAD".equals(request.method) || request.getHeader("Authorization") != null) {
+            return next.handle(request);
+        }
+        String requestCacheControl = request.getHeader("Cache-Control");
+        if (hasDirective(requestCacheControl, "no-store")) {
+            return next.handle(request);
+        }
+        String path = request.path;
+        String key;
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = live(path, now);
+            key = path;
+            if (entry != null && entry.response == null) {
+                key = variantKey(path, entry.vary, request);
+                entry = live(key, now);
+            }
+            if (entry != null && !hasDirective(requestCacheControl, "no-cache")) {
+                hits.increment();
+                return entry.response;
+            }
+        }
+        misses.increment();
+        if (!get) {
+            return next.handle(request);
+        }
+
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            coalesced.increment();
+            Entry shared = await(leader);
+            // The response may vary on headers this request does not share with the one that fetched it
+            if (shared != null && shared.key.equals(variantKey(path, shared.vary, request))) {
+                return shared.response;
+            }
+            return next.handle(request);
+        }
+        Entry stored = null;
+        try {
+            HttpResponse response = next.handle(request);
+            stored = store(path, request, response);
+            return stored != null ? stored.response : response;
+        } finally {
+            inFlight.remove(key, mine);
+            mine.complete(stored);
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Misses that waited for another request's response instead of running the handler.
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getUsedBytes() {
+        synchronized (entries) {
+            return usedBytes;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static Entry await(CompletableFuture<Entry> leader) throws IOException {
+        try {
+            return leader.get();
+        } catch (ExecutionException | CancellationException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a cached response");
+        }
+    }
+
+    /**
+     * Stores the response if it may be cached, returning its entry, or null.
+     */
+    private Entry store(String path, HttpRequest request, HttpResponse response) {
+        if (!isCacheableStatus(response.getStatus())
+                || response.getBody() == null && response.getImage() == null
+                || header(response, "Set-Cookie") != null) {
+            return null;
+        }
+        String cacheControl = header(response, "Cache-Control");
+        if (hasDirective(cacheControl, "no-store") || hasDirective(cacheControl, "no-cache")
+                || hasDirective(cacheControl, "private")) {
+            return null;
+        }
+        long ttl = maxAgeNanos(cacheControl);
+        String[] vary = varyNames(header(response, "Vary"));
+        if (ttl <= 0 || vary == null) {
+            return null;
+        }
+        HttpResponse precomputed = response.getImage() != null ? response : response.precompute();
+        ResponseImage image = precomputed.getImage();
+        long size = image.head.length + image.tail.length + path.length();
+        if (size > maxEntryBytes) {
+            return null;
+        }
+        long expiresAt = System.nanoTime() + ttl;
+        String key = variantKey(path, vary, request);
+        Entry entry = new Entry(key, vary, precomputed, size, expiresAt);
+        synchronized (entries) {
+            if (vary.length > 0) {
+                put(new Entry(path, vary, null, VARY_MARKER_BYTES, expiresAt));
+            }
+            put(entry);
+        }
+        return entry;
+    }
+
+    /**
+     * The unexpired entry for key, dropping it if it has expired. Caller holds the lock.
+     */
+    private Entry live(String key, long now) {
+        Entry entry = entries.get(key);
+        if (entry != null && now - entry.expiresAt >= 0) {
+            entries.remove(key);
+            usedBytes -= entry.size;
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Caller holds the lock.
+     */
+    private void put(Entry entry) {
+        Entry previous = entries.put(entry.key, entry);
+        if (previous != null) {
+            usedBytes -= previous.size;
+        }
+        usedBytes += entry.size;
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (usedBytes > maxBytes && eldest.hasNext()) {
+            Entry evicted = eldest.next();
+            eldest.remove();
+            usedBytes -= evicted.size;
+            evictions.increment();
+        }
+    }
+
+    private long maxAgeNanos(String cacheControl) {
+        if (cacheControl != null) {
+            long seconds = directiveSeconds(cacheControl, "s-maxage");
+            if (seconds < 0) {
+                seconds = directiveSeconds(cacheControl, "max-age");
+            }
+            if (seconds >= 0) {
+                return seconds * 1_000_000_000L;
+            }
+        }
+        return ttlNanos;
+    }
+
+    private static boolean isCacheableStatus(int status) {
+        return switch (status) {
+            case 200, 203, 204, 300, 301, 404, 410 -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * The lower-cased request headers named by a Vary header, without Accept-Encoding; null for {@code Vary: *}.
+     */
+    private static String[] varyNames(String vary) {
+        if (vary == null || vary.isBlank()) {
+            return NO_VARY;
+        }
+        String[] names = Arrays.stream(vary.split(","))
+                .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                .filter(name -> !name.isEmpty() && !name.equals("accept-encoding"))
+                .distinct()
+                .sorted()
+                .toArray(String[]::new);
+        return Arrays.asList(names).contains("*") ? null : names;
+    }
+
+    private static String variantKey(String path, String[] vary, HttpRequest request) {
+        if (vary.length == 0) {
+            return path;
+        }
+        StringBuilder key = new StringBuilder(path);
+        for (String name : vary) {
+            String value = request.getHeader(name);
+            key.append('\0').append(name).append('=').append(value != null ? value : "");
+        }
+        return key.toString();
+    }
+
+    /**
+     * A response header, looked up regardless of how the handler capitalized it.
+     */
+    private static String header(HttpResponse response, String name) {
+        Map<String, String> headers = response.getHeaders();
+        String value = headers.get(name);
+        if (value != null) {
+            return value;
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasDirective(String cacheControl, String directive) {
+        if (cacheControl == null) {
+            return false;
+        }
+        for (String part : cacheControl.split(",")) {
+            String token = part.trim();
+            int equals = token.indexOf('=');
+            if ((equals < 0 ? token : token.substring(0, equals).trim()).equalsIgnoreCase(directive)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The value of a directive such as {@code max-age=60}, or -1 if it is absent or malformed.
+     */
+    private static long directiveSeconds(String cacheControl, String directive) {
+        for (String part : cacheControl.split(",")) {
+            String token = part.trim();
+            int equals = token.indexOf('=');
+            if (equals > 0 && token.substring(0, equals).trim().equalsIgnoreCase(directive)) {
+                try {
+                    return Long.parseLong(token.substring(equals + 1).trim().replace("\"", ""));
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+}
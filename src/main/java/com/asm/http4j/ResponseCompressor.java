@@ -0,0 +1,276 @@
+package com.asm.http4j;
+
+import com.asm.http4j.util.ContentCoding;
+import com.asm.http4j.util.MimeTypes;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Applies the content coding negotiated from Accept-Encoding to compressible 200 responses.
+ * Responses with a strong ETag have their compressed variant cached by path, ETag and coding,
+ * so the same bytes are compressed once; for static files a fresh {@code .gz} sibling is used
+ * instead of compressing at all. Everything else is compressed per request.
+ */
+public class ResponseCompressor {
+
+    private static final Logger logger = LogManager.getLogger(ResponseCompressor.class);
+
+    public static final int DEFAULT_MIN_BYTES = 1024;
+    public static final long DEFAULT_CACHE_BYTES = 16L * 1024 * 1024;
+
+    /**
+     * Larger bodies are sent as they are unless a precompressed file exists.
+     */
+    private static final long MAX_SOURCE_BYTES = 4L * 1024 * 1024;
+
+    private record VariantKey(String path, String etag, ContentCoding coding) {
+    }
+
+    /**
+     * Cached for keys whose body does not shrink, so it is not compressed again; charged a nominal size.
+     */
+    private static final ResponseBody.Bytes INCOMPRESSIBLE = new ResponseBody.Bytes(new byte[0]);
+    private static final long INCOMPRESSIBLE_BYTES = 64;
+
+    private final int minBytes;
+    private final long maxCacheBytes;
+    private final long maxEntryBytes;
+
+    private final LinkedHashMap<VariantKey, ResponseBody.Bytes> variants = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param minBytes   bodies shorter than this are sent uncompressed
+     * @param cacheBytes memory for compressed variants of responses with an ETag
+     */
+    public ResponseCompressor(int minBytes, long cacheBytes) {
+        this.minBytes = minBytes;
+        this.maxCacheBytes = cacheBytes;
+        this.maxEntryBytes = Math.min(cacheBytes, MAX_SOURCE_BYTES);
+    }
+
+    /**
+     * Returns the response to send: the compressed variant, or the response itself with Vary added.
+     */
+    public HttpResponse compress(HttpRequest request, HttpResponse response) {
+        if (response.getImage() != null) {
+            return precomputedVariant(request, response);
+        }
+        if (response.getStatus() != 200 || !MimeTypes.isCompressible(contentType(response))
+                || hasHeader(response, "Content-Encoding")) {
+            return response;
+        }
+        addVary(response);
+
+        ResponseBody body = response.getResponseBody();
+        if (body.length() < minBytes || !(body instanceof ResponseBody.Bytes || body instanceof ResponseBody.FileRegion)) {
+            return response;
+        }
+        ContentCoding coding = ContentCoding.negotiate(request.getHeader("accept-encoding"));
+        if (coding == null) {
+            return response;
+        }
+
+        String etag = response.getHeaders().get("ETag");
+        VariantKey key = etag != null && !etag.startsWith("W/") ? new VariantKey(request.getPathWithoutQuery(), etag, coding) : null;
+        try {
+            ResponseBody encoded = key != null ? lookup(key) : null;
+            if (encoded == INCOMPRESSIBLE) {
+                return response;
+            }
+            if (encoded == null) {
+                encoded = precompressed(response, coding);
+                if (encoded == null) {
+                    if (body.length() > MAX_SOURCE_BYTES) {
+                        return response;
+                    }
+                    byte[] compressed = coding.encode(bytesOf(body),
+                            key != null ? Deflater.BEST_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+                    if (compressed.length >= body.length()) {
+                        // Not worth it: remember that, as precomputedVariant does
+                        if (key != null) {
+                            store(key, INCOMPRESSIBLE);
+                        }
+                        return response;
+                    }
+                    encoded = new ResponseBody.Bytes(compressed);
+                }
+                if (key != null && encoded instanceof ResponseBody.Bytes bytes) {
+                    store(key, bytes);
+                }
+            }
+            return variant(response, encoded, coding, etag);
+        } catch (IOException e) {
+            logger.warn("Failed to compress response for {}: {}", request.path, e.getMessage());
+            return response;
+        }
+    }
+
+    /**
+     * Precomputed responses already carry Vary; their compressed variants are precomputed as well
+     * on first use and kept with the response itself.
+     */
+    private HttpResponse precomputedVariant(HttpRequest request, HttpResponse response) {
+        if (response.getStatus() != 200 || !MimeTypes.isCompressible(contentType(response))
+                || hasHeader(response, "Content-Encoding") || response.getResponseBody().length() < minBytes) {
+            return response;
+        }
+        ContentCoding coding = ContentCoding.negotiate(request.getHeader("accept-encoding"));
+        if (coding == null) {
+            return response;
+        }
+        ResponseImage image = response.getImage();
+        HttpResponse variant = image.variant(coding);
+        if (variant != null) {
+            hits.increment();
+            return variant;
+        }
+        misses.increment();
+        try {
+            byte[] identity = response.getBody();
+            byte[] compressed = coding.encode(identity, Deflater.BEST_COMPRESSION);
+            // Not worth it: remember that by using the identity response as the variant
+            variant = compressed.length < identity.length
+                    ? variant(response, new ResponseBody.Bytes(compressed), coding, response.getHeaders().get("ETag")).precompute()
+                    : response;
+            image.setVariant(coding, variant);
+            return variant;
+        } catch (IOException e) {
+            logger.warn("Failed to compress response for {}: {}", request.path, e.getMessage());
+            return response;
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private static HttpResponse variant(HttpResponse response, ResponseBody encoded, ContentCoding coding, String etag) {
+        HttpResponse variant = HttpResponse.of(response.getStatus(), response.getReason(), encoded, response.getContentType());
+        variant.getHeaders().putAll(response.getHeaders());
+        variant.getHeaders().put("Content-Encoding", coding.token());
+        if (etag != null) {
+            variant.getHeaders().put("ETag", coding.etag(etag));
+        }
+        return variant;
+    }
+
+    /**
+     * A {@code .gz} file next to a static file, if the client takes gzip and it is at least as new as the original.
+     */
+    private ResponseBody precompressed(HttpResponse response, ContentCoding coding) throws IOException {
+        Path source = response.getSource();
+        if (coding != ContentCoding.GZIP || source == null) {
+            return null;
+        }
+        Path sidecar = source.resolveSibling(source.getFileName() + ".gz");
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(sidecar, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+        if (!attributes.isRegularFile()
+                || attributes.lastModifiedTime().compareTo(Files.getLastModifiedTime(source)) < 0) {
+            return null;
+        }
+        if (attributes.size() <= maxEntryBytes) {
+            return new ResponseBody.Bytes(Files.readAllBytes(sidecar));
+        }
+        return new ResponseBody.FileRegion(sidecar, 0, attributes.size());
+    }
+
+    private static byte[] bytesOf(ResponseBody body) throws IOException {
+        if (body instanceof ResponseBody.Bytes bytes) {
+            return bytes.bytes();
+        }
+        ResponseBody.FileRegion region = (ResponseBody.FileRegion) body;
+        byte[] content = Files.readAllBytes(region.path());
+        if (content.length != region.position() + region.length()) {
+            throw new IOException("File changed while being compressed: " + region.path());
+        }
+        return content;
+    }
+
+    private ResponseBody.Bytes lookup(VariantKey key) {
+        ResponseBody.Bytes encoded;
+        synchronized (variants) {
+            encoded = variants.get(key);
+        }
+        if (encoded != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return encoded;
+    }
+
+    private void store(VariantKey key, ResponseBody.Bytes encoded) {
+        if (encoded.length() > maxEntryBytes) {
+            return;
+        }
+        synchronized (variants) {
+            ResponseBody.Bytes previous = variants.put(key, encoded);
+            if (previous != null) {
+                cachedBytes -= cost(previous);
+            }
+            cachedBytes += cost(encoded);
+
+            Iterator<ResponseBody.Bytes> eldest = variants.values().iterator();
+            while (cachedBytes > maxCacheBytes && eldest.hasNext()) {
+                cachedBytes -= cost(eldest.next());
+                eldest.remove();
+            }
+        }
+    }
+
+    private static long cost(ResponseBody.Bytes encoded) {
+        return encoded == INCOMPRESSIBLE ? INCOMPRESSIBLE_BYTES : encoded.length();
+    }
+
+    private static String contentType(HttpResponse response) {
+        String contentType = response.getHeaders().get("Content-Type");
+        return contentType != null ? contentType : response.getContentType();
+    }
+
+    private static boolean hasHeader(HttpResponse response, String name) {
+        for (String key : response.getHeaders().keySet()) {
+            if (key.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Caches must key this response on Accept-Encoding, whether or not it ends up compressed.
+     */
+    private static void addVary(HttpResponse response) {
+        Map<String, String> headers = response.getHeaders();
+        String vary = headers.get("Vary");
+        if (vary == null) {
+            headers.put("Vary", "Accept-Encoding");
+        } else if (!vary.toLowerCase().contains("accept-encoding") && !vary.trim().equals("*")) {
+            headers.put("Vary", vary + ", Accept-Encoding");
+        }
+    }
+}
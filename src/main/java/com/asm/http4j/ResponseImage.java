@@ -0,0 +1,69 @@
+package com.asm.http4j;
+
+import com.asm.http4j.util.ContentCoding;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * A response serialized ahead of time by {@link HttpResponse#precompute()}. Only the Date and
+ * Connection headers are left out, to be written between head and tail on every request.
+ */
+final class ResponseImage {
+
+    /**
+     * Status line and Server header.
+     */
+    final byte[] head;
+
+    /**
+     * A Date fixed by the handler, or null for the current date.
+     */
+    final byte[] date;
+
+    /**
+     * Remaining headers, the blank line and the body.
+     */
+    final byte[] tail;
+
+    /**
+     * Where the body starts in tail; HEAD responses stop here.
+     */
+    final int bodyOffset;
+
+    // Compressed variants, built on first request by the ResponseCompressor
+    private final AtomicReferenceArray<HttpResponse> variants = new AtomicReferenceArray<>(ContentCoding.values().length);
+
+    // Variants made by filters, e.g. with headers added, keyed by the filter
+    private final ConcurrentHashMap<Object, HttpResponse> derived = new ConcurrentHashMap<>();
+
+    ResponseImage(byte[] head, byte[] date, byte[] tail, int bodyOffset) {
+        this.head = head;
+        this.date = date;
+        this.tail = tail;
+        this.bodyOffset = bodyOffset;
+    }
+
+    HttpResponse variant(ContentCoding coding) {
+        return variants.get(coding.ordinal());
+    }
+
+    void setVariant(ContentCoding coding, HttpResponse variant) {
+        variants.set(coding.ordinal(), variant);
+    }
+
+    HttpResponse derived(Object key, HttpResponse response, Function<HttpResponse, HttpResponse> derive) {
+        HttpResponse variant = derived.get(key);
+        if (variant == null) {
+            variant = derive.apply(response);
+            HttpResponse raced = derived.putIfAbsent(key, variant);
+            if (raced != null) {
+                variant = raced;
+            }
+        }
+        return variant;
+    }
+}
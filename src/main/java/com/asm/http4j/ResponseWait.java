@@ -0,0 +1,24 @@
+package com.asm.http4j;
+
+import java.io.IOException;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * How a connection waits for the response of an {@link AsyncHttpHandler}. Both calls come from
+ * the thread serving the request.
+ */
+interface ResponseWait {
+
+    /**
+     * The response is not ready yet: sends responses already buffered for earlier pipelined requests
+     * and, if the request has been read to its end, watches the socket. If the client disconnects
+     * before {@link #end()}, onDisconnect runs on some other thread.
+     */
+    void begin(Runnable onDisconnect) throws IOException;
+
+    /**
+     * The response is ready, or the wait was given up: stops watching the socket.
+     */
+    void end();
+}
@@ -0,0 +1,526 @@
+package com.asm.http4j;
+
+import com.asm.http4j.util.HttpDate;
+import com.asm.http4j.util.HttpStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import static com.asm.http4j.util.ServerInfo.VERSION;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Serializes responses straight to bytes in a reusable per-connection buffer.
+ * Status lines, the fixed header names and the Date value come pre-encoded. Small bodies are
+ * copied behind the head so the whole response goes out in one write; larger ones are sent
+ * together with the buffered bytes in one gathering write. File bodies too big to copy are
+ * handed to {@link FileChannel#transferTo}, i.e. sendfile, so they never pass through the heap.
+ * Bodies of unknown length are framed as chunks as the handler writes them.
+ * Nothing is written to the channel until the buffer fills up or {@link #flush()} is called.
+ */
+public class ResponseWriter implements Flushable {
+
+    /**
+     * Parks the writing thread until a non-blocking channel can take more bytes.
+     */
+    @FunctionalInterface
+    public interface WriteWaiter {
+        void awaitWritable() throws IOException;
+    }
+
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] HEADER_SEPARATOR = {':', ' '};
+    private static final byte[] SERVER = ascii("Server: http4j/" + VERSION + "\r\n");
+    private static final byte[] DATE = ascii("Date: ");
+    private static final byte[] CONTENT_TYPE = ascii("Content-Type: ");
+    private static final byte[] CONTENT_LENGTH = ascii("Content-Length: ");
+    private static final byte[] CONNECTION_KEEP_ALIVE = ascii("Connection: keep-alive\r\n");
+    private static final byte[] CONNECTION_CLOSE = ascii("Connection: close\r\n");
+    private static final byte[] CONTINUE = ascii("HTTP/1.1 100 Continue\r\n\r\n");
+    private static final byte[] TRANSFER_ENCODING_CHUNKED = ascii("Transfer-Encoding: chunked\r\n");
+    private static final byte[] LAST_CHUNK = ascii("0\r\n\r\n");
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    /**
+     * Small writes to a chunked body are collected up to this size before going out as one chunk.
+     */
+    static final int CHUNK_SIZE = 8 * 1024;
+
+    private final WritableByteChannel channel;
+    private final WriteWaiter waiter;
+    private byte[] buf;
+    private int count;
+    private long sent; // bytes handed to the channel
+
+    /**
+     * @param channel where responses go; blocking, or non-blocking with a waiter
+     * @param buffer  reusable buffer, e.g. pooled by the connection's engine
+     * @param waiter  called when a non-blocking channel accepts no bytes; null for blocking channels
+     */
+    public ResponseWriter(WritableByteChannel channel, byte[] buffer, WriteWaiter waiter) {
+        this.channel = channel;
+        this.buf = buffer;
+        this.waiter = waiter;
+    }
+
+    /**
+     * Bytes written so far, whether they were sent or are still buffered. The difference across a
+     * {@link #write} call is the size of that response on the wire.
+     */
+    public long position() {
+        return sent + count;
+    }
+
+    /**
+     * Serializes the response. Connection, Date, Server and Content-Length are written by the
+     * writer itself, so the handler's header map is left untouched.
+     */
+    public void write(HttpResponse response, String requestMethod, boolean keepAlive) throws IOException {
+        ResponseImage image = response.getImage();
+        if (image != null) {
+            writeImage(image, requestMethod, keepAlive);
+            return;
+        }
+        ResponseBody body = response.getResponseBody();
+
+        writeStatusLine(response);
+        writeDate(dateHeader(response));
+        append(keepAlive ? CONNECTION_KEEP_ALIVE : CONNECTION_CLOSE);
+        writeRepresentationHeaders(response);
+
+        if ("HEAD".equalsIgnoreCase(requestMethod) || !mayHaveBody(response.getStatus())) {
+            discard(body);
+            return;
+        }
+        writeBody(body);
+    }
+
+    /**
+     * Tells a client that sent {@code Expect: 100-continue} to go ahead with its body.
+     * Goes out right away, behind any responses still buffered.
+     */
+    public void writeContinue() throws IOException {
+        append(CONTINUE);
+        flush();
+    }
+
+    /**
+     * Serializes everything but Date and Connection once, for {@link HttpResponse#precompute()}.
+     */
+    static ResponseImage render(HttpResponse response) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ResponseWriter writer = new ResponseWriter(Channels.newChannel(out), new byte[1024], null);
+
+            writer.writeStatusLine(response);
+            writer.flush();
+            byte[] head = out.toByteArray();
+            out.reset();
+
+            writer.writeRepresentationHeaders(response);
+            writer.flush();
+            int bodyOffset = out.size();
+            if (mayHaveBody(response.getStatus())) {
+                writer.writeBody(response.getResponseBody());
+                writer.flush();
+            }
+
+            String date = dateHeader(response);
+            return new ResponseImage(head, date != null ? ascii(date) : null, out.toByteArray(), bodyOffset);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // in-memory channel, cannot happen
+        }
+    }
+
+    /**
+     * Writes a precomputed response, splicing in the current Date and the Connection header.
+     */
+    private void writeImage(ResponseImage image, String requestMethod, boolean keepAlive) throws IOException {
+        append(image.head);
+        append(DATE);
+        append(image.date != null ? image.date : HttpDate.nowBytes());
+        append(CRLF);
+        append(keepAlive ? CONNECTION_KEEP_ALIVE : CONNECTION_CLOSE);
+        if ("HEAD".equalsIgnoreCase(requestMethod)) {
+            ensureCapacity(image.bodyOffset);
+            System.arraycopy(image.tail, 0, buf, count, image.bodyOffset);
+            count += image.bodyOffset;
+        } else {
+            writeBytes(image.tail);
+        }
+    }
+
+    private void writeStatusLine(HttpResponse response) throws IOException {
+        append(HttpStatus.statusLine(response.getStatus(), response.getReason()));
+        append(SERVER);
+    }
+
+    private void writeDate(String date) throws IOException {
+        append(DATE);
+        if (date != null) {
+            appendAscii(date);
+        } else {
+            append(HttpDate.nowBytes());
+        }
+        append(CRLF);
+    }
+
+    private static String dateHeader(HttpResponse response) {
+        return response.getHeaders().get("Date");
+    }
+
+    /**
+     * Content-Type, Content-Length, the handler's own headers and the blank line ending the head.
+     */
+    private void writeRepresentationHeaders(HttpResponse response) throws IOException {
+        Map<String, String> headers = response.getHeaders();
+
+        String contentType = headers.get("Content-Type");
+        if (contentType == null) {
+            contentType = response.getContentType();
+        }
+        if (contentType != null) {
+            append(CONTENT_TYPE);
+            appendAscii(contentType);
+            append(CRLF);
+        }
+
+        if (mayHaveBody(response.getStatus())) {
+            if (response.getResponseBody() instanceof ResponseBody.Chunked) {
+                append(TRANSFER_ENCODING_CHUNKED);
+            } else {
+                append(CONTENT_LENGTH);
+                appendDecimal(response.getResponseBody().length());
+                append(CRLF);
+            }
+        }
+
+        for (Map.Entry<String, String> entry : headers.entrySet()) {
+            String name = entry.getKey();
+            if (isWrittenByWriter(name)) {
+                continue;
+            }
+            appendAscii(name);
+            append(HEADER_SEPARATOR);
+            appendAscii(entry.getValue());
+            append(CRLF);
+        }
+        append(CRLF);
+    }
+
+    /**
+     * Writes everything buffered so far to the channel.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (count == 0) {
+            return;
+        }
+        ByteBuffer pending = ByteBuffer.wrap(buf, 0, count);
+        while (pending.hasRemaining()) {
+            if (channel.write(pending) == 0) {
+                waiter.awaitWritable();
+            }
+        }
+        sent += count;
+        count = 0;
+    }
+
+    private void writeBody(ResponseBody body) throws IOException {
+        switch (body) {
+            case ResponseBody.Bytes bytes -> writeBytes(bytes.bytes());
+            case ResponseBody.FileRegion region -> writeFile(region);
+            case ResponseBody.Stream stream -> writeStream(stream);
+            case ResponseBody.Composite composite -> {
+                for (ResponseBody part : composite.parts()) {
+                    if (part instanceof ResponseBody.Chunked) {
+                        throw new IllegalStateException("A chunked body cannot be part of a composite body");
+                    }
+                    writeBody(part);
+                }
+            }
+            case ResponseBody.Chunked chunked -> writeChunked(chunked);
+        }
+    }
+
+    private static void discard(ResponseBody body) throws IOException {
+        switch (body) {
+            case ResponseBody.Stream stream -> stream.in().close();
+            case ResponseBody.Composite composite -> {
+                for (ResponseBody part : composite.parts()) {
+                    discard(part);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * 1xx, 204 and 304 responses end with their headers and carry no Content-Length of their own.
+     */
+    private static boolean mayHaveBody(int status) {
+        return status >= 200 && status != 204 && status != 304;
+    }
+
+    private void writeBytes(byte[] body) throws IOException {
+        writeBytes(body, 0, body.length);
+    }
+
+    private void writeBytes(byte[] body, int off, int len) throws IOException {
+        if (len <= buf.length - count) {
+            System.arraycopy(body, off, buf, count, len);
+            count += len;
+            return;
+        }
+        if (!(channel instanceof GatheringByteChannel gathering)) {
+            flush();
+            writeFully(ByteBuffer.wrap(body, off, len));
+            return;
+        }
+
+        // Head and body leave in one writev without copying the body
+        ByteBuffer[] parts = {ByteBuffer.wrap(buf, 0, count), ByteBuffer.wrap(body, off, len)};
+        while (parts[1].hasRemaining()) {
+            if (gathering.write(parts) == 0) {
+                waiter.awaitWritable();
+            }
+        }
+        sent += count + len;
+        count = 0;
+    }
+
+    /**
+     * Files that fit behind the head are read straight into the buffer, saving a write; anything
+     * larger follows the flushed head via transferTo.
+     */
+    private void writeFile(ResponseBody.FileRegion region) throws IOException {
+        try (FileChannel file = FileChannel.open(region.path(), StandardOpenOption.READ)) {
+            long position = region.position();
+            long remaining = region.length();
+            if (remaining <= buf.length - count) {
+                ByteBuffer dst = ByteBuffer.wrap(buf, count, (int) remaining);
+                while (dst.hasRemaining()) {
+                    if (file.read(dst, position + dst.position() - count) < 0) {
+                        throw new IOException("File shrank while being sent: " + region.path());
+                    }
+                }
+                count += (int) remaining;
+                return;
+            }
+
+            flush();
+            while (remaining > 0) {
+                long sent = file.transferTo(position, remaining, channel);
+                if (sent == 0) {
+                    if (position >= file.size()) {
+                        throw new IOException("File shrank while being sent: " + region.path());
+                    }
+                    if (waiter != null) {
+                        waiter.awaitWritable();
+                    }
+                }
+                position += sent;
+                remaining -= sent;
+                this.sent += sent;
+            }
+        }
+    }
+
+    private void writeStream(ResponseBody.Stream stream) throws IOException {
+        try (InputStream in = stream.in()) {
+            long remaining = stream.length();
+            while (remaining > 0) {
+                if (count == buf.length) {
+                    flush();
+                }
+                int n = in.read(buf, count, (int) Math.min(buf.length - count, remaining));
+                if (n < 0) {
+                    throw new IOException("Stream ended " + remaining + " bytes short of its Content-Length");
+                }
+                count += n;
+                remaining -= n;
+            }
+        }
+    }
+
+    /**
+     * Runs the body's writer against a chunk-framing stream, then ends the body. If the writer fails,
+     * the last chunk is never written, so the client can tell the body is incomplete.
+     */
+    private void writeChunked(ResponseBody.Chunked chunked) throws IOException {
+        ChunkedOutputStream out = new ChunkedOutputStream();
+        chunked.writer().writeTo(out);
+        out.finish();
+    }
+
+    private void writeChunk(byte[] data, int off, int len) throws IOException {
+        ensureCapacity(10);
+        int digits = (32 - Integer.numberOfLeadingZeros(len) + 3) / 4;
+        for (int i = digits - 1; i >= 0; i--) {
+            buf[count++] = HEX[(len >>> (i * 4)) & 0xf];
+        }
+        append(CRLF);
+        writeBytes(data, off, len);
+        append(CRLF);
+    }
+
+    /**
+     * What a {@link ResponseBody.BodyWriter} writes to. Collects small writes into chunks of up to
+     * {@link #CHUNK_SIZE} bytes; larger writes become a chunk of their own without being copied.
+     */
+    private final class ChunkedOutputStream extends OutputStream {
+
+        private final byte[] pending = new byte[CHUNK_SIZE];
+        private int size;
+        private boolean finished;
+
+        @Override
+        public void write(int b) throws IOException {
+            if (finished) {
+                throw new IOException("Response body already complete");
+            }
+            if (size == pending.length) {
+                writePending();
+            }
+            pending[size++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (finished) {
+                throw new IOException("Response body already complete");
+            }
+            if (len == 0) {
+                return;
+            }
+            if (len > pending.length - size) {
+                writePending();
+                if (len >= pending.length) {
+                    writeChunk(b, off, len);
+                    return;
+                }
+            }
+            System.arraycopy(b, off, pending, size, len);
+            size += len;
+        }
+
+        /**
+         * Sends everything written so far to the client.
+         */
+        @Override
+        public void flush() throws IOException {
+            writePending();
+            ResponseWriter.this.flush();
+        }
+
+        /**
+         * Closing is left to the writer: the body ends when the writer returns.
+         */
+        @Override
+        public void close() {
+        }
+
+        void finish() throws IOException {
+            writePending();
+            append(LAST_CHUNK);
+            finished = true;
+        }
+
+        private void writePending() throws IOException {
+            if (size > 0) {
+                writeChunk(pending, 0, size);
+                size = 0;
+            }
+        }
+    }
+
+    private void writeFully(ByteBuffer src) throws IOException {
+        sent += src.remaining();
+        while (src.hasRemaining()) {
+            if (channel.write(src) == 0) {
+                waiter.awaitWritable();
+            }
+        }
+    }
+
+    private static boolean isWrittenByWriter(String name) {
+        return switch (name.length()) {
+            case 4 -> name.equalsIgnoreCase("Date");
+            case 6 -> name.equalsIgnoreCase("Server");
+            case 10 -> name.equalsIgnoreCase("Connection");
+            case 12 -> name.equalsIgnoreCase("Content-Type");
+            case 14 -> name.equalsIgnoreCase("Content-Length");
+            case 17 -> name.equalsIgnoreCase("Transfer-Encoding");
+            default -> false;
+        };
+    }
+
+    private void append(byte[] bytes) throws IOException {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buf, count, bytes.length);
+        count += bytes.length;
+    }
+
+    private void appendAscii(String s) throws IOException {
+        int len = s.length();
+        ensureCapacity(len);
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                // Rare non-ASCII header value: undo the partial copy and encode properly
+                count -= i;
+                append(s.getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            buf[count++] = (byte) c;
+        }
+    }
+
+    private void appendDecimal(long value) throws IOException {
+        ensureCapacity(20);
+        if (value == 0) {
+            buf[count++] = '0';
+            return;
+        }
+        int digits = 0;
+        for (long v = value; v > 0; v /= 10) {
+            digits++;
+        }
+        for (int i = count + digits - 1; i >= count; i--) {
+            buf[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        count += digits;
+    }
+
+    /**
+     * Makes room for len more bytes, flushing first and growing only for a single oversized head.
+     */
+    private void ensureCapacity(int len) throws IOException {
+        if (buf.length - count >= len) {
+            return;
+        }
+        flush();
+        if (buf.length < len) {
+            buf = new byte[Math.max(len, buf.length * 2)];
+        }
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
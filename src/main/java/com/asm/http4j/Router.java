@@ -1,16 +1,263 @@
 package com.asm.http4j;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * @author ashutosh
  * @since 7/5/25
+ * Routes requests through a tree of path segments. A segment is a literal, a {@code {name}}
+ * parameter matching any one segment, or a trailing {@code *} matching the rest of the path.
+ * Literals win over parameters, which win over wildcards. Lookup walks one node per segment,
+ * so it does not slow down as routes are added, and each node keeps its handlers in an array
+ * indexed by method along with its precomputed set of allowed methods.
+ * Each handler is stored already wrapped in the router's and its route's {@link HttpFilter}s.
  */
 public class Router {
-    private final Map<String, Map<String, HttpHandler>> routes = new HashMap<>();
+
+    /**
+     * Name under which the rest of the path matched by a {@code *} segment is captured.
+     */
+    public static final String WILDCARD = "*";
+
+    /**
+     * How long an asynchronous route may take to answer when none is given.
+     */
+    public static final Duration DEFAULT_ASYNC_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final String[] NO_PARAMS = new String[0];
+    private static final HttpFilter[] NO_FILTERS = new HttpFilter[0];
+
+    /**
+     * Set in {@link Node#ends} for a route too deep to count or ending in a wildcard; such nodes are never skipped.
+     */
+    private static final long ANY_DEPTH = Long.MIN_VALUE;
+
+    private static final class Node {
+        final Literals literals = new Literals();
+        Node param;
+        String paramName;
+        Node wildcard;
+
+        // Composed with the router's filters; targets hold the route's own chain, before them
+        final HttpHandler[] handlers = new HttpHandler[HttpRequest.KNOWN_METHODS.length];
+        final HttpHandler[] targets = new HttpHandler[HttpRequest.KNOWN_METHODS.length];
+        Map<String, HttpHandler> extensionHandlers;
+        Map<String, HttpHandler> extensionTargets;
+        Set<String> allowed = Set.of();
+        // Names of the parameters captured on the way to this node, in path order
+        String[] paramNames = NO_PARAMS;
+        // The route pattern that ends here, e.g. /users/{id}
+        String route;
+        // Bit n is set if a route ends n segments below this node, so a lookup skips subtrees it cannot end in
+        long ends;
+
+        HttpHandler handlerFor(String method) {
+            int index = methodIndex(method);
+            if (index >= 0) {
+                return handlers[index];
+            }
+            // Methods are case-sensitive, but routes have always matched them regardless of case
+            String upper = method.toUpperCase();
+            index = methodIndex(upper);
+            if (index >= 0) {
+                return handlers[index];
+            }
+            return extensionHandlers != null ? extensionHandlers.get(upper) : null;
+        }
+    }
+
+    /**
+     * Literal children of a node. Looked up by a segment of the request path in place, hashing and
+     * comparing the region rather than copying it out. Open addressing on {@link String#hashCode()}.
+     */
+    private static final class Literals {
+        private String[] keys = new String[4];
+        private Node[] nodes = new Node[4];
+        private int size;
+
+        Node get(String path, int from, int to) {
+            int mask = keys.length - 1;
+            int length = to - from;
+            for (int i = spread(hash(path, from, to)) & mask; keys[i] != null; i = (i + 1) & mask) {
+                String key = keys[i];
+                if (key.length() == length && path.regionMatches(from, key, 0, length)) {
+                    return nodes[i];
+                }
+            }
+            return null;
+        }
+
+        Node computeIfAbsent(String segment) {
+            Node node = get(segment, 0, segment.length());
+            if (node != null) {
+                return node;
+            }
+            if ((size + 1) * 2 > keys.length) {
+                String[] oldKeys = keys;
+                Node[] oldNodes = nodes;
+                keys = new String[oldKeys.length * 2];
+                nodes = new Node[oldKeys.length * 2];
+                for (int i = 0; i < oldKeys.length; i++) {
+                    if (oldKeys[i] != null) {
+                        insert(oldKeys[i], oldNodes[i]);
+                    }
+                }
+            }
+            node = new Node();
+            insert(segment, node);
+            size++;
+            return node;
+        }
+
+        private void insert(String key, Node node) {
+            int mask = keys.length - 1;
+            int i = spread(key.hashCode()) & mask;
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            nodes[i] = node;
+        }
+
+        void forEach(Consumer<Node> action) {
+            for (Node node : nodes) {
+                if (node != null) {
+                    action.accept(node);
+                }
+            }
+        }
+
+        /**
+         * The same as the region's {@link String#hashCode()}.
+         */
+        private static int hash(String path, int from, int to) {
+            int h = 0;
+            for (int i = from; i < to; i++) {
+                h = 31 * h + path.charAt(i);
+            }
+            return h;
+        }
+
+        private static int spread(int h) {
+            return h ^ (h >>> 16);
+        }
+    }
+
+    /**
+     * The outcome of routing a path: the handler for the request method, if any, the methods the
+     * path does accept and the captured path parameters.
+     */
+    public static final class Match {
+        private final Node node;
+        private final HttpHandler handler;
+        private final String[] paramValues;
+
+        private Match(Node node, HttpHandler handler, String[] paramValues) {
+            this.node = node;
+            this.handler = handler;
+            this.paramValues = paramValues;
+        }
+
+        /**
+         * The handler for the requested method, or null if the path only accepts other methods.
+         */
+        public HttpHandler handler() {
+            return handler;
+        }
+
+        /**
+         * The handler this path has for another method, e.g. GET for a HEAD request.
+         */
+        public HttpHandler handlerFor(String method) {
+            return node.handlerFor(method);
+        }
+
+        public Set<String> allowedMethods() {
+            return node.allowed;
+        }
+
+        /**
+         * The pattern of the matched route, e.g. {@code /users/{id}}, as it was registered.
+         */
+        public String route() {
+            return node.route;
+        }
+
+        /**
+         * Makes the captured path parameters available through {@link HttpRequest#getPathParam(String)}.
+         */
+        public void bindTo(HttpRequest request) {
+            if (paramValues.length > 0) {
+                request.setPathParams(node.paramNames, paramValues);
+            }
+        }
+    }
+
+    /**
+     * The router's filters composed around a handler for requests no route answers.
+     */
+    private record Fallback(HttpHandler terminal, HttpHandler chain) {
+    }
+
+    private final Node root = new Node();
+    private final List<HttpFilter> filters = new ArrayList<>();
+    private volatile Fallback fallback;
+    private int maxParams;
+    private int routeCount;
+
+    /**
+     * Adds a filter run on every request this router serves, including static files, 404s and 405s,
+     * inside the filters added before it and outside any route's own. Like routes, filters must be
+     * added before the router is handed to a server.
+     */
+    public void use(HttpFilter filter) {
+        filters.add(filter);
+        recompose(root);
+        fallback = null;
+    }
+
+    private void recompose(Node node) {
+        for (int i = 0; i < node.targets.length; i++) {
+            if (node.targets[i] != null) {
+                node.handlers[i] = HttpFilter.chain(filters, node.targets[i]);
+            }
+        }
+        if (node.extensionTargets != null) {
+            node.extensionTargets.forEach((method, target) ->
+                    node.extensionHandlers.put(method, HttpFilter.chain(filters, target)));
+        }
+        node.literals.forEach(this::recompose);
+        if (node.param != null) {
+            recompose(node.param);
+        }
+        if (node.wildcard != null) {
+            recompose(node.wildcard);
+        }
+    }
+
+    /**
+     * The router's filters around terminal, for requests no route handles. Composed once per terminal.
+     */
+    HttpHandler fallback(HttpHandler terminal) {
+        if (filters.isEmpty()) {
+            return terminal;
+        }
+        Fallback current = fallback;
+        if (current == null || current.terminal() != terminal) {
+            current = new Fallback(terminal, HttpFilter.chain(filters, terminal));
+            fallback = current;
+        }
+        return current.chain();
+    }
 
     public void get(String path, HttpHandler handler) {
         addRoute("GET", path, handler);
@@ -20,26 +267,208 @@ public class Router {
         addRoute("POST", path, handler);
     }
 
+    public void put(String path, HttpHandler handler) {
+        addRoute("PUT", path, handler);
+    }
+
+    public void delete(String path, HttpHandler handler) {
+        addRoute("DELETE", path, handler);
+    }
+
+    public void getAsync(String path, AsyncHttpHandler handler) {
+        addAsyncRoute("GET", path, handler, DEFAULT_ASYNC_TIMEOUT);
+    }
+
+    public void postAsync(String path, AsyncHttpHandler handler) {
+        addAsyncRoute("POST", path, handler, DEFAULT_ASYNC_TIMEOUT);
+    }
+
+    /**
+     * Routes to a handler that completes its response later. If it has not within timeout, the
+     * client gets {@code 504} and the handler's stage is cancelled.
+     */
+    public void addAsyncRoute(String method, String path, AsyncHttpHandler handler, Duration timeout,
+                              HttpFilter... routeFilters) {
+        addRoute(method, path, new AsyncRoute(handler, timeout), routeFilters);
+    }
+
     public void addRoute(String method, String path, HttpHandler handler) {
-        routes
-                .computeIfAbsent(method.toUpperCase(), m -> new HashMap<>())
-                .put(path, handler);
+        addRoute(method, path, handler, NO_FILTERS);
+    }
+
+    /**
+     * Routes to a handler behind filters of its own, which run inside the router's filters, the first outermost.
+     */
+    public void addRoute(String method, String path, HttpHandler handler, HttpFilter... routeFilters) {
+        if (!path.startsWith("/")) {
+            throw new IllegalArgumentException("Route path must start with '/': " + path);
+        }
+        String[] segments = path.substring(1).split("/", -1);
+        Node[] visited = new Node[segments.length + 1];
+        Node node = root;
+        visited[0] = node;
+        String[] paramNames = NO_PARAMS;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (segment.equals(WILDCARD)) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("'*' must be the last segment of a route: " + path);
+                }
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+                paramNames = append(paramNames, WILDCARD);
+            } else if (segment.length() > 2 && segment.startsWith("{") && segment.endsWith("}")) {
+                String name = segment.substring(1, segment.length() - 1);
+                if (node.param == null) {
+                    node.param = new Node();
+                    node.paramName = name;
+                } else if (!node.paramName.equals(name)) {
+                    throw new IllegalArgumentException("Route " + path + " names parameter {" + name
+                            + "} where another route has {" + node.paramName + "}");
+                }
+                node = node.param;
+                paramNames = append(paramNames, name);
+            } else {
+                node = node.literals.computeIfAbsent(segment);
+            }
+            visited[i + 1] = node;
+        }
+        boolean wildcard = segments[segments.length - 1].equals(WILDCARD);
+        for (int i = 0; i < visited.length; i++) {
+            int below = segments.length - i;
+            visited[i].ends |= wildcard || below >= 63 ? ANY_DEPTH : 1L << below;
+        }
+        node.paramNames = paramNames;
+        node.route = path;
+        maxParams = Math.max(maxParams, paramNames.length);
+
+        String upper = method.toUpperCase();
+        HttpHandler target = HttpFilter.chain(List.of(routeFilters), handler);
+        HttpHandler composed = HttpFilter.chain(filters, target);
+        int index = methodIndex(upper);
+        if (index >= 0) {
+            node.targets[index] = target;
+            node.handlers[index] = composed;
+        } else {
+            if (node.extensionHandlers == null) {
+                node.extensionHandlers = new HashMap<>();
+                node.extensionTargets = new HashMap<>();
+            }
+            node.extensionTargets.put(upper, target);
+            node.extensionHandlers.put(upper, composed);
+        }
+        Set<String> allowed = new LinkedHashSet<>(node.allowed);
+        if (allowed.add(upper)) {
+            routeCount++;
+        }
+        node.allowed = Collections.unmodifiableSet(allowed);
+    }
+
+    /**
+     * Number of distinct method and path pattern pairs routed.
+     */
+    public int size() {
+        return routeCount;
+    }
+
+    /**
+     * Routes a path, which may still carry a query string. Returns null if no route matches the path at all.
+     */
+    public Match match(String method, String path) {
+        int end = path.indexOf('?');
+        if (end < 0) {
+            end = path.length();
+        }
+        if (end == 0 || path.charAt(0) != '/') {
+            return null;
+        }
+        int segments = 1;
+        for (int i = path.indexOf('/', 1); i >= 0 && i < end; i = path.indexOf('/', i + 1)) {
+            segments++;
+        }
+        String[] values = maxParams == 0 ? NO_PARAMS : new String[maxParams];
+        Node node = find(root, path, 1, end, segments, values, 0);
+        if (node == null) {
+            return null;
+        }
+        String[] paramValues = node.paramNames.length == 0 ? NO_PARAMS : Arrays.copyOf(values, node.paramNames.length);
+        return new Match(node, node.handlerFor(method), paramValues);
     }
 
     public HttpHandler findHandler(String method, String path) {
-        Map<String, HttpHandler> methodRoutes = routes.get(method.toUpperCase());
-        if (methodRoutes == null) return null;
-        return methodRoutes.getOrDefault(path, null);
+        Match match = match(method, path);
+        return match != null ? match.handler() : null;
     }
 
     public Set<String> allowedMethods(String path) {
-        Set<String> methods = new HashSet<>();
-        for (Map.Entry<String, Map<String, HttpHandler>> entry : routes.entrySet()) {
-            String method = entry.getKey();
-            if (entry.getValue().containsKey(path)) {
-                methods.add(method.toUpperCase());
+        Match match = match("GET", path);
+        return match != null ? match.allowedMethods() : Set.of();
+    }
+
+    /**
+     * Finds the node for the segment starting at from, backtracking from literals to parameters to wildcards.
+     * Segments are compared in place, and a child is only tried if some route ends as many segments below
+     * it as the path has left, so a lookup visits each node of the tree at most once and usually one per segment.
+     */
+    private static Node find(Node node, String path, int from, int end, int segments, String[] values, int depth) {
+        int slash = path.indexOf('/', from);
+        int segmentEnd = slash < 0 || slash > end ? end : slash;
+        boolean last = segments == 1;
+
+        Node literal = node.literals.get(path, from, segmentEnd);
+        if (literal != null && reaches(literal, segments - 1)) {
+            Node found = last ? routed(literal) : find(literal, path, segmentEnd + 1, end, segments - 1, values, depth);
+            if (found != null) {
+                return found;
             }
         }
-        return methods;
+        if (node.param != null && segmentEnd > from && depth < values.length && reaches(node.param, segments - 1)) {
+            Node found = last ? routed(node.param)
+                    : find(node.param, path, segmentEnd + 1, end, segments - 1, values, depth + 1);
+            if (found != null) {
+                values[depth] = path.substring(from, segmentEnd);
+                return found;
+            }
+        }
+        if (node.wildcard != null && depth < values.length) {
+            values[depth] = path.substring(from, end);
+            return routed(node.wildcard);
+        }
+        return null;
     }
+
+    private static boolean reaches(Node node, int segments) {
+        return (node.ends & (ANY_DEPTH | (segments < 63 ? 1L << segments : 0))) != 0;
+    }
+
+    private static Node routed(Node node) {
+        return node.allowed.isEmpty() ? null : node;
+    }
+
+    private static String[] append(String[] names, String name) {
+        String[] copy = Arrays.copyOf(names, names.length + 1);
+        copy[names.length] = name;
+        return copy;
+    }
+
+    /**
+     * Index of a method in {@link HttpRequest#KNOWN_METHODS}. Parsed methods are interned, so the identity check usually hits.
+     */
+    private static int methodIndex(String method) {
+        String[] known = HttpRequest.KNOWN_METHODS;
+        for (int i = 0; i < known.length; i++) {
+            if (known[i] == method) {
+                return i;
+            }
+        }
+        for (int i = 0; i < known.length; i++) {
+            if (known[i].equals(method)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
 }
@@ -0,0 +1,386 @@
+package com.asm.http4j;
+
+import java.io.File;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Settings for an {@link HttpServer}. Setters return this so a config can be built fluently.
+ */
+public class ServerConfig {
+
+    /**
+     * How connections are served.
+     * BLOCKING gives every connection its own virtual thread for its whole lifetime.
+     * NIO multiplexes connections over selector event loops and only uses a virtual thread per request.
+     */
+    public enum Engine {
+        BLOCKING,
+        NIO
+    }
+
+    public static final int DEFAULT_IDLE_TIMEOUT_MS = 10_000;
+    public static final int DEFAULT_HEADER_TIMEOUT_MS = 10_000;
+    public static final int DEFAULT_BODY_TIMEOUT_MS = 10_000;
+    public static final int DEFAULT_ACCEPT_BACKLOG = 1024;
+
+    private int port = 8080;
+    private File staticRoot;
+    private Engine engine = Engine.BLOCKING;
+    private int eventLoops = Runtime.getRuntime().availableProcessors();
+    private int idleTimeoutMs = DEFAULT_IDLE_TIMEOUT_MS;
+    private int headerTimeoutMs = DEFAULT_HEADER_TIMEOUT_MS;
+    private int bodyTimeoutMs = DEFAULT_BODY_TIMEOUT_MS;
+    private int maxRequestsPerConnection;
+    private long staticCacheBytes;
+    private boolean compression = true;
+    private int compressionMinBytes = ResponseCompressor.DEFAULT_MIN_BYTES;
+    private long compressionCacheBytes = ResponseCompressor.DEFAULT_CACHE_BYTES;
+    private long maxBodyBytes = HttpRequestParser.DEFAULT_MAX_BODY_SIZE;
+    private int acceptBacklog = DEFAULT_ACCEPT_BACKLOG;
+    private int acceptors = 1;
+    private boolean reusePort;
+    private boolean tcpNoDelay = true;
+    private int receiveBufferBytes;
+    private int sendBufferBytes;
+    private int maxConnections;
+    private int maxConnectionsPerIp;
+    private int maxInFlightRequests;
+    private String metricsPath;
+    private File accessLog;
+    private TlsContext tls;
+    private AccessLog.Format accessLogFormat = AccessLog.Format.COMBINED;
+    private double accessLogSampleRate = 1;
+    private long accessLogMaxBytes = AccessLog.DEFAULT_MAX_FILE_BYTES;
+
+    public int getPort() {
+        return port;
+    }
+
+    public ServerConfig port(int port) {
+        this.port = port;
+        return this;
+    }
+
+    public File getStaticRoot() {
+        return staticRoot;
+    }
+
+    public ServerConfig staticRoot(File staticRoot) {
+        this.staticRoot = staticRoot;
+        return this;
+    }
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public ServerConfig engine(Engine engine) {
+        this.engine = engine;
+        return this;
+    }
+
+    public int getEventLoops() {
+        return eventLoops;
+    }
+
+    /**
+     * Number of selector threads used by the NIO engine. Defaults to one per core.
+     */
+    public ServerConfig eventLoops(int eventLoops) {
+        this.eventLoops = eventLoops;
+        return this;
+    }
+
+    public int getIdleTimeoutMs() {
+        return idleTimeoutMs;
+    }
+
+    /**
+     * How long a keep-alive connection may wait for the first byte of its next request before it is closed.
+     */
+    public ServerConfig idleTimeoutMs(int idleTimeoutMs) {
+        this.idleTimeoutMs = idleTimeoutMs;
+        return this;
+    }
+
+    public int getHeaderTimeoutMs() {
+        return headerTimeoutMs;
+    }
+
+    /**
+     * How long a client may take to send a whole request head, counted from its first byte.
+     * Trickling the head a byte at a time does not extend it.
+     */
+    public ServerConfig headerTimeoutMs(int headerTimeoutMs) {
+        this.headerTimeoutMs = headerTimeoutMs;
+        return this;
+    }
+
+    public int getBodyTimeoutMs() {
+        return bodyTimeoutMs;
+    }
+
+    /**
+     * How long a read of the request body may wait for more bytes.
+     */
+    public ServerConfig bodyTimeoutMs(int bodyTimeoutMs) {
+        this.bodyTimeoutMs = bodyTimeoutMs;
+        return this;
+    }
+
+    public int getMaxRequestsPerConnection() {
+        return maxRequestsPerConnection;
+    }
+
+    /**
+     * Requests served on one connection before the server closes it, so that clients reconnect and
+     * spread over the nodes behind a load balancer. 0, the default, means unlimited.
+     */
+    public ServerConfig maxRequestsPerConnection(int maxRequestsPerConnection) {
+        this.maxRequestsPerConnection = maxRequestsPerConnection;
+        return this;
+    }
+
+    public long getStaticCacheBytes() {
+        return staticCacheBytes;
+    }
+
+    /**
+     * Memory budget for keeping small static files in memory. 0, the default, disables the cache.
+     */
+    public ServerConfig staticCacheBytes(long staticCacheBytes) {
+        this.staticCacheBytes = staticCacheBytes;
+        return this;
+    }
+
+    public boolean isCompression() {
+        return compression;
+    }
+
+    /**
+     * Whether compressible responses are gzip or deflate encoded for clients that accept it. On by default.
+     */
+    public ServerConfig compression(boolean compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    public int getCompressionMinBytes() {
+        return compressionMinBytes;
+    }
+
+    /**
+     * Bodies shorter than this are not worth compressing.
+     */
+    public ServerConfig compressionMinBytes(int compressionMinBytes) {
+        this.compressionMinBytes = compressionMinBytes;
+        return this;
+    }
+
+    public long getCompressionCacheBytes() {
+        return compressionCacheBytes;
+    }
+
+    /**
+     * Memory for compressed variants of responses that carry an ETag, such as static files.
+     */
+    public ServerConfig compressionCacheBytes(long compressionCacheBytes) {
+        this.compressionCacheBytes = compressionCacheBytes;
+        return this;
+    }
+
+    public long getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    /**
+     * Largest request body accepted. Larger ones are answered with 413 Content Too Large.
+     */
+    public ServerConfig maxBodyBytes(long maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+        return this;
+    }
+
+    public int getAcceptBacklog() {
+        return acceptBacklog;
+    }
+
+    /**
+     * Connections the kernel may queue before they are accepted; it caps this at its own maximum (somaxconn).
+     */
+    public ServerConfig acceptBacklog(int acceptBacklog) {
+        this.acceptBacklog = acceptBacklog;
+        return this;
+    }
+
+    public int getAcceptors() {
+        return acceptors;
+    }
+
+    /**
+     * Threads accepting connections for the blocking engine. Each NIO event loop already accepts its own.
+     */
+    public ServerConfig acceptors(int acceptors) {
+        this.acceptors = acceptors;
+        return this;
+    }
+
+    public boolean isReusePort() {
+        return reusePort;
+    }
+
+    /**
+     * Binds a listening socket per acceptor (blocking engine) or per event loop (NIO engine) with
+     * SO_REUSEPORT, so the kernel spreads new connections over them instead of every thread
+     * contending for one accept queue. Ignored with a warning where SO_REUSEPORT is not supported.
+     */
+    public ServerConfig reusePort(boolean reusePort) {
+        this.reusePort = reusePort;
+        return this;
+    }
+
+    public boolean isTcpNoDelay() {
+        return tcpNoDelay;
+    }
+
+    /**
+     * Disables Nagle's algorithm on accepted connections. On by default: responses are already
+     * coalesced in the connection's write buffer.
+     */
+    public ServerConfig tcpNoDelay(boolean tcpNoDelay) {
+        this.tcpNoDelay = tcpNoDelay;
+        return this;
+    }
+
+    public int getReceiveBufferBytes() {
+        return receiveBufferBytes;
+    }
+
+    /**
+     * SO_RCVBUF of accepted connections, set on the listening socket so that it applies from the
+     * handshake on. 0, the default, leaves it to the kernel's autotuning.
+     */
+    public ServerConfig receiveBufferBytes(int receiveBufferBytes) {
+        this.receiveBufferBytes = receiveBufferBytes;
+        return this;
+    }
+
+    public int getSendBufferBytes() {
+        return sendBufferBytes;
+    }
+
+    /**
+     * SO_SNDBUF of accepted connections. 0, the default, leaves it to the kernel's autotuning.
+     */
+    public ServerConfig sendBufferBytes(int sendBufferBytes) {
+        this.sendBufferBytes = sendBufferBytes;
+        return this;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * Open connections allowed at once; further ones get a 503 and are closed. 0, the default, means unlimited.
+     */
+    public ServerConfig maxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+        return this;
+    }
+
+    public int getMaxConnectionsPerIp() {
+        return maxConnectionsPerIp;
+    }
+
+    /**
+     * Open connections allowed from one client address. 0, the default, means unlimited.
+     */
+    public ServerConfig maxConnectionsPerIp(int maxConnectionsPerIp) {
+        this.maxConnectionsPerIp = maxConnectionsPerIp;
+        return this;
+    }
+
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+
+    /**
+     * Requests handled at once; further ones get a 503. 0, the default, means unlimited.
+     */
+    public ServerConfig maxInFlightRequests(int maxInFlightRequests) {
+        this.maxInFlightRequests = maxInFlightRequests;
+        return this;
+    }
+
+    public String getMetricsPath() {
+        return metricsPath;
+    }
+
+    /**
+     * Path answering GET with the server's metrics in the Prometheus text format, e.g. /metrics.
+     * It takes precedence over routes. Null, the default, disables it.
+     */
+    public ServerConfig metricsPath(String metricsPath) {
+        this.metricsPath = metricsPath;
+        return this;
+    }
+
+    public TlsContext getTls() {
+        return tls;
+    }
+
+    /**
+     * Serves HTTPS instead of cleartext HTTP. Only the blocking engine terminates TLS. Null, the default, turns it off.
+     */
+    public ServerConfig tls(TlsContext tls) {
+        this.tls = tls;
+        return this;
+    }
+
+    public File getAccessLog() {
+        return accessLog;
+    }
+
+    /**
+     * File each exchange is logged to, asynchronously. Null, the default, turns access logging off.
+     */
+    public ServerConfig accessLog(File accessLog) {
+        this.accessLog = accessLog;
+        return this;
+    }
+
+    public AccessLog.Format getAccessLogFormat() {
+        return accessLogFormat;
+    }
+
+    public ServerConfig accessLogFormat(AccessLog.Format accessLogFormat) {
+        this.accessLogFormat = accessLogFormat;
+        return this;
+    }
+
+    public double getAccessLogSampleRate() {
+        return accessLogSampleRate;
+    }
+
+    /**
+     * Share of exchanges written to the access log, from 0 to 1. Server errors are always written.
+     */
+    public ServerConfig accessLogSampleRate(double accessLogSampleRate) {
+        this.accessLogSampleRate = accessLogSampleRate;
+        return this;
+    }
+
+    public long getAccessLogMaxBytes() {
+        return accessLogMaxBytes;
+    }
+
+    /**
+     * Size at which the access log is rotated.
+     */
+    public ServerConfig accessLogMaxBytes(long accessLogMaxBytes) {
+        this.accessLogMaxBytes = accessLogMaxBytes;
+        return this;
+    }
+}
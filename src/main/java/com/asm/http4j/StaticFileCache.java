@@ -0,0 +1,186 @@
+package com.asm.http4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Keeps small static files in memory, keyed by request path, with least recently used eviction
+ * once the byte budget is spent. A hit skips path canonicalization and all file system calls
+ * except a size and mtime check, made at most once per revalidation interval per entry.
+ */
+public class StaticFileCache {
+
+    public static final long DEFAULT_REVALIDATE_INTERVAL_MS = 1_000;
+    private static final long MAX_ENTRY_BYTES = 1024 * 1024;
+
+    /**
+     * A cached file: its content, MIME type and the headers sent with it.
+     */
+    static final class Entry {
+        final String requestPath;
+        final Path file;
+        final ResponseBody.Bytes body;
+        final String mimeType;
+        final Map<String, String> headers;
+        final long lastModified;
+        volatile long checkedAt;
+
+        Entry(String requestPath, Path file, byte[] content, String mimeType, Map<String, String> headers, long lastModified, long checkedAt) {
+            this.requestPath = requestPath;
+            this.file = file;
+            this.body = new ResponseBody.Bytes(content);
+            this.mimeType = mimeType;
+            this.headers = Map.copyOf(headers);
+            this.lastModified = lastModified;
+            this.checkedAt = checkedAt;
+        }
+
+        HttpResponse toResponse() {
+            HttpResponse response = HttpResponse.of(200, "OK", body, mimeType);
+            response.getHeaders().putAll(headers);
+            response.setSource(file);
+            return response;
+        }
+    }
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final long revalidateIntervalNanos;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long usedBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public StaticFileCache(long maxBytes) {
+        this(maxBytes, DEFAULT_REVALIDATE_INTERVAL_MS);
+    }
+
+    StaticFileCache(long maxBytes, long revalidateIntervalMs) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = Math.min(maxBytes, MAX_ENTRY_BYTES);
+        this.revalidateIntervalNanos = TimeUnit.MILLISECONDS.toNanos(revalidateIntervalMs);
+    }
+
+    /**
+     * Whether a file of this size would be cached.
+     */
+    boolean admits(long size) {
+        return size <= maxEntryBytes;
+    }
+
+    /**
+     * Returns the cached entry for a request path, or null if there is none or the file changed on disk.
+     */
+    Entry get(String requestPath) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(requestPath);
+        }
+        if (entry == null || !isFresh(entry)) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry;
+    }
+
+    /**
+     * Reads a file into a new entry and caches it. The attributes, which the headers were built
+     * from, must be read before the content, so a file modified while it is being read shows up
+     * as changed on the next revalidation.
+     */
+    Entry load(String requestPath, Path file, String mimeType, BasicFileAttributes attributes, Map<String, String> headers) throws IOException {
+        byte[] content = Files.readAllBytes(file);
+        Entry entry = new Entry(requestPath, file, content, mimeType, headers, attributes.lastModifiedTime().toMillis(), System.nanoTime());
+        if (content.length == attributes.size() && admits(content.length)) {
+            put(entry);
+        }
+        return entry;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getUsedBytes() {
+        synchronized (entries) {
+            return usedBytes;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private boolean isFresh(Entry entry) {
+        long now = System.nanoTime();
+        if (now - entry.checkedAt < revalidateIntervalNanos) {
+            return true;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(entry.file, BasicFileAttributes.class);
+            if (attributes.lastModifiedTime().toMillis() == entry.lastModified
+                    && attributes.size() == entry.body.length()) {
+                entry.checkedAt = now;
+                return true;
+            }
+        } catch (NoSuchFileException ignored) {
+            // Deleted; drop the entry below
+        } catch (IOException e) {
+            return false;
+        }
+        remove(entry);
+        return false;
+    }
+
+    private void put(Entry entry) {
+        synchronized (entries) {
+            Entry previous = entries.put(entry.requestPath, entry);
+            if (previous != null) {
+                usedBytes -= previous.body.length();
+            }
+            usedBytes += entry.body.length();
+
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (usedBytes > maxBytes && eldest.hasNext()) {
+                Entry evicted = eldest.next();
+                eldest.remove();
+                usedBytes -= evicted.body.length();
+                evictions.increment();
+            }
+        }
+    }
+
+    private void remove(Entry entry) {
+        synchronized (entries) {
+            // Only if it has not been replaced by a fresher entry in the meantime
+            if (entries.remove(entry.requestPath, entry)) {
+                usedBytes -= entry.body.length();
+            }
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.asm.http4j;
+
+import com.asm.http4j.util.ContentCoding;
+import com.asm.http4j.util.HttpDate;
+import com.asm.http4j.util.HttpStatus;
+import com.asm.http4j.util.MimeTypes;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @author ashutosh
+ * @since 7/5/25
+ * Serves files and directory listings from the static root.
+ * File responses carry an mtime/size ETag and Last-Modified, so unchanged files are answered
+ * with 304 and byte ranges with 206.
+ */
+public class StaticFileHandler {
+
+    private static final Logger logger = LogManager.getLogger(StaticFileHandler.class);
+
+    private final File staticRoot;
+    private final StaticFileCache cache;
+
+    public StaticFileHandler(File staticRoot) {
+        this(staticRoot, null);
+    }
+
+    /**
+     * @param cache keeps small files in memory; null serves every request from disk
+     */
+    public StaticFileHandler(File staticRoot, StaticFileCache cache) {
+        this.staticRoot = staticRoot;
+        this.cache = cache;
+    }
+
+    public StaticFileCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Serves static files from the configured static root directory, answering conditional
+     * (If-None-Match, If-Modified-Since) and range (Range, If-Range) requests.
+     */
+    public HttpResponse serve(HttpRequest request) {
+        return serve(request.getPathWithoutQuery(), request);
+    }
+
+    /**
+     * Serves static files from the configured static root directory.
+     */
+    public HttpResponse serve(String requestPath) {
+        return serve(requestPath, null);
+    }
+
+    private HttpResponse serve(String requestPath, HttpRequest request) {
+        if (cache != null) {
+            StaticFileCache.Entry cached = cache.get(requestPath);
+            if (cached != null) {
+                return negotiate(request, cached.toResponse(), cached.lastModified);
+            }
+        }
+        try {
+            File file = new File(staticRoot, requestPath);
+            if (!file.getCanonicalPath().startsWith(staticRoot.getCanonicalPath())) {
+                return HttpResponse.of(403, "Forbidden", "Access Denied".getBytes(), "text/plain");
+            }
+
+            if (!file.exists()) {
+                return HttpResponse.notFound("File not found".getBytes(), "text/plain");
+            }
+
+            if (file.isDirectory()) {
+                File indexFile = new File(file, "index.html");
+                if (indexFile.exists()) {
+                    file = indexFile;
+                } else {
+                    return listDirectory(file, requestPath);
+                }
+            }
+
+            String mimeType = MimeTypes.guessMimeType(file.getName());
+            Path path = file.toPath();
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            Map<String, String> headers = Map.of(
+                    "Last-Modified", HttpDate.format(lastModified),
+                    "ETag", etag(lastModified, attributes.size()),
+                    "Accept-Ranges", "bytes");
+
+            HttpResponse response;
+            if (cache != null && cache.admits(attributes.size())) {
+                response = cache.load(requestPath, path, mimeType, attributes, headers).toResponse();
+            } else {
+                response = HttpResponse.of(200, "OK", new ResponseBody.FileRegion(path, 0, attributes.size()), mimeType);
+                response.getHeaders().putAll(headers);
+                response.setSource(path);
+            }
+            return negotiate(request, response, lastModified);
+
+        } catch (IOException e) {
+            logger.error("Error serving static file: {}", e.getMessage());
+            return HttpResponse.of(500, "Internal Server Error", "Error reading file".getBytes(), null);
+        }
+    }
+
+    /**
+     * A strong validator built from the file's mtime and size, the way most servers derive one without hashing.
+     */
+    static String etag(long lastModified, long size) {
+        return "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(size) + "\"";
+    }
+
+    /**
+     * Turns the full 200 response into a 304, 206 or 416 when the request's preconditions and range call for it.
+     */
+    private HttpResponse negotiate(HttpRequest request, HttpResponse full, long lastModified) {
+        if (request == null) {
+            return full;
+        }
+        String etag = full.getHeaders().get("ETag");
+
+        // If-None-Match takes precedence; If-Modified-Since is only looked at without it
+        List<String> ifNoneMatch = request.getHeaderValues("if-none-match");
+        if (!ifNoneMatch.isEmpty()) {
+            String matched = matchingEtag(ifNoneMatch, etag);
+            if (matched != null) {
+                return notModified(full, matched);
+            }
+        } else {
+            String ifModifiedSince = request.getHeader("if-modified-since");
+            if (ifModifiedSince != null) {
+                long since = HttpDate.parse(ifModifiedSince);
+                if (since >= 0 && lastModified / 1000 <= since / 1000) {
+                    return notModified(full, etag);
+                }
+            }
+        }
+
+        String range = request.getHeader("range");
+        if (range == null || !"GET".equalsIgnoreCase(request.method)) {
+            return full;
+        }
+        String ifRange = request.getHeader("if-range");
+        if (ifRange != null && !ifRangeMatches(ifRange.trim(), etag, lastModified)) {
+            return full;
+        }
+
+        ResponseBody body = full.getResponseBody();
+        List<ByteRanges.Range> ranges = ByteRanges.parse(range, body.length());
+        if (ranges == null) {
+            return full;
+        }
+        if (ranges.isEmpty()) {
+            HttpResponse response = HttpResponse.of(416, HttpStatus.reasonPhrase(416), "Range Not Satisfiable".getBytes(), "text/plain");
+            response.getHeaders().put("Content-Range", "bytes */" + body.length());
+            return response;
+        }
+        if (ranges.size() == 1) {
+            ByteRanges.Range r = ranges.get(0);
+            HttpResponse partial = HttpResponse.of(206, HttpStatus.reasonPhrase(206), body.slice(r.first(), r.length()), full.getContentType());
+            partial.getHeaders().putAll(full.getHeaders());
+            partial.getHeaders().put("Content-Range", contentRange(r, body.length()));
+            return partial;
+        }
+        return multipartRanges(full, ranges);
+    }
+
+    private static HttpResponse notModified(HttpResponse full, String etag) {
+        HttpResponse response = HttpResponse.of(304, HttpStatus.reasonPhrase(304), ResponseBody.EMPTY, null);
+        response.getHeaders().put("ETag", etag);
+        response.getHeaders().put("Last-Modified", full.getHeaders().get("Last-Modified"));
+        return response;
+    }
+
+    /**
+     * A multipart/byteranges body: each range behind its own part headers, file ranges still sent with transferTo.
+     */
+    private static HttpResponse multipartRanges(HttpResponse full, List<ByteRanges.Range> ranges) {
+        ResponseBody body = full.getResponseBody();
+        String boundary = Long.toHexString(ThreadLocalRandom.current().nextLong()) + Long.toHexString(ThreadLocalRandom.current().nextLong());
+        List<ResponseBody> parts = new ArrayList<>(ranges.size() * 2 + 1);
+        for (ByteRanges.Range r : ranges) {
+            StringBuilder partHeaders = new StringBuilder("\r\n--").append(boundary).append("\r\n");
+            if (full.getContentType() != null) {
+                partHeaders.append("Content-Type: ").append(full.getContentType()).append("\r\n");
+            }
+            partHeaders.append("Content-Range: ").append(contentRange(r, body.length())).append("\r\n\r\n");
+            parts.add(new ResponseBody.Bytes(partHeaders.toString().getBytes(StandardCharsets.US_ASCII)));
+            parts.add(body.slice(r.first(), r.length()));
+        }
+        parts.add(new ResponseBody.Bytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII)));
+
+        HttpResponse response = HttpResponse.of(206, HttpStatus.reasonPhrase(206), new ResponseBody.Composite(parts),
+                "multipart/byteranges; boundary=" + boundary);
+        response.getHeaders().put("ETag", full.getHeaders().get("ETag"));
+        response.getHeaders().put("Last-Modified", full.getHeaders().get("Last-Modified"));
+        response.getHeaders().put("Accept-Ranges", "bytes");
+        return response;
+    }
+
+    private static String contentRange(ByteRanges.Range r, long length) {
+        return "bytes " + r.first() + "-" + r.last() + "/" + length;
+    }
+
+    /**
+     * Weak comparison, as If-None-Match calls for: W/ prefixes are ignored and * matches anything.
+     * Tags of compressed variants match too. Returns the tag to echo in the 304, or null.
+     */
+    private static String matchingEtag(List<String> headerValues, String etag) {
+        String opaque = stripWeak(etag);
+        for (String value : headerValues) {
+            for (String candidate : value.split(",")) {
+                candidate = candidate.trim();
+                if (candidate.equals("*")) {
+                    return etag;
+                }
+                if (ContentCoding.identityEtag(stripWeak(candidate)).equals(opaque)) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * If-Range holds either a strong ETag, compared strongly, or the exact Last-Modified date.
+     */
+    private static boolean ifRangeMatches(String ifRange, String etag, long lastModified) {
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag) && !etag.startsWith("W/");
+        }
+        long date = HttpDate.parse(ifRange);
+        return date >= 0 && date / 1000 == lastModified / 1000;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private HttpResponse listDirectory(File directory, String requestPath) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return HttpResponse.of(500, "Internal Server Error", "Unable to list directory".getBytes(), "text/plain");
+        }
+
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>\n")
+                .append("<html>\n")
+                .append("<head>\n")
+                .append("  <meta charset=\"UTF-8\">\n")
+                .append("  <title>Index of ").append(requestPath).append("</title>\n")
+                .append("  <style>\n")
+                .append("    body { font-family: Arial, sans-serif; padding: 20px; }\n")
+                .append("    h1 { border-bottom: 1px solid #ccc; }\n")
+                .append("    table { width: 100%; border-collapse: collapse; }\n")
+                .append("    th, td { text-align: left; padding: 8px; border-bottom: 1px solid #eee; }\n")
+                .append("    tr:hover { background-color: #f9f9f9; }\n")
+                .append("    a { text-decoration: none; color: #007bff; }\n")
+                .append("    a:hover { text-decoration: underline; }\n")
+                .append("  </style>\n")
+                .append("</head>\n")
+                .append("<body>\n")
+                .append("  <h1>Index of ").append(requestPath).append("</h1>\n")
+                .append("  <table>\n")
+                .append("    <tr><th>Name</th><th>Size</th><th>Last Modified</th></tr>\n");
+        // Parent dir
+        if (!requestPath.equals("/")) {
+            String parent = new File(requestPath).getParent();
+            if (parent == null || parent.isEmpty()) parent = "/";
+            html.append("<tr><td><a href=\"").append(parent).append("\">../</a></td><td></td><td></td></tr>");
+        }
+
+        for (File f : files) {
+            String name = f.getName();
+            String href = requestPath.endsWith("/") ? requestPath + name : requestPath + "/" + name;
+            String displayName = f.isDirectory() ? name + "/" : name;
+
+            String size = f.isFile() ? humanReadableSize(f.length()) : "-";
+            String lastModified = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss")
+                    .format(new java.util.Date(f.lastModified()));
+
+            html.append("<tr>")
+                    .append("<td><a href=\"").append(href).append("\">").append(displayName).append("</a></td>")
+                    .append("<td>").append(size).append("</td>")
+                    .append("<td>").append(lastModified).append("</td>")
+                    .append("</tr>");
+        }
+
+        html.append("</table></body></html>");
+        return HttpResponse.ok(html.toString().getBytes(StandardCharsets.UTF_8), "text/html");
+    }
+
+    private String humanReadableSize(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        int exp = (int) (Math.log(bytes) / Math.log(1024));
+        return String.format("%.1f %sB", bytes / Math.pow(1024, exp), "KMGTPE".charAt(exp - 1));
+    }
+
+}
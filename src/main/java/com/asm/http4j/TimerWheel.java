@@ -0,0 +1,205 @@
+package com.asm.http4j;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * A hashed timer wheel for connection timeouts. Deadlines fall into one of a fixed number of
+ * buckets, one per tick, so arming, re-arming and expiring a timeout are all O(1) however many
+ * connections there are, at the price of firing up to one tick late.
+ * Postponing a timeout that is already in the wheel only writes its deadline; the wheel moves it
+ * to the right bucket when it next comes across it. Bringing it forward, e.g. from the keep-alive
+ * timeout to the shorter header timeout, relinks it at once. A single thread calls
+ * {@link #advance(long)}, and expiry callbacks run on it.
+ */
+final class TimerWheel {
+
+    static final long DEFAULT_TICK_MS = 100;
+    private static final int DEFAULT_BUCKETS = 512;
+
+    /**
+     * Something with a deadline, typically a connection. One timeout belongs to one wheel.
+     */
+    abstract static class Timeout {
+        private static final VarHandle DEADLINE;
+
+        static {
+            try {
+                DEADLINE = MethodHandles.lookup().findVarHandle(Timeout.class, "deadline", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private volatile long deadline;   // System.nanoTime() to expire at, 0 when disarmed
+        private volatile boolean inWheel;
+        private volatile long slotDeadline; // the deadline its bucket was picked for
+        private Timeout prev;              // guarded by the wheel
+        private Timeout next;              // guarded by the wheel
+        private int bucket;                // guarded by the wheel
+
+        /**
+         * Called once the deadline has passed without the timeout being re-armed or cancelled.
+         */
+        protected abstract void expire();
+    }
+
+    private final long tickNanos;
+    private final long origin = System.nanoTime();
+    private final Timeout[] buckets;
+    private final int mask;
+    private long processedTick;                              // guarded by this
+    private final List<Timeout> expired = new ArrayList<>(); // used by the advancing thread only
+
+    TimerWheel() {
+        this(DEFAULT_TICK_MS, DEFAULT_BUCKETS);
+    }
+
+    /**
+     * @param bucketCount rounded up to a power of two
+     */
+    TimerWheel(long tickMs, int bucketCount) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        int size = Integer.highestOneBit(Math.max(2, bucketCount - 1)) << 1;
+        this.buckets = new Timeout[size];
+        this.mask = size - 1;
+    }
+
+    long tickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * Arms the timeout to expire after delayNanos, replacing any earlier deadline.
+     */
+    void schedule(Timeout timeout, long delayNanos) {
+        long deadline = nonZero(System.nanoTime() + delayNanos);
+        timeout.deadline = deadline;
+        if (timeout.inWheel) {
+            long slot = timeout.slotDeadline;
+            if (slot != 0 && deadline - slot >= 0) {
+                return; // later than its bucket: moved when the bucket comes up
+            }
+        }
+        synchronized (this) {
+            if (!timeout.inWheel) {
+                insert(timeout);
+            } else if (bucketOf(timeout.deadline) != timeout.bucket) {
+                unlink(timeout);
+                insert(timeout);
+            }
+        }
+    }
+
+    /**
+     * Disarms the timeout. It leaves the wheel the next time its bucket comes up.
+     */
+    void cancel(Timeout timeout) {
+        timeout.deadline = 0;
+    }
+
+    /**
+     * Expires every timeout whose deadline is before now, visiting each bucket whose tick has passed.
+     */
+    void advance(long now) {
+        synchronized (this) {
+            long currentTick = tickOf(now);
+            long ticks = Math.min(currentTick - processedTick, buckets.length);
+            for (long i = 0; i < ticks; i++) {
+                // Anything (re)inserted while sweeping lands in a later bucket, never in one already swept
+                processedTick++;
+                sweep((int) (processedTick & mask), now);
+            }
+            processedTick = Math.max(processedTick, currentTick);
+        }
+        for (Timeout timeout : expired) {
+            timeout.expire();
+        }
+        expired.clear();
+    }
+
+    private void sweep(int bucket, long now) {
+        Timeout timeout = buckets[bucket];
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            long deadline = timeout.deadline;
+            if (deadline == 0) {
+                unlink(timeout);
+                reinsertIfRearmed(timeout);
+            } else if (deadline - now <= 0) {
+                unlink(timeout);
+                if (Timeout.DEADLINE.compareAndSet(timeout, deadline, 0L)) {
+                    expired.add(timeout);
+                } else {
+                    reinsertIfRearmed(timeout); // re-armed while we looked at it
+                }
+            } else if (bucketOf(deadline) != bucket) {
+                unlink(timeout);
+                insert(timeout);
+            }
+            timeout = next;
+        }
+    }
+
+    /**
+     * A timeout taken out of the wheel could have been re-armed by a thread that still saw it in
+     * the wheel and so did not insert it. Reading the deadline after clearing inWheel catches that.
+     */
+    private void reinsertIfRearmed(Timeout timeout) {
+        if (timeout.deadline != 0) {
+            insert(timeout);
+        }
+    }
+
+    private void insert(Timeout timeout) {
+        long deadline;
+        do {
+            // A re-arm that misses the new slotDeadline changed the deadline after it, and is seen here
+            deadline = timeout.deadline;
+            timeout.slotDeadline = deadline;
+        } while (timeout.deadline != deadline);
+        int bucket = bucketOf(deadline);
+        timeout.bucket = bucket;
+        timeout.prev = null;
+        timeout.next = buckets[bucket];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        buckets[bucket] = timeout;
+        timeout.inWheel = true;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.inWheel = false;
+    }
+
+    /**
+     * The bucket swept at the tick the deadline falls in, or the next one to be swept if that tick is past.
+     */
+    private int bucketOf(long deadline) {
+        return (int) (Math.max(tickOf(deadline), processedTick + 1) & mask);
+    }
+
+    private long tickOf(long nanos) {
+        return Math.floorDiv(nanos - origin, tickNanos);
+    }
+
+    private static long nonZero(long deadline) {
+        return deadline == 0 ? 1 : deadline;
+    }
+}
@@ -0,0 +1,258 @@
+package com.asm.http4j;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLSession;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * A blocking socket channel with TLS on top. The handshake runs on the first read or write.
+ * Gathering writes go to {@link SSLEngine#wrap(ByteBuffer[], int, int, ByteBuffer)}, so a response
+ * head and body still become as few records as their size allows.
+ * Reads and writes must come from one thread at a time, as they do on a connection of the
+ * blocking engine; closing the underlying socket from another thread fails a blocked read.
+ */
+final class TlsChannel implements ByteChannel, GatheringByteChannel {
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final SocketChannel channel;
+    private final SSLEngine engine;
+    private ByteBuffer netIn;  // ciphertext received, left in write mode
+    private ByteBuffer netOut; // ciphertext to send, in write mode between uses
+    private ByteBuffer appIn;  // plaintext not yet read, left in read mode
+    private boolean handshaken;
+
+    TlsChannel(SocketChannel channel, SSLEngine engine) {
+        this.channel = channel;
+        this.engine = engine;
+        SSLSession session = engine.getSession();
+        this.netIn = ByteBuffer.allocate(session.getPacketBufferSize());
+        this.netOut = ByteBuffer.allocate(session.getPacketBufferSize());
+        this.appIn = ByteBuffer.allocate(session.getApplicationBufferSize()).flip();
+    }
+
+    /**
+     * The protocol agreed through ALPN, empty if the client did not ask, null before the handshake.
+     */
+    String getApplicationProtocol() {
+        return engine.getApplicationProtocol();
+    }
+
+    SSLSession getSession() {
+        return engine.getSession();
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        handshake();
+        while (!appIn.hasRemaining()) {
+            SSLEngineResult result = unwrap();
+            switch (result.getStatus()) {
+                case OK -> {
+                    runHandshake(result.getHandshakeStatus()); // e.g. a key update
+                    if (result.bytesConsumed() == 0 && !appIn.hasRemaining() && fill() < 0) {
+                        return -1;
+                    }
+                }
+                case BUFFER_UNDERFLOW -> {
+                    if (fill() < 0) {
+                        return -1; // closed without close_notify; the request parser sees a truncated stream
+                    }
+                }
+                case BUFFER_OVERFLOW -> appIn = grow(appIn, engine.getSession().getApplicationBufferSize(), true);
+                case CLOSED -> {
+                    return -1;
+                }
+            }
+        }
+        int n = Math.min(dst.remaining(), appIn.remaining());
+        ByteBuffer slice = appIn.slice(appIn.position(), n);
+        dst.put(slice);
+        appIn.position(appIn.position() + n);
+        return n;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        return (int) write(new ByteBuffer[]{src}, 0, 1);
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs) throws IOException {
+        return write(srcs, 0, srcs.length);
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+        handshake();
+        long total = 0;
+        for (int i = offset; i < offset + length; i++) {
+            total += srcs[i].remaining();
+        }
+        long written = 0;
+        while (written < total) {
+            SSLEngineResult result = wrap(srcs, offset, length);
+            switch (result.getStatus()) {
+                case OK -> {
+                    flush();
+                    written += result.bytesConsumed();
+                    runHandshake(result.getHandshakeStatus());
+                }
+                case BUFFER_OVERFLOW -> netOut = larger(netOut, engine.getSession().getPacketBufferSize());
+                case BUFFER_UNDERFLOW, CLOSED -> throw new ClosedChannelException();
+            }
+        }
+        return written;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    /**
+     * Sends close_notify, if the connection is still up, and closes the socket.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            engine.closeOutbound();
+            while (!engine.isOutboundDone()) {
+                SSLEngineResult result = wrap(new ByteBuffer[]{EMPTY}, 0, 1);
+                if (result.getStatus() == SSLEngineResult.Status.BUFFER_OVERFLOW) {
+                    netOut = larger(netOut, engine.getSession().getPacketBufferSize());
+                    continue;
+                }
+                flush();
+            }
+        } catch (IOException e) {
+            // the peer is gone; nothing to tell it
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void handshake() throws IOException {
+        if (!handshaken) {
+            handshaken = true;
+            engine.beginHandshake();
+            runHandshake(engine.getHandshakeStatus());
+        }
+    }
+
+    /**
+     * Exchanges handshake messages until the engine needs nothing more.
+     */
+    private void runHandshake(SSLEngineResult.HandshakeStatus status) throws IOException {
+        while (true) {
+            switch (status) {
+                case NEED_WRAP -> {
+                    SSLEngineResult result = wrap(new ByteBuffer[]{EMPTY}, 0, 1);
+                    if (result.getStatus() == SSLEngineResult.Status.BUFFER_OVERFLOW) {
+                        netOut = larger(netOut, engine.getSession().getPacketBufferSize());
+                        continue;
+                    }
+                    flush(); // may carry an alert
+                    if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+                        throw new SSLException("Connection closed during handshake");
+                    }
+                    status = result.getHandshakeStatus();
+                }
+                case NEED_UNWRAP, NEED_UNWRAP_AGAIN -> {
+                    SSLEngineResult result = unwrap();
+                    switch (result.getStatus()) {
+                        case BUFFER_UNDERFLOW -> {
+                            if (fill() < 0) {
+                                throw new EOFException("Connection closed during handshake");
+                            }
+                        }
+                        case BUFFER_OVERFLOW -> appIn = grow(appIn, engine.getSession().getApplicationBufferSize(), true);
+                        case CLOSED -> throw new SSLException("Connection closed during handshake");
+                        case OK -> {
+                        }
+                    }
+                    status = result.getHandshakeStatus();
+                }
+                case NEED_TASK -> {
+                    Runnable task;
+                    while ((task = engine.getDelegatedTask()) != null) {
+                        task.run();
+                    }
+                    status = engine.getHandshakeStatus();
+                }
+                case FINISHED, NOT_HANDSHAKING -> {
+                    return;
+                }
+            }
+        }
+    }
+
+    private SSLEngineResult unwrap() throws SSLException {
+        netIn.flip();
+        appIn.compact();
+        try {
+            return engine.unwrap(netIn, appIn);
+        } finally {
+            netIn.compact();
+            appIn.flip();
+        }
+    }
+
+    private SSLEngineResult wrap(ByteBuffer[] srcs, int offset, int length) throws SSLException {
+        netOut.clear();
+        try {
+            return engine.wrap(srcs, offset, length, netOut);
+        } finally {
+            netOut.flip();
+        }
+    }
+
+    private void flush() throws IOException {
+        while (netOut.hasRemaining()) {
+            channel.write(netOut);
+        }
+    }
+
+    /**
+     * Reads more ciphertext, making room first if a whole record does not fit.
+     */
+    private int fill() throws IOException {
+        if (!netIn.hasRemaining()) {
+            netIn = grow(netIn, engine.getSession().getPacketBufferSize(), false);
+        }
+        return channel.read(netIn);
+    }
+
+    /**
+     * An empty buffer for ciphertext to send, larger than the one that was too small.
+     */
+    private static ByteBuffer larger(ByteBuffer buffer, int atLeast) {
+        return ByteBuffer.allocate(Math.max(atLeast, buffer.capacity() * 2));
+    }
+
+    /**
+     * A larger buffer holding what buffer held, in the same mode.
+     */
+    private static ByteBuffer grow(ByteBuffer buffer, int atLeast, boolean readMode) {
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(atLeast, buffer.capacity() * 2));
+        if (readMode) {
+            grown.put(buffer).flip();
+        } else {
+            grown.put(buffer.flip());
+        }
+        return grown;
+    }
+}
@@ -0,0 +1,86 @@
+package com.asm.http4j;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSessionContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * The server side of TLS: a certificate and key, and the session cache that lets returning clients
+ * resume instead of repeating the full handshake. TLS 1.3 clients resume with the session tickets
+ * the JDK issues after each handshake; TLS 1.2 clients with session IDs or tickets.
+ * ALPN offers http/1.1 only, so clients that would rather speak h2 settle on HTTP/1.1.
+ */
+public final class TlsContext {
+
+    public static final int DEFAULT_SESSION_CACHE_SIZE = 20_000;
+    public static final int DEFAULT_SESSION_TIMEOUT_SECONDS = 24 * 60 * 60;
+
+    static final String[] PROTOCOLS = {"TLSv1.3", "TLSv1.2"};
+    static final String[] APPLICATION_PROTOCOLS = {"http/1.1"};
+
+    private final SSLContext context;
+
+    private TlsContext(SSLContext context, int sessionCacheSize, int sessionTimeoutSeconds) {
+        this.context = context;
+        SSLSessionContext sessions = context.getServerSessionContext();
+        sessions.setSessionCacheSize(sessionCacheSize);
+        sessions.setSessionTimeout(sessionTimeoutSeconds);
+    }
+
+    /**
+     * Uses an SSLContext set up elsewhere, e.g. with keys from a hardware module.
+     */
+    public static TlsContext of(SSLContext context, int sessionCacheSize, int sessionTimeoutSeconds) {
+        return new TlsContext(context, sessionCacheSize, sessionTimeoutSeconds);
+    }
+
+    /**
+     * Loads the server's key and certificate chain from a PKCS12 or JKS keystore file.
+     */
+    public static TlsContext fromKeyStore(Path keyStore, char[] password) {
+        return fromKeyStore(keyStore, password, DEFAULT_SESSION_CACHE_SIZE, DEFAULT_SESSION_TIMEOUT_SECONDS);
+    }
+
+    public static TlsContext fromKeyStore(Path keyStore, char[] password, int sessionCacheSize, int sessionTimeoutSeconds) {
+        try (InputStream in = Files.newInputStream(keyStore)) {
+            String name = keyStore.getFileName().toString().toLowerCase();
+            KeyStore store = KeyStore.getInstance(name.endsWith(".jks") ? "JKS" : "PKCS12");
+            store.load(in, password);
+            KeyManagerFactory keys = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            keys.init(store, password);
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(keys.getKeyManagers(), null, null);
+            return new TlsContext(context, sessionCacheSize, sessionTimeoutSeconds);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new RuntimeException("Failed to load keystore " + keyStore + ": " + e.getMessage(), e);
+        }
+    }
+
+    public SSLContext getSslContext() {
+        return context;
+    }
+
+    /**
+     * A server-mode engine for one connection.
+     */
+    SSLEngine createEngine() {
+        SSLEngine engine = context.createSSLEngine();
+        engine.setUseClientMode(false);
+        SSLParameters parameters = engine.getSSLParameters();
+        parameters.setProtocols(PROTOCOLS);
+        parameters.setUseCipherSuitesOrder(true);
+        parameters.setApplicationProtocols(APPLICATION_PROTOCOLS);
+        engine.setSSLParameters(parameters);
+        return engine;
+    }
+}
@@ -0,0 +1,104 @@
+package com.asm.http4j.config;
+
+import com.asm.http4j.HttpHandler;
+import com.asm.http4j.HttpRequest;
+import com.asm.http4j.HttpResponse;
+import com.asm.http4j.util.HttpStatus;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Serves the fixed response of a route from routes.json. The response is built and serialized
+ * once, so a request costs no more than writing a prepared byte image. Responses backed by a
+ * bodyFile are rebuilt when the file's size or mtime changes, checked at most once a second.
+ */
+public class ConfigRouteHandler implements HttpHandler {
+
+    private static final long REVALIDATE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final RouteConfig.Response config;
+    private final Path bodyFile;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile HttpResponse current;
+    private volatile long checkedAt;
+    private long lastModified;
+    private long size;
+
+    public ConfigRouteHandler(RouteConfig.Response config) {
+        this.config = config;
+        this.bodyFile = config.body == null && config.bodyFile != null ? Path.of(config.bodyFile) : null;
+        if (bodyFile == null) {
+            byte[] body = config.body != null ? config.body.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            this.current = build(body);
+        }
+    }
+
+    @Override
+    public HttpResponse handle(HttpRequest request) throws IOException {
+        HttpResponse response = current;
+        if (bodyFile != null && (response == null || System.nanoTime() - checkedAt >= REVALIDATE_INTERVAL_NANOS)) {
+            response = reload();
+        }
+        return response;
+    }
+
+    private HttpResponse reload() throws IOException {
+        reloadLock.lock();
+        try {
+            long now = System.nanoTime();
+            if (current != null && now - checkedAt < REVALIDATE_INTERVAL_NANOS) {
+                return current; // another request just checked
+            }
+            BasicFileAttributes attributes = Files.readAttributes(bodyFile, BasicFileAttributes.class);
+            long modified = attributes.lastModifiedTime().toMillis();
+            if (current == null || modified != lastModified || attributes.size() != size) {
+                current = build(Files.readAllBytes(bodyFile));
+                lastModified = modified;
+                size = attributes.size();
+            }
+            checkedAt = now;
+            return current;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private HttpResponse build(byte[] body) {
+        HttpResponse response = HttpResponse.of(
+                config.status,
+                HttpStatus.reasonPhrase(config.status),
+                body,
+                config.contentType
+        );
+        // Lets clients and the compressed-variant cache tell versions of the body apart
+        response.getHeaders().put("ETag", etag(body));
+        if (config.headers != null) {
+            response.getHeaders().putAll(config.headers);
+        }
+        return response.precompute();
+    }
+
+    /**
+     * A strong ETag derived from the body's content.
+     */
+    static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 12) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
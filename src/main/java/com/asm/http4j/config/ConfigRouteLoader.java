@@ -1,58 +1,138 @@
 package com.asm.http4j.config;
 
-import com.asm.http4j.HttpHandler;
-import com.asm.http4j.HttpResponse;
+import com.asm.http4j.HttpFilter;
+import com.asm.http4j.HttpFilters;
+import com.asm.http4j.ResponseCache;
 import com.asm.http4j.Router;
-import com.asm.http4j.util.HttpStatus;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.File;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
 
 /**
  * @author ashutosh
  * @since 7/5/25
+ * Builds a {@link Router} from routes.json. A file that does not describe a complete set of
+ * routes is rejected as a whole, so a bad edit never half-replaces a working router.
+ * Filters listed at the top level apply to every request, those listed on a route to that route only.
  */
 public class ConfigRouteLoader {
+
+    private static final int DEFAULT_CACHE_MB = 16;
+
     public static Router loadFrom(File configFile) {
         try {
             ObjectMapper mapper = new ObjectMapper();
             RouteConfig config = mapper.readValue(configFile, RouteConfig.class);
+            validate(config);
             Router router = new Router();
+            for (HttpFilter filter : filters(config.filters)) {
+                router.use(filter);
+            }
 
             for (RouteConfig.Route route : config.routes) {
-                HttpHandler handler = request -> {
-                    byte[] bodyBytes;
-                    if (route.response.body != null) {
-                        bodyBytes = route.response.body.getBytes(StandardCharsets.UTF_8);
-                    } else if (route.response.bodyFile != null) {
-                        bodyBytes = Files.readAllBytes(Path.of(route.response.bodyFile));
-                    } else {
-                        bodyBytes = new byte[0];
-                    }
+                router.addRoute(route.method, route.path, new ConfigRouteHandler(route.response),
+                        filters(route.filters));
+            }
 
-                    HttpResponse response = HttpResponse.of(
-                            route.response.status,
-                            HttpStatus.reasonPhrase(route.response.status),
-                            bodyBytes,
-                            route.response.contentType
-                    );
+            return router;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load routes: " + e.getMessage(), e);
+        }
+    }
 
-                    if (route.response.headers != null) {
-                        response.getHeaders().putAll(route.response.headers);
-                    }
+    private static HttpFilter[] filters(List<RouteConfig.Filter> configs) {
+        if (configs == null) {
+            return new HttpFilter[0];
+        }
+        HttpFilter[] filters = new HttpFilter[configs.size()];
+        for (int i = 0; i < filters.length; i++) {
+            filters[i] = filter(configs.get(i));
+        }
+        return filters;
+    }
 
-                    return response;
-                };
+    private static HttpFilter filter(RouteConfig.Filter config) {
+        return switch (config.type) {
+            case "headers" -> HttpFilters.headers(config.headers);
+            case "cors" -> HttpFilters.cors(config.allowOrigin != null ? config.allowOrigin : "*",
+                    config.allowMethods != null ? config.allowMethods : "GET, HEAD, POST, PUT, DELETE",
+                    config.allowHeaders, config.maxAge);
+            case "bearerAuth" -> HttpFilters.bearerAuth(config.token != null ? config.token : System.getenv(config.tokenEnv));
+            case "timing" -> HttpFilters.timing();
+            case "cache" -> new ResponseCache(
+                    config.ttlSeconds > 0 ? Duration.ofSeconds(config.ttlSeconds) : ResponseCache.DEFAULT_TTL,
+                    (config.maxMb > 0 ? config.maxMb : DEFAULT_CACHE_MB) * 1024L * 1024);
+            default -> throw new IllegalArgumentException("Unknown filter type: " + config.type);
+        };
+    }
 
-                router.addRoute(route.method, route.path, handler);
+    private static void validate(RouteConfig config) {
+        if (config == null || config.routes == null) {
+            throw new IllegalArgumentException("No \"routes\" array");
+        }
+        validateFilters(config.filters, "Filter");
+        for (int i = 0; i < config.routes.size(); i++) {
+            RouteConfig.Route route = config.routes.get(i);
+            String where = "Route #" + (i + 1);
+            if (route == null) {
+                throw new IllegalArgumentException(where + " is null");
             }
+            if (route.method == null || route.method.isBlank()) {
+                throw new IllegalArgumentException(where + " has no method");
+            }
+            if (route.path == null || !route.path.startsWith("/")) {
+                throw new IllegalArgumentException(where + " needs a path starting with '/'");
+            }
+            validateFilters(route.filters, where + " (" + route.path + ") filter");
+            if (route.response == null) {
+                throw new IllegalArgumentException(where + " (" + route.path + ") has no response");
+            }
+            if (route.response.status < 100 || route.response.status > 599) {
+                throw new IllegalArgumentException(where + " (" + route.path + ") has invalid status " + route.response.status);
+            }
+            if (route.response.body == null && route.response.bodyFile != null
+                    && !Files.isReadable(Path.of(route.response.bodyFile))) {
+                throw new IllegalArgumentException(where + " (" + route.path + ") bodyFile is not readable: " + route.response.bodyFile);
+            }
+        }
+    }
 
-            return router;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to load routes: " + e.getMessage(), e);
+    private static void validateFilters(List<RouteConfig.Filter> filters, String what) {
+        if (filters == null) {
+            return;
+        }
+        for (int i = 0; i < filters.size(); i++) {
+            RouteConfig.Filter filter = filters.get(i);
+            String where = what + " #" + (i + 1);
+            if (filter == null || filter.type == null) {
+                throw new IllegalArgumentException(where + " has no type");
+            }
+            switch (filter.type) {
+                case "headers" -> {
+                    if (filter.headers == null || filter.headers.isEmpty()) {
+                        throw new IllegalArgumentException(where + " (headers) has no headers");
+                    }
+                }
+                case "bearerAuth" -> {
+                    String token = filter.token != null ? filter.token
+                            : filter.tokenEnv != null ? System.getenv(filter.tokenEnv) : null;
+                    if (token == null || token.isEmpty()) {
+                        throw new IllegalArgumentException(where + " (bearerAuth) needs a token or a set tokenEnv");
+                    }
+                }
+                case "cache" -> {
+                    if (filter.ttlSeconds < 0 || filter.maxMb < 0) {
+                        throw new IllegalArgumentException(where + " (cache) has a negative ttlSeconds or maxMb");
+                    }
+                }
+                case "cors", "timing" -> {
+                }
+                default -> throw new IllegalArgumentException(where + " has unknown type " + filter.type);
+            }
         }
     }
 }
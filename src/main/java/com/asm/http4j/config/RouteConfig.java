@@ -8,14 +8,33 @@ import java.util.Map;
  * @since 7/5/25
  */
 public class RouteConfig {
+    public List<Filter> filters;
     public List<Route> routes;
 
     public static class Route {
         public String method;
         public String path;
+        public List<Filter> filters;
         public Response response;
     }
 
+    /**
+     * One of the {@link com.asm.http4j.HttpFilters}, chosen by type: headers, cors, bearerAuth or timing;
+     * or a {@link com.asm.http4j.ResponseCache}, type cache.
+     */
+    public static class Filter {
+        public String type;
+        public Map<String, String> headers;
+        public String allowOrigin;
+        public String allowMethods;
+        public String allowHeaders;
+        public int maxAge;
+        public String token;
+        public String tokenEnv;
+        public int ttlSeconds;
+        public int maxMb;
+    }
+
     public static class Response {
         public int status;
         public String contentType;
@@ -0,0 +1,247 @@
+package com.asm.http4j.config;
+
+import com.asm.http4j.Router;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Watches routes.json and publishes a freshly built {@link Router} whenever it changes. Parsing
+ * and building happen on the reloader's own thread; request threads only ever see a completed
+ * router through a single volatile swap, and requests already dispatched finish on the old one.
+ * A file that fails to load is logged and ignored, leaving the previous routes in place.
+ * Change events come from a {@link WatchService} where the platform offers one; the file's
+ * mtime and size are also polled, which covers editors that replace the file and filesystems
+ * without change notification.
+ */
+public class RouteReloader implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(RouteReloader.class);
+
+    public static final long DEFAULT_POLL_INTERVAL_MS = 2000;
+
+    /**
+     * Editors often write a file in several steps; wait for it to settle before reading it.
+     */
+    private static final long SETTLE_MS = 100;
+
+    private final File routeFile;
+    private final Consumer<Router> publisher;
+    private final long pollIntervalMs;
+    private final boolean useWatchService;
+
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile long lastReloadNanos;
+    private volatile String lastError;
+
+    private long lastModified;
+    private long size;
+    private Thread thread;
+    private volatile WatchService watcher;
+
+    /**
+     * @param routeFile the routes file to watch
+     * @param publisher receives every router successfully built from the file
+     */
+    public RouteReloader(File routeFile, Consumer<Router> publisher) {
+        this(routeFile, publisher, DEFAULT_POLL_INTERVAL_MS, true);
+    }
+
+    RouteReloader(File routeFile, Consumer<Router> publisher, long pollIntervalMs, boolean useWatchService) {
+        this.routeFile = routeFile.getAbsoluteFile();
+        this.publisher = publisher;
+        this.pollIntervalMs = pollIntervalMs;
+        this.useWatchService = useWatchService;
+    }
+
+    /**
+     * Starts watching. The file as it is now is taken to be already loaded.
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            throw new IllegalStateException("Route reloader already started");
+        }
+        changed();
+        if (useWatchService) {
+            try {
+                watcher = FileSystems.getDefault().newWatchService();
+                routeFile.toPath().getParent().register(watcher,
+                        StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            } catch (IOException | UnsupportedOperationException e) {
+                logger.warn("Cannot watch {} ({}), polling every {} ms instead", routeFile, e.getMessage(), pollIntervalMs);
+                closeWatcher();
+            }
+        }
+        thread = new Thread(this::watch, "http4j-route-reloader");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("Watching {} for route changes", routeFile);
+    }
+
+    /**
+     * Loads the file and publishes the result, unless it fails to load.
+     *
+     * @return whether a new router was published
+     */
+    public boolean reloadNow() {
+        changed(); // an edit landing while we read will change the stamp again and be picked up
+        long start = System.nanoTime();
+        Router router;
+        try {
+            router = ConfigRouteLoader.loadFrom(routeFile);
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            lastError = e.getMessage();
+            logger.error("Keeping previous routes, {} is invalid: {}", routeFile, e.getMessage());
+            return false;
+        }
+        publisher.accept(router);
+        lastReloadNanos = System.nanoTime() - start;
+        lastError = null;
+        reloads.incrementAndGet();
+        logger.info("Reloaded {} routes from {} in {} ms", router.size(), routeFile,
+                String.format("%.2f", lastReloadNanos / 1_000_000.0));
+        return true;
+    }
+
+    /**
+     * Number of routers published since start.
+     */
+    public long getReloads() {
+        return reloads.get();
+    }
+
+    /**
+     * Number of changes rejected because the file did not load.
+     */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * How long the last successful reload took to parse, build and publish, in nanoseconds.
+     */
+    public long getLastReloadNanos() {
+        return lastReloadNanos;
+    }
+
+    /**
+     * Why the last reload failed, or null if it succeeded.
+     */
+    public String getLastError() {
+        return lastError;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+        closeWatcher();
+    }
+
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (awaitEvent()) {
+                    Thread.sleep(SETTLE_MS);
+                    drainEvents();
+                    reloadNow();
+                } else if (changed()) {
+                    reloadNow();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    /**
+     * Waits up to the poll interval for an event touching the routes file.
+     */
+    private boolean awaitEvent() throws InterruptedException {
+        WatchService watcher = this.watcher;
+        if (watcher == null) {
+            Thread.sleep(pollIntervalMs);
+            return false;
+        }
+        WatchKey key = watcher.poll(pollIntervalMs, TimeUnit.MILLISECONDS);
+        if (key == null) {
+            return false;
+        }
+        boolean relevant = isRelevant(key);
+        key.reset();
+        return relevant;
+    }
+
+    private void drainEvents() {
+        WatchService watcher = this.watcher;
+        if (watcher == null) {
+            return;
+        }
+        WatchKey key;
+        while ((key = watcher.poll()) != null) {
+            key.pollEvents();
+            key.reset();
+        }
+    }
+
+    private boolean isRelevant(WatchKey key) {
+        Path name = routeFile.toPath().getFileName();
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context())) {
+                relevant = true;
+            }
+        }
+        return relevant;
+    }
+
+    /**
+     * Records the file's current mtime and size, returning whether either changed since last time.
+     */
+    private synchronized boolean changed() {
+        long modified;
+        long length;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(routeFile.toPath(), BasicFileAttributes.class);
+            modified = attributes.lastModifiedTime().toMillis();
+            length = attributes.size();
+        } catch (IOException e) {
+            return false; // missing for the moment, e.g. mid-rename; keep the current routes
+        }
+        boolean changed = modified != lastModified || length != size;
+        lastModified = modified;
+        size = length;
+        return changed;
+    }
+
+    private void closeWatcher() {
+        if (watcher != null) {
+            try {
+                watcher.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close route watcher: {}", e.getMessage());
+            }
+            watcher = null;
+        }
+    }
+}
@@ -5,7 +5,23 @@ package com.asm.http4j.exception;
  * @since 7/5/25
  */
 public class HttpParsingException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
     public HttpParsingException(String msg) {
+        this(400, msg);
+    }
+
+    /**
+     * @param status the HTTP status the server should answer with, e.g. 414 or 431
+     */
+    public HttpParsingException(int status, String msg) {
         super(msg);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
     }
 }
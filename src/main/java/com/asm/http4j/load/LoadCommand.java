@@ -0,0 +1,98 @@
+package com.asm.http4j.load;
+
+import picocli.CommandLine;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * The {@code load} subcommand: generates load against an http4j instance on this machine and
+ * prints latency percentiles and throughput.
+ */
+@CommandLine.Command(
+        name = "load",
+        mixinStandardHelpOptions = true,
+        description = "Generates load against a server on this machine and reports latency and throughput"
+)
+public class LoadCommand implements Callable<Integer> {
+
+    @CommandLine.Option(names = {"--host"},
+            description = "Host to load; must be a loopback address. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "127.0.0.1")
+    private String host;
+
+    @CommandLine.Option(names = {"--port"},
+            description = "Port to load. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "8080")
+    private int port;
+
+    @CommandLine.Option(names = {"--mix"},
+            description = "JSONL file of requests to send, one per line, picked by weight")
+    private File mix;
+
+    @CommandLine.Option(names = {"--path"},
+            description = "Path to GET when no --mix is given. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "/")
+    private String path;
+
+    @CommandLine.Option(names = {"--connections"},
+            description = "Connections to open. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "16")
+    private int connections;
+
+    @CommandLine.Option(names = {"--rate"},
+            description = "Requests per second, sent on schedule (open loop). 0 runs a closed loop. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "0")
+    private double rate;
+
+    @CommandLine.Option(names = {"--pipeline"},
+            description = "Requests in flight per keep-alive connection. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "1")
+    private int pipeline;
+
+    @CommandLine.Option(names = {"--keep-alive"},
+            description = "Reuse connections; otherwise each request opens one. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "true", arity = "1")
+    private boolean keepAlive;
+
+    @CommandLine.Option(names = {"--duration"},
+            description = "Seconds to measure for. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "10")
+    private int duration;
+
+    @CommandLine.Option(names = {"--warmup"},
+            description = "Seconds of load before measuring. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "2")
+    private int warmup;
+
+    @CommandLine.Option(names = {"--seed"},
+            description = "Seed for picking requests from the mix. Default is ${DEFAULT-VALUE}.",
+            defaultValue = "42")
+    private long seed;
+
+    @Override
+    public Integer call() throws Exception {
+        if (duration < 1 || warmup < 0) {
+            throw new IllegalArgumentException("Invalid duration or warm-up");
+        }
+        String authority = host + ":" + port;
+        RequestMix requests = mix != null ? RequestMix.load(mix.toPath(), authority) : RequestMix.of(path, authority);
+        LoadReport report = new LoadGenerator()
+                .host(host)
+                .port(port)
+                .mix(requests)
+                .connections(connections)
+                .rate(rate)
+                .pipeline(pipeline)
+                .keepAlive(keepAlive)
+                .duration(Duration.ofSeconds(duration))
+                .warmup(Duration.ofSeconds(warmup))
+                .seed(seed)
+                .run();
+        System.out.print(report.format());
+        return report.getTotal().getErrors() == 0 ? 0 : 1;
+    }
+}
@@ -0,0 +1,371 @@
+package com.asm.http4j.load;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Drives load at a server on this machine over a fixed number of connections, each on its own
+ * virtual thread.
+ * In the closed loop a connection sends its next request (or batch of pipelined requests) as soon
+ * as the previous responses are in, so it measures how much the server can take. In the open loop
+ * requests are sent on a fixed schedule whether or not the server keeps up, and latency is counted
+ * from when a request was due rather than when it was actually sent. A stalled server thus shows up
+ * in the percentiles instead of quietly slowing the generator down (coordinated omission).
+ */
+public final class LoadGenerator {
+
+    private static final int CONNECT_TIMEOUT_MS = 5_000;
+    private static final long JOIN_GRACE_MS = 5_000;
+
+    private String host = "127.0.0.1";
+    private int port = 8080;
+    private int connections = 16;
+    private Duration duration = Duration.ofSeconds(10);
+    private Duration warmup = Duration.ofSeconds(2);
+    private double rate;
+    private int pipeline = 1;
+    private boolean keepAlive = true;
+    private long seed = 42;
+    private RequestMix mix;
+
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+    private InetSocketAddress address;
+    private LoadReport report;
+    private long measureStart;
+    private long end;
+    private volatile boolean stopped;
+
+    /**
+     * Host to load, which must resolve to a loopback address.
+     */
+    public LoadGenerator host(String host) {
+        this.host = host;
+        return this;
+    }
+
+    public LoadGenerator port(int port) {
+        this.port = port;
+        return this;
+    }
+
+    public LoadGenerator connections(int connections) {
+        this.connections = connections;
+        return this;
+    }
+
+    /**
+     * How long results are recorded for, after the warm-up.
+     */
+    public LoadGenerator duration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    /**
+     * How long load runs before results are recorded, for the JIT and the server's pools to settle.
+     */
+    public LoadGenerator warmup(Duration warmup) {
+        this.warmup = warmup;
+        return this;
+    }
+
+    /**
+     * Requests per second over all connections, sent on a fixed schedule (open loop).
+     * 0, the default, runs a closed loop instead.
+     */
+    public LoadGenerator rate(double rate) {
+        this.rate = rate;
+        return this;
+    }
+
+    /**
+     * Requests written on a connection before reading their responses (closed loop), or at most
+     * awaiting a response at once (open loop). Only applies with keep-alive.
+     */
+    public LoadGenerator pipeline(int pipeline) {
+        this.pipeline = pipeline;
+        return this;
+    }
+
+    /**
+     * Whether connections are reused. Without keep-alive every request opens a connection.
+     */
+    public LoadGenerator keepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+        return this;
+    }
+
+    /**
+     * Seed for picking requests from the mix, so that runs send the same sequence.
+     */
+    public LoadGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public LoadGenerator mix(RequestMix mix) {
+        this.mix = mix;
+        return this;
+    }
+
+    /**
+     * Runs the load and returns what it measured. Blocks for the warm-up plus the duration.
+     */
+    public LoadReport run() throws InterruptedException {
+        if (mix == null) {
+            mix = RequestMix.of("/", host + ":" + port);
+        }
+        if (connections < 1 || pipeline < 1 || rate < 0 || duration.isNegative() || duration.isZero() || warmup.isNegative()) {
+            throw new IllegalArgumentException("Invalid load settings");
+        }
+        address = loopback(host, port);
+        report = new LoadReport(describe(), duration.toNanos(), mix);
+
+        long start = System.nanoTime();
+        measureStart = start + warmup.toNanos();
+        end = measureStart + duration.toNanos();
+        List<Thread> workers = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            int connection = i;
+            Runnable worker = rate > 0 ? () -> openLoop(connection, start) : () -> closedLoop(connection);
+            workers.add(Thread.ofVirtual().name("http4j-load-" + i).start(worker));
+        }
+
+        parkUntil(end);
+        stopped = true;
+        sockets.forEach(LoadGenerator::closeQuietly); // unblocks reads still waiting for a response
+        for (Thread worker : workers) {
+            worker.join(JOIN_GRACE_MS);
+        }
+        return report;
+    }
+
+    private void closedLoop(int connection) {
+        SplittableRandom random = new SplittableRandom(seed + connection);
+        int batchSize = keepAlive ? pipeline : 1;
+        RequestMix.Template[] batch = new RequestMix.Template[batchSize];
+        while (!stopped && System.nanoTime() < end) {
+            int answered = 0;
+            try (Socket socket = connect()) {
+                OutputStream out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+                ResponseReader reader = new ResponseReader(socket.getInputStream());
+                boolean open = true;
+                while (open && System.nanoTime() < end) {
+                    answered = 0;
+                    for (int k = 0; k < batchSize; k++) {
+                        batch[k] = mix.next(random);
+                        out.write(keepAlive ? batch[k].keepAlive() : batch[k].close());
+                    }
+                    long sent = System.nanoTime();
+                    out.flush();
+                    while (answered < batchSize) {
+                        int status = reader.read(batch[answered].isHead());
+                        long done = System.nanoTime();
+                        if (sent >= measureStart && done <= end) {
+                            report.record(batch[answered], status, done - sent);
+                        }
+                        answered++;
+                        if (reader.isClosing() && answered < batchSize) {
+                            throw new IOException("Server closed the connection with requests pending");
+                        }
+                    }
+                    open = keepAlive && !reader.isClosing();
+                }
+            } catch (IOException e) {
+                if (!ending()) {
+                    for (int k = answered; k < batchSize && batch[k] != null; k++) {
+                        report.error(batch[k]);
+                    }
+                }
+            }
+        }
+    }
+
+    private record Pending(RequestMix.Template template, long due) {
+    }
+
+    private void openLoop(int connection, long start) {
+        SplittableRandom random = new SplittableRandom(seed + connection);
+        long interval = (long) (1e9 * connections / rate);
+        long due = start + interval * connection / connections; // staggered, so connections do not send in bursts
+        while (!stopped && due < end) {
+            if (!keepAlive) {
+                due = sendAlone(mix.next(random), due, interval);
+                continue;
+            }
+            BlockingQueue<Pending> pending = new LinkedBlockingQueue<>();
+            Semaphore window = new Semaphore(pipeline);
+            Thread receiver = null;
+            try (Socket socket = connect()) {
+                receiver = Thread.ofVirtual().start(() -> receive(socket, pending, window));
+                OutputStream out = socket.getOutputStream();
+                while (due < end) {
+                    parkUntil(due);
+                    // Waiting for a response to make room still counts against the latency, which runs from when it was due
+                    while (!window.tryAcquire(10, TimeUnit.MILLISECONDS)) {
+                        if (socket.isClosed()) {
+                            throw new IOException("Connection closed");
+                        }
+                    }
+                    Pending request = new Pending(mix.next(random), due);
+                    pending.add(request);
+                    out.write(request.template().keepAlive());
+                    due += interval;
+                }
+                parkUntil(end); // responses to the last requests may still come in
+                receiver.interrupt();
+            } catch (IOException | InterruptedException e) {
+                // the receiver counts what was lost
+            } finally {
+                joinQuietly(receiver);
+                if (!ending()) {
+                    pending.forEach(lost -> report.error(lost.template()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Open loop: reads responses in order and records each against the time its request was due.
+     */
+    private void receive(Socket socket, BlockingQueue<Pending> pending, Semaphore window) {
+        Pending request = null;
+        try {
+            ResponseReader reader = new ResponseReader(socket.getInputStream());
+            while (true) {
+                request = pending.take();
+                int status = reader.read(request.template().isHead());
+                long done = System.nanoTime();
+                window.release();
+                if (request.due() >= measureStart && done <= end) {
+                    report.record(request.template(), status, done - request.due());
+                }
+                request = null;
+                if (reader.isClosing()) {
+                    break;
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            if (request != null && !ending()) {
+                report.error(request.template());
+            }
+        } finally {
+            closeQuietly(socket);
+        }
+    }
+
+    /**
+     * Open loop without keep-alive: a connection per request, each sent when due. Returns when the next is due.
+     */
+    private long sendAlone(RequestMix.Template template, long due, long interval) {
+        parkUntil(due);
+        try (Socket socket = connect()) {
+            socket.getOutputStream().write(template.close());
+            int status = new ResponseReader(socket.getInputStream()).read(template.isHead());
+            long done = System.nanoTime();
+            if (due >= measureStart && done <= end) {
+                report.record(template, status, done - due);
+            }
+        } catch (IOException e) {
+            if (!ending()) {
+                report.error(template);
+            }
+        }
+        return due + interval;
+    }
+
+    /**
+     * A connection the run closes when it ends, if its worker has not closed it by then.
+     */
+    private Socket connect() throws IOException {
+        Socket socket = new Socket() {
+            @Override
+            public void close() throws IOException {
+                sockets.remove(this);
+                super.close();
+            }
+        };
+        sockets.add(socket);
+        if (stopped) {
+            socket.close(); // the run may have closed the others already
+        }
+        try {
+            socket.setTcpNoDelay(true);
+            socket.connect(address, CONNECT_TIMEOUT_MS);
+            return socket;
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Whether the run is over, so that connections it closes are not counted as failed.
+     */
+    private boolean ending() {
+        return stopped || System.nanoTime() >= end;
+    }
+
+    private String describe() {
+        String loop = rate > 0 ? String.format("open loop at %.0f req/s", rate) : "closed loop";
+        return String.format("%s against %s, %d connections, %s, %d s after %d s of warm-up",
+                loop, address, connections,
+                keepAlive ? (pipeline > 1 ? "keep-alive with " + pipeline + " pipelined" : "keep-alive") : "a connection per request",
+                duration.toSeconds(), warmup.toSeconds());
+    }
+
+    static InetSocketAddress loopback(String host, int port) {
+        try {
+            InetAddress address = InetAddress.getByName(host);
+            if (!address.isLoopbackAddress()) {
+                throw new IllegalArgumentException("Load can only be generated against this machine, not " + host);
+            }
+            return new InetSocketAddress(address, port);
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Unknown host: " + host, e);
+        }
+    }
+
+    private static void parkUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static void joinQuietly(Thread thread) {
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join(JOIN_GRACE_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
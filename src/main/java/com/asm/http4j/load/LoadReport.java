@@ -0,0 +1,125 @@
+package com.asm.http4j.load;
+
+import com.asm.http4j.metrics.LatencyHistogram;
+
+import java.util.Formatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * What a load run measured, per request of the mix and over all of them: latency percentiles
+ * (within the 1/8 resolution of {@link LatencyHistogram}), throughput, status classes and errors.
+ * Only requests sent after the warm-up and answered before the end count.
+ */
+public final class LoadReport {
+
+    static final String ALL = "all";
+
+    private static final double[] PERCENTILES = {0.50, 0.90, 0.99, 0.999, 0.9999};
+
+    /**
+     * Counters for one request of the mix, or for all of them.
+     */
+    public static final class Stats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder[] statusClasses = new LongAdder[6];
+        private final LongAdder errors = new LongAdder();
+
+        Stats() {
+            for (int i = 0; i < statusClasses.length; i++) {
+                statusClasses[i] = new LongAdder();
+            }
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getRequests() {
+            return latency.getCount();
+        }
+
+        /**
+         * Responses with a status in the given class, e.g. 2 for 2xx.
+         */
+        public long getResponses(int statusClass) {
+            return statusClasses[statusClass].sum();
+        }
+
+        /**
+         * Requests that got no response: the connection failed or was closed under them.
+         */
+        public long getErrors() {
+            return errors.sum();
+        }
+    }
+
+    private final String description;
+    private final long measuredNanos;
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+
+    LoadReport(String description, long measuredNanos, RequestMix mix) {
+        this.description = description;
+        this.measuredNanos = measuredNanos;
+        for (RequestMix.Template template : mix.getTemplates()) {
+            stats.putIfAbsent(template.name(), new Stats());
+        }
+        stats.put(ALL, new Stats());
+    }
+
+    void record(RequestMix.Template template, int status, long latencyNanos) {
+        for (Stats s : new Stats[]{stats.get(template.name()), stats.get(ALL)}) {
+            s.latency.record(latencyNanos);
+            s.statusClasses[Math.min(Math.max(status / 100, 0), 5)].increment();
+        }
+    }
+
+    void error(RequestMix.Template template) {
+        stats.get(template.name()).errors.increment();
+        stats.get(ALL).errors.increment();
+    }
+
+    /**
+     * Counters for a request of the mix by name, or for all requests as "all".
+     */
+    public Stats get(String name) {
+        return stats.get(name);
+    }
+
+    public Stats getTotal() {
+        return stats.get(ALL);
+    }
+
+    /**
+     * Responses per second over the measured period.
+     */
+    public double getThroughput() {
+        return getTotal().getRequests() * 1e9 / measuredNanos;
+    }
+
+    /**
+     * A table with a row per request of the mix and one for all of them; latencies in milliseconds.
+     */
+    public String format() {
+        Formatter out = new Formatter(new StringBuilder());
+        out.format("%s%n%n", description);
+        out.format("%-24s %10s %8s %10s %9s %9s %9s %9s %9s %9s%n",
+                "Request", "Count", "Errors", "Req/s", "p50", "p90", "p99", "p99.9", "p99.99", "max");
+        for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+            Stats s = entry.getValue();
+            out.format("%-24s %10d %8d %10.0f", entry.getKey(), s.getRequests(), s.getErrors(),
+                    s.getRequests() * 1e9 / measuredNanos);
+            for (double percentile : PERCENTILES) {
+                out.format(" %9.3f", s.latency.percentileNanos(percentile) / 1e6);
+            }
+            out.format(" %9.3f%n", s.latency.getMaxNanos() / 1e6);
+        }
+        Stats total = getTotal();
+        out.format("%nResponses: 1xx=%d 2xx=%d 3xx=%d 4xx=%d 5xx=%d%n", total.getResponses(1), total.getResponses(2),
+                total.getResponses(3), total.getResponses(4), total.getResponses(5));
+        return out.toString();
+    }
+}
@@ -0,0 +1,139 @@
+package com.asm.http4j.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * The requests a load run sends, read from a JSONL file with one request per line:
+ * <pre>
+ * {"name": "hello", "method": "GET", "path": "/hello", "weight": 8}
+ * {"name": "echo", "method": "POST", "path": "/echo", "headers": {"Content-Type": "application/json"}, "body": "{}"}
+ * </pre>
+ * Only path is required. Requests are picked at random in proportion to their weight (default 1),
+ * and each is rendered to bytes once, up front.
+ */
+public final class RequestMix {
+
+    /**
+     * One kind of request, as it goes on the wire with and without keep-alive.
+     */
+    public record Template(String name, String method, byte[] keepAlive, byte[] close) {
+
+        boolean isHead() {
+            return method.equals("HEAD");
+        }
+    }
+
+    private final List<Template> templates;
+    private final double[] cumulativeWeights;
+
+    private RequestMix(List<Template> templates, List<Double> weights) {
+        this.templates = List.copyOf(templates);
+        this.cumulativeWeights = new double[weights.size()];
+        double total = 0;
+        for (int i = 0; i < weights.size(); i++) {
+            total += weights.get(i);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * A single GET of path.
+     */
+    public static RequestMix of(String path, String host) {
+        return new RequestMix(List.of(template(path, "GET", path, Map.of(), null, host)), List.of(1.0));
+    }
+
+    public static RequestMix load(Path file, String host) {
+        ObjectMapper mapper = new ObjectMapper();
+        List<Template> templates = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        try {
+            int lineNumber = 0;
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node = mapper.readTree(line);
+                String where = file.getFileName() + ":" + lineNumber;
+                String path = node.path("path").asText(null);
+                if (path == null || !path.startsWith("/")) {
+                    throw new IllegalArgumentException(where + " needs a path starting with '/'");
+                }
+                double weight = node.path("weight").asDouble(1);
+                if (!(weight > 0)) {
+                    throw new IllegalArgumentException(where + " has invalid weight " + node.path("weight"));
+                }
+                Map<String, String> headers = new LinkedHashMap<>();
+                for (Iterator<Map.Entry<String, JsonNode>> it = node.path("headers").fields(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> header = it.next();
+                    headers.put(header.getKey(), header.getValue().asText());
+                }
+                String method = node.path("method").asText("GET").toUpperCase();
+                String name = node.path("name").asText(method + " " + path);
+                templates.add(template(name, method, path, headers, node.path("body").asText(null), host));
+                weights.add(weight);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load request mix: " + e.getMessage(), e);
+        }
+        if (templates.isEmpty()) {
+            throw new IllegalArgumentException("No requests in " + file);
+        }
+        return new RequestMix(templates, weights);
+    }
+
+    public List<Template> getTemplates() {
+        return templates;
+    }
+
+    Template next(RandomGenerator random) {
+        if (templates.size() == 1) {
+            return templates.getFirst();
+        }
+        double pick = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < cumulativeWeights.length - 1; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return templates.get(i);
+            }
+        }
+        return templates.getLast();
+    }
+
+    private static Template template(String name, String method, String path, Map<String, String> headers,
+                                     String body, String host) {
+        byte[] bodyBytes = body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        StringBuilder head = new StringBuilder(method).append(' ').append(path).append(" HTTP/1.1\r\n");
+        if (headers.keySet().stream().noneMatch("Host"::equalsIgnoreCase)) {
+            head.append("Host: ").append(host).append("\r\n");
+        }
+        headers.forEach((key, value) -> head.append(key).append(": ").append(value).append("\r\n"));
+        if (body != null) {
+            head.append("Content-Length: ").append(bodyBytes.length).append("\r\n");
+        }
+        return new Template(name, method, render(head + "\r\n", bodyBytes),
+                render(head + "Connection: close\r\n\r\n", bodyBytes));
+    }
+
+    private static byte[] render(String head, byte[] body) {
+        byte[] headBytes = head.getBytes(StandardCharsets.ISO_8859_1);
+        byte[] request = new byte[headBytes.length + body.length];
+        System.arraycopy(headBytes, 0, request, 0, headBytes.length);
+        System.arraycopy(body, 0, request, headBytes.length, body.length);
+        return request;
+    }
+}
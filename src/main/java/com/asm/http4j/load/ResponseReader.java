@@ -0,0 +1,124 @@
+package com.asm.http4j.load;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Reads HTTP/1.1 responses off a connection just far enough to find where each one ends:
+ * the status, and a Content-Length or chunked body that is skipped rather than kept.
+ */
+final class ResponseReader {
+
+    private final InputStream in;
+    private final byte[] buf = new byte[64 * 1024];
+    private int pos;
+    private int limit;
+    private boolean closing;
+
+    ResponseReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads one whole response and returns its status code.
+     */
+    int read(boolean headRequest) throws IOException {
+        int status = -1;
+        long contentLength = -1;
+        boolean chunked = false;
+        boolean close = false;
+        String line;
+        boolean first = true;
+        while (!(line = readLine()).isEmpty()) {
+            if (first) {
+                if (!line.startsWith("HTTP/1.") || line.length() < 12) {
+                    throw new IOException("Not an HTTP response: " + line);
+                }
+                status = Integer.parseInt(line.substring(9, 12));
+                first = false;
+            } else if (startsWithIgnoreCase(line, "content-length:")) {
+                contentLength = Long.parseLong(line.substring(15).trim());
+            } else if (startsWithIgnoreCase(line, "transfer-encoding:")) {
+                chunked = line.toLowerCase().contains("chunked");
+            } else if (startsWithIgnoreCase(line, "connection:")) {
+                close = line.toLowerCase().contains("close");
+            }
+        }
+        closing = close;
+        if (headRequest || status == 204 || status == 304 || status / 100 == 1) {
+            return status;
+        }
+        if (chunked) {
+            long size;
+            while ((size = Long.parseLong(stripExtension(readLine()), 16)) > 0) {
+                skip(size);
+                readLine();
+            }
+            while (!readLine().isEmpty()) {
+                // trailers
+            }
+        } else if (contentLength >= 0) {
+            skip(contentLength);
+        } else if (close) {
+            while (fill() > 0) {
+                pos = limit; // body runs to the end of the connection
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Whether the last response said the server closes the connection after it.
+     */
+    boolean isClosing() {
+        return closing;
+    }
+
+    private String readLine() throws IOException {
+        StringBuilder line = new StringBuilder();
+        while (true) {
+            if (pos == limit && fill() < 0) {
+                throw new EOFException("Connection closed mid-response");
+            }
+            byte b = buf[pos++];
+            if (b == '\n') {
+                int length = line.length();
+                return length > 0 && line.charAt(length - 1) == '\r' ? line.substring(0, length - 1) : line.toString();
+            }
+            line.append((char) (b & 0xff));
+        }
+    }
+
+    private void skip(long n) throws IOException {
+        while (n > 0) {
+            if (pos == limit && fill() < 0) {
+                throw new EOFException("Connection closed mid-body");
+            }
+            int step = (int) Math.min(n, limit - pos);
+            pos += step;
+            n -= step;
+        }
+    }
+
+    private int fill() throws IOException {
+        pos = 0;
+        limit = 0;
+        int n = in.read(buf, 0, buf.length);
+        if (n > 0) {
+            limit = n;
+        }
+        return n;
+    }
+
+    private static String stripExtension(String chunkSize) {
+        int semicolon = chunkSize.indexOf(';');
+        return (semicolon >= 0 ? chunkSize.substring(0, semicolon) : chunkSize).trim();
+    }
+
+    private static boolean startsWithIgnoreCase(String line, String prefix) {
+        return line.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+}
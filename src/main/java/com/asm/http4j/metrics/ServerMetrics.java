@@ -0,0 +1,295 @@
+package com.asm.http4j.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Counters and latency histograms of a running server, rendered in the Prometheus text format by
+ * {@link #toPrometheus()} and published over JMX. Recording only touches atomic counters, so it
+ * costs tens of nanoseconds per request and allocates nothing once a route has been seen.
+ * Other components contribute values they already keep, e.g. cache hits, with
+ * {@link #counter(String, String, LongSupplier)} and {@link #gauge(String, String, LongSupplier)}.
+ */
+public class ServerMetrics implements ServerMetricsMXBean {
+
+    /**
+     * Route label of requests served from the static root.
+     */
+    public static final String STATIC_ROUTE = "<static>";
+
+    /**
+     * Route label of requests no route or static file matched.
+     */
+    public static final String UNMATCHED_ROUTE = "<unmatched>";
+
+    private static final String PREFIX = "http4j_";
+
+    // Histogram bucket bounds exported to Prometheus: every power of two from ~16 µs to ~17 s, in nanoseconds
+    private static final int FIRST_BOUND_EXPONENT = 14;
+    private static final int LAST_BOUND_EXPONENT = 34;
+
+    private record Sample(String name, String help, String type, LongSupplier value) {
+    }
+
+    private final LongAdder[] requestsByClass = newAdders(6);
+    private final LongAdder[] bytesByClass = newAdders(6);
+    private final LongAdder parseErrors = new LongAdder();
+    private final LongAdder idleConnections = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final ConcurrentHashMap<String, LatencyHistogram> routeLatency = new ConcurrentHashMap<>();
+    private final List<Sample> samples = new CopyOnWriteArrayList<>();
+    private volatile LongSupplier openConnections = () -> 0;
+    private volatile LongSupplier inFlightRequests = () -> 0;
+
+    /**
+     * Records how long producing the response for a route took, e.g. {@code /users/{id}}.
+     */
+    public void recordLatency(String route, long nanos) {
+        latency.record(nanos);
+        LatencyHistogram histogram = routeLatency.get(route);
+        if (histogram == null) {
+            histogram = routeLatency.computeIfAbsent(route, r -> new LatencyHistogram());
+        }
+        histogram.record(nanos);
+    }
+
+    /**
+     * Records a response written to a client, with the bytes it took on the wire.
+     */
+    public void recordResponse(int status, long bytes) {
+        int statusClass = status / 100;
+        if (statusClass < 1 || statusClass > 5) {
+            statusClass = 0;
+        }
+        requestsByClass[statusClass].increment();
+        bytesByClass[statusClass].add(bytes);
+    }
+
+    public void recordParseError() {
+        parseErrors.increment();
+    }
+
+    /**
+     * A connection started waiting for its next request.
+     */
+    public void connectionIdle() {
+        idleConnections.increment();
+    }
+
+    /**
+     * A connection stopped waiting for a request: one arrived, or the connection was closed.
+     */
+    public void connectionBusy() {
+        idleConnections.decrement();
+    }
+
+    public void openConnections(LongSupplier openConnections) {
+        this.openConnections = openConnections;
+    }
+
+    public void inFlightRequests(LongSupplier inFlightRequests) {
+        this.inFlightRequests = inFlightRequests;
+    }
+
+    /**
+     * Adds a monotonically increasing value kept elsewhere. The name gets the {@code http4j_} prefix.
+     */
+    public void counter(String name, String help, LongSupplier value) {
+        samples.add(new Sample(PREFIX + name, help, "counter", value));
+    }
+
+    /**
+     * Adds a value kept elsewhere that can go up and down. The name gets the {@code http4j_} prefix.
+     */
+    public void gauge(String name, String help, LongSupplier value) {
+        samples.add(new Sample(PREFIX + name, help, "gauge", value));
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * The latency histogram of a route, or null if no request has taken it yet.
+     */
+    public LatencyHistogram getLatency(String route) {
+        return routeLatency.get(route);
+    }
+
+    @Override
+    public long getRequests() {
+        long total = 0;
+        for (LongAdder adder : requestsByClass) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getRequests1xx() {
+        return requestsByClass[1].sum();
+    }
+
+    @Override
+    public long getRequests2xx() {
+        return requestsByClass[2].sum();
+    }
+
+    @Override
+    public long getRequests3xx() {
+        return requestsByClass[3].sum();
+    }
+
+    @Override
+    public long getRequests4xx() {
+        return requestsByClass[4].sum();
+    }
+
+    @Override
+    public long getRequests5xx() {
+        return requestsByClass[5].sum();
+    }
+
+    @Override
+    public long getResponseBytes() {
+        long total = 0;
+        for (LongAdder adder : bytesByClass) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getParseErrors() {
+        return parseErrors.sum();
+    }
+
+    @Override
+    public long getOpenConnections() {
+        return openConnections.getAsLong();
+    }
+
+    @Override
+    public long getIdleConnections() {
+        return idleConnections.sum();
+    }
+
+    @Override
+    public long getInFlightRequests() {
+        return inFlightRequests.getAsLong();
+    }
+
+    @Override
+    public double getLatencyP50Millis() {
+        return latency.percentileNanos(0.5) / 1e6;
+    }
+
+    @Override
+    public double getLatencyP99Millis() {
+        return latency.percentileNanos(0.99) / 1e6;
+    }
+
+    @Override
+    public double getLatencyMaxMillis() {
+        return latency.getMaxNanos() / 1e6;
+    }
+
+    @Override
+    public Map<String, Double> getRouteLatencyP99Millis() {
+        Map<String, Double> result = new TreeMap<>();
+        routeLatency.forEach((route, histogram) -> result.put(route, histogram.percentileNanos(0.99) / 1e6));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getSamples() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Sample sample : samples) {
+            result.put(sample.name(), sample.value().getAsLong());
+        }
+        return result;
+    }
+
+    /**
+     * All metrics in the Prometheus text exposition format, version 0.0.4.
+     */
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder(4096);
+
+        header(out, "requests_total", "Responses written, by status class", "counter");
+        for (int statusClass = 1; statusClass <= 5; statusClass++) {
+            out.append(PREFIX).append("requests_total{class=\"").append(statusClass).append("xx\"} ")
+                    .append(requestsByClass[statusClass].sum()).append('\n');
+        }
+        header(out, "response_bytes_total", "Bytes written to clients, by status class", "counter");
+        for (int statusClass = 1; statusClass <= 5; statusClass++) {
+            out.append(PREFIX).append("response_bytes_total{class=\"").append(statusClass).append("xx\"} ")
+                    .append(bytesByClass[statusClass].sum()).append('\n');
+        }
+        sample(out, "parse_errors_total", "Requests rejected because they could not be parsed", "counter", getParseErrors());
+        sample(out, "connections_open", "Open client connections", "gauge", getOpenConnections());
+        sample(out, "connections_idle", "Connections waiting for their next request", "gauge", getIdleConnections());
+        sample(out, "requests_in_flight", "Requests being handled", "gauge", getInFlightRequests());
+
+        header(out, "request_duration_seconds", "Time to produce a response, by route", "histogram");
+        List<String> routes = new ArrayList<>(routeLatency.keySet());
+        routes.sort(null);
+        for (String route : routes) {
+            histogram(out, escape(route), routeLatency.get(route));
+        }
+
+        for (Sample sample : samples) {
+            out.append("# HELP ").append(sample.name()).append(' ').append(sample.help()).append('\n');
+            out.append("# TYPE ").append(sample.name()).append(' ').append(sample.type()).append('\n');
+            out.append(sample.name()).append(' ').append(sample.value().getAsLong()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static void histogram(StringBuilder out, String route, LatencyHistogram histogram) {
+        String name = PREFIX + "request_duration_seconds";
+        for (int exponent = FIRST_BOUND_EXPONENT; exponent <= LAST_BOUND_EXPONENT; exponent++) {
+            long bound = 1L << exponent;
+            out.append(name).append("_bucket{route=\"").append(route).append("\",le=\"")
+                    .append(bound / 1e9).append("\"} ").append(histogram.countAtOrBelow(bound - 1)).append('\n');
+        }
+        long count = histogram.getCount();
+        out.append(name).append("_bucket{route=\"").append(route).append("\",le=\"+Inf\"} ").append(count).append('\n');
+        out.append(name).append("_sum{route=\"").append(route).append("\"} ").append(histogram.getSumNanos() / 1e9).append('\n');
+        out.append(name).append("_count{route=\"").append(route).append("\"} ").append(count).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String help, String type, long value) {
+        header(out, name, help, type);
+        out.append(PREFIX).append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * Escapes a label value: backslash, double quote and line feed.
+     */
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static LongAdder[] newAdders(int n) {
+        LongAdder[] adders = new LongAdder[n];
+        for (int i = 0; i < n; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
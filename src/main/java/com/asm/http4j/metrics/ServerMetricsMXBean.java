@@ -0,0 +1,49 @@
+package com.asm.http4j.metrics;
+
+import java.util.Map;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * What {@link ServerMetrics} shows over JMX, registered as {@code com.asm.http4j:type=Server,port=<port>}.
+ */
+public interface ServerMetricsMXBean {
+
+    long getRequests();
+
+    long getRequests1xx();
+
+    long getRequests2xx();
+
+    long getRequests3xx();
+
+    long getRequests4xx();
+
+    long getRequests5xx();
+
+    long getResponseBytes();
+
+    long getParseErrors();
+
+    long getOpenConnections();
+
+    long getIdleConnections();
+
+    long getInFlightRequests();
+
+    double getLatencyP50Millis();
+
+    double getLatencyP99Millis();
+
+    double getLatencyMaxMillis();
+
+    /**
+     * 99th percentile latency of each route, in milliseconds.
+     */
+    Map<String, Double> getRouteLatencyP99Millis();
+
+    /**
+     * Every other sampled value, e.g. admission and static cache counters, by metric name.
+     */
+    Map<String, Long> getSamples();
+}
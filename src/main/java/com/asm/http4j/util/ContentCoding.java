@@ -0,0 +1,117 @@
+package com.asm.http4j.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Content codings the server can apply to a response body, negotiated from Accept-Encoding.
+ */
+public enum ContentCoding {
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Picks the coding the client prefers by q-value, gzip winning ties, or null if identity should be sent.
+     */
+    public static ContentCoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        float gzip = -1, deflate = -1, any = -1;
+        for (String element : acceptEncoding.split(",")) {
+            int semicolon = element.indexOf(';');
+            String coding = (semicolon < 0 ? element : element.substring(0, semicolon)).trim();
+            float q = semicolon < 0 ? 1 : qValue(element.substring(semicolon + 1));
+            if (coding.equalsIgnoreCase("gzip") || coding.equalsIgnoreCase("x-gzip")) {
+                gzip = Math.max(gzip, q);
+            } else if (coding.equalsIgnoreCase("deflate")) {
+                deflate = Math.max(deflate, q);
+            } else if (coding.equals("*")) {
+                any = Math.max(any, q);
+            }
+        }
+        if (gzip < 0) gzip = Math.max(any, 0);
+        if (deflate < 0) deflate = Math.max(any, 0);
+        if (gzip <= 0 && deflate <= 0) {
+            return null;
+        }
+        return gzip >= deflate ? GZIP : DEFLATE;
+    }
+
+    private static float qValue(String params) {
+        for (String param : params.split(";")) {
+            param = param.trim();
+            if (param.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Float.parseFloat(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Compresses a whole body at the given {@link Deflater} level.
+     */
+    public byte[] encode(byte[] data, int level) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        if (this == GZIP) {
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192) {
+                {
+                    def.setLevel(level);
+                }
+            }) {
+                gzip.write(data);
+            }
+        } else {
+            Deflater deflater = new Deflater(level);
+            try (DeflaterOutputStream zlib = new DeflaterOutputStream(out, deflater, 8192)) {
+                zlib.write(data);
+            } finally {
+                deflater.end();
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * The ETag of this coding's variant of a representation, e.g. {@code "abc"} becomes {@code "abc-gzip"}.
+     */
+    public String etag(String identityEtag) {
+        int quote = identityEtag.lastIndexOf('"');
+        if (quote <= 0) {
+            return identityEtag;
+        }
+        return identityEtag.substring(0, quote) + "-" + token + identityEtag.substring(quote);
+    }
+
+    /**
+     * Undoes {@link #etag(String)} for any coding, so a validator of a compressed variant can be matched against the identity one.
+     */
+    public static String identityEtag(String etag) {
+        for (ContentCoding coding : values()) {
+            String suffix = "-" + coding.token + "\"";
+            if (etag.endsWith(suffix)) {
+                return etag.substring(0, etag.length() - suffix.length()) + "\"";
+            }
+        }
+        return etag;
+    }
+}
@@ -0,0 +1,54 @@
+package com.asm.http4j.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * HTTP dates (IMF-fixdate, e.g. {@code Sun, 06 Nov 1994 08:49:37 GMT}).
+ * The current date is formatted at most once per second and shared by every response.
+ */
+public class HttpDate {
+    private static final DateTimeFormatter FORMAT =
+            DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+
+    private record Cached(long epochSecond, byte[] bytes) {
+    }
+
+    private static volatile Cached current = new Cached(-1, null);
+
+    /**
+     * The current date as ASCII bytes. The returned array is shared and must not be modified.
+     */
+    public static byte[] nowBytes() {
+        long epochSecond = System.currentTimeMillis() / 1000;
+        Cached cached = current;
+        if (cached.epochSecond != epochSecond) {
+            // Racing threads format the same value; whichever write lands last is as good as any
+            cached = new Cached(epochSecond, format(epochSecond * 1000).getBytes(StandardCharsets.US_ASCII));
+            current = cached;
+        }
+        return cached.bytes;
+    }
+
+    public static String format(long epochMillis) {
+        return FORMAT.format(Instant.ofEpochMilli(epochMillis));
+    }
+
+    /**
+     * Parses an IMF-fixdate, returning epoch milliseconds or -1 if the value is not a valid date.
+     */
+    public static long parse(String value) {
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+}
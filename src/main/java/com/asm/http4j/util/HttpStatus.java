@@ -1,19 +1,65 @@
 package com.asm.http4j.util;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * @author ashutosh
  * @since 7/5/25
  */
 public class HttpStatus {
+    private static final int[] COMMON = {200, 201, 204, 206, 301, 302, 304, 400, 401, 403, 404, 405, 408, 413,
+            414, 416, 431, 500, 501, 503, 504, 505};
+
+    // Pre-encoded "HTTP/1.1 <status> <reason>\r\n" for the common statuses, indexed by status code
+    private static final byte[][] STATUS_LINES = new byte[600][];
+
+    static {
+        for (int status : COMMON) {
+            STATUS_LINES[status] = encodeStatusLine(status, reasonPhrase(status));
+        }
+    }
+
     public static String reasonPhrase(int status) {
         return switch (status) {
             case 200 -> "OK";
             case 201 -> "Created";
+            case 204 -> "No Content";
+            case 206 -> "Partial Content";
+            case 301 -> "Moved Permanently";
+            case 302 -> "Found";
+            case 304 -> "Not Modified";
             case 400 -> "Bad Request";
+            case 401 -> "Unauthorized";
+            case 403 -> "Forbidden";
             case 404 -> "Not Found";
             case 405 -> "Method Not Allowed";
+            case 408 -> "Request Timeout";
+            case 413 -> "Content Too Large";
+            case 414 -> "URI Too Long";
+            case 416 -> "Range Not Satisfiable";
+            case 431 -> "Request Header Fields Too Large";
             case 500 -> "Internal Server Error";
+            case 501 -> "Not Implemented";
+            case 503 -> "Service Unavailable";
+            case 504 -> "Gateway Timeout";
+            case 505 -> "HTTP Version Not Supported";
             default -> "Unknown";
         };
     }
+
+    /**
+     * Returns the encoded status line, shared and pre-encoded when the reason is the standard one.
+     * The returned array must not be modified.
+     */
+    public static byte[] statusLine(int status, String reason) {
+        byte[] line = status >= 0 && status < STATUS_LINES.length ? STATUS_LINES[status] : null;
+        if (line != null && reasonPhrase(status).equals(reason)) {
+            return line;
+        }
+        return encodeStatusLine(status, reason);
+    }
+
+    private static byte[] encodeStatusLine(int status, String reason) {
+        return ("HTTP/1.1 " + status + " " + reason + "\r\n").getBytes(StandardCharsets.UTF_8);
+    }
 }
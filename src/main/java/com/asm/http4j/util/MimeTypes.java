@@ -20,6 +20,11 @@ public class MimeTypes {
         MIME_MAP.put("gif", "image/gif");
         MIME_MAP.put("txt", "text/plain");
         MIME_MAP.put("ico", "image/x-icon");
+        MIME_MAP.put("svg", "image/svg+xml");
+        MIME_MAP.put("xml", "application/xml");
+        MIME_MAP.put("mjs", "application/javascript");
+        MIME_MAP.put("map", "application/json");
+        MIME_MAP.put("wasm", "application/wasm");
     }
 
     public static String guessMimeType(String fileName) {
@@ -27,4 +32,23 @@ public class MimeTypes {
         if (idx == -1) return "application/octet-stream";
         return MIME_MAP.getOrDefault(fileName.substring(idx + 1).toLowerCase(), "application/octet-stream");
     }
+
+    /**
+     * Whether content of this type is worth compressing: text, scripts, JSON, XML and SVG.
+     * Images, archives and other already-compressed formats are not.
+     */
+    public static boolean isCompressible(String mimeType) {
+        if (mimeType == null) {
+            return false;
+        }
+        int semicolon = mimeType.indexOf(';');
+        String type = (semicolon < 0 ? mimeType : mimeType.substring(0, semicolon)).trim().toLowerCase();
+        return type.startsWith("text/")
+                || type.equals("application/javascript")
+                || type.equals("application/json")
+                || type.equals("application/xml")
+                || type.equals("application/wasm")
+                || type.endsWith("+json")
+                || type.endsWith("+xml");
+    }
 }
@@ -0,0 +1,108 @@
+package com.asm.http4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ */
+public class AccessLogTest {
+
+    private static final SocketAddress CLIENT = new InetSocketAddress("127.0.0.1", 40000);
+
+    @TempDir
+    File dir;
+
+    private static HttpRequest request(String head) throws Exception {
+        return HttpRequest.parse(new ByteArrayInputStream(head.getBytes(StandardCharsets.ISO_8859_1)));
+    }
+
+    @Test
+    void testCombinedFormat() throws Exception {
+        File file = new File(dir, "access.log");
+        AccessLog log = new AccessLog(file, AccessLog.Format.COMBINED, 1);
+        log.log(request("GET /a?b=\"c\" HTTP/1.1\r\nHost: x\r\nUser-Agent: curl/8.0 \"quoted\"\r\nReferer: http://r/\r\n\r\n"),
+                200, 1234, CLIENT, System.nanoTime());
+        log.log(request("HEAD / HTTP/1.1\r\nHost: x\r\n\r\n"), 304, 0, CLIENT, System.nanoTime());
+        log.log(null, 400, 55, CLIENT, System.nanoTime());
+        log.close();
+
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).matches("127\\.0\\.0\\.1 - - \\[\\d{2}/\\w{3}/\\d{4}:\\d{2}:\\d{2}:\\d{2} [+-]\\d{4}] "
+                + "\"GET /a\\?b=\\\\\"c\\\\\" HTTP/1\\.1\" 200 1234 \"http://r/\" \"curl/8\\.0 \\\\\"quoted\\\\\"\""), lines.get(0));
+        assertTrue(lines.get(1).endsWith("\"HEAD / HTTP/1.1\" 304 - \"-\" \"-\""), lines.get(1));
+        assertTrue(lines.get(2).endsWith("\"-\" 400 55 \"-\" \"-\""), lines.get(2));
+    }
+
+    @Test
+    void testJsonFormatEscapesHeaderBytes() throws Exception {
+        File file = new File(dir, "access.json");
+        AccessLog log = new AccessLog(file, AccessLog.Format.JSON, 1);
+        log.log(request("POST /upload HTTP/1.1\r\nHost: x\r\nUser-Agent: café\r\n\r\n"), 201, 10, CLIENT, System.nanoTime());
+        log.close();
+
+        String line = Files.readAllLines(file.toPath()).get(0);
+        assertTrue(line.startsWith("{\"time\":\""), line);
+        assertTrue(line.contains("\"remote\":\"127.0.0.1\",\"method\":\"POST\",\"path\":\"/upload\",\"protocol\":\"HTTP/1.1\""), line);
+        assertTrue(line.contains("\"status\":201,\"bytes\":10,\"duration_ms\":"), line);
+        assertTrue(line.endsWith("\"user_agent\":\"caf\\u00e9\"}"), line);
+        assertFalse(line.contains("referer"));
+    }
+
+    @Test
+    void testSamplingKeepsServerErrors() throws Exception {
+        File file = new File(dir, "sampled.log");
+        AccessLog log = new AccessLog(file, AccessLog.Format.COMMON, 0);
+        HttpRequest request = request("GET / HTTP/1.1\r\nHost: x\r\n\r\n");
+        for (int i = 0; i < 100; i++) {
+            log.log(request, 200, 1, CLIENT, System.nanoTime());
+        }
+        log.log(request, 502, 1, CLIENT, System.nanoTime());
+        log.close();
+
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).endsWith("\"GET / HTTP/1.1\" 502 1"));
+    }
+
+    @Test
+    void testRotatesBySize() throws Exception {
+        File file = new File(dir, "rotating.log");
+        AccessLog log = new AccessLog(file, AccessLog.Format.COMMON, 1, 64, 200, 2);
+        HttpRequest request = request("GET /0123456789 HTTP/1.1\r\nHost: x\r\n\r\n");
+        for (int i = 0; i < 20; i++) {
+            log.log(request, 200, 1, CLIENT, System.nanoTime()); // fewer than the ring holds
+        }
+        log.close();
+
+        assertTrue(file.length() <= 200);
+        assertTrue(new File(dir, "rotating.log.1").length() > 0);
+        assertTrue(new File(dir, "rotating.log.2").length() > 0);
+        assertFalse(new File(dir, "rotating.log.3").exists());
+    }
+
+    @Test
+    void testDropsWhenRingIsFull() throws Exception {
+        File file = new File(dir, "full.log");
+        AccessLog log = new AccessLog(file, AccessLog.Format.COMMON, 1, 2, AccessLog.DEFAULT_MAX_FILE_BYTES, 1);
+        HttpRequest request = request("GET / HTTP/1.1\r\nHost: x\r\n\r\n");
+        for (int i = 0; i < 10_000; i++) {
+            log.log(request, 200, 1, CLIENT, System.nanoTime());
+        }
+        log.close();
+
+        assertEquals(10_000, Files.readAllLines(file.toPath()).size() + log.getDropped());
+    }
+}
@@ -0,0 +1,118 @@
+package com.asm.http4j;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ */
+public class AdmissionControlTest {
+
+    private ServerSocketChannel server;
+    private final List<SocketChannel> clients = new ArrayList<>();
+
+    @BeforeEach
+    void listen() throws IOException {
+        server = ServerSocketChannel.open().bind(new InetSocketAddress("127.0.0.1", 0));
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        for (SocketChannel client : clients) {
+            client.close();
+        }
+        server.close();
+    }
+
+    /**
+     * Connects a client and returns the server side of the connection.
+     */
+    private SocketChannel accept() throws IOException {
+        clients.add(SocketChannel.open(server.getLocalAddress()));
+        return server.accept();
+    }
+
+    private String readAll(SocketChannel client) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        while (client.read(buffer) >= 0) {
+            if (!buffer.hasRemaining()) {
+                break;
+            }
+        }
+        return new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    void testConnectionLimitRejectsWithServiceUnavailable() throws IOException {
+        AdmissionControl admission = new AdmissionControl(1, 0, 0);
+
+        SocketChannel first = accept();
+        assertTrue(admission.admit(first, first.getRemoteAddress()));
+        SocketChannel second = accept();
+        assertFalse(admission.admit(second, second.getRemoteAddress()));
+
+        String rejected = readAll(clients.get(1));
+        assertTrue(rejected.startsWith("HTTP/1.1 503 Service Unavailable\r\n"));
+        assertTrue(rejected.contains("\r\nRetry-After: 1\r\n"));
+        assertTrue(rejected.contains("\r\nConnection: close\r\n"));
+        assertEquals(1, admission.getRejectedConnections());
+        assertEquals(1, admission.getOpenConnections());
+
+        SocketAddress remote = first.getRemoteAddress();
+        first.close();
+        admission.releaseConnection(remote);
+        SocketChannel third = accept();
+        assertTrue(admission.admit(third, third.getRemoteAddress()));
+        third.close();
+    }
+
+    @Test
+    void testPerIpLimitCountsConnectionsFromOneAddress() throws IOException {
+        AdmissionControl admission = new AdmissionControl(0, 2, 0);
+        SocketChannel a = accept();
+        SocketChannel b = accept();
+        SocketChannel c = accept();
+
+        assertTrue(admission.admit(a, a.getRemoteAddress()));
+        assertTrue(admission.admit(b, b.getRemoteAddress()));
+        assertFalse(admission.admit(c, c.getRemoteAddress()));
+        assertEquals(1, admission.getRejectedPerIp());
+        assertEquals(2, admission.getOpenConnections());
+
+        admission.releaseConnection(a.getRemoteAddress());
+        SocketChannel d = accept();
+        assertTrue(admission.admit(d, d.getRemoteAddress()));
+        a.close();
+        b.close();
+        d.close();
+    }
+
+    @Test
+    void testInFlightRequestLimit() {
+        AdmissionControl admission = new AdmissionControl(0, 0, 2);
+
+        assertTrue(admission.tryAcquireRequest());
+        assertTrue(admission.tryAcquireRequest());
+        assertFalse(admission.tryAcquireRequest());
+        assertEquals(2, admission.getInFlightRequests());
+        assertEquals(1, admission.getRejectedRequests());
+
+        admission.releaseRequest();
+        assertTrue(admission.tryAcquireRequest());
+        assertEquals(503, AdmissionControl.overloadedResponse().getStatus());
+    }
+}
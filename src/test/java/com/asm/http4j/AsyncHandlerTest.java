@@ -0,0 +1,160 @@
+package com.asm.http4j;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ */
+public class AsyncHandlerTest {
+
+    private final CompletableFuture<HttpResponse> pending = new CompletableFuture<>();
+    private final CountDownLatch handed = new CountDownLatch(1);
+    private final AtomicReference<HttpRequest> abandoned = new AtomicReference<>();
+
+    private static byte[] get(String path) {
+        return ("GET " + path + " HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Reads one response with a Content-Length body and returns it whole.
+     */
+    private static String readResponse(InputStream in) throws IOException {
+        StringBuilder head = new StringBuilder();
+        while (!head.toString().endsWith("\r\n\r\n")) {
+            int c = in.read();
+            if (c < 0) {
+                throw new IOException("Connection closed after: " + head);
+            }
+            head.append((char) c);
+        }
+        int length = Integer.parseInt(head.toString().replaceAll("(?s).*Content-Length: (\\d+).*", "$1"));
+        return head + new String(in.readNBytes(length), StandardCharsets.US_ASCII);
+    }
+
+    private HttpServer start(ServerConfig.Engine engine) throws InterruptedException {
+        Router router = new Router();
+        router.get("/hello", request -> HttpResponse.ok("hello".getBytes(), "text/plain"));
+        router.getAsync("/later", request -> CompletableFuture.supplyAsync(
+                () -> HttpResponse.ok(("later " + request.getHeader("host")).getBytes(), "text/plain"),
+                CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS)));
+        router.addAsyncRoute("GET", "/pending", request -> {
+            handed.countDown();
+            return pending;
+        }, Duration.ofMillis(500));
+        router.addAsyncRoute("GET", "/abandoned", request -> {
+            abandoned.set(request);
+            return new CompletableFuture<>();
+        }, Duration.ofMillis(200));
+        return TestServers.start(new ServerConfig().engine(engine).eventLoops(1), router);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ServerConfig.Engine.class)
+    void testResponseCompletedOnAnotherThread(ServerConfig.Engine engine) throws Exception {
+        HttpServer server = start(engine);
+        try (Socket socket = TestServers.connect(server)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(get("/later"));
+            String response = readResponse(socket.getInputStream());
+            assertTrue(response.startsWith("HTTP/1.1 200"), response);
+            assertTrue(response.endsWith("later localhost"), response);
+
+            out.write(get("/hello"));
+            assertTrue(readResponse(socket.getInputStream()).endsWith("hello"));
+        } finally {
+            server.stop(Duration.ofSeconds(1));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ServerConfig.Engine.class)
+    void testTimeoutAnswers504AndCancels(ServerConfig.Engine engine) throws Exception {
+        HttpServer server = start(engine);
+        try (Socket socket = TestServers.connect(server)) {
+            long start = System.nanoTime();
+            socket.getOutputStream().write(get("/pending"));
+            String response = readResponse(socket.getInputStream());
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(response.startsWith("HTTP/1.1 504"), response);
+            assertTrue(elapsed >= 450 && elapsed < 3_000, "answered after " + elapsed + " ms");
+            assertTrue(pending.isCancelled());
+        } finally {
+            server.stop(Duration.ofSeconds(1));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ServerConfig.Engine.class)
+    void testClientDisconnectCancels(ServerConfig.Engine engine) throws Exception {
+        HttpServer server = start(engine);
+        try {
+            try (Socket socket = TestServers.connect(server)) {
+                socket.getOutputStream().write(get("/pending"));
+                assertTrue(handed.await(2, TimeUnit.SECONDS));
+            }
+            // Well before the route's 500 ms timeout
+            assertThrows(Exception.class, () -> pending.get(300, TimeUnit.MILLISECONDS));
+            assertTrue(pending.isCancelled());
+        } finally {
+            server.stop(Duration.ofSeconds(1));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ServerConfig.Engine.class)
+    void testPipelinedResponsesSentBeforeWaiting(ServerConfig.Engine engine) throws Exception {
+        HttpServer server = start(engine);
+        try (Socket socket = TestServers.connect(server)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(get("/hello"));
+            out.write(get("/pending"));
+            // Not held back behind the pending response
+            assertTrue(readResponse(socket.getInputStream()).endsWith("hello"));
+            assertTrue(handed.await(2, TimeUnit.SECONDS));
+            pending.complete(HttpResponse.ok("done".getBytes(), "text/plain"));
+            assertTrue(readResponse(socket.getInputStream()).endsWith("done"));
+
+            out.write(get("/hello"));
+            assertTrue(readResponse(socket.getInputStream()).endsWith("hello"));
+        } finally {
+            server.stop(Duration.ofSeconds(1));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ServerConfig.Engine.class)
+    void testTimedOutHandlerKeepsItsHeadersAfterNextRequest(ServerConfig.Engine engine) throws Exception {
+        HttpServer server = start(engine);
+        try (Socket socket = TestServers.connect(server)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET /abandoned HTTP/1.1\r\nX-Tag: first\r\nHost: localhost\r\n\r\n"
+                    + "GET /hello HTTP/1.1\r\nHost: localhost\r\nX-Padding: " + "p".repeat(64) + "\r\nX-Tag: second\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            assertTrue(readResponse(socket.getInputStream()).startsWith("HTTP/1.1 504"));
+            // The parser has reused its buffers for the second request by the time it is answered
+            assertTrue(readResponse(socket.getInputStream()).endsWith("hello"));
+
+            HttpRequest request = abandoned.get();
+            assertEquals("first", request.getHeader("x-tag"));
+            assertEquals("localhost", request.getHeader("host"));
+            assertNull(request.getHeader("x-padding"));
+        } finally {
+            server.stop(Duration.ofSeconds(1));
+        }
+    }
+}
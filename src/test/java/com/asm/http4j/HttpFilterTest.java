@@ -0,0 +1,185 @@
+package com.asm.http4j;
+
+import com.asm.http4j.config.ConfigRouteLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ */
+public class HttpFilterTest {
+
+    @TempDir
+    Path dir;
+
+    private static HttpRequest request(String method, String path, String... headers) throws Exception {
+        StringBuilder raw = new StringBuilder(method + " " + path + " HTTP/1.1\r\nHost: localhost\r\n");
+        for (String header : headers) {
+            raw.append(header).append("\r\n");
+        }
+        raw.append("\r\n");
+        return HttpRequest.parse(new ByteArrayInputStream(raw.toString().getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static HttpResponse dispatch(Router router, File staticRoot, String method, String path,
+                                         String... headers) throws Exception {
+        RequestDispatcher dispatcher = new RequestDispatcher(router, new ServerConfig().staticRoot(staticRoot).compression(false));
+        return dispatcher.dispatch(request(method, path, headers), null);
+    }
+
+    private static HttpFilter trace(List<String> calls, String name) {
+        return (request, next) -> {
+            calls.add(name);
+            return next.handle(request);
+        };
+    }
+
+    @Test
+    void testFiltersRunInOrderAroundTheRoute() throws Exception {
+        List<String> calls = new ArrayList<>();
+        Router router = new Router();
+        router.use(trace(calls, "outer"));
+        router.addRoute("GET", "/hello", request -> {
+            calls.add("handler");
+            return HttpResponse.ok("hello".getBytes(), "text/plain");
+        }, trace(calls, "route"));
+        // Added after the route, and still outside the route's own filter
+        router.use(trace(calls, "inner"));
+
+        HttpResponse response = dispatch(router, null, "GET", "/hello");
+
+        assertEquals(200, response.getStatus());
+        assertEquals(List.of("outer", "inner", "route", "handler"), calls);
+    }
+
+    @Test
+    void testShortCircuit() throws Exception {
+        Router router = new Router();
+        router.use(HttpFilters.bearerAuth("s3cret"));
+        router.get("/hello", request -> HttpResponse.ok("hello".getBytes(), "text/plain"));
+
+        assertEquals(401, dispatch(router, null, "GET", "/hello").getStatus());
+        assertEquals(401, dispatch(router, null, "GET", "/hello", "Authorization: Bearer wrong").getStatus());
+        assertEquals(200, dispatch(router, null, "GET", "/hello", "Authorization: bearer s3cret").getStatus());
+        // Unrouted requests are filtered too
+        assertEquals(401, dispatch(router, null, "GET", "/nope").getStatus());
+        assertEquals(404, dispatch(router, null, "GET", "/nope", "Authorization: Bearer s3cret").getStatus());
+    }
+
+    @Test
+    void testUnroutedResponsesAreFiltered() throws Exception {
+        Files.writeString(dir.resolve("page.txt"), "static");
+        Router router = new Router();
+        router.use(HttpFilters.headers(Map.of("X-Frame-Options", "DENY")));
+        router.post("/form", request -> HttpResponse.ok("ok".getBytes(), "text/plain"));
+
+        HttpResponse file = dispatch(router, dir.toFile(), "GET", "/page.txt");
+        assertEquals(200, file.getStatus());
+        assertEquals("DENY", file.getHeaders().get("X-Frame-Options"));
+        HttpResponse notAllowed = dispatch(router, null, "GET", "/form");
+        assertEquals(405, notAllowed.getStatus());
+        assertEquals("DENY", notAllowed.getHeaders().get("X-Frame-Options"));
+        assertEquals("DENY", dispatch(router, null, "GET", "/nope").getHeaders().get("X-Frame-Options"));
+    }
+
+    @Test
+    void testUnroutedAnswerComesFromTheRoutesThatMatched() throws Exception {
+        Router reloaded = new Router();
+        reloaded.get("/form", request -> HttpResponse.ok("ok".getBytes(), "text/plain"));
+        Router router = new Router();
+        router.post("/form", request -> HttpResponse.ok("ok".getBytes(), "text/plain"));
+        RequestDispatcher dispatcher = new RequestDispatcher(router, new ServerConfig().compression(false));
+        // A reload lands after the request was matched
+        router.use((request, next) -> {
+            dispatcher.setRouter(reloaded);
+            return next.handle(request);
+        });
+
+        HttpResponse notAllowed = dispatcher.dispatch(request("GET", "/form"), null);
+        assertEquals(405, notAllowed.getStatus());
+        assertEquals("POST", notAllowed.getHeaders().get("Allow"));
+    }
+
+    @Test
+    void testHeadFallsBackToTheFilteredGet() throws Exception {
+        Router router = new Router();
+        router.addRoute("GET", "/hello", request -> HttpResponse.ok("hello".getBytes(), "text/plain"),
+                HttpFilters.headers(Map.of("X-Route", "hello")));
+
+        assertEquals("hello", dispatch(router, null, "HEAD", "/hello").getHeaders().get("X-Route"));
+    }
+
+    @Test
+    void testHeadersOnPrecomputedResponseAreAddedOnce() throws Exception {
+        HttpResponse cached = HttpResponse.ok("hello".getBytes(), "text/plain").precompute();
+        HttpHandler handler = HttpFilter.chain(List.of(HttpFilters.headers(Map.of("X-Frame-Options", "DENY"))),
+                request -> cached);
+
+        HttpResponse first = handler.handle(request("GET", "/"));
+        assertEquals("DENY", first.getHeaders().get("X-Frame-Options"));
+        assertNotNull(first.getImage());
+        assertSame(first, handler.handle(request("GET", "/")));
+        assertNull(cached.getHeaders().get("X-Frame-Options"));
+    }
+
+    @Test
+    void testCorsPreflight() throws Exception {
+        Router router = new Router();
+        router.use(HttpFilters.cors("https://app.example", "GET, POST", "Content-Type", 600));
+        router.post("/api", request -> HttpResponse.ok("ok".getBytes(), "text/plain"));
+
+        HttpResponse preflight = dispatch(router, null, "OPTIONS", "/api",
+                "Origin: https://app.example", "Access-Control-Request-Method: POST");
+        assertEquals(204, preflight.getStatus());
+        assertEquals("GET, POST", preflight.getHeaders().get("Access-Control-Allow-Methods"));
+        assertEquals("600", preflight.getHeaders().get("Access-Control-Max-Age"));
+
+        HttpResponse actual = dispatch(router, null, "POST", "/api", "Origin: https://app.example");
+        assertEquals(200, actual.getStatus());
+        assertEquals("https://app.example", actual.getHeaders().get("Access-Control-Allow-Origin"));
+        assertEquals("Origin", actual.getHeaders().get("Vary"));
+    }
+
+    @Test
+    void testFiltersFromRoutesJson() throws Exception {
+        File routes = dir.resolve("routes.json").toFile();
+        Files.writeString(routes.toPath(), """
+                {
+                  "filters": [{"type": "headers", "headers": {"X-Frame-Options": "DENY"}}],
+                  "routes": [
+                    {"method": "GET", "path": "/open", "response": {"status": 200, "body": "open"}},
+                    {"method": "GET", "path": "/admin", "filters": [{"type": "bearerAuth", "token": "t0k"}],
+                     "response": {"status": 200, "body": "admin"}}
+                  ]
+                }
+                """);
+        Router router = ConfigRouteLoader.loadFrom(routes);
+
+        HttpResponse open = dispatch(router, null, "GET", "/open");
+        assertEquals(200, open.getStatus());
+        assertEquals("DENY", open.getHeaders().get("X-Frame-Options"));
+        HttpResponse denied = dispatch(router, null, "GET", "/admin");
+        assertEquals(401, denied.getStatus());
+        assertEquals("DENY", denied.getHeaders().get("X-Frame-Options"));
+        assertEquals(200, dispatch(router, null, "GET", "/admin", "Authorization: Bearer t0k").getStatus());
+
+        Files.writeString(routes.toPath(), """
+                {"routes": [{"method": "GET", "path": "/x", "filters": [{"type": "rateLimit"}],
+                             "response": {"status": 200}}]}
+                """);
+        RuntimeException e = assertThrows(RuntimeException.class, () -> ConfigRouteLoader.loadFrom(routes));
+        assertTrue(e.getMessage().contains("unknown type rateLimit"), e.getMessage());
+    }
+}
@@ -3,8 +3,12 @@ package com.asm.http4j;
 import com.asm.http4j.exception.HttpParsingException;
 import org.junit.jupiter.api.Test;
 
-import java.io.BufferedReader;
-import java.io.StringReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -14,7 +18,7 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 public class HttpRequestTest {
     private HttpRequest parseFrom(String rawRequest) throws Exception {
-        return HttpRequest.parse(new BufferedReader(new StringReader(rawRequest)));
+        return HttpRequest.parse(new ByteArrayInputStream(rawRequest.getBytes(StandardCharsets.UTF_8)));
     }
 
     @Test
@@ -115,19 +119,125 @@ public class HttpRequestTest {
         String req = """
                 POST / HTTP/1.1\r
                 Host: localhost\r
-                Transfer-Encoding: chunked\r
+                Transfer-Encoding: gzip, chunked\r
                 \r
                 """;
 
         HttpParsingException ex = assertThrows(HttpParsingException.class, () -> parseFrom(req));
+        assertEquals(501, ex.getStatus());
         assertTrue(ex.getMessage().contains("Unsupported Transfer-Encoding"));
     }
 
+    @Test
+    void testChunkedBodyIsDecoded() throws Exception {
+        String raw = "POST /up HTTP/1.1\r\nHost: localhost\r\nTransfer-Encoding: chunked\r\n\r\n"
+                + "5;ext=1\r\nHello\r\n6\r\n World\r\n0\r\nX-Trailer: yes\r\n\r\n"
+                + "GET /next HTTP/1.1\r\nHost: localhost\r\n\r\n";
+        HttpRequestParser parser = new HttpRequestParser();
+        InputStream in = new ByteArrayInputStream(raw.getBytes(StandardCharsets.US_ASCII));
+
+        HttpRequest request = parser.parse(in);
+        assertTrue(request.isChunked());
+        assertEquals("Hello World", request.getBody());
+        assertEquals("/next", parser.parse(in).path);
+    }
+
+    @Test
+    void testMalformedChunkIsReportedAsBadRequest() throws Exception {
+        HttpRequest request = parseFrom("POST / HTTP/1.1\r\nHost: localhost\r\nTransfer-Encoding: chunked\r\n\r\nzz\r\n");
+
+        assertThrows(IOException.class, request::getBodyBytes);
+        assertEquals(400, request.getBodyError().getStatus());
+        assertFalse(request.isBodyComplete());
+    }
+
+    @Test
+    void testBodyLimit() throws Exception {
+        HttpRequestParser parser = new HttpRequestParser(HttpRequestParser.DEFAULT_MAX_REQUEST_LINE,
+                HttpRequestParser.DEFAULT_MAX_HEADER_SIZE, 8);
+
+        HttpParsingException ex = assertThrows(HttpParsingException.class, () -> parser.parse(new ByteArrayInputStream(
+                "POST / HTTP/1.1\r\nHost: localhost\r\nContent-Length: 9\r\n\r\n123456789".getBytes(StandardCharsets.US_ASCII))));
+        assertEquals(413, ex.getStatus());
+
+        HttpRequestParser chunkedParser = new HttpRequestParser(HttpRequestParser.DEFAULT_MAX_REQUEST_LINE,
+                HttpRequestParser.DEFAULT_MAX_HEADER_SIZE, 8);
+        HttpRequest chunked = chunkedParser.parse(new ByteArrayInputStream(
+                "POST / HTTP/1.1\r\nHost: localhost\r\nTransfer-Encoding: chunked\r\n\r\n5\r\n12345\r\n5\r\n67890\r\n0\r\n\r\n"
+                        .getBytes(StandardCharsets.US_ASCII)));
+        assertThrows(IOException.class, chunked::getBodyBytes);
+        assertEquals(413, chunked.getBodyError().getStatus());
+
+        HttpResponse answer = new RequestDispatcher(new Router(), new ServerConfig()).parseError(ex);
+        assertEquals(413, answer.getStatus());
+        assertTrue(new String(answer.getBody(), StandardCharsets.US_ASCII).startsWith("Content Too Large: "));
+    }
+
+    @Test
+    void testContentLengthWithChunkedIsRejected() {
+        HttpParsingException ex = assertThrows(HttpParsingException.class, () -> parseFrom(
+                "POST / HTTP/1.1\r\nHost: localhost\r\nTransfer-Encoding: chunked\r\nContent-Length: 3\r\n\r\nabc"));
+        assertEquals(400, ex.getStatus());
+    }
+
+    @Test
+    void testLargeBinaryBodyStreamsWithoutCorruption() throws Exception {
+        byte[] payload = new byte[256 * 1024];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) (i * 31);
+        }
+        byte[] head = ("PUT /blob HTTP/1.1\r\nHost: localhost\r\nContent-Length: " + payload.length + "\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII);
+        byte[] raw = new byte[head.length + payload.length];
+        System.arraycopy(head, 0, raw, 0, head.length);
+        System.arraycopy(payload, 0, raw, head.length, payload.length);
+        InputStream shortReads = new FilterInputStream(new ByteArrayInputStream(raw)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 1000));
+            }
+        };
+
+        HttpRequest request = new HttpRequestParser().parse(shortReads);
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        request.getBodyStream().transferTo(received);
+
+        assertArrayEquals(payload, received.toByteArray());
+        assertEquals("localhost", request.getHeader("host"));
+        assertTrue(request.isBodyComplete());
+    }
+
+    @Test
+    void testExpectContinueIsSentOnFirstRead() throws Exception {
+        String raw = "POST / HTTP/1.1\r\nHost: localhost\r\nExpect: 100-continue\r\nContent-Length: 2\r\n\r\nok";
+        InputStream in = new ByteArrayInputStream(raw.getBytes(StandardCharsets.US_ASCII));
+        HttpRequestParser parser = new HttpRequestParser();
+        int[] sent = {0};
+        parser.bodySource(in, () -> sent[0]++);
+
+        HttpRequest request = parser.parse(in);
+        assertEquals(0, sent[0]);
+        assertEquals("ok", request.getBody());
+        assertEquals(1, sent[0]);
+    }
+
+    @Test
+    void testUnreadBodyIsDiscardedUpToLimit() throws Exception {
+        String raw = "POST / HTTP/1.1\r\nHost: localhost\r\nContent-Length: 10\r\n\r\n0123456789"
+                + "GET /next HTTP/1.1\r\nHost: localhost\r\n\r\n";
+        HttpRequestParser parser = new HttpRequestParser();
+        InputStream in = new ByteArrayInputStream(raw.getBytes(StandardCharsets.US_ASCII));
+
+        HttpRequest request = parser.parse(in);
+        assertFalse(request.discardBody(5));
+        assertTrue(request.discardBody(64));
+        assertEquals("/next", parser.parse(in).path);
+    }
+
     @Test
     void testBlankLineIsIgnored() throws Exception {
         String rawRequest = "\r\nGET / HTTP/1.1\r\nHost: localhost\r\n\r\n";
-        BufferedReader reader = new BufferedReader(new StringReader(rawRequest));
-        HttpRequest request = HttpRequest.parse(reader);
+        HttpRequest request = parseFrom(rawRequest);
         assertEquals("GET", request.method);
         assertEquals("/", request.path);
     }
@@ -135,8 +245,73 @@ public class HttpRequestTest {
     @Test
     void testInvalidRequestLineThrows() {
         String rawRequest = "INVALID\r\nHost: localhost\r\n\r\n";
-        BufferedReader reader = new BufferedReader(new StringReader(rawRequest));
-        assertThrows(HttpParsingException.class, () -> HttpRequest.parse(reader));
+        assertThrows(HttpParsingException.class, () -> parseFrom(rawRequest));
+    }
+
+    @Test
+    void testHeaderLookupIsCaseInsensitive() throws Exception {
+        String req = "GET / HTTP/1.1\r\nHOST: localhost\r\nX-Trace:  abc \r\nx-trace: def\r\n\r\n";
+
+        HttpRequest request = parseFrom(req);
+
+        assertEquals("localhost", request.getHeader("Host"));
+        assertEquals("abc", request.getHeader("x-trace"));
+        assertEquals(java.util.List.of("abc", "def"), request.getHeaderValues("X-TRACE"));
+        assertEquals(java.util.List.of("abc", "def"), request.getHeaders().get("x-trace"));
+        assertTrue(request.headerEqualsIgnoreCase("host", "LOCALHOST"));
+    }
+
+    @Test
+    void testRequestLineTooLong() {
+        String req = "GET /" + "a".repeat(HttpRequestParser.DEFAULT_MAX_REQUEST_LINE) + " HTTP/1.1\r\nHost: localhost\r\n\r\n";
+
+        HttpParsingException ex = assertThrows(HttpParsingException.class, () -> parseFrom(req));
+        assertEquals(414, ex.getStatus());
+    }
+
+    @Test
+    void testHeaderSectionTooLarge() {
+        String req = "GET / HTTP/1.1\r\nHost: localhost\r\n"
+                + "X-Filler: " + "a".repeat(HttpRequestParser.DEFAULT_MAX_HEADER_SIZE) + "\r\n\r\n";
+
+        HttpParsingException ex = assertThrows(HttpParsingException.class, () -> parseFrom(req));
+        assertEquals(431, ex.getStatus());
+    }
+
+    @Test
+    void testBodyAndPipelinedRequestsAcrossShortReads() throws Exception {
+        String raw = "POST /echo HTTP/1.1\r\nHost: localhost\r\nContent-Length: 11\r\n\r\nHello World"
+                + "GET /next HTTP/1.1\r\nHost: localhost\r\n\r\n";
+        InputStream oneByteAtATime = new FilterInputStream(new ByteArrayInputStream(raw.getBytes(StandardCharsets.UTF_8))) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+        HttpRequestParser parser = new HttpRequestParser();
+
+        HttpRequest first = parser.parse(oneByteAtATime);
+        assertEquals("Hello World", first.getBody());
+
+        HttpRequest second = parser.parse(oneByteAtATime);
+        assertEquals("/next", second.path);
+        assertNull(parser.parse(oneByteAtATime));
+    }
+
+    @Test
+    void testPendingOutputFlushedOnlyBeforeBlockingRead() throws Exception {
+        String raw = "GET /a HTTP/1.1\r\nHost: localhost\r\n\r\nGET /b HTTP/1.1\r\nHost: localhost\r\n\r\n";
+        InputStream in = new ByteArrayInputStream(raw.getBytes(StandardCharsets.UTF_8));
+        HttpRequestParser parser = new HttpRequestParser();
+        int[] flushes = {0};
+
+        assertEquals("/a", parser.parse(in, () -> flushes[0]++).path);
+        assertEquals(1, flushes[0]);
+
+        // The second request is already buffered, so its predecessor's response must not be flushed yet
+        assertTrue(parser.hasBufferedData());
+        assertEquals("/b", parser.parse(in, () -> flushes[0]++).path);
+        assertEquals(1, flushes[0]);
     }
 
 }
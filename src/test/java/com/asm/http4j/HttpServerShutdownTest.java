@@ -0,0 +1,116 @@
+package com.asm.http4j;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ */
+public class HttpServerShutdownTest {
+
+    private static final byte[] REQUEST_SLOW = "GET /slow HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] REQUEST_FAST = "GET /fast HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private static void await(CountDownLatch latch, long millis) throws IOException {
+        try {
+            latch.await(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+    }
+
+    /**
+     * Reads one response with a Content-Length body and returns its head.
+     */
+    private static String readResponse(InputStream in) throws IOException {
+        StringBuilder head = new StringBuilder();
+        while (!head.toString().endsWith("\r\n\r\n")) {
+            int c = in.read();
+            if (c < 0) {
+                throw new IOException("Connection closed after: " + head);
+            }
+            head.append((char) c);
+        }
+        int length = Integer.parseInt(head.toString().replaceAll("(?s).*Content-Length: (\\d+).*", "$1"));
+        assertEquals(length, in.readNBytes(length).length);
+        return head.toString();
+    }
+
+    @ParameterizedTest
+    @EnumSource(ServerConfig.Engine.class)
+    void testStopLetsRequestsInFlightFinish(ServerConfig.Engine engine) throws Exception {
+        CountDownLatch handling = new CountDownLatch(1);
+        Router router = new Router();
+        router.get("/slow", request -> {
+            handling.countDown();
+            await(new CountDownLatch(1), 300);
+            return HttpResponse.ok("done".getBytes(), "text/plain");
+        });
+        router.get("/fast", request -> HttpResponse.ok("fast".getBytes(), "text/plain"));
+
+        HttpServer server = new HttpServer(new ServerConfig().port(0).engine(engine).eventLoops(1), router);
+        Thread serving = TestServers.serve(server);
+        int port = server.getPort();
+
+        try (Socket busy = TestServers.connect(server); Socket idle = TestServers.connect(server)) {
+            OutputStream idleOut = idle.getOutputStream();
+            idleOut.write(REQUEST_FAST);
+            assertTrue(readResponse(idle.getInputStream()).contains("Connection: keep-alive"));
+
+            busy.getOutputStream().write(REQUEST_SLOW);
+            assertTrue(handling.await(5, TimeUnit.SECONDS));
+
+            assertTrue(server.stop(Duration.ofSeconds(5)));
+
+            String head = readResponse(busy.getInputStream());
+            assertTrue(head.startsWith("HTTP/1.1 200 OK\r\n"), head);
+            assertTrue(head.contains("Connection: close"), head);
+            assertEquals(-1, busy.getInputStream().read());
+            assertEquals(-1, idle.getInputStream().read());
+        }
+        serving.join(5_000);
+        assertFalse(serving.isAlive());
+        assertThrows(IOException.class, () -> new Socket("127.0.0.1", port).close());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ServerConfig.Engine.class)
+    void testStopClosesConnectionsAfterTimeout(ServerConfig.Engine engine) throws Exception {
+        CountDownLatch handling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Router router = new Router();
+        router.get("/slow", request -> {
+            handling.countDown();
+            await(release, 10_000);
+            return HttpResponse.ok("late".getBytes(), "text/plain");
+        });
+
+        HttpServer server = new HttpServer(new ServerConfig().port(0).engine(engine).eventLoops(1), router);
+        Thread serving = TestServers.serve(server);
+
+        try (Socket busy = TestServers.connect(server)) {
+            busy.getOutputStream().write(REQUEST_SLOW);
+            assertTrue(handling.await(5, TimeUnit.SECONDS));
+
+            assertFalse(server.stop(Duration.ofMillis(200)));
+            assertEquals(-1, busy.getInputStream().read());
+        } finally {
+            release.countDown();
+        }
+        serving.join(5_000);
+        assertFalse(serving.isAlive());
+    }
+}
@@ -0,0 +1,198 @@
+package com.asm.http4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ */
+public class KeepAliveTest {
+
+    private static final byte[] REQUEST = "GET /hello HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private static HttpServer start(ServerConfig config) throws InterruptedException {
+        Router router = new Router();
+        router.get("/hello", request -> HttpResponse.ok("hello".getBytes(), "text/plain"));
+        router.post("/echo", request -> HttpResponse.ok(request.getBodyBytes(), "text/plain"));
+        return TestServers.start(config.eventLoops(1), router);
+    }
+
+    /**
+     * Reads one response with a Content-Length body and returns its head.
+     */
+    private static String readResponse(InputStream in) throws IOException {
+        StringBuilder head = new StringBuilder();
+        while (!head.toString().endsWith("\r\n\r\n")) {
+            int c = in.read();
+            if (c < 0) {
+                throw new IOException("Connection closed after: " + head);
+            }
+            head.append((char) c);
+        }
+        int length = Integer.parseInt(head.toString().replaceAll("(?s).*Content-Length: (\\d+).*", "$1"));
+        assertEquals(length, in.readNBytes(length).length);
+        return head.toString();
+    }
+
+    /**
+     * Waits for the server to close the connection and returns how long that took, in milliseconds.
+     */
+    private static long awaitClose(Socket socket, long since) throws IOException {
+        try {
+            while (socket.getInputStream().read() >= 0) {
+                // drain whatever the server still sends
+            }
+        } catch (SocketTimeoutException e) {
+            fail("Connection still open");
+        } catch (IOException e) {
+            // reset: closed as well
+        }
+        return (System.nanoTime() - since) / 1_000_000;
+    }
+
+    @ParameterizedTest
+    @EnumSource(ServerConfig.Engine.class)
+    void testMaxRequestsPerConnection(ServerConfig.Engine engine) throws Exception {
+        HttpServer server = start(new ServerConfig().engine(engine).maxRequestsPerConnection(3));
+        try (Socket socket = TestServers.connect(server)) {
+            OutputStream out = socket.getOutputStream();
+            for (int i = 1; i <= 3; i++) {
+                out.write(REQUEST);
+                String head = readResponse(socket.getInputStream());
+                assertTrue(head.contains(i < 3 ? "Connection: keep-alive" : "Connection: close"), head);
+            }
+            assertEquals(-1, socket.getInputStream().read());
+        } finally {
+            server.stop(Duration.ofSeconds(1));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ServerConfig.Engine.class)
+    void testIdleConnectionClosedAfterKeepAliveTimeout(ServerConfig.Engine engine) throws Exception {
+        HttpServer server = start(new ServerConfig().engine(engine).idleTimeoutMs(300));
+        try (Socket socket = TestServers.connect(server)) {
+            socket.getOutputStream().write(REQUEST);
+            readResponse(socket.getInputStream());
+            long elapsed = awaitClose(socket, System.nanoTime());
+            assertTrue(elapsed >= 250 && elapsed < 2_000, "closed after " + elapsed + " ms");
+        } finally {
+            server.stop(Duration.ofSeconds(1));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ServerConfig.Engine.class)
+    void testTricklingHeadDoesNotExtendHeaderTimeout(ServerConfig.Engine engine) throws Exception {
+        HttpServer server = start(new ServerConfig().engine(engine).headerTimeoutMs(400));
+        try (Socket socket = TestServers.connect(server)) {
+            OutputStream out = socket.getOutputStream();
+            long start = System.nanoTime();
+            Thread trickle = Thread.ofVirtual().start(() -> {
+                try {
+                    out.write("GET /hello HTTP/1.1\r\n".getBytes(StandardCharsets.US_ASCII));
+                    for (int i = 0; i < 50; i++) {
+                        Thread.sleep(50);
+                        out.write('X');
+                    }
+                } catch (IOException | InterruptedException e) {
+                    // closed by the server
+                }
+            });
+            long elapsed = awaitClose(socket, start);
+            trickle.interrupt();
+            assertTrue(elapsed >= 350 && elapsed < 2_000, "closed after " + elapsed + " ms");
+        } finally {
+            server.stop(Duration.ofSeconds(1));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ServerConfig.Engine.class)
+    void testStalledBodyClosedAfterBodyTimeout(ServerConfig.Engine engine) throws Exception {
+        HttpServer server = start(new ServerConfig().engine(engine).bodyTimeoutMs(300));
+        try (Socket socket = TestServers.connect(server)) {
+            long start = System.nanoTime();
+            socket.getOutputStream().write(("POST /echo HTTP/1.1\r\nHost: localhost\r\nContent-Length: 10\r\n\r\nab")
+                    .getBytes(StandardCharsets.US_ASCII));
+            long elapsed = awaitClose(socket, start);
+            assertTrue(elapsed >= 250 && elapsed < 2_000, "closed after " + elapsed + " ms");
+        } finally {
+            server.stop(Duration.ofSeconds(1));
+        }
+    }
+
+    @Test
+    void testBodyTimeoutKeepsWriteBufferUntilHandlerIsDone() throws Exception {
+        CountDownLatch timedOut = new CountDownLatch(1);
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch releaseSlow = new CountDownLatch(1);
+        Router router = new Router();
+        router.post("/upload", request -> {
+            try {
+                request.getBodyBytes();
+            } catch (IOException e) {
+                timedOut.countDown();
+            }
+            await(slowStarted);
+            return HttpResponse.ok("late".repeat(16).getBytes(), "text/plain");
+        });
+        router.get("/fast", request -> HttpResponse.ok("fast".getBytes(), "text/plain"));
+        router.get("/slow", request -> {
+            slowStarted.countDown();
+            await(releaseSlow);
+            return HttpResponse.ok("slow".getBytes(), "text/plain");
+        });
+        HttpServer server = TestServers.start(new ServerConfig().engine(ServerConfig.Engine.NIO).eventLoops(1)
+                .bodyTimeoutMs(200), router);
+        try (Socket stalled = TestServers.connect(server); Socket other = TestServers.connect(server)) {
+            stalled.getOutputStream().write(("POST /upload HTTP/1.1\r\nHost: localhost\r\nContent-Length: 10\r\n\r\nab")
+                    .getBytes(StandardCharsets.US_ASCII));
+            assertTrue(timedOut.await(5, TimeUnit.SECONDS));
+
+            // The first response waits in the write buffer while the second is handled
+            other.getOutputStream().write(("GET /fast HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                    + "GET /slow HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            assertTrue(slowStarted.await(5, TimeUnit.SECONDS));
+            // Until the timed out handler has written its response too
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (server.getMetrics().getRequests() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            releaseSlow.countDown();
+
+            String responses = new String(other.getInputStream().readAllBytes(), StandardCharsets.US_ASCII);
+            assertTrue(responses.startsWith("HTTP/1.1 200 OK\r\n"), responses);
+            assertTrue(responses.contains("\r\n\r\nfastHTTP/1.1 200 OK\r\n"), responses);
+            assertTrue(responses.endsWith("\r\n\r\nslow"), responses);
+            assertFalse(responses.contains("late"), responses);
+        } finally {
+            releaseSlow.countDown();
+            server.stop(Duration.ofSeconds(1));
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.asm.http4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ */
+public class ListenersTest {
+
+    private static final byte[] REQUEST = "GET /hello HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n"
+            .getBytes(StandardCharsets.US_ASCII);
+
+    private static boolean reusePortSupported() throws IOException {
+        try (ServerSocketChannel probe = ServerSocketChannel.open()) {
+            return probe.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+        }
+    }
+
+    @Test
+    void testReusePortBindsOneSocketPerAcceptor() throws Exception {
+        assumeTrue(reusePortSupported());
+        List<ServerSocketChannel> listeners = Listeners.open(new ServerConfig().port(0).reusePort(true), 3);
+        try {
+            assertEquals(3, listeners.size());
+            int port = listeners.get(0).socket().getLocalPort();
+            assertTrue(port > 0);
+            for (ServerSocketChannel listener : listeners) {
+                assertTrue(listener.getOption(StandardSocketOptions.SO_REUSEPORT));
+                assertEquals(port, listener.socket().getLocalPort());
+            }
+        } finally {
+            Listeners.closeAll(listeners);
+        }
+    }
+
+    @Test
+    void testAcceptorsShareOneSocketWithoutReusePort() throws Exception {
+        List<ServerSocketChannel> listeners = Listeners.open(new ServerConfig().port(0), 3);
+        try {
+            assertEquals(1, listeners.size());
+        } finally {
+            Listeners.closeAll(listeners);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ServerConfig.Engine.class)
+    void testServesThroughEveryListener(ServerConfig.Engine engine) throws Exception {
+        Router router = new Router();
+        router.get("/hello", request -> HttpResponse.ok("hello".getBytes(), "text/plain"));
+        ServerConfig config = new ServerConfig().engine(engine)
+                .acceptors(4).eventLoops(4).reusePort(true)
+                .receiveBufferBytes(64 * 1024).sendBufferBytes(64 * 1024);
+        HttpServer server = TestServers.start(config, router);
+        try {
+            for (int i = 0; i < 40; i++) {
+                try (Socket socket = TestServers.connect(server)) {
+                    socket.getOutputStream().write(REQUEST);
+                    InputStream in = socket.getInputStream();
+                    String response = new String(in.readAllBytes(), StandardCharsets.US_ASCII);
+                    assertTrue(response.startsWith("HTTP/1.1 200 OK\r\n"), response);
+                    assertTrue(response.endsWith("hello"), response);
+                }
+            }
+        } finally {
+            assertTrue(server.stop(Duration.ofSeconds(1)));
+        }
+    }
+}
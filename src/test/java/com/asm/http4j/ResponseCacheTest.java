@@ -0,0 +1,177 @@
+package com.asm.http4j;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ */
+public class ResponseCacheTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private static HttpRequest request(String method, String path, String... headers) throws Exception {
+        StringBuilder raw = new StringBuilder(method + " " + path + " HTTP/1.1\r\nHost: localhost\r\n");
+        for (String header : headers) {
+            raw.append(header).append("\r\n");
+        }
+        raw.append("\r\n");
+        return HttpRequest.parse(new ByteArrayInputStream(raw.toString().getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static String body(HttpResponse response) {
+        return new String(response.getBody(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Answers with the call count and the given response headers.
+     */
+    private HttpHandler counting(Map<String, String> headers) {
+        return request -> {
+            HttpResponse response = HttpResponse.ok(("call " + calls.incrementAndGet()).getBytes(), "text/plain");
+            response.getHeaders().putAll(headers);
+            return response;
+        };
+    }
+
+    private static HttpResponse get(ResponseCache cache, HttpHandler handler, String path, String... headers)
+            throws Exception {
+        return cache.filter(request("GET", path, headers), handler);
+    }
+
+    @Test
+    void testHitAfterMiss() throws Exception {
+        ResponseCache cache = new ResponseCache(Duration.ofMinutes(1), 1 << 20);
+        HttpHandler handler = counting(Map.of());
+
+        assertEquals("call 1", body(get(cache, handler, "/report?year=2026")));
+        HttpResponse hit = get(cache, handler, "/report?year=2026");
+        assertEquals("call 1", body(hit));
+        assertNotNull(hit.getImage());
+        assertEquals("call 1", body(cache.filter(request("HEAD", "/report?year=2026"), handler)));
+        // The query is part of the key
+        assertEquals("call 2", body(get(cache, handler, "/report?year=2025")));
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void testExpiresAfterTtlOrMaxAge() throws Exception {
+        ResponseCache cache = new ResponseCache(Duration.ofMillis(100), 1 << 20);
+        HttpHandler handler = counting(Map.of());
+        get(cache, handler, "/a");
+        Thread.sleep(150);
+        assertEquals("call 2", body(get(cache, handler, "/a")));
+
+        HttpHandler longer = counting(Map.of("Cache-Control", "public, max-age=60"));
+        get(cache, longer, "/b");
+        Thread.sleep(150);
+        assertEquals("call 3", body(get(cache, longer, "/b")));
+    }
+
+    @Test
+    void testUncacheableResponsesAreNotStored() throws Exception {
+        ResponseCache cache = new ResponseCache(Duration.ofMinutes(1), 1 << 20);
+        for (Map<String, String> headers : List.of(Map.of("Cache-Control", "no-store"), Map.of("cache-control", "private"),
+                Map.of("Cache-Control", "max-age=0"), Map.of("Set-Cookie", "id=1"), Map.of("Vary", "*"))) {
+            calls.set(0);
+            HttpHandler handler = counting(headers);
+            get(cache, handler, "/x");
+            assertEquals("call 2", body(get(cache, handler, "/x")), headers.toString());
+        }
+        HttpHandler failing = request -> HttpResponse.of(500, "Internal Server Error", "oops".getBytes(), "text/plain");
+        get(cache, failing, "/y");
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testRequestDirectivesAndCredentials() throws Exception {
+        ResponseCache cache = new ResponseCache(Duration.ofMinutes(1), 1 << 20);
+        HttpHandler handler = counting(Map.of());
+        get(cache, handler, "/a");
+
+        assertEquals("call 2", body(get(cache, handler, "/a", "Authorization: Bearer x")));
+        // no-cache refreshes the entry for everyone
+        assertEquals("call 3", body(get(cache, handler, "/a", "Cache-Control: no-cache")));
+        assertEquals("call 3", body(get(cache, handler, "/a")));
+    }
+
+    @Test
+    void testVaryKeysOnRequestHeaders() throws Exception {
+        ResponseCache cache = new ResponseCache(Duration.ofMinutes(1), 1 << 20);
+        HttpHandler handler = counting(Map.of("Vary", "Accept-Language, Accept-Encoding"));
+
+        assertEquals("call 1", body(get(cache, handler, "/greeting", "Accept-Language: en")));
+        assertEquals("call 2", body(get(cache, handler, "/greeting", "Accept-Language: fr")));
+        assertEquals("call 1", body(get(cache, handler, "/greeting", "Accept-Language: en", "Accept-Encoding: gzip")));
+        assertEquals("call 2", body(get(cache, handler, "/greeting", "Accept-Language: fr")));
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() throws Exception {
+        ResponseCache cache = new ResponseCache(Duration.ofMinutes(1), 2048);
+        HttpHandler big = request -> HttpResponse.ok(new byte[600], "application/octet-stream");
+        get(cache, big, "/1");
+        get(cache, big, "/2");
+        get(cache, big, "/1");
+        get(cache, big, "/3");
+
+        assertTrue(cache.getUsedBytes() <= 2048);
+        assertEquals(1, cache.getEvictions());
+        long hits = cache.getHits();
+        get(cache, big, "/1");
+        assertEquals(hits + 1, cache.getHits());
+        get(cache, big, "/2");
+        assertEquals(hits + 1, cache.getHits());
+    }
+
+    @Test
+    void testConcurrentMissesAreCoalesced() throws Exception {
+        ResponseCache cache = new ResponseCache(Duration.ofMinutes(1), 1 << 20);
+        CountDownLatch release = new CountDownLatch(1);
+        HttpHandler slow = request -> {
+            calls.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return HttpResponse.ok("expensive".getBytes(), "text/plain");
+        };
+
+        List<Thread> threads = new ArrayList<>();
+        List<String> bodies = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 20; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                try {
+                    bodies.add(body(get(cache, slow, "/expensive")));
+                } catch (Exception e) {
+                    bodies.add(e.toString());
+                }
+            }));
+        }
+        while (cache.getCoalesced() < 19) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(20, bodies.size());
+        assertTrue(bodies.stream().allMatch("expensive"::equals), bodies.toString());
+    }
+}
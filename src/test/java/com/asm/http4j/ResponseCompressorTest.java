@@ -0,0 +1,157 @@
+package com.asm.http4j;
+
+import com.asm.http4j.util.ContentCoding;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ */
+public class ResponseCompressorTest {
+
+    private static final String TEXT = "The quick brown fox jumps over the lazy dog. ".repeat(100);
+
+    private final ResponseCompressor compressor = new ResponseCompressor(256, 1024 * 1024);
+
+    private static HttpRequest get(String path, String acceptEncoding) throws Exception {
+        String raw = "GET " + path + " HTTP/1.1\r\nHost: localhost\r\n"
+                + (acceptEncoding != null ? "Accept-Encoding: " + acceptEncoding + "\r\n" : "") + "\r\n";
+        return HttpRequest.parse(new ByteArrayInputStream(raw.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static String gunzip(HttpResponse response) throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getBody()))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void testNegotiatesByQValue() {
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("gzip, deflate, br"));
+        assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate("gzip;q=0.5, deflate"));
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("*"));
+        assertNull(ContentCoding.negotiate("gzip;q=0, deflate;q=0"));
+        assertNull(ContentCoding.negotiate("br"));
+        assertNull(ContentCoding.negotiate(null));
+    }
+
+    @Test
+    void testCompressesTextForClientsThatAcceptGzip() throws Exception {
+        HttpResponse response = compressor.compress(get("/", "gzip"), HttpResponse.ok(TEXT.getBytes(), "text/plain"));
+
+        assertEquals("gzip", response.getHeaders().get("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeaders().get("Vary"));
+        assertTrue(response.getResponseBody().length() < TEXT.length());
+        assertEquals(TEXT, gunzip(response));
+    }
+
+    @Test
+    void testDeflateIsZlibWrapped() throws Exception {
+        HttpResponse response = compressor.compress(get("/", "deflate"), HttpResponse.ok(TEXT.getBytes(), "application/json"));
+
+        assertEquals("deflate", response.getHeaders().get("Content-Encoding"));
+        try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(response.getBody()))) {
+            assertEquals(TEXT, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testLeavesOtherResponsesAlone() throws Exception {
+        HttpResponse small = HttpResponse.ok("tiny".getBytes(), "text/plain");
+        assertSame(small, compressor.compress(get("/", "gzip"), small));
+        assertEquals("Accept-Encoding", small.getHeaders().get("Vary"));
+
+        HttpResponse image = HttpResponse.ok(TEXT.getBytes(), "image/png");
+        assertSame(image, compressor.compress(get("/", "gzip"), image));
+        assertNull(image.getHeaders().get("Vary"));
+
+        HttpResponse identity = HttpResponse.ok(TEXT.getBytes(), "text/plain");
+        assertSame(identity, compressor.compress(get("/", null), identity));
+
+        HttpResponse encoded = HttpResponse.ok(TEXT.getBytes(), "text/plain");
+        encoded.getHeaders().put("Content-Encoding", "br");
+        assertSame(encoded, compressor.compress(get("/", "gzip"), encoded));
+    }
+
+    @Test
+    void testVariantOfResponseWithEtagIsCached() throws Exception {
+        byte[] body = TEXT.getBytes();
+        HttpResponse first = HttpResponse.ok(body, "text/plain");
+        first.getHeaders().put("ETag", "\"v1\"");
+        HttpResponse second = HttpResponse.ok(body, "text/plain");
+        second.getHeaders().put("ETag", "\"v1\"");
+
+        HttpResponse a = compressor.compress(get("/doc", "gzip"), first);
+        HttpResponse b = compressor.compress(get("/doc", "gzip"), second);
+
+        assertSame(a.getBody(), b.getBody());
+        assertEquals("\"v1-gzip\"", b.getHeaders().get("ETag"));
+        assertEquals(1, compressor.getHits());
+        assertEquals(1, compressor.getMisses());
+    }
+
+    @Test
+    void testIncompressibleBodyWithEtagIsCompressedOnce() throws Exception {
+        byte[] noise = new byte[8 * 1024];
+        new Random(7).nextBytes(noise);
+        for (int i = 0; i < 3; i++) {
+            HttpResponse response = HttpResponse.ok(noise, "text/plain");
+            response.getHeaders().put("ETag", "\"noise\"");
+            assertSame(response, compressor.compress(get("/noise", "gzip"), response));
+        }
+
+        assertEquals(1, compressor.getMisses());
+        assertEquals(2, compressor.getHits());
+    }
+
+    @Test
+    void testFreshGzipSiblingIsServedForStaticFiles(@TempDir Path root) throws Exception {
+        Files.writeString(root.resolve("app.js"), TEXT);
+        Path sidecar = root.resolve("app.js.gz");
+        Files.write(sidecar, ContentCoding.GZIP.encode("precompressed".getBytes(), 9));
+        Files.setLastModifiedTime(sidecar, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+        StaticFileHandler handler = new StaticFileHandler(root.toFile());
+
+        HttpResponse response = compressor.compress(get("/app.js", "gzip"), handler.serve("/app.js"));
+
+        assertEquals("gzip", response.getHeaders().get("Content-Encoding"));
+        assertEquals("precompressed", gunzip(response));
+
+        Files.setLastModifiedTime(sidecar, FileTime.fromMillis(0));
+        HttpResponse stale = new ResponseCompressor(256, 0).compress(get("/app.js", "gzip"), handler.serve("/app.js"));
+        assertEquals(TEXT, gunzip(stale));
+    }
+
+    @Test
+    void testVariantEtagsMapBackToIdentity() throws Exception {
+        assertEquals("\"abc\"", ContentCoding.identityEtag("\"abc-gzip\""));
+        assertEquals("\"abc\"", ContentCoding.identityEtag("\"abc\""));
+        assertEquals("\"abc-deflate\"", ContentCoding.DEFLATE.etag("\"abc\""));
+    }
+
+    @Test
+    void testPrecomputedResponseGetsPrecomputedVariant() throws Exception {
+        HttpResponse precomputed = HttpResponse.ok(TEXT.getBytes(), "text/plain").precompute();
+
+        HttpResponse first = compressor.compress(get("/", "gzip"), precomputed);
+        HttpResponse second = compressor.compress(get("/", "gzip"), precomputed);
+
+        assertSame(first, second);
+        assertEquals("gzip", first.getHeaders().get("Content-Encoding"));
+        assertEquals("Accept-Encoding", first.getHeaders().get("Vary"));
+        assertEquals(TEXT, gunzip(first));
+        assertSame(precomputed, compressor.compress(get("/", null), precomputed));
+    }
+}
@@ -0,0 +1,268 @@
+package com.asm.http4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ */
+public class ResponseWriterTest {
+
+    private final ByteArrayOutputStream sink = new ByteArrayOutputStream();
+
+    private String write(HttpResponse response, String method, boolean keepAlive, int bufferSize) throws Exception {
+        ResponseWriter writer = new ResponseWriter(Channels.newChannel(sink), new byte[bufferSize], null);
+        writer.write(response, method, keepAlive);
+        writer.flush();
+        return sink.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testSerializesStatusLineHeadersAndBody() throws Exception {
+        HttpResponse response = HttpResponse.ok("hello".getBytes(), "text/plain");
+        response.getHeaders().put("X-Custom", "1");
+
+        String raw = write(response, "GET", true, 1024);
+
+        assertTrue(raw.startsWith("HTTP/1.1 200 OK\r\nServer: http4j/"));
+        assertTrue(raw.contains("\r\nDate: "));
+        assertTrue(raw.contains("\r\nContent-Type: text/plain\r\n"));
+        assertTrue(raw.contains("\r\nContent-Length: 5\r\n"));
+        assertTrue(raw.contains("\r\nConnection: keep-alive\r\n"));
+        assertTrue(raw.contains("\r\nX-Custom: 1\r\n"));
+        assertTrue(raw.endsWith("\r\n\r\nhello"));
+    }
+
+    @Test
+    void testWriterOwnedHeadersAreNotDuplicated() throws Exception {
+        HttpResponse response = HttpResponse.ok("hello".getBytes(), "text/plain");
+        response.getHeaders().put("content-length", "999");
+        response.getHeaders().put("Connection", "keep-alive");
+
+        String raw = write(response, "GET", false, 1024);
+
+        assertFalse(raw.contains("999"));
+        assertFalse(raw.contains("keep-alive"));
+        assertTrue(raw.contains("\r\nConnection: close\r\n"));
+        assertTrue(response.getHeaders().containsKey("content-length"), "handler headers must be left untouched");
+    }
+
+    @Test
+    void testHeadSkipsBodyButKeepsLength() throws Exception {
+        String raw = write(HttpResponse.ok("hello".getBytes(), "text/plain"), "HEAD", true, 1024);
+
+        assertTrue(raw.contains("Content-Length: 5\r\n"));
+        assertTrue(raw.endsWith("\r\n\r\n"));
+    }
+
+    @Test
+    void testBodyLargerThanBufferIsWrittenAfterHead() throws Exception {
+        byte[] body = "x".repeat(10_000).getBytes();
+
+        String raw = write(HttpResponse.ok(body, "text/plain"), "GET", true, 256);
+
+        assertTrue(raw.startsWith("HTTP/1.1 200 OK\r\n"));
+        assertTrue(raw.endsWith("\r\n\r\n" + "x".repeat(10_000)));
+    }
+
+    @Test
+    void testNonStandardReasonIsEncoded() throws Exception {
+        String raw = write(HttpResponse.of(299, "Custom", new byte[0], null), "GET", true, 1024);
+
+        assertTrue(raw.startsWith("HTTP/1.1 299 Custom\r\n"));
+    }
+
+    @Test
+    void testFileBodyIsSentWhetherOrNotItFitsTheBuffer(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("page.txt");
+        Files.writeString(file, "y".repeat(5_000));
+
+        String small = write(HttpResponse.file(file, "text/plain"), "GET", true, 8192);
+        assertTrue(small.contains("\r\nContent-Length: 5000\r\n"));
+        assertTrue(small.endsWith("\r\n\r\n" + "y".repeat(5_000)));
+
+        sink.reset();
+        String large = write(HttpResponse.file(file, "text/plain"), "GET", true, 256);
+        assertTrue(large.endsWith("\r\n\r\n" + "y".repeat(5_000)));
+    }
+
+    @Test
+    void testFileRegionSendsOnlyItsSlice(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("digits.txt");
+        Files.writeString(file, "0123456789");
+
+        String raw = write(HttpResponse.of(200, "OK", new ResponseBody.FileRegion(file, 3, 4), "text/plain"), "GET", true, 1024);
+
+        assertTrue(raw.contains("\r\nContent-Length: 4\r\n"));
+        assertTrue(raw.endsWith("\r\n\r\n3456"));
+    }
+
+    @Test
+    void testStreamBodyIsCopiedThroughSmallBuffer() throws Exception {
+        byte[] body = "z".repeat(3_000).getBytes();
+
+        String raw = write(HttpResponse.stream(new ByteArrayInputStream(body), body.length, "text/plain"), "GET", true, 128);
+
+        assertTrue(raw.contains("\r\nContent-Length: 3000\r\n"));
+        assertTrue(raw.endsWith("\r\n\r\n" + "z".repeat(3_000)));
+    }
+
+    @Test
+    void testNotModifiedHasNoContentLengthOrBody() throws Exception {
+        HttpResponse response = HttpResponse.of(304, "Not Modified", ResponseBody.EMPTY, null);
+        response.getHeaders().put("ETag", "\"abc\"");
+
+        String raw = write(response, "GET", true, 1024);
+
+        assertFalse(raw.contains("Content-Length"));
+        assertTrue(raw.endsWith("ETag: \"abc\"\r\n\r\n"));
+    }
+
+    @Test
+    void testPrecomputedResponseMatchesRegularOne() throws Exception {
+        HttpResponse response = HttpResponse.ok("{\"a\":1}".getBytes(), "application/json");
+        response.getHeaders().put("X-Custom", "1");
+        response.getHeaders().put("Date", "Sun, 06 Nov 1994 08:49:37 GMT");
+        HttpResponse precomputed = response.precompute();
+
+        String regular = write(response, "GET", false, 1024);
+        sink.reset();
+        String fromImage = write(precomputed, "GET", false, 1024);
+
+        assertTrue(fromImage.contains("\r\nVary: Accept-Encoding\r\n"));
+        assertEquals(regular, fromImage.replace("Vary: Accept-Encoding\r\n", ""));
+    }
+
+    @Test
+    void testChangingPrecomputedHeadersDropsTheImage() throws Exception {
+        HttpResponse precomputed = HttpResponse.ok("hello".getBytes(), "image/png").precompute();
+        assertNull(precomputed.getHeaders().remove("X-Absent"));
+        assertNotNull(precomputed.getImage());
+
+        precomputed.getHeaders().put("X-Other", "2");
+
+        assertNull(precomputed.getImage());
+        assertEquals("2", precomputed.getHeaders().get("X-Other"));
+        String raw = write(precomputed, "GET", true, 1024);
+        assertTrue(raw.contains("\r\nX-Other: 2\r\n"), raw);
+        assertTrue(raw.endsWith("\r\n\r\nhello"), raw);
+    }
+
+    @Test
+    void testPrecomputedResponseSplicesDateAndConnection() throws Exception {
+        HttpResponse precomputed = HttpResponse.ok("hello".getBytes(), "image/png").precompute();
+
+        String keepAlive = write(precomputed, "GET", true, 1024);
+        sink.reset();
+        String head = write(precomputed, "HEAD", false, 1024);
+
+        assertTrue(keepAlive.startsWith("HTTP/1.1 200 OK\r\nServer: http4j/"));
+        assertTrue(keepAlive.contains("\r\nDate: "));
+        assertTrue(keepAlive.contains("\r\nConnection: keep-alive\r\n"));
+        assertTrue(keepAlive.endsWith("Content-Length: 5\r\n\r\nhello"));
+        assertTrue(head.contains("\r\nConnection: close\r\n"));
+        assertTrue(head.endsWith("Content-Length: 5\r\n\r\n"));
+    }
+
+    /**
+     * Decodes a chunked body the way a client would, using the request parser's decoder.
+     */
+    private static byte[] dechunk(String raw) throws Exception {
+        String body = raw.substring(raw.indexOf("\r\n\r\n") + 4);
+        HttpRequest request = HttpRequest.parse(new ByteArrayInputStream(
+                ("POST / HTTP/1.1\r\nHost: x\r\nTransfer-Encoding: chunked\r\n\r\n" + body).getBytes(StandardCharsets.ISO_8859_1)));
+        return request.getBodyBytes();
+    }
+
+    @Test
+    void testChunkedBodyFramesSmallAndLargeWrites() throws Exception {
+        byte[] large = new byte[ResponseWriter.CHUNK_SIZE * 3];
+        Arrays.fill(large, (byte) 'x');
+        HttpResponse response = HttpResponse.chunked("text/plain", out -> {
+            out.write("a".getBytes());
+            out.write('b');
+            out.flush();
+            out.write(large);
+            out.write("end".getBytes());
+        });
+
+        String raw = new String(write(response, "GET", true, 1024).getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
+
+        assertTrue(raw.contains("\r\nTransfer-Encoding: chunked\r\n"));
+        assertFalse(raw.contains("Content-Length"));
+        assertTrue(raw.contains("\r\n\r\n2\r\nab\r\n6000\r\n"));
+        assertTrue(raw.endsWith("3\r\nend\r\n0\r\n\r\n"));
+        assertEquals("ab" + "x".repeat(large.length) + "end", new String(dechunk(raw), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void testFailedChunkedBodyIsLeftUnterminated() {
+        HttpResponse response = HttpResponse.chunked("text/plain", out -> {
+            out.write("partial".getBytes());
+            throw new IOException("export failed");
+        });
+
+        assertThrows(IOException.class, () -> write(response, "GET", true, 1024));
+        assertFalse(sink.toString(StandardCharsets.US_ASCII).endsWith("0\r\n\r\n"));
+    }
+
+    @Test
+    void testHeadDoesNotRunBodyWriter() throws Exception {
+        HttpResponse response = HttpResponse.chunked("text/plain", out -> fail("writer must not run for HEAD"));
+
+        String raw = write(response, "HEAD", true, 1024);
+
+        assertTrue(raw.endsWith("Transfer-Encoding: chunked\r\n\r\n"));
+    }
+
+    @Test
+    void testPublisherIsRequestedOnlyAsFastAsItIsWritten() throws Exception {
+        AtomicLong requested = new AtomicLong();
+        AtomicLong sent = new AtomicLong();
+        long[] maxAhead = {0};
+        Flow.Publisher<ByteBuffer> publisher = subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+            private boolean done;
+
+            @Override
+            public void request(long n) {
+                requested.addAndGet(n);
+                maxAhead[0] = Math.max(maxAhead[0], requested.get() - sent.get());
+                // Deliver synchronously, as far as demand allows
+                while (!done && sent.get() < requested.get()) {
+                    if (sent.get() == 100) {
+                        done = true;
+                        subscriber.onComplete();
+                        return;
+                    }
+                    sent.incrementAndGet();
+                    subscriber.onNext(ByteBuffer.wrap("0123456789".getBytes()));
+                }
+            }
+
+            @Override
+            public void cancel() {
+                done = true;
+            }
+        });
+
+        String raw = write(HttpResponse.publisher(publisher, "text/plain"), "GET", true, 1024);
+
+        assertEquals("0123456789".repeat(100), new String(dechunk(raw), StandardCharsets.US_ASCII));
+        assertTrue(maxAhead[0] <= PublisherBodyWriter.PREFETCH, "at most PREFETCH buffers outstanding, was " + maxAhead[0]);
+    }
+}
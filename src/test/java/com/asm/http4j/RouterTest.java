@@ -0,0 +1,156 @@
+package com.asm.http4j;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ */
+public class RouterTest {
+
+    private static HttpHandler named(String name) {
+        return request -> HttpResponse.ok(name.getBytes(), "text/plain");
+    }
+
+    private static String handle(Router router, String method, String path) throws Exception {
+        Router.Match match = router.match(method, path);
+        if (match == null || match.handler() == null) {
+            return null;
+        }
+        HttpRequest request = HttpRequest.parse(new ByteArrayInputStream(
+                (method + " " + path + " HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII)));
+        match.bindTo(request);
+        return new String(match.handler().handle(request).getBody()) + request.getPathParams();
+    }
+
+    @Test
+    void testExactMatch() throws Exception {
+        Router router = new Router();
+        router.get("/hello", named("hello"));
+        router.get("/", named("root"));
+
+        assertEquals("hello{}", handle(router, "GET", "/hello"));
+        assertEquals("root{}", handle(router, "GET", "/"));
+        assertNull(handle(router, "GET", "/hello/"));
+        assertNull(handle(router, "GET", "/hell"));
+        assertNull(router.match("GET", "/nope"));
+    }
+
+    @Test
+    void testQueryStringIsIgnored() throws Exception {
+        Router router = new Router();
+        router.get("/search", named("search"));
+
+        assertEquals("search{}", handle(router, "GET", "/search?q=x&page=2"));
+    }
+
+    @Test
+    void testPathParametersAreCaptured() throws Exception {
+        Router router = new Router();
+        router.get("/users/{id}", named("user"));
+        router.get("/users/{id}/posts/{postId}", named("post"));
+
+        assertEquals("user{id=42}", handle(router, "GET", "/users/42"));
+        assertEquals("post{id=42, postId=7}", handle(router, "GET", "/users/42/posts/7"));
+        assertNull(handle(router, "GET", "/users/"));
+    }
+
+    @Test
+    void testLiteralBeatsParameterAndBacktracks() throws Exception {
+        Router router = new Router();
+        router.get("/users/new", named("new"));
+        router.get("/users/{id}/edit", named("edit"));
+
+        assertEquals("new{}", handle(router, "GET", "/users/new"));
+        assertEquals("edit{id=new}", handle(router, "GET", "/users/new/edit"));
+    }
+
+    @Test
+    void testBacktracksOnlyIntoRoutesOfTheRightLength() throws Exception {
+        Router router = new Router();
+        router.get("/a/b/c/d", named("literal"));
+        router.get("/{w}/{x}/{y}/end", named("params"));
+        router.get("/a/{x}/c", named("short"));
+
+        assertEquals("params{w=a, x=b, y=c}", handle(router, "GET", "/a/b/c/end"));
+        assertEquals("short{x=b}", handle(router, "GET", "/a/b/c"));
+        assertNull(handle(router, "GET", "/a/b/c/d/e"));
+    }
+
+    @Test
+    void testSegmentsWithEqualHashesAreToldApart() throws Exception {
+        Router router = new Router();
+        // "Aa" and "BB" have the same String hash code
+        router.get("/Aa", named("Aa"));
+        router.get("/BB", named("BB"));
+
+        assertEquals("Aa{}", handle(router, "GET", "/Aa"));
+        assertEquals("BB{}", handle(router, "GET", "/BB"));
+        assertNull(handle(router, "GET", "/Ab"));
+    }
+
+    @Test
+    void testWildcardCapturesRestOfPath() throws Exception {
+        Router router = new Router();
+        router.get("/assets/*", named("assets"));
+        router.get("/assets/logo.png", named("logo"));
+
+        assertEquals("assets{*=css/site.css}", handle(router, "GET", "/assets/css/site.css"));
+        assertEquals("logo{}", handle(router, "GET", "/assets/logo.png"));
+        assertThrows(IllegalArgumentException.class, () -> router.get("/files/*/x", named("bad")));
+    }
+
+    @Test
+    void testConflictingParameterNamesAreRejected() {
+        Router router = new Router();
+        router.get("/users/{id}", named("user"));
+
+        assertThrows(IllegalArgumentException.class, () -> router.get("/users/{name}/x", named("bad")));
+    }
+
+    @Test
+    void testAllowedMethodsArePrecomputedPerRoute() throws Exception {
+        Router router = new Router();
+        router.get("/items/{id}", named("get"));
+        router.put("/items/{id}", named("put"));
+        router.addRoute("purge", "/items/{id}", named("purge"));
+
+        Router.Match match = router.match("DELETE", "/items/1");
+        assertNotNull(match);
+        assertNull(match.handler());
+        assertEquals(Set.of("GET", "PUT", "PURGE"), match.allowedMethods());
+        assertEquals(List.of("GET", "PUT", "PURGE"), List.copyOf(router.allowedMethods("/items/1")));
+        assertEquals("purge{id=1}", handle(router, "PURGE", "/items/1"));
+        assertEquals(Set.of(), router.allowedMethods("/other"));
+    }
+
+    @Test
+    void testMethodsMatchRegardlessOfCase() {
+        Router router = new Router();
+        router.get("/hello", named("hello"));
+        router.get("/items", named("items"));
+        router.addRoute("PURGE", "/items", named("purge"));
+
+        assertNotNull(router.findHandler("get", "/hello"));
+        // Also on a path that has an extension method
+        assertNotNull(router.findHandler("get", "/items"));
+        assertNotNull(router.findHandler("purge", "/items"));
+    }
+
+    @Test
+    void testManyRoutes() throws Exception {
+        Router router = new Router();
+        for (int i = 0; i < 5000; i++) {
+            router.get("/api/v1/resource" + i + "/{id}", named("r" + i));
+        }
+
+        assertEquals("r4321{id=9}", handle(router, "GET", "/api/v1/resource4321/9"));
+    }
+}
@@ -0,0 +1,219 @@
+package com.asm.http4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ */
+public class StaticFileHandlerTest {
+
+    @TempDir
+    Path root;
+
+    private static HttpRequest get(String path, String... headers) throws Exception {
+        StringBuilder raw = new StringBuilder("GET ").append(path).append(" HTTP/1.1\r\nHost: localhost\r\n");
+        for (String header : headers) {
+            raw.append(header).append("\r\n");
+        }
+        raw.append("\r\n");
+        return HttpRequest.parse(new ByteArrayInputStream(raw.toString().getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static String bodyOf(HttpResponse response) throws Exception {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        ResponseWriter writer = new ResponseWriter(Channels.newChannel(sink), new byte[1024], null);
+        writer.write(response, "GET", true);
+        writer.flush();
+        String raw = sink.toString(StandardCharsets.US_ASCII);
+        return raw.substring(raw.indexOf("\r\n\r\n") + 4);
+    }
+
+    @Test
+    void testServesFileFromDiskWithoutCache() throws Exception {
+        Files.writeString(root.resolve("a.txt"), "hello");
+        StaticFileHandler handler = new StaticFileHandler(root.toFile());
+
+        HttpResponse response = handler.serve("/a.txt");
+
+        assertEquals(200, response.getStatus());
+        assertInstanceOf(ResponseBody.FileRegion.class, response.getResponseBody());
+        assertEquals(5, response.getResponseBody().length());
+        assertNotNull(response.getHeaders().get("Last-Modified"));
+    }
+
+    @Test
+    void testSecondRequestIsServedFromCache() throws Exception {
+        Files.writeString(root.resolve("a.txt"), "hello");
+        StaticFileCache cache = new StaticFileCache(1024);
+        StaticFileHandler handler = new StaticFileHandler(root.toFile(), cache);
+
+        HttpResponse first = handler.serve("/a.txt");
+        HttpResponse second = handler.serve("/a.txt");
+
+        assertArrayEquals("hello".getBytes(), second.getBody());
+        assertEquals(first.getHeaders(), second.getHeaders());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(5, cache.getUsedBytes());
+    }
+
+    @Test
+    void testModifiedFileIsReloaded() throws Exception {
+        Path file = root.resolve("a.txt");
+        Files.writeString(file, "hello");
+        StaticFileCache cache = new StaticFileCache(1024, 0);
+        StaticFileHandler handler = new StaticFileHandler(root.toFile(), cache);
+        handler.serve("/a.txt");
+
+        Files.writeString(file, "changed");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+
+        assertArrayEquals("changed".getBytes(), handler.serve("/a.txt").getBody());
+        assertEquals(0, cache.getHits());
+        assertEquals(7, cache.getUsedBytes());
+    }
+
+    @Test
+    void testDeletedFileIsNotServedFromCache() throws Exception {
+        Path file = root.resolve("a.txt");
+        Files.writeString(file, "hello");
+        StaticFileCache cache = new StaticFileCache(1024, 0);
+        StaticFileHandler handler = new StaticFileHandler(root.toFile(), cache);
+        handler.serve("/a.txt");
+
+        Files.delete(file);
+
+        assertEquals(404, handler.serve("/a.txt").getStatus());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testLeastRecentlyUsedFileIsEvictedOverBudget() throws Exception {
+        Files.writeString(root.resolve("a.txt"), "a".repeat(40));
+        Files.writeString(root.resolve("b.txt"), "b".repeat(40));
+        Files.writeString(root.resolve("c.txt"), "c".repeat(40));
+        StaticFileCache cache = new StaticFileCache(100);
+        StaticFileHandler handler = new StaticFileHandler(root.toFile(), cache);
+
+        handler.serve("/a.txt");
+        handler.serve("/b.txt");
+        handler.serve("/a.txt");
+        handler.serve("/c.txt");
+
+        assertEquals(1, cache.getEvictions());
+        assertEquals(80, cache.getUsedBytes());
+        assertNotNull(cache.get("/a.txt"));
+        assertNull(cache.get("/b.txt"));
+    }
+
+    @Test
+    void testFilesOverBudgetAreStreamedFromDisk() throws Exception {
+        Files.writeString(root.resolve("big.txt"), "x".repeat(200));
+        StaticFileCache cache = new StaticFileCache(100);
+        StaticFileHandler handler = new StaticFileHandler(root.toFile(), cache);
+
+        HttpResponse response = handler.serve("/big.txt");
+
+        assertInstanceOf(ResponseBody.FileRegion.class, response.getResponseBody());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testMatchingEtagGets304() throws Exception {
+        Files.writeString(root.resolve("a.txt"), "hello");
+        StaticFileHandler handler = new StaticFileHandler(root.toFile(), new StaticFileCache(1024));
+        String etag = handler.serve(get("/a.txt")).getHeaders().get("ETag");
+
+        HttpResponse response = handler.serve(get("/a.txt", "If-None-Match: \"other\", " + etag));
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getResponseBody().length());
+        assertEquals(etag, response.getHeaders().get("ETag"));
+        assertEquals(200, handler.serve(get("/a.txt", "If-None-Match: \"other\"")).getStatus());
+    }
+
+    @Test
+    void testIfModifiedSinceGets304UnlessFileIsNewer() throws Exception {
+        Files.writeString(root.resolve("a.txt"), "hello");
+        StaticFileHandler handler = new StaticFileHandler(root.toFile());
+        String lastModified = handler.serve(get("/a.txt")).getHeaders().get("Last-Modified");
+
+        assertEquals(304, handler.serve(get("/a.txt", "If-Modified-Since: " + lastModified)).getStatus());
+        assertEquals(200, handler.serve(get("/a.txt", "If-Modified-Since: Sat, 01 Jan 2000 00:00:00 GMT")).getStatus());
+        assertEquals(200, handler.serve(get("/a.txt", "If-Modified-Since: yesterday")).getStatus());
+    }
+
+    @Test
+    void testSingleRangeGets206() throws Exception {
+        Files.writeString(root.resolve("digits.txt"), "0123456789");
+        StaticFileHandler handler = new StaticFileHandler(root.toFile());
+
+        HttpResponse response = handler.serve(get("/digits.txt", "Range: bytes=2-5"));
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/10", response.getHeaders().get("Content-Range"));
+        assertEquals("2345", bodyOf(response));
+
+        assertEquals("789", bodyOf(handler.serve(get("/digits.txt", "Range: bytes=-3"))));
+        assertEquals("89", bodyOf(handler.serve(get("/digits.txt", "Range: bytes=8-100"))));
+    }
+
+    @Test
+    void testRangeOfCachedFile() throws Exception {
+        Files.writeString(root.resolve("digits.txt"), "0123456789");
+        StaticFileHandler handler = new StaticFileHandler(root.toFile(), new StaticFileCache(1024));
+        handler.serve(get("/digits.txt"));
+
+        assertEquals("345", bodyOf(handler.serve(get("/digits.txt", "Range: bytes=3-5"))));
+    }
+
+    @Test
+    void testMultipleRangesGetMultipartBody() throws Exception {
+        Files.writeString(root.resolve("digits.txt"), "0123456789");
+        StaticFileHandler handler = new StaticFileHandler(root.toFile());
+
+        HttpResponse response = handler.serve(get("/digits.txt", "Range: bytes=0-1, 7-"));
+
+        assertEquals(206, response.getStatus());
+        assertTrue(response.getContentType().startsWith("multipart/byteranges; boundary="));
+        String boundary = response.getContentType().substring(response.getContentType().indexOf('=') + 1);
+        String body = bodyOf(response);
+        assertTrue(body.contains("Content-Range: bytes 0-1/10\r\n\r\n01\r\n--" + boundary));
+        assertTrue(body.contains("Content-Range: bytes 7-9/10\r\n\r\n789\r\n--" + boundary + "--"));
+        assertEquals(response.getResponseBody().length(), body.length());
+    }
+
+    @Test
+    void testUnsatisfiableRangeGets416() throws Exception {
+        Files.writeString(root.resolve("digits.txt"), "0123456789");
+        StaticFileHandler handler = new StaticFileHandler(root.toFile());
+
+        HttpResponse response = handler.serve(get("/digits.txt", "Range: bytes=20-30"));
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeaders().get("Content-Range"));
+    }
+
+    @Test
+    void testStaleIfRangeOrBadRangeGetsFullBody() throws Exception {
+        Files.writeString(root.resolve("digits.txt"), "0123456789");
+        StaticFileHandler handler = new StaticFileHandler(root.toFile());
+        String etag = handler.serve(get("/digits.txt")).getHeaders().get("ETag");
+
+        assertEquals(206, handler.serve(get("/digits.txt", "Range: bytes=0-1", "If-Range: " + etag)).getStatus());
+        assertEquals(200, handler.serve(get("/digits.txt", "Range: bytes=0-1", "If-Range: \"stale\"")).getStatus());
+        assertEquals(200, handler.serve(get("/digits.txt", "Range: lines=0-1")).getStatus());
+        assertEquals(200, handler.serve(get("/digits.txt", "Range: bytes=5-1")).getStatus());
+    }
+}
@@ -0,0 +1,42 @@
+package com.asm.http4j;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.time.Duration;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ * Starts servers on a port the system picks and opens client connections to them.
+ */
+final class TestServers {
+
+    private TestServers() {
+    }
+
+    /**
+     * Starts a server for the router on a free port and waits until it accepts connections.
+     */
+    static HttpServer start(ServerConfig config, Router router) throws InterruptedException {
+        HttpServer server = new HttpServer(config.port(0), router);
+        serve(server);
+        return server;
+    }
+
+    /**
+     * Runs the server on its own thread, which is returned once connections are accepted.
+     */
+    static Thread serve(HttpServer server) throws InterruptedException {
+        Thread serving = Thread.ofPlatform().start(server::start);
+        if (server.awaitPort(Duration.ofSeconds(5)) < 0) {
+            throw new IllegalStateException("Server did not start listening");
+        }
+        return serving;
+    }
+
+    static Socket connect(HttpServer server) throws IOException {
+        Socket socket = new Socket("127.0.0.1", server.getPort());
+        socket.setSoTimeout(5_000);
+        return socket;
+    }
+}
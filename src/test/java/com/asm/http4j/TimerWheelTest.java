@@ -0,0 +1,89 @@
+package com.asm.http4j;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ */
+public class TimerWheelTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static class Counting extends TimerWheel.Timeout {
+        final AtomicInteger expired = new AtomicInteger();
+
+        @Override
+        protected void expire() {
+            expired.incrementAndGet();
+        }
+    }
+
+    @Test
+    void testExpiresOnlyOnceDeadlinePassed() {
+        TimerWheel wheel = new TimerWheel(10, 8);
+        Counting timeout = new Counting();
+        long now = System.nanoTime();
+        wheel.schedule(timeout, 50 * MS);
+
+        wheel.advance(now + 30 * MS);
+        assertEquals(0, timeout.expired.get());
+        wheel.advance(now + 80 * MS);
+        assertEquals(1, timeout.expired.get());
+        wheel.advance(now + 500 * MS);
+        assertEquals(1, timeout.expired.get());
+    }
+
+    @Test
+    void testDeadlineBeyondOneRevolution() {
+        TimerWheel wheel = new TimerWheel(10, 8); // 80 ms per revolution
+        Counting timeout = new Counting();
+        long now = System.nanoTime();
+        wheel.schedule(timeout, 250 * MS);
+
+        for (long t = 10; t <= 240; t += 10) {
+            wheel.advance(now + t * MS);
+        }
+        assertEquals(0, timeout.expired.get());
+        wheel.advance(now + 270 * MS);
+        assertEquals(1, timeout.expired.get());
+    }
+
+    @Test
+    void testRearmPostponesExpiry() {
+        TimerWheel wheel = new TimerWheel(10, 8);
+        Counting timeout = new Counting();
+        long start = System.nanoTime();
+        wheel.schedule(timeout, 20 * MS);
+        wheel.schedule(timeout, 200 * MS); // e.g. the first byte of a request arrived
+
+        wheel.advance(start + 100 * MS);
+        assertEquals(0, timeout.expired.get());
+        wheel.advance(start + 300 * MS);
+        assertEquals(1, timeout.expired.get());
+    }
+
+    @Test
+    void testCancelledTimeoutNeverExpires() {
+        TimerWheel wheel = new TimerWheel(10, 8);
+        Counting cancelled = new Counting();
+        Counting armed = new Counting();
+        long now = System.nanoTime();
+        wheel.schedule(cancelled, 20 * MS);
+        wheel.schedule(armed, 20 * MS);
+        wheel.cancel(cancelled);
+
+        wheel.advance(now + 100 * MS);
+        assertEquals(0, cancelled.expired.get());
+        assertEquals(1, armed.expired.get());
+
+        wheel.schedule(cancelled, 20 * MS); // reusable after leaving the wheel
+        wheel.advance(now + 200 * MS);
+        assertEquals(1, cancelled.expired.get());
+    }
+}
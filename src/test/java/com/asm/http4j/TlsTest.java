@@ -0,0 +1,164 @@
+package com.asm.http4j;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ */
+public class TlsTest {
+
+    private static final char[] PASSWORD = "changeit".toCharArray();
+
+    @TempDir
+    static Path dir;
+
+    private static Path keyStore;
+    private static int port;
+    private static HttpServer server;
+
+    /**
+     * A self-signed certificate for localhost, made with the JDK's keytool.
+     */
+    private static Path selfSignedKeyStore() throws Exception {
+        Path file = dir.resolve("server.p12");
+        Process keytool = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "keytool").toString(),
+                "-genkeypair", "-alias", "server", "-keyalg", "EC", "-groupname", "secp256r1",
+                "-dname", "CN=localhost", "-ext", "SAN=dns:localhost,ip:127.0.0.1", "-validity", "1",
+                "-storetype", "PKCS12", "-keystore", file.toString(), "-storepass", new String(PASSWORD))
+                .redirectErrorStream(true).start();
+        String output = new String(keytool.getInputStream().readAllBytes());
+        assertEquals(0, keytool.waitFor(), output);
+        return file;
+    }
+
+    private static SSLContext clientContext() throws Exception {
+        KeyStore trusted = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(keyStore)) {
+            trusted.load(in, PASSWORD);
+        }
+        TrustManagerFactory trust = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trust.init(trusted);
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(null, trust.getTrustManagers(), null);
+        return context;
+    }
+
+    private static SSLSocket connect(SSLContext context, String... protocols) throws IOException {
+        SSLSocket socket = (SSLSocket) context.getSocketFactory().createSocket("localhost", port);
+        socket.setSoTimeout(5_000);
+        SSLParameters parameters = socket.getSSLParameters();
+        parameters.setApplicationProtocols(new String[]{"h2", "http/1.1"});
+        if (protocols.length > 0) {
+            parameters.setProtocols(protocols);
+        }
+        socket.setSSLParameters(parameters);
+        socket.startHandshake();
+        return socket;
+    }
+
+    /**
+     * Reads one response with a Content-Length body and returns it whole.
+     */
+    private static String readResponse(InputStream in) throws IOException {
+        StringBuilder head = new StringBuilder();
+        while (!head.toString().endsWith("\r\n\r\n")) {
+            int c = in.read();
+            if (c < 0) {
+                throw new IOException("Connection closed after: " + head);
+            }
+            head.append((char) c);
+        }
+        int length = Integer.parseInt(head.toString().replaceAll("(?s).*Content-Length: (\\d+).*", "$1"));
+        return head + new String(in.readNBytes(length), StandardCharsets.US_ASCII);
+    }
+
+    @BeforeAll
+    static void startServer() throws Exception {
+        keyStore = selfSignedKeyStore();
+        Router router = new Router();
+        router.get("/hello", request -> HttpResponse.ok("hello".getBytes(), "text/plain"));
+        router.post("/echo", request -> HttpResponse.ok(request.getBodyBytes(), "text/plain"));
+        server = TestServers.start(new ServerConfig().tls(TlsContext.fromKeyStore(keyStore, PASSWORD)), router);
+        port = server.getPort();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void testAlpnSettlesOnHttp11AndKeepsConnectionAlive() throws Exception {
+        try (SSLSocket socket = connect(clientContext())) {
+            assertEquals("http/1.1", socket.getApplicationProtocol());
+            OutputStream out = socket.getOutputStream();
+            out.write("GET /hello HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            String first = readResponse(socket.getInputStream());
+            assertTrue(first.startsWith("HTTP/1.1 200 OK\r\n"), first);
+            assertTrue(first.endsWith("hello"), first);
+
+            byte[] body = "x".repeat(100_000).getBytes(StandardCharsets.US_ASCII); // several records each way
+            out.write(("POST /echo HTTP/1.1\r\nHost: localhost\r\nContent-Length: " + body.length + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            out.write(body);
+            String second = readResponse(socket.getInputStream());
+            assertTrue(second.endsWith(new String(body, StandardCharsets.US_ASCII)), second.substring(0, 100));
+        }
+    }
+
+    @Test
+    void testHttpClientPreferringHttp2FallsBackToHttp11() throws Exception {
+        HttpClient client = HttpClient.newBuilder().sslContext(clientContext()).version(HttpClient.Version.HTTP_2).build();
+        java.net.http.HttpResponse<String> response = client.send(
+                java.net.http.HttpRequest.newBuilder(URI.create("https://localhost:" + port + "/echo"))
+                        .POST(BodyPublishers.ofString("over tls")).build(), BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        assertEquals(HttpClient.Version.HTTP_1_1, response.version());
+        assertEquals("over tls", response.body());
+    }
+
+    @Test
+    void testSessionIsResumed() throws Exception {
+        SSLContext client = clientContext();
+        byte[] firstId;
+        long created;
+        try (SSLSocket first = connect(client, "TLSv1.2")) {
+            firstId = first.getSession().getId();
+            created = first.getSession().getCreationTime();
+        }
+        try (SSLSocket second = connect(client, "TLSv1.2")) {
+            // A resumed session is the one cached from the first handshake
+            assertEquals(created, second.getSession().getCreationTime());
+            assertArrayEquals(firstId, second.getSession().getId());
+        }
+    }
+
+    @Test
+    void testTlsRequiresBlockingEngine() {
+        ServerConfig config = new ServerConfig().engine(ServerConfig.Engine.NIO).tls(TlsContext.fromKeyStore(keyStore, PASSWORD));
+        assertThrows(IllegalArgumentException.class, () -> new HttpServer(config, new Router()));
+    }
+}
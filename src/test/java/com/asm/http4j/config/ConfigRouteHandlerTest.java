@@ -0,0 +1,60 @@
+package com.asm.http4j.config;
+
+import com.asm.http4j.HttpResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ */
+public class ConfigRouteHandlerTest {
+
+    private static RouteConfig.Response response(String body, String bodyFile) {
+        RouteConfig.Response response = new RouteConfig.Response();
+        response.status = 200;
+        response.contentType = "text/plain";
+        response.body = body;
+        response.bodyFile = bodyFile;
+        response.headers = Map.of("X-Stub", "yes");
+        return response;
+    }
+
+    @Test
+    void testInlineBodyIsBuiltOnce() throws Exception {
+        ConfigRouteHandler handler = new ConfigRouteHandler(response("Hello", null));
+
+        HttpResponse first = handler.handle(null);
+
+        assertSame(first, handler.handle(null));
+        assertArrayEquals("Hello".getBytes(), first.getBody());
+        assertEquals("yes", first.getHeaders().get("X-Stub"));
+        assertNotNull(first.getHeaders().get("ETag"));
+    }
+
+    @Test
+    void testBodyFileIsReloadedWhenItChanges(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("stub.json");
+        Files.writeString(file, "v1");
+        ConfigRouteHandler handler = new ConfigRouteHandler(response(null, file.toString()));
+
+        HttpResponse first = handler.handle(null);
+        assertArrayEquals("v1".getBytes(), first.getBody());
+        assertSame(first, handler.handle(null));
+
+        Files.writeString(file, "v2!");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+        Thread.sleep(1_100);
+
+        HttpResponse second = handler.handle(null);
+        assertArrayEquals("v2!".getBytes(), second.getBody());
+        assertNotEquals(first.getHeaders().get("ETag"), second.getHeaders().get("ETag"));
+    }
+}
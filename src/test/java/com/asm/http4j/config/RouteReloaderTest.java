@@ -0,0 +1,80 @@
+package com.asm.http4j.config;
+
+import com.asm.http4j.Router;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ */
+public class RouteReloaderTest {
+
+    private static String routes(String... paths) {
+        StringBuilder json = new StringBuilder("{\"routes\":[");
+        for (int i = 0; i < paths.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"method\":\"GET\",\"path\":\"").append(paths[i])
+                    .append("\",\"response\":{\"status\":200,\"contentType\":\"text/plain\",\"body\":\"ok\"}}");
+        }
+        return json.append("]}").toString();
+    }
+
+    @Test
+    void testValidFileIsPublished(@TempDir Path dir) throws Exception {
+        Path file = Files.writeString(dir.resolve("routes.json"), routes("/a"));
+        AtomicReference<Router> published = new AtomicReference<>();
+        RouteReloader reloader = new RouteReloader(file.toFile(), published::set);
+
+        Files.writeString(file, routes("/a", "/b"));
+
+        assertTrue(reloader.reloadNow());
+        assertNotNull(published.get().findHandler("GET", "/b"));
+        assertEquals(2, published.get().size());
+        assertEquals(1, reloader.getReloads());
+        assertTrue(reloader.getLastReloadNanos() > 0);
+    }
+
+    @Test
+    void testInvalidFileKeepsPreviousRoutes(@TempDir Path dir) throws Exception {
+        Path file = Files.writeString(dir.resolve("routes.json"), "{\"routes\":[{\"method\":\"GET\",\"path\":\"nope\"}]}");
+        AtomicReference<Router> published = new AtomicReference<>();
+        RouteReloader reloader = new RouteReloader(file.toFile(), published::set);
+
+        assertFalse(reloader.reloadNow());
+        assertNull(published.get());
+        assertEquals(1, reloader.getFailures());
+        assertTrue(reloader.getLastError().contains("path"));
+
+        Files.writeString(file, "{\"routes\":[");
+        assertFalse(reloader.reloadNow());
+        assertEquals(2, reloader.getFailures());
+    }
+
+    @Test
+    void testPollingPicksUpChanges(@TempDir Path dir) throws Exception {
+        Path file = Files.writeString(dir.resolve("routes.json"), routes("/a"));
+        LinkedBlockingQueue<Router> published = new LinkedBlockingQueue<>();
+        try (RouteReloader reloader = new RouteReloader(file.toFile(), published::add, 20, false)) {
+            reloader.start();
+
+            Files.writeString(file, routes("/a", "/b", "/c"));
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+
+            Router router = published.poll(5, TimeUnit.SECONDS);
+            assertNotNull(router);
+            assertEquals(3, router.size());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.asm.http4j.load;
+
+import com.asm.http4j.HttpResponse;
+import com.asm.http4j.HttpServer;
+import com.asm.http4j.Router;
+import com.asm.http4j.ServerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ */
+public class LoadGeneratorTest {
+
+    @TempDir
+    Path dir;
+
+    private int port;
+    private HttpServer server;
+
+    @BeforeEach
+    void start() throws Exception {
+        Files.writeString(dir.resolve("page.html"), "<p>" + "static ".repeat(500) + "</p>");
+        Router router = new Router();
+        router.get("/hello", request -> HttpResponse.ok("hello".getBytes(), "text/plain"));
+        router.post("/echo", request -> HttpResponse.ok(request.getBodyBytes(), "text/plain"));
+        server = new HttpServer(new ServerConfig().port(0).staticRoot(dir.toFile()), router);
+        Thread.ofPlatform().start(server::start);
+        port = server.awaitPort(Duration.ofSeconds(5));
+        assertTrue(port > 0);
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(Duration.ofSeconds(1));
+    }
+
+    private RequestMix mix() throws IOException {
+        Path file = dir.resolve("mix.jsonl");
+        Files.writeString(file, """
+                {"name": "hello", "path": "/hello", "weight": 3}
+                {"name": "echo", "method": "POST", "path": "/echo", "body": "ping"}
+
+                {"name": "static", "path": "/page.html"}
+                """);
+        return RequestMix.load(file, "127.0.0.1:" + port);
+    }
+
+    @Test
+    void testClosedLoopWithPipelining() throws Exception {
+        LoadReport report = new LoadGenerator()
+                .port(port)
+                .mix(mix())
+                .connections(4)
+                .pipeline(8)
+                .warmup(Duration.ofMillis(200))
+                .duration(Duration.ofSeconds(1))
+                .run();
+
+        LoadReport.Stats total = report.getTotal();
+        assertEquals(0, total.getErrors());
+        assertTrue(total.getRequests() > 100, "requests: " + total.getRequests());
+        assertEquals(total.getRequests(), total.getResponses(2));
+        assertEquals(total.getRequests(), total.getLatency().getCount());
+        assertTrue(report.get("hello").getRequests() > report.get("echo").getRequests());
+        assertTrue(report.get("static").getRequests() > 0);
+        assertTrue(report.format().contains("p99.99"));
+    }
+
+    @Test
+    void testOpenLoopHoldsTheRate() throws Exception {
+        LoadReport report = new LoadGenerator()
+                .port(port)
+                .mix(RequestMix.of("/hello", "127.0.0.1:" + port))
+                .connections(2)
+                .rate(200)
+                .warmup(Duration.ofMillis(200))
+                .duration(Duration.ofSeconds(1))
+                .run();
+
+        assertEquals(0, report.getTotal().getErrors());
+        assertEquals(200, report.getThroughput(), 30);
+    }
+
+    @Test
+    void testConnectionPerRequest() throws Exception {
+        LoadReport report = new LoadGenerator()
+                .port(port)
+                .mix(RequestMix.of("/page.html", "127.0.0.1:" + port))
+                .connections(2)
+                .keepAlive(false)
+                .warmup(Duration.ZERO)
+                .duration(Duration.ofMillis(500))
+                .run();
+
+        assertEquals(0, report.getTotal().getErrors());
+        assertTrue(report.getTotal().getResponses(2) > 0);
+    }
+
+    @Test
+    void testOnlyLoopbackTargets() {
+        assertThrows(IllegalArgumentException.class, () -> LoadGenerator.loopback("10.1.2.3", 80));
+        assertTrue(LoadGenerator.loopback("localhost", port).getAddress().isLoopbackAddress());
+    }
+
+    @Test
+    void testMixIsPickedByWeight() throws Exception {
+        RequestMix mix = mix();
+        assertEquals(3, mix.getTemplates().size());
+        RequestMix.Template echo = mix.getTemplates().get(1);
+        String request = new String(echo.keepAlive(), StandardCharsets.US_ASCII);
+        assertTrue(request.startsWith("POST /echo HTTP/1.1\r\n"));
+        assertTrue(request.contains("Content-Length: 4\r\n"));
+        assertTrue(request.endsWith("\r\n\r\nping"));
+        assertTrue(new String(echo.close(), StandardCharsets.US_ASCII).contains("Connection: close\r\n"));
+
+        SplittableRandom random = new SplittableRandom(1);
+        int hello = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (mix.next(random).name().equals("hello")) {
+                hello++;
+            }
+        }
+        assertEquals(6_000, hello, 300);
+    }
+}
@@ -0,0 +1,98 @@
+package com.asm.http4j.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author ashutosh
+ * @since 10/18/26
+ */
+public class ServerMetricsTest {
+
+    @Test
+    void testBucketsCoverEveryValueInOrder() {
+        int previous = -1;
+        for (long value = 0; value < 100_000; value++) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(bucket == previous || bucket == previous + 1, "value " + value);
+            assertTrue(LatencyHistogram.lowestValueIn(bucket) <= value && value <= LatencyHistogram.highestValueIn(bucket));
+            previous = bucket;
+        }
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+        // Every bucket is at most an eighth of its values wide
+        long value = 1_000_000_007L;
+        int bucket = LatencyHistogram.bucketOf(value);
+        long width = LatencyHistogram.highestValueIn(bucket) - LatencyHistogram.lowestValueIn(bucket) + 1;
+        assertTrue(width <= value / LatencyHistogram.SUB_BUCKETS);
+    }
+
+    @Test
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000L); // 1 µs to 1 ms
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMaxNanos());
+        assertEquals(500_000, histogram.percentileNanos(0.5), 500_000 / 8.0);
+        assertEquals(990_000, histogram.percentileNanos(0.99), 990_000 / 8.0);
+        assertEquals(1_000_000, histogram.percentileNanos(1.0));
+        assertEquals(0, new LatencyHistogram().percentileNanos(0.99));
+        // Counts below a power of two are exact
+        assertEquals(1, histogram.countAtOrBelow((1L << 10) - 1));
+        assertEquals(65, histogram.countAtOrBelow((1L << 16) - 1));
+        assertEquals(1000, histogram.countAtOrBelow((1L << 20) - 1));
+    }
+
+    @Test
+    void testPrometheusOutput() {
+        ServerMetrics metrics = new ServerMetrics();
+        metrics.recordLatency("/users/{id}", 50_000);
+        metrics.recordLatency("/users/{id}", 3_000_000);
+        metrics.recordLatency("/say \"hi\"", 1);
+        metrics.recordResponse(200, 120);
+        metrics.recordResponse(404, 80);
+        metrics.recordResponse(200, 100);
+        metrics.recordParseError();
+        metrics.connectionIdle();
+        metrics.counter("widgets_total", "Widgets made", () -> 7);
+
+        String text = metrics.toPrometheus();
+        assertTrue(text.contains("http4j_requests_total{class=\"2xx\"} 2\n"), text);
+        assertTrue(text.contains("http4j_requests_total{class=\"4xx\"} 1\n"));
+        assertTrue(text.contains("http4j_response_bytes_total{class=\"2xx\"} 220\n"));
+        assertTrue(text.contains("http4j_parse_errors_total 1\n"));
+        assertTrue(text.contains("http4j_connections_idle 1\n"));
+        assertTrue(text.contains("# TYPE http4j_request_duration_seconds histogram\n"));
+        // 65.5 µs covers the 50 µs request only; +Inf covers both
+        assertTrue(text.contains("http4j_request_duration_seconds_bucket{route=\"/users/{id}\",le=\"6.5536E-5\"} 1\n"));
+        assertTrue(text.contains("http4j_request_duration_seconds_bucket{route=\"/users/{id}\",le=\"+Inf\"} 2\n"));
+        assertTrue(text.contains("http4j_request_duration_seconds_count{route=\"/users/{id}\"} 2\n"));
+        assertTrue(text.contains("route=\"/say \\\"hi\\\"\""));
+        assertTrue(text.contains("# TYPE http4j_widgets_total counter\nhttp4j_widgets_total 7\n"));
+        assertEquals(3, metrics.getRequests());
+        assertEquals(Map.of("http4j_widgets_total", 7L), metrics.getSamples());
+    }
+
+    @Test
+    void testPublishedOverJmx() throws Exception {
+        ServerMetrics metrics = new ServerMetrics();
+        metrics.recordResponse(503, 10);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("com.asm.http4j:type=Server,port=test");
+        server.registerMBean(metrics, name);
+        try {
+            assertEquals(1L, server.getAttribute(name, "Requests5xx"));
+            assertEquals(10L, server.getAttribute(name, "ResponseBytes"));
+            assertNotNull(server.getAttribute(name, "RouteLatencyP99Millis"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}